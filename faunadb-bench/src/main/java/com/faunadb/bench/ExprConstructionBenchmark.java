@@ -0,0 +1,26 @@
+package com.faunadb.bench;
+
+import com.faunadb.client.query.Expr;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of building a typical query expression with the {@link com.faunadb.client.query.Language} DSL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExprConstructionBenchmark {
+
+  private int seed;
+
+  @Benchmark
+  public Expr createUser() {
+    return Queries.createUser(seed++);
+  }
+
+}
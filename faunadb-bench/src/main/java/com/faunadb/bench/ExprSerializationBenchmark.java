@@ -0,0 +1,91 @@
+package com.faunadb.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.faunadb.client.query.Expr;
+import com.faunadb.client.query.ExprCache;
+import com.faunadb.client.query.ExprModule;
+import com.faunadb.client.query.PreparedQuery;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.faunadb.client.query.Language.Value;
+import static com.faunadb.client.query.PreparedQuery.Param;
+
+/**
+ * Compares the annotation based serialization of query expressions against the {@link ExprModule} serializers,
+ * rebuilding a query on every request against binding a {@link PreparedQuery}, and writing constant
+ * subexpressions with and without an {@link ExprCache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExprSerializationBenchmark {
+
+  private final ObjectMapper annotations = new ObjectMapper();
+  private final ObjectMapper module = new ObjectMapper().registerModule(new ExprModule());
+  private final ObjectWriter memoized = module.writer().withAttribute(ExprCache.class, new ExprCache(1024));
+
+  private Expr query;
+  private PreparedQuery prepared;
+  private int seed;
+
+  @Setup
+  public void setUp() throws IOException {
+    query = Queries.createUser(0);
+    prepared = PreparedQuery.prepare(Queries.createUser(
+      Param("email"), Param("name"), Param("last_login"), Param("birthday"), Param("tag"), Param("score")));
+
+    if (!Arrays.equals(annotations.writeValueAsBytes(query), module.writeValueAsBytes(query)))
+      throw new IllegalStateException("ExprModule output differs from the annotation based output");
+  }
+
+  @Benchmark
+  public byte[] annotations() throws IOException {
+    return annotations.writeValueAsBytes(query);
+  }
+
+  @Benchmark
+  public byte[] exprModule() throws IOException {
+    return module.writeValueAsBytes(query);
+  }
+
+  @Benchmark
+  public byte[] constants() throws IOException {
+    return module.writeValueAsBytes(Queries.userProfile("user@example.com"));
+  }
+
+  @Benchmark
+  public byte[] constantsMemoized() throws IOException {
+    return memoized.writeValueAsBytes(Queries.userProfile("user@example.com"));
+  }
+
+  @Benchmark
+  public byte[] buildAndSerialize() throws IOException {
+    return module.writeValueAsBytes(Queries.createUser(seed++));
+  }
+
+  @Benchmark
+  public byte[] bindPrepared() throws IOException {
+    int seed = this.seed++;
+    Map<String, Expr> arguments = new HashMap<>();
+    arguments.put("email", Value("user" + seed + "@example.com"));
+    arguments.put("name", Value("User " + seed));
+    arguments.put("last_login", Value(Instant.ofEpochSecond(1574870400L + seed)));
+    arguments.put("birthday", Value(LocalDate.ofEpochDay(seed)));
+    arguments.put("tag", Value(seed));
+    arguments.put("score", Value(seed * 1.5));
+    return module.writeValueAsBytes(prepared.bind(arguments));
+  }
+
+}
@@ -0,0 +1,74 @@
+package com.faunadb.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.faunadb.client.types.Field;
+import com.faunadb.client.types.Value;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.faunadb.client.types.Codec.STRING;
+
+/**
+ * Measures extracting nested fields from a parsed document, on paths that exist and on paths that do not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldAccessBenchmark {
+
+  private static final Field<Value> EMAIL = Field.at("data", "email");
+  private static final Field<String> EMAIL_STRING = EMAIL.to(STRING);
+  private static final Field<Value> MISSING = Field.at("data", "missing");
+
+  private static final Field.Compiled<Value> COMPILED_EMAIL = EMAIL.compile();
+  private static final Field.Compiled<String> COMPILED_EMAIL_STRING = EMAIL_STRING.compile();
+  private static final Field.Compiled<Value> COMPILED_MISSING = MISSING.compile();
+
+  private Value document;
+
+  @Setup
+  public void setUp() throws IOException {
+    document = new ObjectMapper().readValue(Fixtures.page(1, 20).getBytes("UTF-8"), Value.class).at("data").at(0);
+  }
+
+  @Benchmark
+  public Value at() {
+    return document.at("data", "email");
+  }
+
+  @Benchmark
+  public Value field() {
+    return document.get(EMAIL);
+  }
+
+  @Benchmark
+  public String fieldString() {
+    return document.get(EMAIL_STRING);
+  }
+
+  @Benchmark
+  public boolean fieldMissing() {
+    return document.getOptional(MISSING).isPresent();
+  }
+
+  @Benchmark
+  public Value compiled() {
+    return COMPILED_EMAIL.getOrNull(document);
+  }
+
+  @Benchmark
+  public String compiledString() {
+    return COMPILED_EMAIL_STRING.getOrNull(document);
+  }
+
+  @Benchmark
+  public Value compiledMissing() {
+    return COMPILED_MISSING.getOrNull(document);
+  }
+
+}
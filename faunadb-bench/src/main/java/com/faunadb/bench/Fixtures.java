@@ -0,0 +1,47 @@
+package com.faunadb.bench;
+
+/**
+ * Sample FaunaDB responses shared by the benchmarks.
+ */
+public final class Fixtures {
+
+  private Fixtures() {
+  }
+
+  /**
+   * Builds the JSON of a page of documents, as returned by {@code Map(Paginate(...), Lambda(x, Get(x)))}.
+   *
+   * @param documents the number of documents in the page
+   * @param fields the number of fields in each document's data
+   * @return the page JSON
+   */
+  public static String page(int documents, int fields) {
+    StringBuilder sb = new StringBuilder("{\"data\":[");
+
+    for (int i = 0; i < documents; i++) {
+      if (i > 0) sb.append(',');
+
+      sb.append("{\"ref\":{\"@ref\":{\"id\":\"").append(250000000000000000L + i)
+        .append("\",\"collection\":{\"@ref\":{\"id\":\"users\",\"collection\":{\"@ref\":{\"id\":\"collections\"}}}}}},")
+        .append("\"ts\":").append(1574870400000000L + i).append(',')
+        .append("\"data\":{");
+
+      for (int f = 0; f < fields; f++) {
+        if (f > 0) sb.append(',');
+
+        sb.append("\"field").append(f).append("\":");
+        switch (f % 5) {
+          case 0: sb.append('"').append("value ").append(i).append('-').append(f).append('"'); break;
+          case 1: sb.append(i * f); break;
+          case 2: sb.append(i * 1.5 + f); break;
+          case 3: sb.append("{\"@ts\":\"2019-11-27T16:00:00.").append(100000 + i).append("Z\"}"); break;
+          default: sb.append("[1,2,3,\"").append(f).append("\"]"); break;
+        }
+      }
+
+      sb.append(",\"email\":\"user").append(i).append("@example.com\"}}");
+    }
+
+    return sb.append("]}").toString();
+  }
+}
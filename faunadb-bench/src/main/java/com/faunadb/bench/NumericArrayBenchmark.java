@@ -0,0 +1,81 @@
+package com.faunadb.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.faunadb.client.types.BinaryCodec;
+import com.faunadb.client.types.Value;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing arrays of numbers, such as time series or embeddings stored in documents,
+ * and decoding them into primitive arrays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumericArrayBenchmark {
+
+  @Param({"1000"})
+  int size;
+
+  private final ObjectMapper json = new ObjectMapper();
+
+  private byte[] longsJson;
+  private byte[] doublesJson;
+  private byte[] longsBinary;
+  private Value longs;
+  private Value doubles;
+
+  @Setup
+  public void setUp() throws IOException {
+    long[] longValues = new long[size];
+    double[] doubleValues = new double[size];
+
+    for (int i = 0; i < size; i++) {
+      longValues[i] = i * 1000L;
+      doubleValues[i] = i * 0.25;
+    }
+
+    longsJson = json.writeValueAsBytes(longValues);
+    doublesJson = json.writeValueAsBytes(doubleValues);
+    longs = json.readValue(longsJson, Value.class);
+    doubles = json.readValue(doublesJson, Value.class);
+    longsBinary = BinaryCodec.toBytes(longs);
+  }
+
+  @Benchmark
+  public Value parseLongs() throws IOException {
+    return json.readValue(longsJson, Value.class);
+  }
+
+  @Benchmark
+  public Value parseDoubles() throws IOException {
+    return json.readValue(doublesJson, Value.class);
+  }
+
+  @Benchmark
+  public Value readBinaryLongs() {
+    return BinaryCodec.fromBytes(longsBinary);
+  }
+
+  @Benchmark
+  public long[] decodeLongs() {
+    return longs.to(long[].class).get();
+  }
+
+  @Benchmark
+  public int[] decodeInts() {
+    return longs.to(int[].class).get();
+  }
+
+  @Benchmark
+  public double[] decodeDoubles() {
+    return doubles.to(double[].class).get();
+  }
+
+}
@@ -0,0 +1,66 @@
+package com.faunadb.bench;
+
+import com.faunadb.client.types.Decoder;
+import com.faunadb.client.types.Encoder;
+import com.faunadb.client.types.Parallelism;
+import com.faunadb.client.types.Types;
+import com.faunadb.client.types.Value;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding a large page of 20 field POJOs on the calling thread against decoding it in a pool of
+ * {@code threads} workers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelDecodeBenchmark {
+
+  @Param({"10000"})
+  int size;
+
+  @Param({"4"})
+  int threads;
+
+  private ForkJoinPool pool;
+  private Parallelism parallelism;
+  private Value page;
+
+  @Setup
+  public void setUp() {
+    pool = new ForkJoinPool(threads);
+    parallelism = Parallelism.of(pool, 1000);
+
+    List<PojoCodecBenchmark.FieldUser> users = new ArrayList<>(size);
+
+    for (int i = 0; i < size; i++)
+      users.add(PojoCodecBenchmark.FieldUser.sample());
+
+    page = Encoder.encode(users).get();
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public Collection<PojoCodecBenchmark.FieldUser> decode() {
+    return Decoder.<Collection<PojoCodecBenchmark.FieldUser>>decode(page, Types.arrayListOf(PojoCodecBenchmark.FieldUser.class)).get();
+  }
+
+  @Benchmark
+  public Collection<PojoCodecBenchmark.FieldUser> decodeParallel() {
+    return Decoder.<Collection<PojoCodecBenchmark.FieldUser>>decode(page, Types.arrayListOf(PojoCodecBenchmark.FieldUser.class), parallelism).get();
+  }
+
+}
@@ -0,0 +1,221 @@
+package com.faunadb.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.faunadb.client.query.Expr;
+import com.faunadb.client.query.ExprModule;
+import com.faunadb.client.types.Decoder;
+import com.faunadb.client.types.Encoder;
+import com.faunadb.client.types.FaunaConstructor;
+import com.faunadb.client.types.FaunaField;
+import com.faunadb.client.types.Value;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.faunadb.client.query.Language.Collection;
+import static com.faunadb.client.query.Language.Create;
+import static com.faunadb.client.query.Language.Obj;
+import static com.faunadb.client.query.Language.Value;
+
+/**
+ * Measures the reflective encoding and decoding of 20 field POJOs, through annotated fields,
+ * bean accessors and an annotated constructor, and the serialization of a {@code Create} of a
+ * 100 POJO document through an encoded {@link Value} tree against streaming it to JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PojoCodecBenchmark {
+
+  public static class FieldUser {
+    @FaunaField private String name;
+    @FaunaField private String email;
+    @FaunaField private String country;
+    @FaunaField private String city;
+    @FaunaField private String street;
+    @FaunaField private long id;
+    @FaunaField private long logins;
+    @FaunaField private int age;
+    @FaunaField private int level;
+    @FaunaField private double score;
+    @FaunaField private double balance;
+    @FaunaField private boolean active;
+    @FaunaField private boolean verified;
+    @FaunaField private Instant createdAt;
+    @FaunaField private Instant updatedAt;
+    @FaunaField private LocalDate birthday;
+    @FaunaField private List<String> tags;
+    @FaunaField private List<Long> friends;
+    @FaunaField private Map<String, String> attributes;
+    @FaunaField private Map<String, Long> counters;
+
+    static FieldUser sample() {
+      FieldUser user = new FieldUser();
+      user.name = "John";
+      user.email = "john@example.com";
+      user.country = "Narnia";
+      user.city = "Cair Paravel";
+      user.street = "Main St.";
+      user.id = 250000000000000000L;
+      user.logins = 42;
+      user.age = 33;
+      user.level = 7;
+      user.score = 99.5;
+      user.balance = 1024.25;
+      user.active = true;
+      user.verified = false;
+      user.createdAt = Instant.ofEpochSecond(1574870400L);
+      user.updatedAt = Instant.ofEpochSecond(1574870500L);
+      user.birthday = LocalDate.ofEpochDay(5000);
+      user.tags = Arrays.asList("new", "web", "beta");
+      user.friends = Arrays.asList(1L, 2L, 3L, 4L);
+      user.attributes = Collections.singletonMap("theme", "dark");
+      user.counters = Collections.singletonMap("posts", 12L);
+      return user;
+    }
+  }
+
+  public static class BeanUser {
+    private String name, email, country, city, street;
+    private long id, logins;
+    private int age, level;
+    private double score, balance;
+    private boolean active, verified;
+    private Instant createdAt, updatedAt;
+    private LocalDate birthday;
+    private List<String> tags;
+    private List<Long> friends;
+    private Map<String, String> attributes;
+    private Map<String, Long> counters;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    public String getCountry() { return country; }
+    public void setCountry(String country) { this.country = country; }
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+    public String getStreet() { return street; }
+    public void setStreet(String street) { this.street = street; }
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+    public long getLogins() { return logins; }
+    public void setLogins(long logins) { this.logins = logins; }
+    public int getAge() { return age; }
+    public void setAge(int age) { this.age = age; }
+    public int getLevel() { return level; }
+    public void setLevel(int level) { this.level = level; }
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+    public double getBalance() { return balance; }
+    public void setBalance(double balance) { this.balance = balance; }
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+    public boolean isVerified() { return verified; }
+    public void setVerified(boolean verified) { this.verified = verified; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+    public LocalDate getBirthday() { return birthday; }
+    public void setBirthday(LocalDate birthday) { this.birthday = birthday; }
+    public List<String> getTags() { return tags; }
+    public void setTags(List<String> tags) { this.tags = tags; }
+    public List<Long> getFriends() { return friends; }
+    public void setFriends(List<Long> friends) { this.friends = friends; }
+    public Map<String, String> getAttributes() { return attributes; }
+    public void setAttributes(Map<String, String> attributes) { this.attributes = attributes; }
+    public Map<String, Long> getCounters() { return counters; }
+    public void setCounters(Map<String, Long> counters) { this.counters = counters; }
+  }
+
+  public static class ImmutableUser {
+    private final String name, email;
+    private final long id;
+    private final int age;
+    private final double score;
+    private final boolean active;
+    private final Instant createdAt;
+    private final List<String> tags;
+
+    @FaunaConstructor
+    public ImmutableUser(@FaunaField("name") String name, @FaunaField("email") String email, @FaunaField("id") long id,
+                         @FaunaField("age") int age, @FaunaField("score") double score, @FaunaField("active") boolean active,
+                         @FaunaField("createdAt") Instant createdAt, @FaunaField("tags") List<String> tags) {
+      this.name = name;
+      this.email = email;
+      this.id = id;
+      this.age = age;
+      this.score = score;
+      this.active = active;
+      this.createdAt = createdAt;
+      this.tags = tags;
+    }
+  }
+
+  private final ObjectMapper json = new ObjectMapper().registerModule(new ExprModule());
+
+  private FieldUser fieldUser;
+  private BeanUser beanUser;
+  private Value encoded;
+  private Map<String, List<FieldUser>> document;
+
+  @Setup
+  public void setUp() throws IOException {
+    fieldUser = FieldUser.sample();
+    encoded = Encoder.encode(fieldUser).get();
+    beanUser = Decoder.decode(encoded, BeanUser.class).get();
+    document = Collections.singletonMap("users", Collections.nCopies(100, fieldUser));
+
+    if (!Arrays.equals(createTree(), createStreaming()))
+      throw new IllegalStateException("Streamed output differs from the encoded tree");
+  }
+
+  @Benchmark
+  public Value encodeFields() {
+    return Encoder.encode(fieldUser).get();
+  }
+
+  @Benchmark
+  public Value encodeBean() {
+    return Encoder.encode(beanUser).get();
+  }
+
+  @Benchmark
+  public FieldUser decodeFields() {
+    return Decoder.decode(encoded, FieldUser.class).get();
+  }
+
+  @Benchmark
+  public BeanUser decodeBean() {
+    return Decoder.decode(encoded, BeanUser.class).get();
+  }
+
+  @Benchmark
+  public ImmutableUser decodeConstructor() {
+    return Decoder.decode(encoded, ImmutableUser.class).get();
+  }
+
+  @Benchmark
+  public byte[] createTree() throws IOException {
+    Expr data = Encoder.encode(document).get();
+    return json.writeValueAsBytes(Create(Collection("users"), Obj("data", data)));
+  }
+
+  @Benchmark
+  public byte[] createStreaming() throws IOException {
+    return json.writeValueAsBytes(Create(Collection("users"), Obj("data", Value(document))));
+  }
+
+}
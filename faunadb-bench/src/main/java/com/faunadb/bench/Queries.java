@@ -0,0 +1,78 @@
+package com.faunadb.bench;
+
+import com.faunadb.client.query.Expr;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static com.faunadb.client.query.Language.*;
+
+/**
+ * Sample query expressions shared by the benchmarks.
+ */
+public final class Queries {
+
+  private static final Expr USERS_BY_EMAIL = Index("users_by_email");
+
+  private static final Expr PROFILE = Lambda("ref", Let(
+    "user", Get(Var("ref")),
+    "posts", Count(Match(Index("posts_by_author"), Var("ref")))
+  ).in(Obj(
+    "name", Select(Arr(Value("data"), Value("name")), Var("user")),
+    "email", Select(Arr(Value("data"), Value("email")), Var("user")),
+    "since", ToDate(Epoch(Select(Value("ts"), Var("user")), Value("microseconds"))),
+    "posts", Var("posts"),
+    "active", GT(Var("posts"), Value(0))
+  )));
+
+  private Queries() {
+  }
+
+  /**
+   * Builds a read query made mostly of constant subexpressions, held in static fields.
+   *
+   * @param email the email to look up
+   * @return the query expression
+   */
+  public static Expr userProfile(String email) {
+    return Map(Paginate(Match(USERS_BY_EMAIL, Value(email))), PROFILE);
+  }
+
+  /**
+   * Builds a typical write query: looks up a user by email and either updates or creates it.
+   *
+   * @param seed a value mixed into the query parameters
+   * @return the query expression
+   */
+  public static Expr createUser(int seed) {
+    return createUser(
+      Value("user" + seed + "@example.com"),
+      Value("User " + seed),
+      Value(Instant.ofEpochSecond(1574870400L + seed)),
+      Value(LocalDate.ofEpochDay(seed)),
+      Value(seed),
+      Value(seed * 1.5));
+  }
+
+  /**
+   * Builds the query of {@link #createUser(int)} from the parameter expressions provided.
+   *
+   * @return the query expression
+   */
+  public static Expr createUser(Expr email, Expr name, Expr lastLogin, Expr birthday, Expr tag, Expr score) {
+    return If(
+      Exists(Match(Index("users_by_email"), email)),
+      Update(
+        Select(Arr(Value("ref")), Get(Match(Index("users_by_email"), email))),
+        Obj("data", Obj(
+          "last_login", lastLogin,
+          "logins", Add(Value(1), Select(Arr(Value("data"), Value("logins")), Var("user"), Value(0)))))),
+      Create(Collection("users"), Obj("data", Obj(
+        "email", email,
+        "name", name,
+        "birthday", birthday,
+        "tags", Arr(Value("new"), Value("web"), tag),
+        "score", score))));
+  }
+
+}
@@ -0,0 +1,77 @@
+package com.faunadb.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.faunadb.client.types.Value;
+import com.faunadb.common.time.Iso8601;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing and formatting FaunaDB timestamps and dates by hand against the JDK formatters,
+ * and reading a document holding timestamps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimestampBenchmark {
+
+  private static final String TIMESTAMP = "2019-11-27T16:00:00.123456Z";
+  private static final String DATE = "2019-11-27";
+
+  private final ObjectMapper json = new ObjectMapper();
+
+  private Instant instant;
+  private LocalDate date;
+  private byte[] document;
+
+  @Setup
+  public void setUp() throws IOException {
+    instant = Instant.parse(TIMESTAMP);
+    date = LocalDate.parse(DATE);
+    document = Fixtures.page(1, 20).getBytes("UTF-8");
+  }
+
+  @Benchmark
+  public Instant parseInstant() {
+    return Iso8601.parseInstant(TIMESTAMP);
+  }
+
+  @Benchmark
+  public Instant parseInstantJdk() {
+    return Instant.from(DateTimeFormatter.ISO_OFFSET_DATE_TIME.parse(TIMESTAMP));
+  }
+
+  @Benchmark
+  public String formatInstant() {
+    return Iso8601.format(instant);
+  }
+
+  @Benchmark
+  public String formatInstantJdk() {
+    return instant.toString();
+  }
+
+  @Benchmark
+  public LocalDate parseDate() {
+    return Iso8601.parseDate(DATE);
+  }
+
+  @Benchmark
+  public LocalDate parseDateJdk() {
+    return LocalDate.parse(DATE);
+  }
+
+  @Benchmark
+  public Value readDocument() throws IOException {
+    return json.readValue(document, Value.class);
+  }
+
+}
@@ -0,0 +1,61 @@
+package com.faunadb.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.faunadb.client.types.BinaryCodec;
+import com.faunadb.client.types.Value;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compact binary format against the FaunaDB wire JSON for caching a page of documents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueBinaryBenchmark {
+
+  @Param({"100"})
+  int documents;
+
+  @Param({"20"})
+  int fields;
+
+  private final ObjectMapper json = new ObjectMapper();
+
+  private Value page;
+  private byte[] pageJson;
+  private byte[] pageBinary;
+
+  @Setup
+  public void setUp() throws IOException {
+    page = json.readValue(Fixtures.page(documents, fields), Value.class);
+    pageJson = json.writeValueAsBytes(page);
+    pageBinary = BinaryCodec.toBytes(page);
+  }
+
+  @Benchmark
+  public byte[] encodeJson() throws IOException {
+    return json.writeValueAsBytes(page);
+  }
+
+  @Benchmark
+  public byte[] encodeBinary() {
+    return BinaryCodec.toBytes(page);
+  }
+
+  @Benchmark
+  public Value decodeJson() throws IOException {
+    return json.readValue(pageJson, Value.class);
+  }
+
+  @Benchmark
+  public Value decodeBinary() {
+    return BinaryCodec.fromBytes(pageBinary);
+  }
+
+}
@@ -0,0 +1,47 @@
+package faunadb.bench
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.module.scala.DefaultScalaModule
+import com.faunadb.bench.Fixtures
+import faunadb.values.{ BinaryCodec, Value }
+import java.util.concurrent.TimeUnit
+import org.openjdk.jmh.annotations._
+
+/**
+  * Compares the compact binary format against the FaunaDB wire JSON for caching a page of documents
+  * with the Scala value model.
+  */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+class ScalaValueBinaryBenchmark {
+
+  private[this] val json = new ObjectMapper
+  json.registerModule(new DefaultScalaModule)
+
+  private[this] var page: Value = _
+  private[this] var pageJson: Array[Byte] = _
+  private[this] var pageBinary: Array[Byte] = _
+
+  @Setup
+  def setUp(): Unit = {
+    page = json.readValue(Fixtures.page(100, 20), classOf[Value])
+    pageJson = json.writeValueAsBytes(page)
+    pageBinary = BinaryCodec.toBytes(page)
+  }
+
+  @Benchmark
+  def encodeJson(): Array[Byte] = json.writeValueAsBytes(page)
+
+  @Benchmark
+  def encodeBinary(): Array[Byte] = BinaryCodec.toBytes(page)
+
+  @Benchmark
+  def decodeJson(): Value = json.readValue(pageJson, classOf[Value])
+
+  @Benchmark
+  def decodeBinary(): Value = BinaryCodec.fromBytes(pageBinary)
+}
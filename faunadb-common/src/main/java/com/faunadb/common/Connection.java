@@ -339,6 +339,21 @@ public final class Connection implements AutoCloseable {
     return performRequest(request, queryTimeout);
   }
 
+  /**
+   * Issues a {@code POST} request with the provided, already serialized, JSON request body.
+   * The {@link Connection} takes ownership of the body buffer and releases it once the request completes.
+   *
+   * @param path the relative path of the resource.
+   * @param body the buffer containing the serialized JSON request body.
+   * @param queryTimeout the query timeout for the current request.
+   * @return a {@link CompletableFuture} containing the HTTP response.
+   * @throws IOException if the HTTP request cannot be issued.
+   */
+  public CompletableFuture<FullHttpResponse> post(String path, ByteBuf body, Optional<Duration> queryTimeout) throws IOException {
+    FullHttpRequest request = newRequest(HttpMethod.POST, path, body);
+    return performRequest(request, queryTimeout);
+  }
+
   /**
    * Issues a {@code PUT} request with the provided JSON request body.
    *
@@ -395,6 +410,22 @@ public final class Connection implements AutoCloseable {
     return request;
   }
 
+  private FullHttpRequest newRequest(HttpMethod method, String path, ByteBuf body) throws IOException {
+    FullHttpRequest request;
+
+    try {
+      request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, mkUrl(path), body);
+    } catch (IOException ex) {
+      body.release();
+      throw ex;
+    }
+
+    request.headers().set(HttpHeaderNames.CONTENT_LENGTH, body.readableBytes());
+    request.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json; charset=utf-8");
+
+    return request;
+  }
+
   private CompletableFuture<FullHttpResponse> performRequest(final FullHttpRequest request, final Optional<Duration> requestQueryTimeout) {
     final Timer.Context ctx = registry.timer("fauna-request").time();
     final CompletableFuture<FullHttpResponse> rv = new CompletableFuture<>();
@@ -0,0 +1,56 @@
+package com.faunadb.common.binary;
+
+/**
+ * Constants of the compact binary value format shared by the Java and Scala drivers.
+ *
+ * <p>A message starts with the {@link #MAGIC} byte and the format {@link #VERSION}, followed by a
+ * single tagged value. Each value starts with a one byte tag:</p>
+ *
+ * <ul>
+ *   <li>{@link #NULL}, {@link #TRUE}, {@link #FALSE}: no payload</li>
+ *   <li>{@link #LONG}: zig-zag varint</li>
+ *   <li>{@link #DOUBLE}: 8 bytes IEEE 754</li>
+ *   <li>{@link #STRING}: varint length and UTF-8 bytes</li>
+ *   <li>{@link #BYTES}: varint length and raw bytes</li>
+ *   <li>{@link #TIME}: zig-zag varint epoch seconds and varint nanoseconds</li>
+ *   <li>{@link #DATE}: zig-zag varint epoch day</li>
+ *   <li>{@link #REF}: string id, a flags byte and the collection and database refs flagged as present</li>
+ *   <li>{@link #SET}: the set parameters as a tagged object</li>
+ *   <li>{@link #QUERY}: the lambda as a tagged object</li>
+ *   <li>{@link #ARRAY}: varint size followed by tagged values</li>
+ *   <li>{@link #OBJECT}: varint size followed by key and tagged value pairs</li>
+ * </ul>
+ *
+ * <p>Messages are not compatible with the FaunaDB wire protocol and must only be used to cache or
+ * exchange values between processes running the drivers.</p>
+ *
+ * @see BinaryWriter
+ * @see BinaryReader
+ */
+public final class BinaryFormat {
+
+  private BinaryFormat() {
+  }
+
+  public static final int MAGIC = 0xFD;
+  public static final int VERSION = 1;
+
+  public static final int NULL = 0;
+  public static final int TRUE = 1;
+  public static final int FALSE = 2;
+  public static final int LONG = 3;
+  public static final int DOUBLE = 4;
+  public static final int STRING = 5;
+  public static final int BYTES = 6;
+  public static final int TIME = 7;
+  public static final int DATE = 8;
+  public static final int REF = 9;
+  public static final int SET = 10;
+  public static final int QUERY = 11;
+  public static final int ARRAY = 12;
+  public static final int OBJECT = 13;
+
+  public static final int REF_HAS_COLLECTION = 0x1;
+  public static final int REF_HAS_DATABASE = 0x2;
+
+}
@@ -0,0 +1,259 @@
+package com.faunadb.common.binary;
+
+import io.netty.buffer.ByteBuf;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.netty.util.CharsetUtil.UTF_8;
+import static java.lang.String.format;
+
+/**
+ * Reads the primitives of the compact binary value format from a {@link ByteBuf} or a {@link ByteBuffer}.
+ * Reading advances the reader index of the underlying buffer, so consecutive messages can be read
+ * from the same buffer.
+ *
+ * <p>A {@link BinaryReader} instance holds the key table of a single message and must not be shared
+ * across threads.</p>
+ *
+ * @see BinaryWriter
+ * @see BinaryFormat
+ */
+public abstract class BinaryReader {
+
+  /**
+   * Creates a reader that consumes the readable bytes of the {@link ByteBuf} provided.
+   *
+   * @param in the source buffer
+   * @return a new {@link BinaryReader}
+   */
+  public static BinaryReader of(ByteBuf in) {
+    return new ByteBufReader(in);
+  }
+
+  /**
+   * Creates a reader that consumes the remaining bytes of the {@link ByteBuffer} provided.
+   *
+   * @param in the source buffer
+   * @return a new {@link BinaryReader}
+   */
+  public static BinaryReader of(ByteBuffer in) {
+    return new ByteBufferReader(in);
+  }
+
+  private static final class ByteBufReader extends BinaryReader {
+    private final ByteBuf in;
+
+    private ByteBufReader(ByteBuf in) {
+      this.in = in;
+    }
+
+    @Override
+    public int readByte() {
+      try {
+        return in.readUnsignedByte();
+      } catch (IndexOutOfBoundsException ex) {
+        throw truncated(ex);
+      }
+    }
+
+    @Override
+    protected byte[] readRaw(int length) {
+      byte[] bytes = new byte[length];
+      in.readBytes(bytes);
+      return bytes;
+    }
+
+    @Override
+    public double readDouble() {
+      try {
+        return in.readDouble();
+      } catch (IndexOutOfBoundsException ex) {
+        throw truncated(ex);
+      }
+    }
+
+    @Override
+    protected int remaining() {
+      return in.readableBytes();
+    }
+
+    @Override
+    public String readString() {
+      int length = readLength();
+      String rv = in.toString(in.readerIndex(), length, UTF_8);
+      in.skipBytes(length);
+      return rv;
+    }
+  }
+
+  private static final class ByteBufferReader extends BinaryReader {
+    private final ByteBuffer in;
+
+    private ByteBufferReader(ByteBuffer in) {
+      this.in = in;
+    }
+
+    @Override
+    public int readByte() {
+      try {
+        return in.get() & 0xFF;
+      } catch (BufferUnderflowException ex) {
+        throw truncated(ex);
+      }
+    }
+
+    @Override
+    protected byte[] readRaw(int length) {
+      byte[] bytes = new byte[length];
+      in.get(bytes);
+      return bytes;
+    }
+
+    @Override
+    public double readDouble() {
+      try {
+        return in.getDouble();
+      } catch (BufferUnderflowException ex) {
+        throw truncated(ex);
+      }
+    }
+
+    @Override
+    protected int remaining() {
+      return in.remaining();
+    }
+  }
+
+  private final List<String> keys = new ArrayList<>();
+
+  private BinaryReader() {
+  }
+
+  /**
+   * Reads a single unsigned byte.
+   *
+   * @return the byte read, between 0 and 255
+   * @throws IllegalArgumentException if there are no bytes left to read
+   */
+  public abstract int readByte();
+
+  // Reads exactly the number of bytes provided, which readLength() already checked are available
+  protected abstract byte[] readRaw(int length);
+
+  // The number of bytes left to read
+  protected abstract int remaining();
+
+  /**
+   * Reads a double from its 8 bytes IEEE 754 big-endian representation.
+   *
+   * @return the double read
+   * @throws IllegalArgumentException if there are less than 8 bytes left to read
+   */
+  public abstract double readDouble();
+
+  /**
+   * Reads and validates the message header.
+   *
+   * @throws IllegalArgumentException if the header does not belong to a supported version of the format
+   */
+  public void readHeader() {
+    int magic = readByte();
+    if (magic != BinaryFormat.MAGIC)
+      throw new IllegalArgumentException(format("Invalid binary value header: 0x%02x", magic));
+
+    int version = readByte();
+    if (version != BinaryFormat.VERSION)
+      throw new IllegalArgumentException(format("Unsupported binary value format version: %d", version));
+  }
+
+  /**
+   * Reads an unsigned LEB128 varint.
+   *
+   * @return the value read
+   */
+  public long readVarLong() {
+    long value = 0;
+
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = readByte();
+      value |= (long) (b & 0x7F) << shift;
+
+      if ((b & 0x80) == 0)
+        return value;
+    }
+
+    throw new IllegalArgumentException("Malformed varint");
+  }
+
+  /**
+   * Reads a zig-zag encoded varint.
+   *
+   * @return the signed value read
+   */
+  public long readSignedVarLong() {
+    long raw = readVarLong();
+    return (raw >>> 1) ^ -(raw & 1);
+  }
+
+  /**
+   * Reads a length-prefixed UTF-8 string.
+   *
+   * @return the string read
+   */
+  public String readString() {
+    return new String(readRaw(readLength()), UTF_8);
+  }
+
+  /**
+   * Reads a length-prefixed byte array.
+   *
+   * @return the bytes read
+   */
+  public byte[] readBytes() {
+    return readRaw(readLength());
+  }
+
+  /**
+   * Reads an object key. Repeated keys resolve to the same {@link String} instance.
+   *
+   * @return the key read
+   */
+  public String readKey() {
+    long ref = readVarLong();
+
+    if (ref == 0) {
+      String key = readString();
+      keys.add(key);
+      return key;
+    }
+
+    if (ref < 0 || ref > keys.size())
+      throw new IllegalArgumentException(format("Unknown key reference: %d", ref));
+
+    return keys.get((int) ref - 1);
+  }
+
+  /**
+   * Reads a collection size or a byte length. As every byte and every element takes at least one byte, lengths
+   * greater than the number of bytes left to read are rejected before anything is allocated for them.
+   *
+   * @return the length read
+   * @throws IllegalArgumentException if the length is negative or greater than the number of bytes left to read
+   */
+  public int readLength() {
+    long length = readVarLong();
+
+    if (length < 0 || length > remaining())
+      throw new IllegalArgumentException(format("Invalid length: %d", length));
+
+    return (int) length;
+  }
+
+  private static IllegalArgumentException truncated(RuntimeException cause) {
+    return new IllegalArgumentException("Truncated binary value", cause);
+  }
+
+}
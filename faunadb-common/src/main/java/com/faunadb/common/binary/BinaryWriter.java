@@ -0,0 +1,190 @@
+package com.faunadb.common.binary;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.netty.util.CharsetUtil.UTF_8;
+
+/**
+ * Writes the primitives of the compact binary value format to a {@link ByteBuf} or a {@link ByteBuffer}.
+ *
+ * <p>Integers are written as unsigned LEB128 varints, signed integers are zig-zag encoded first.
+ * Strings and byte arrays are written as a varint length followed by their raw bytes.
+ * Object keys are interned per message: the first occurrence of a key is written in full, and
+ * later occurrences are written as a reference to it.</p>
+ *
+ * <p>A {@link BinaryWriter} instance holds the key table of a single message and must not be shared
+ * across threads.</p>
+ *
+ * @see BinaryReader
+ * @see BinaryFormat
+ */
+public abstract class BinaryWriter {
+
+  /**
+   * Creates a writer that appends to the {@link ByteBuf} provided, growing it as needed.
+   *
+   * @param out the destination buffer
+   * @return a new {@link BinaryWriter}
+   */
+  public static BinaryWriter of(ByteBuf out) {
+    return new ByteBufWriter(out);
+  }
+
+  /**
+   * Creates a writer that writes at the current position of the {@link ByteBuffer} provided.
+   * A {@link java.nio.BufferOverflowException} is thrown if the buffer has no room left.
+   *
+   * @param out the destination buffer
+   * @return a new {@link BinaryWriter}
+   */
+  public static BinaryWriter of(ByteBuffer out) {
+    return new ByteBufferWriter(out);
+  }
+
+  private static final class ByteBufWriter extends BinaryWriter {
+    private final ByteBuf out;
+
+    private ByteBufWriter(ByteBuf out) {
+      this.out = out;
+    }
+
+    @Override
+    public void writeByte(int b) {
+      out.writeByte(b);
+    }
+
+    @Override
+    protected void writeRaw(byte[] bytes) {
+      out.writeBytes(bytes);
+    }
+
+    @Override
+    public void writeDouble(double value) {
+      out.writeDouble(value);
+    }
+
+    @Override
+    public void writeString(String value) {
+      writeVarLong(ByteBufUtil.utf8Bytes(value));
+      ByteBufUtil.writeUtf8(out, value);
+    }
+  }
+
+  private static final class ByteBufferWriter extends BinaryWriter {
+    private final ByteBuffer out;
+
+    private ByteBufferWriter(ByteBuffer out) {
+      this.out = out;
+    }
+
+    @Override
+    public void writeByte(int b) {
+      out.put((byte) b);
+    }
+
+    @Override
+    protected void writeRaw(byte[] bytes) {
+      out.put(bytes);
+    }
+
+    @Override
+    public void writeDouble(double value) {
+      out.putDouble(value);
+    }
+  }
+
+  private final Map<String, Integer> keys = new HashMap<>();
+
+  private BinaryWriter() {
+  }
+
+  /**
+   * Writes a single byte.
+   *
+   * @param b the byte to write, only the lower 8 bits are used
+   */
+  public abstract void writeByte(int b);
+
+  protected abstract void writeRaw(byte[] bytes);
+
+  /**
+   * Writes a double as its 8 bytes IEEE 754 big-endian representation.
+   *
+   * @param value the value to write
+   */
+  public abstract void writeDouble(double value);
+
+  /**
+   * Writes the message header: the format's magic byte followed by its version.
+   */
+  public void writeHeader() {
+    writeByte(BinaryFormat.MAGIC);
+    writeByte(BinaryFormat.VERSION);
+  }
+
+  /**
+   * Writes an unsigned LEB128 varint.
+   *
+   * @param value the value to write, interpreted as unsigned
+   */
+  public void writeVarLong(long value) {
+    while ((value & ~0x7FL) != 0) {
+      writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+
+    writeByte((int) value);
+  }
+
+  /**
+   * Writes a signed integer as a zig-zag encoded varint.
+   *
+   * @param value the value to write
+   */
+  public void writeSignedVarLong(long value) {
+    writeVarLong((value << 1) ^ (value >> 63));
+  }
+
+  /**
+   * Writes a length-prefixed UTF-8 string.
+   *
+   * @param value the string to write
+   */
+  public void writeString(String value) {
+    writeBytes(value.getBytes(UTF_8));
+  }
+
+  /**
+   * Writes a length-prefixed byte array.
+   *
+   * @param bytes the bytes to write
+   */
+  public void writeBytes(byte[] bytes) {
+    writeVarLong(bytes.length);
+    writeRaw(bytes);
+  }
+
+  /**
+   * Writes an object key. Keys already written by this writer are replaced by a reference to
+   * their first occurrence.
+   *
+   * @param key the key to write
+   */
+  public void writeKey(String key) {
+    Integer index = keys.get(key);
+
+    if (index != null) {
+      writeVarLong(index + 1);
+    } else {
+      keys.put(key, keys.size());
+      writeVarLong(0);
+      writeString(key);
+    }
+  }
+
+}
@@ -0,0 +1,266 @@
+package com.faunadb.common.time;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Parses and formats the timestamps and dates of FaunaDB values, shared by the Java and Scala drivers.
+ *
+ * <p>FaunaDB writes timestamps as {@code yyyy-MM-ddTHH:mm:ss[.fffffffff]Z} and dates as {@code yyyy-MM-dd}.
+ * These are parsed and formatted by hand, without going through a {@link DateTimeFormatter}. Any other text is
+ * handed over to {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME} and {@link LocalDate#parse(CharSequence)}, so
+ * the values accepted, and the exceptions thrown, are the same as theirs.</p>
+ *
+ * <p>Formatting produces the same text as {@link Instant#toString()} and {@link LocalDate#toString()}.</p>
+ */
+public final class Iso8601 {
+
+  private Iso8601() {
+  }
+
+  private static final int SECONDS_PER_DAY = 86400;
+  private static final long DAYS_0000_TO_1970 = 719528L;
+  private static final long DAYS_PER_CYCLE = 146097L;
+
+  // 0000-01-01T00:00:00Z and 9999-12-31T23:59:59Z, the range of four digit years
+  private static final long MIN_SECOND = -62167219200L;
+  private static final long MAX_SECOND = 253402300799L;
+
+  private static final int[] NANOS_SCALE = {
+    0, 100000000, 10000000, 1000000, 100000, 10000, 1000, 100, 10, 1
+  };
+
+  /**
+   * Parses a timestamp, such as {@code 2019-11-27T16:00:00.123456Z}.
+   *
+   * @param text the text to parse
+   * @return the instant
+   * @throws java.time.format.DateTimeParseException if the text is not a valid timestamp
+   */
+  public static Instant parseInstant(String text) {
+    int length = text.length();
+
+    if (length >= 20 && length <= 30 && length != 21 &&
+      text.charAt(4) == '-' && text.charAt(7) == '-' && text.charAt(10) == 'T' &&
+      text.charAt(13) == ':' && text.charAt(16) == ':' && text.charAt(length - 1) == 'Z') {
+
+      int year = digits(text, 0, 4);
+      int month = digits(text, 5, 7);
+      int day = digits(text, 8, 10);
+      int hour = digits(text, 11, 13);
+      int minute = digits(text, 14, 16);
+      int second = digits(text, 17, 19);
+      int nanos = length == 20 ? 0 : fraction(text, 19, length - 1);
+
+      if (year >= 0 && isValidDate(year, month, day) &&
+        hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59 && second >= 0 && second <= 59 && nanos >= 0) {
+
+        long seconds = epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+        return Instant.ofEpochSecond(seconds, nanos);
+      }
+    }
+
+    return Instant.from(DateTimeFormatter.ISO_OFFSET_DATE_TIME.parse(text));
+  }
+
+  /**
+   * Parses a date, such as {@code 2019-11-27}.
+   *
+   * @param text the text to parse
+   * @return the date
+   * @throws java.time.format.DateTimeParseException if the text is not a valid date
+   */
+  public static LocalDate parseDate(String text) {
+    if (text.length() == 10 && text.charAt(4) == '-' && text.charAt(7) == '-') {
+      int year = digits(text, 0, 4);
+      int month = digits(text, 5, 7);
+      int day = digits(text, 8, 10);
+
+      if (year >= 0 && isValidDate(year, month, day))
+        return LocalDate.of(year, month, day);
+    }
+
+    return LocalDate.parse(text);
+  }
+
+  /**
+   * Formats a timestamp as {@link Instant#toString()} does.
+   *
+   * @param instant the instant to format
+   * @return the timestamp text
+   */
+  public static String format(Instant instant) {
+    long seconds = instant.getEpochSecond();
+
+    if (seconds < MIN_SECOND || seconds > MAX_SECOND)
+      return instant.toString();
+
+    long epochDay = Math.floorDiv(seconds, SECONDS_PER_DAY);
+    int secondOfDay = (int) Math.floorMod(seconds, SECONDS_PER_DAY);
+    int nanos = instant.getNano();
+
+    char[] chars = new char[30];
+    int position = writeDate(epochDay, chars);
+
+    chars[position++] = 'T';
+    position = writeTwoDigits(secondOfDay / 3600, chars, position);
+    chars[position++] = ':';
+    position = writeTwoDigits(secondOfDay / 60 % 60, chars, position);
+    chars[position++] = ':';
+    position = writeTwoDigits(secondOfDay % 60, chars, position);
+
+    // As Instant.toString(), the fraction is written in groups of three digits
+    if (nanos != 0) {
+      chars[position++] = '.';
+
+      int digits;
+      if (nanos % 1000000 == 0) {
+        nanos /= 1000000;
+        digits = 3;
+      } else if (nanos % 1000 == 0) {
+        nanos /= 1000;
+        digits = 6;
+      } else {
+        digits = 9;
+      }
+
+      for (int i = position + digits - 1; i >= position; i--) {
+        chars[i] = (char) ('0' + nanos % 10);
+        nanos /= 10;
+      }
+
+      position += digits;
+    }
+
+    chars[position++] = 'Z';
+    return new String(chars, 0, position);
+  }
+
+  /**
+   * Formats a date as {@link LocalDate#toString()} does.
+   *
+   * @param date the date to format
+   * @return the date text
+   */
+  public static String format(LocalDate date) {
+    int year = date.getYear();
+
+    if (year < 0 || year > 9999)
+      return date.toString();
+
+    char[] chars = new char[10];
+    writeDate(year, date.getMonthValue(), date.getDayOfMonth(), chars);
+    return new String(chars);
+  }
+
+  // Returns the value of the digits between the positions provided, or -1 if any character is not a digit
+  private static int digits(String text, int from, int to) {
+    int value = 0;
+
+    for (int i = from; i < to; i++) {
+      int digit = text.charAt(i) - '0';
+
+      if (digit < 0 || digit > 9)
+        return -1;
+
+      value = value * 10 + digit;
+    }
+
+    return value;
+  }
+
+  // Returns the nanoseconds of a fraction of one to nine digits starting with a dot, or -1 if it is malformed
+  private static int fraction(String text, int from, int to) {
+    int digits = to - from - 1;
+
+    if (text.charAt(from) != '.' || digits < 1 || digits > 9)
+      return -1;
+
+    int value = digits(text, from + 1, to);
+    return value < 0 ? -1 : value * NANOS_SCALE[digits];
+  }
+
+  private static boolean isValidDate(int year, int month, int day) {
+    return month >= 1 && month <= 12 && day >= 1 && day <= lengthOfMonth(year, month);
+  }
+
+  private static int lengthOfMonth(int year, int month) {
+    switch (month) {
+      case 2:
+        return isLeapYear(year) ? 29 : 28;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        return 30;
+      default:
+        return 31;
+    }
+  }
+
+  private static boolean isLeapYear(int year) {
+    return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+  }
+
+  // Same as LocalDate.toEpochDay(), for non negative years
+  private static long epochDay(int year, int month, int day) {
+    long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+    total += (367 * month - 362) / 12;
+    total += day - 1;
+
+    if (month > 2) {
+      total--;
+      if (!isLeapYear(year))
+        total--;
+    }
+
+    return total - DAYS_0000_TO_1970;
+  }
+
+  // Same as LocalDate.ofEpochDay(), writing the date instead of building it
+  private static int writeDate(long epochDay, char[] chars) {
+    long zeroDay = epochDay + DAYS_0000_TO_1970 - 60; // Days since 0000-03-01
+    long adjust = 0;
+
+    if (zeroDay < 0) {
+      long adjustCycles = (zeroDay + 1) / DAYS_PER_CYCLE - 1;
+      adjust = adjustCycles * 400;
+      zeroDay -= adjustCycles * DAYS_PER_CYCLE;
+    }
+
+    long yearEstimate = (400 * zeroDay + 591) / DAYS_PER_CYCLE;
+    long dayOfYearEstimate = zeroDay - (365 * yearEstimate + yearEstimate / 4 - yearEstimate / 100 + yearEstimate / 400);
+
+    if (dayOfYearEstimate < 0) {
+      yearEstimate--;
+      dayOfYearEstimate = zeroDay - (365 * yearEstimate + yearEstimate / 4 - yearEstimate / 100 + yearEstimate / 400);
+    }
+
+    int marchDayOfYear = (int) dayOfYearEstimate;
+    int marchMonth = (marchDayOfYear * 5 + 2) / 153;
+    int month = (marchMonth + 2) % 12 + 1;
+    int day = marchDayOfYear - (marchMonth * 306 + 5) / 10 + 1;
+    int year = (int) (yearEstimate + adjust + marchMonth / 10);
+
+    return writeDate(year, month, day, chars);
+  }
+
+  private static int writeDate(int year, int month, int day, char[] chars) {
+    chars[0] = (char) ('0' + year / 1000);
+    chars[1] = (char) ('0' + year / 100 % 10);
+    chars[2] = (char) ('0' + year / 10 % 10);
+    chars[3] = (char) ('0' + year % 10);
+    chars[4] = '-';
+    writeTwoDigits(month, chars, 5);
+    chars[7] = '-';
+    writeTwoDigits(day, chars, 8);
+    return 10;
+  }
+
+  private static int writeTwoDigits(int value, char[] chars, int position) {
+    chars[position] = (char) ('0' + value / 10);
+    chars[position + 1] = (char) ('0' + value % 10);
+    return position + 2;
+  }
+}
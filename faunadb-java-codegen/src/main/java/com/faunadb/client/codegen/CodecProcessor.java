@@ -0,0 +1,546 @@
+package com.faunadb.client.codegen;
+
+import com.faunadb.client.types.FaunaConstructor;
+import com.faunadb.client.types.FaunaEnum;
+import com.faunadb.client.types.FaunaField;
+import com.faunadb.client.types.FaunaIgnore;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+/**
+ * Generates a {@code GeneratedCodec} for each class with members annotated with {@link FaunaField} or
+ * {@link FaunaConstructor}, so that the {@code Encoder} and the {@code Decoder} use plain method calls
+ * instead of introspecting the class at runtime.
+ *
+ * <p>The generated codecs follow the same rules as the reflection based encoding and decoding. Since they
+ * are compiled next to the classes they encode, they can only access members which are not private:
+ * classes with private annotated fields, or a private constructor, are reported with a warning and keep
+ * being encoded and decoded through reflection. Annotations which would only fail when first used,
+ * such as a constructor argument missing its {@link FaunaField} annotation or a map with non string keys,
+ * are reported as compilation errors.</p>
+ *
+ * <p>To enable it, add {@code faunadb-java-codegen} to the annotation processor path of the compiler.</p>
+ */
+public final class CodecProcessor extends AbstractProcessor {
+
+  private final Set<String> processed = new HashSet<>();
+
+  private Elements elements;
+  private Types types;
+
+  @Override
+  public Set<String> getSupportedAnnotationTypes() {
+    return new HashSet<>(Arrays.asList(
+      FaunaField.class.getName(), FaunaConstructor.class.getName(), FaunaEnum.class.getName()));
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+    elements = processingEnv.getElementUtils();
+    types = processingEnv.getTypeUtils();
+
+    Set<TypeElement> classes = new LinkedHashSet<>();
+    Set<TypeElement> enums = new LinkedHashSet<>();
+
+    for (Element element : round.getElementsAnnotatedWith(FaunaField.class))
+      classes.add(enclosingType(element));
+
+    for (Element element : round.getElementsAnnotatedWith(FaunaConstructor.class))
+      classes.add(enclosingType(element));
+
+    for (Element element : round.getElementsAnnotatedWith(FaunaEnum.class))
+      enums.add(enclosingType(element));
+
+    for (TypeElement clazz : classes) {
+      if (clazz.getKind() == ElementKind.CLASS && processed.add(clazz.getQualifiedName().toString()))
+        new CodecWriter(clazz).write();
+    }
+
+    for (TypeElement enumType : enums) {
+      if (enumType.getKind() == ElementKind.ENUM)
+        checkEnum(enumType);
+    }
+
+    return false;
+  }
+
+  private static TypeElement enclosingType(Element element) {
+    while (!(element instanceof TypeElement))
+      element = element.getEnclosingElement();
+
+    return (TypeElement) element;
+  }
+
+  // Two constants with the same name would decode to whichever comes last
+  private void checkEnum(TypeElement enumType) {
+    Map<String, Element> names = new HashMap<>();
+
+    for (Element constant : enumType.getEnclosedElements()) {
+      if (constant.getKind() != ElementKind.ENUM_CONSTANT)
+        continue;
+
+      FaunaEnum faunaEnum = constant.getAnnotation(FaunaEnum.class);
+      String name = faunaEnum != null ? faunaEnum.value() : constant.getSimpleName().toString();
+
+      if (names.put(name, constant) != null)
+        error(constant, format("Duplicated enum value \"%s\" in %s", name, enumType.getQualifiedName()));
+    }
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+
+  private void warning(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message, element);
+  }
+
+  /**
+   * A property read or written by the generated codec, through a field or an accessor method.
+   */
+  private static final class Property {
+    final String name;
+    final Element member;
+    final TypeMirror type;
+
+    Property(String name, Element member, TypeMirror type) {
+      this.name = name;
+      this.member = member;
+      this.type = type;
+    }
+  }
+
+  /**
+   * Thrown when the codec of a class can not be generated, and the class must keep being introspected at runtime.
+   */
+  private static final class Unsupported extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    Unsupported(String reason) {
+      super(reason, null, false, false);
+    }
+  }
+
+  private final class CodecWriter {
+    private final TypeElement clazz;
+    private final String className;
+    private final List<String> typeConstants = new ArrayList<>();
+    private boolean failed;
+
+    CodecWriter(TypeElement clazz) {
+      this.clazz = clazz;
+      this.className = clazz.getQualifiedName().toString();
+    }
+
+    void write() {
+      // Only concrete classes are encoded and decoded
+      if (clazz.getModifiers().contains(Modifier.ABSTRACT))
+        return;
+
+      try {
+        checkClass();
+
+        List<Property> readProperties = properties(false);
+        String encode = encodeMethod(readProperties);
+        String decode = decodeMethod();
+
+        if (!failed)
+          writeSource(encode, decode);
+      } catch (Unsupported ex) {
+        warning(clazz, format("No codec generated for %s, it will be encoded and decoded through reflection: %s",
+          className, ex.getMessage()));
+      } catch (IOException ex) {
+        error(clazz, format("Could not write the codec of %s: %s", className, ex.getMessage()));
+      }
+    }
+
+    private void checkClass() throws Unsupported {
+      if (!clazz.getTypeParameters().isEmpty())
+        throw new Unsupported("the class is generic");
+
+      for (Element type = clazz; type instanceof TypeElement; type = type.getEnclosingElement()) {
+        TypeElement typeElement = (TypeElement) type;
+
+        if (typeElement.getModifiers().contains(Modifier.PRIVATE))
+          throw new Unsupported(format("%s is private", typeElement.getQualifiedName()));
+
+        if (typeElement.getNestingKind() == NestingKind.MEMBER && !typeElement.getModifiers().contains(Modifier.STATIC))
+          throw new Unsupported(format("%s is an inner class", typeElement.getQualifiedName()));
+
+        if (typeElement.getNestingKind() == NestingKind.LOCAL || typeElement.getNestingKind() == NestingKind.ANONYMOUS)
+          throw new Unsupported(format("%s is a local class", typeElement.getQualifiedName()));
+      }
+    }
+
+    // Mirrors Properties.getProperties: annotated fields, then public accessors, which replace a field of the same
+    // name only when annotated themselves.
+    private List<Property> properties(boolean isWrite) throws Unsupported {
+      Map<String, Property> fields = new LinkedHashMap<>();
+
+      for (VariableElement field : ElementFilter.fieldsIn(clazz.getEnclosedElements())) {
+        Set<Modifier> modifiers = field.getModifiers();
+
+        if (modifiers.contains(Modifier.STATIC))
+          continue;
+
+        if (isWrite && modifiers.contains(Modifier.FINAL))
+          continue;
+
+        if (field.getAnnotation(FaunaIgnore.class) != null)
+          continue;
+
+        FaunaField faunaField = field.getAnnotation(FaunaField.class);
+
+        if (faunaField != null) {
+          String name = faunaField.value().length() > 0 ? faunaField.value() : field.getSimpleName().toString();
+          fields.remove(name);
+          fields.put(name, new Property(name, field, field.asType()));
+        }
+      }
+
+      Map<String, Property> methods = new LinkedHashMap<>();
+
+      for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(clazz))) {
+        if (!method.getModifiers().contains(Modifier.PUBLIC))
+          continue;
+
+        int offset = prefixOffset(method, isWrite);
+        if (offset < 0)
+          continue;
+
+        String methodName = method.getSimpleName().toString();
+        String name = Character.toLowerCase(methodName.charAt(offset)) + methodName.substring(offset + 1);
+
+        if ("class".equals(name) || method.getAnnotation(FaunaIgnore.class) != null)
+          continue;
+
+        FaunaField faunaField = method.getAnnotation(FaunaField.class);
+
+        if (faunaField != null && faunaField.value().length() > 0)
+          name = faunaField.value();
+
+        TypeMirror type = isWrite ? method.getParameters().get(0).asType() : method.getReturnType();
+
+        if (!fields.containsKey(name)) {
+          methods.remove(name);
+          methods.put(name, new Property(name, method, type));
+        } else if (faunaField != null) {
+          fields.remove(name);
+          methods.remove(name);
+          methods.put(name, new Property(name, method, type));
+        }
+      }
+
+      List<Property> properties = new ArrayList<>(fields.values());
+      properties.addAll(methods.values());
+
+      for (Property property : properties) {
+        if (property.member.getModifiers().contains(Modifier.PRIVATE))
+          throw new Unsupported(format("field %s is private", property.member.getSimpleName()));
+
+        if (property.type.getKind() == TypeKind.VOID)
+          throw new Unsupported(format("method %s returns void", property.member.getSimpleName()));
+      }
+
+      return properties;
+    }
+
+    private int prefixOffset(ExecutableElement method, boolean isWrite) {
+      String name = method.getSimpleName().toString();
+      int parameters = method.getParameters().size();
+
+      if (isWrite && name.startsWith("set") && name.length() > 3 && parameters == 1) return 3;
+      if (!isWrite && name.startsWith("get") && name.length() > 3 && parameters == 0) return 3;
+      if (!isWrite && name.startsWith("is") && name.length() > 2 && parameters == 0 && isBoolean(method.getReturnType())) return 2;
+      return -1;
+    }
+
+    private boolean isBoolean(TypeMirror type) {
+      return type.getKind() == TypeKind.BOOLEAN || isType(type, Boolean.class.getName());
+    }
+
+    private boolean isType(TypeMirror type, String name) {
+      return type.getKind() == TypeKind.DECLARED
+        && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(name);
+    }
+
+    private String encodeMethod(List<Property> properties) {
+      StringBuilder out = new StringBuilder();
+
+      out.append("  @Override\n");
+      out.append("  protected Value encode(Encoder encoder, ").append(className).append(" value) {\n");
+      out.append("    Map<String, Value> fields = new LinkedHashMap<>();\n");
+
+      for (Property property : properties)
+        out.append(format("    encodeField(fields, encoder, %s, %s);\n", literal(property.name), read(property)));
+
+      out.append("    return new ObjectV(fields);\n");
+      out.append("  }\n");
+      return out.toString();
+    }
+
+    private String read(Property property) {
+      String name = property.member.getSimpleName().toString();
+
+      if (property.member.getKind() == ElementKind.FIELD)
+        return "value." + name;
+
+      return (property.member.getModifiers().contains(Modifier.STATIC) ? className : "value") + "." + name + "()";
+    }
+
+    // Mirrors Constructors.createDecoder: a static factory method, then an annotated constructor, then the
+    // no-args constructor.
+    private String decodeMethod() throws Unsupported {
+      ExecutableElement creator = null;
+
+      for (ExecutableElement method : ElementFilter.methodsIn(clazz.getEnclosedElements())) {
+        if (method.getAnnotation(FaunaConstructor.class) != null) {
+          if (!method.getModifiers().contains(Modifier.STATIC)) {
+            fail(method, format("@%s method %s must be static", FaunaConstructor.class.getSimpleName(), method.getSimpleName()));
+            return "";
+          }
+
+          creator = method;
+          break;
+        }
+      }
+
+      List<ExecutableElement> constructors = ElementFilter.constructorsIn(clazz.getEnclosedElements());
+
+      if (creator == null) {
+        for (ExecutableElement constructor : constructors) {
+          if (constructor.getAnnotation(FaunaConstructor.class) != null) {
+            creator = constructor;
+            break;
+          }
+        }
+      }
+
+      if (creator == null) {
+        for (ExecutableElement constructor : constructors) {
+          if (constructor.getParameters().isEmpty()) {
+            creator = constructor;
+            break;
+          }
+        }
+      }
+
+      StringBuilder out = new StringBuilder();
+
+      out.append("  @Override\n");
+      out.append("  protected ").append(className).append(" decode(ObjectV object) {\n");
+
+      if (creator == null) {
+        out.append(format("    throw new com.faunadb.client.errors.FaunaException(%s);\n", literal(format(
+          "No suitable constructor or factory method found for type %s. Ensure that a factory method or constructor is annotated with @%s",
+          elements.getBinaryName(clazz), FaunaConstructor.class.getSimpleName()))));
+        out.append("  }\n");
+        return out.toString();
+      }
+
+      if (creator.getModifiers().contains(Modifier.PRIVATE))
+        throw new Unsupported(format("%s is private", creator.getKind() == ElementKind.CONSTRUCTOR ? "the constructor" : creator.getSimpleName()));
+
+      Set<String> parameterNames = new HashSet<>();
+      List<String> arguments = new ArrayList<>();
+
+      for (VariableElement parameter : creator.getParameters()) {
+        FaunaField faunaField = parameter.getAnnotation(FaunaField.class);
+
+        if (faunaField == null) {
+          fail(parameter, format("All constructor or factory method arguments must be annotated with @%s", FaunaField.class.getSimpleName()));
+          continue;
+        }
+
+        parameterNames.add(faunaField.value());
+        arguments.add(decodeField(faunaField.value(), parameter.asType()));
+      }
+
+      String invocation = creator.getKind() == ElementKind.CONSTRUCTOR
+        ? "new " + className
+        : className + "." + creator.getSimpleName();
+
+      out.append(format("    %s instance = %s(%s);\n", className, invocation, String.join(", ", arguments)));
+
+      for (Property property : properties(true)) {
+        if (parameterNames.contains(property.name))
+          continue;
+
+        String value = decodeField(property.name, property.type);
+        String name = property.member.getSimpleName().toString();
+
+        if (property.member.getKind() == ElementKind.FIELD)
+          out.append(format("    instance.%s = %s;\n", name, value));
+        else if (property.member.getModifiers().contains(Modifier.STATIC))
+          out.append(format("    %s.%s(%s);\n", className, name, value));
+        else
+          out.append(format("    instance.%s(%s);\n", name, value));
+      }
+
+      out.append("    return instance;\n");
+      out.append("  }\n");
+      return out.toString();
+    }
+
+    private String decodeField(String name, TypeMirror type) throws Unsupported {
+      String constant = "TYPE_" + typeConstants.size();
+      typeConstants.add(format("  private static final Type %s = %s;\n", constant, typeOf(type)));
+
+      TypeMirror boxed = type.getKind().isPrimitive() ? types.boxedClass((PrimitiveType) type).asType() : type;
+      return format("GeneratedCodec.<%s>decodeField(object, %s, %s)", boxed, literal(name), constant);
+    }
+
+    // Mirrors Types.of: collections are decoded with their first type argument, maps with their second one.
+    private String typeOf(TypeMirror type) throws Unsupported {
+      switch (type.getKind()) {
+        case BOOLEAN:
+        case BYTE:
+        case SHORT:
+        case INT:
+        case LONG:
+        case CHAR:
+        case FLOAT:
+        case DOUBLE:
+          return type + ".class";
+
+        case ARRAY:
+          return types.erasure(type) + ".class";
+
+        case DECLARED:
+          break;
+
+        default:
+          throw new Unsupported(format("type %s is not supported", type));
+      }
+
+      DeclaredType declared = (DeclaredType) type;
+      String raw = types.erasure(type) + ".class";
+      List<? extends TypeMirror> arguments = declared.getTypeArguments();
+
+      if (arguments.isEmpty())
+        return raw;
+
+      for (TypeMirror argument : arguments) {
+        if (argument.getKind() != TypeKind.DECLARED && argument.getKind() != TypeKind.ARRAY)
+          throw new Unsupported(format("type %s is not supported", type));
+      }
+
+      if (isSubtype(type, "java.util.Collection"))
+        return format("Types.collectionOf(%s, %s)", raw, typeOf(arguments.get(0)));
+
+      if (isSubtype(type, "java.util.Map")) {
+        if (!isType(arguments.get(0), String.class.getName())) {
+          fail(clazz, format("Only string keys are supported for maps, found %s", type));
+          return raw;
+        }
+
+        return format("Types.mapOf(%s, %s)", raw, typeOf(arguments.get(1)));
+      }
+
+      for (TypeMirror argument : arguments)
+        typeOf(argument);
+
+      return raw;
+    }
+
+    private boolean isSubtype(TypeMirror type, String name) {
+      return types.isSubtype(types.erasure(type), types.erasure(elements.getTypeElement(name).asType()));
+    }
+
+    private void fail(Element element, String message) {
+      failed = true;
+      error(element, message);
+    }
+
+    private void writeSource(String encode, String decode) throws IOException {
+      String packageName = elements.getPackageOf(clazz).getQualifiedName().toString();
+      String simpleName = simpleName(clazz) + "_FaunaCodec";
+      String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+      try (Writer out = processingEnv.getFiler().createSourceFile(qualifiedName, clazz).openWriter()) {
+        out.write("// Generated by faunadb-java-codegen. Do not edit.\n");
+
+        if (!packageName.isEmpty())
+          out.write("package " + packageName + ";\n\n");
+
+        for (String name : Arrays.asList("types.Encoder", "types.GeneratedCodec",
+          "types.Types", "types.Value", "types.Value.ObjectV"))
+          out.write("import com.faunadb.client." + name + ";\n");
+
+        out.write("\nimport java.lang.reflect.Type;\nimport java.util.LinkedHashMap;\nimport java.util.Map;\n\n");
+        out.write(format("public final class %s extends GeneratedCodec<%s> {\n\n", simpleName, className));
+
+        for (String constant : typeConstants)
+          out.write(constant);
+
+        if (!typeConstants.isEmpty())
+          out.write("\n");
+
+        out.write(format("  public %s() {\n    super(%s.class);\n  }\n\n", simpleName, className));
+        out.write(encode);
+        out.write("\n");
+        out.write(decode);
+        out.write("}\n");
+      }
+    }
+
+    private String simpleName(TypeElement type) {
+      Element enclosing = type.getEnclosingElement();
+
+      if (enclosing instanceof TypeElement)
+        return simpleName((TypeElement) enclosing) + "_" + type.getSimpleName();
+
+      return type.getSimpleName().toString();
+    }
+
+    private String literal(String value) {
+      StringBuilder out = new StringBuilder("\"");
+
+      for (char c : value.toCharArray()) {
+        if (c == '"' || c == '\\')
+          out.append('\\').append(c);
+        else if (c < 0x20 || c > 0x7e)
+          out.append(format("\\u%04x", (int) c));
+        else
+          out.append(c);
+      }
+
+      return out.append('"').toString();
+    }
+  }
+}
@@ -0,0 +1,231 @@
+package com.faunadb.client.codegen;
+
+import com.faunadb.client.types.Decoder;
+import com.faunadb.client.types.Encoder;
+import com.faunadb.client.types.FaunaField;
+import com.faunadb.client.types.GeneratedCodec;
+import com.faunadb.client.types.Result;
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.*;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class CodecProcessorSpec {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final String SPELL =
+        "package test;\n" +
+        "import com.faunadb.client.types.*;\n" +
+        "import java.util.List;\n" +
+        "import java.util.Map;\n" +
+        "public class Spell {\n" +
+        "  @FaunaField String name;\n" +
+        "  @FaunaField(\"cost\") int mana;\n" +
+        "  @FaunaField List<String> tags;\n" +
+        "  @FaunaField Map<String, Long> counters;\n" +
+        "  @FaunaField @FaunaIgnore String ignored = \"ignored\";\n" +
+        "  private Element element;\n" +
+        "  public Element getElement() { return element; }\n" +
+        "  public void setElement(Element element) { this.element = element; }\n" +
+        "  public enum Element { @FaunaEnum(\"water\") WATER, @FaunaEnum(\"fire\") FIRE }\n" +
+        "  public static class Caster {\n" +
+        "    private final String name;\n" +
+        "    @FaunaConstructor public Caster(@FaunaField(\"name\") String name) { this.name = name; }\n" +
+        "    public String getName() { return name; }\n" +
+        "  }\n" +
+        "}\n";
+
+    @Test
+    public void shouldGenerateCodecs() throws Exception {
+        Compilation compilation = compile("test.Spell", SPELL);
+
+        assertEquals(Collections.emptyList(), compilation.messages(Diagnostic.Kind.ERROR));
+        assertEquals(Collections.emptyList(), compilation.messages(Diagnostic.Kind.WARNING));
+
+        assertTrue(GeneratedCodec.class.isAssignableFrom(compilation.load("test.Spell_FaunaCodec")));
+        assertTrue(GeneratedCodec.class.isAssignableFrom(compilation.load("test.Spell_Caster_FaunaCodec")));
+    }
+
+    @Test
+    public void shouldEncodeAndDecodeWithGeneratedCodecs() throws Exception {
+        Compilation compilation = compile("test.Spell", SPELL);
+
+        Map<String, Value> counters = new LinkedHashMap<>();
+        counters.put("casts", new LongV(12));
+
+        Map<String, Value> fields = new LinkedHashMap<>();
+        fields.put("name", new StringV("Fire Bolt"));
+        fields.put("cost", new LongV(32));
+        fields.put("tags", new ArrayV(asList(new StringV("fire"), new StringV("bolt"))));
+        fields.put("counters", new ObjectV(counters));
+        fields.put("element", new StringV("fire"));
+
+        ObjectV spell = new ObjectV(fields);
+        Object decoded = Decoder.decode(spell, compilation.load("test.Spell")).get();
+
+        assertEquals(spell, Encoder.encode(decoded).get());
+
+        ObjectV caster = new ObjectV(Collections.singletonMap("name", new StringV("Merlin")));
+        assertEquals(caster, Encoder.encode(Decoder.decode(caster, compilation.load("test.Spell$Caster")).get()).get());
+    }
+
+    @Test
+    public void shouldFailToDecodeValuesOtherThanObjects() throws Exception {
+        Compilation compilation = compile("test.Spell", SPELL);
+
+        assertEquals(
+            Result.fail("Could not instantiate object of class test.Spell"),
+            Decoder.decode(new StringV("Fire Bolt"), compilation.load("test.Spell")));
+    }
+
+    @Test
+    public void shouldReportConstructorArgumentsNotAnnotated() throws Exception {
+        Compilation compilation = compile("test.Product",
+            "package test;\n" +
+            "import com.faunadb.client.types.*;\n" +
+            "public class Product {\n" +
+            "  @FaunaField String description;\n" +
+            "  @FaunaConstructor Product(@FaunaField(\"description\") String description, double price) {}\n" +
+            "}\n");
+
+        assertEquals(
+            asList("All constructor or factory method arguments must be annotated with @FaunaField"),
+            compilation.messages(Diagnostic.Kind.ERROR));
+    }
+
+    @Test
+    public void shouldReportMapsWithNonStringKeys() throws Exception {
+        Compilation compilation = compile("test.Inventory",
+            "package test;\n" +
+            "import com.faunadb.client.types.*;\n" +
+            "import java.util.Map;\n" +
+            "public class Inventory {\n" +
+            "  @FaunaField Map<Long, String> items;\n" +
+            "}\n");
+
+        assertEquals(
+            asList("Only string keys are supported for maps, found java.util.Map<java.lang.Long,java.lang.String>"),
+            compilation.messages(Diagnostic.Kind.ERROR));
+    }
+
+    @Test
+    public void shouldReportDuplicatedEnumValues() throws Exception {
+        Compilation compilation = compile("test.CpuType",
+            "package test;\n" +
+            "import com.faunadb.client.types.*;\n" +
+            "public enum CpuType { @FaunaEnum(\"x86\") X86_32, @FaunaEnum(\"x86\") X86_64 }\n");
+
+        assertEquals(asList("Duplicated enum value \"x86\" in test.CpuType"), compilation.messages(Diagnostic.Kind.ERROR));
+    }
+
+    @Test
+    public void shouldFallBackToReflectionForPrivateFields() throws Exception {
+        Compilation compilation = compile("test.Car",
+            "package test;\n" +
+            "import com.faunadb.client.types.*;\n" +
+            "public class Car {\n" +
+            "  @FaunaField private String model;\n" +
+            "}\n");
+
+        assertEquals(Collections.emptyList(), compilation.messages(Diagnostic.Kind.ERROR));
+        assertEquals(
+            asList("No codec generated for test.Car, it will be encoded and decoded through reflection: field model is private"),
+            compilation.messages(Diagnostic.Kind.WARNING));
+
+        ObjectV car = new ObjectV(Collections.singletonMap("model", new StringV("T")));
+        assertEquals(car, Encoder.encode(Decoder.decode(car, compilation.load("test.Car")).get()).get());
+    }
+
+    private Compilation compile(String className, String source) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        File output = folder.newFolder();
+
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, null)) {
+            files.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(output));
+            files.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singletonList(output));
+            files.setLocation(StandardLocation.CLASS_PATH, classPath());
+
+            JavaFileObject file = new SimpleJavaFileObject(
+                URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return source;
+                }
+            };
+
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics,
+                asList("-source", "1.8", "-target", "1.8", "-Xlint:-options"), null, Collections.singletonList(file));
+            task.setProcessors(Collections.singletonList(new CodecProcessor()));
+            task.call();
+        }
+
+        return new Compilation(output, diagnostics.getDiagnostics());
+    }
+
+    // The compiled classes only see the driver and its dependencies, whatever class loaders the test runs with
+    private static List<File> classPath() {
+        List<File> classPath = new ArrayList<>();
+
+        for (Class<?> clazz : Arrays.asList(FaunaField.class, JsonValue.class, JsonGenerator.class, ObjectMapper.class)) {
+            try {
+                classPath.add(new File(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()));
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        return classPath;
+    }
+
+    private final class Compilation {
+        private final URLClassLoader loader;
+        private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+
+        Compilation(File output, List<Diagnostic<? extends JavaFileObject>> diagnostics) throws IOException {
+            this.loader = new URLClassLoader(new URL[]{output.toURI().toURL()}, getClass().getClassLoader());
+            this.diagnostics = diagnostics;
+        }
+
+        List<String> messages(Diagnostic.Kind kind) {
+            return diagnostics.stream()
+                .filter(diagnostic -> diagnostic.getKind() == kind)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+        }
+
+        Class<?> load(String className) throws ClassNotFoundException {
+            return Class.forName(className, true, loader);
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package com.faunadb.client;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.faunadb.client.errors.BadRequestException;
+import com.faunadb.client.errors.NotFoundException;
+import com.faunadb.client.query.Expr;
+import com.faunadb.client.types.Encoder;
+import com.faunadb.client.types.Value;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * A writer of many independent queries, such as the creation of documents, sent to FaunaDB in batches.
+ * See {@link FaunaClient#bulkWriter()}.
+ *
+ * <p>Queries added are serialized once, and grouped into batches of at most {@link #batchSize(int)} queries and
+ * {@link #batchBytes(int)} bytes, each sent as a single request with {@link FaunaClient#query(List)}. A query
+ * larger than the maximum bytes is sent alone. At most {@link #concurrency(int)} batches are in flight at once.
+ * Once as many batches are waiting to be sent, {@link #add(Expr)} blocks the calling thread until one of them is
+ * sent, which bounds the memory held by the writer. Therefore, queries must not be added from the callbacks of
+ * the futures returned by the writer or by the client, which run on its I/O threads.</p>
+ *
+ * <p>Each batch runs as one transaction, so a query that fails makes the whole batch fail without writing
+ * anything. When a batch fails with an error caused by one of its queries, that is a {@link BadRequestException}
+ * such as a validation failure or a {@link NotFoundException}, the batch is split in two halves sent again, until
+ * the queries that fail are sent alone. The remaining queries are written once, and only the queries that fail
+ * on their own complete with an error. Isolating {@code k} failing queries in a batch of {@code n} takes about
+ * {@code 2 * k * log2(n)} more requests. Batches that fail with any other error, such as a timeout, are not split
+ * nor retried, and all their queries complete with the error.</p>
+ *
+ * <p>Batches are sent once full. The batch being filled is sent by {@link #flush()}, whose result completes once
+ * all queries added before it complete.</p>
+ *
+ * <p>The number of queries written and failed, and of batches split, are reported by {@link #getWrittenCount()},
+ * {@link #getFailedCount()} and {@link #getSplitCount()}. If the client has a {@link MetricRegistry}, they are
+ * also reported by the {@code fauna-bulk-written} and {@code fauna-bulk-failed} meters, whose rates are the
+ * throughput of the writer, the {@code fauna-bulk-splits} counter and the {@code fauna-bulk-batch} timer.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>{@code
+ * BulkWriter writer = client.bulkWriter().batchSize(500).concurrency(4);
+ *
+ * for (Spell spell : spells)
+ *   writer.add(spell, data -> Create(Collection("spells"), Obj("data", data)))
+ *     .exceptionally(ex -> {
+ *       System.err.println("Could not write " + spell + ": " + ex.getMessage());
+ *       return null;
+ *     });
+ *
+ * writer.flush().join();
+ * }</pre>
+ */
+public final class BulkWriter {
+
+  // A query and the future of its result, which is completed once whichever batch it ends up in is written
+  private static final class Item {
+    final Serialized query;
+    final CompletableFuture<Value> result = new CompletableFuture<>();
+
+    Item(Serialized query) {
+      this.query = query;
+    }
+  }
+
+  private final ObjectWriter writer;
+  private final Function<List<? extends Expr>, CompletableFuture<List<Value>>> query;
+
+  private final Meter writtenMeter;
+  private final Meter failedMeter;
+  private final Counter splitCounter;
+  private final Timer batchTimer;
+
+  private int batchSize = 100;
+  private int batchBytes = 1024 * 1024;
+  private int concurrency = 1;
+
+  // Writer state, guarded by this instance
+  private final Deque<List<Item>> queued = new ArrayDeque<>();
+  private final Set<List<Item>> inFlight = new HashSet<>();
+  private List<Item> current = new ArrayList<>();
+  private long currentBytes;
+  private long writtenCount;
+  private long failedCount;
+  private long splitCount;
+
+  BulkWriter(ObjectWriter writer, Function<List<? extends Expr>, CompletableFuture<List<Value>>> query,
+             MetricRegistry registry) {
+    this.writer = writer;
+    this.query = query;
+    this.writtenMeter = registry != null ? registry.meter("fauna-bulk-written") : null;
+    this.failedMeter = registry != null ? registry.meter("fauna-bulk-failed") : null;
+    this.splitCounter = registry != null ? registry.counter("fauna-bulk-splits") : null;
+    this.batchTimer = registry != null ? registry.timer("fauna-bulk-batch") : null;
+  }
+
+  /**
+   * Sets the maximum number of queries per batch. Defaults to 100.
+   *
+   * @param size the maximum number of queries per batch
+   * @return this {@link BulkWriter} instance
+   */
+  public synchronized BulkWriter batchSize(int size) {
+    if (size < 1)
+      throw new IllegalArgumentException("size must be greater than zero");
+
+    this.batchSize = size;
+    return this;
+  }
+
+  /**
+   * Sets the maximum size of the serialized queries of a batch. Defaults to 1 MB.
+   *
+   * @param bytes the maximum size of a batch
+   * @return this {@link BulkWriter} instance
+   */
+  public synchronized BulkWriter batchBytes(int bytes) {
+    if (bytes < 1)
+      throw new IllegalArgumentException("bytes must be greater than zero");
+
+    this.batchBytes = bytes;
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of batches in flight, which is also the number of batches that can wait to be sent
+   * before {@link #add(Expr)} blocks. Defaults to one.
+   *
+   * @param concurrency the maximum number of batches in flight
+   * @return this {@link BulkWriter} instance
+   */
+  public synchronized BulkWriter concurrency(int concurrency) {
+    if (concurrency < 1)
+      throw new IllegalArgumentException("concurrency must be greater than zero");
+
+    this.concurrency = concurrency;
+    return this;
+  }
+
+  /**
+   * Adds a query to write. Blocks while as many batches as the concurrency are waiting to be sent.
+   *
+   * @param expr the query to write
+   * @return a {@link CompletableFuture} containing the result of the query, or failing with the error of the
+   * query, or of its batch if it is not caused by one of the queries of the batch
+   */
+  public CompletableFuture<Value> add(Expr expr) {
+    Item item;
+
+    try {
+      item = new Item(new Serialized(writer.writeValueAsString(expr)));
+    } catch (JsonProcessingException ex) {
+      throw new UncheckedIOException(ex);
+    }
+
+    List<List<Item>> batches;
+
+    synchronized (this) {
+      if (!current.isEmpty() && currentBytes + item.query.size + 1 > batchBytes)
+        seal();
+
+      current.add(item);
+      currentBytes += item.query.size + 1;
+
+      if (current.size() == batchSize)
+        seal();
+
+      batches = dispatch();
+    }
+
+    send(batches);
+    awaitQueue();
+    return item.result;
+  }
+
+  /**
+   * Adds the query built from an object to write. The object is encoded as by
+   * {@link Encoder#encodeLazily(Object)}, and passed to the function provided to build the query.
+   *
+   * @param object the object to write
+   * @param query the function building the query that writes the object
+   * @return a {@link CompletableFuture} containing the result of the query, or failing with its error
+   * @see #add(Expr)
+   */
+  public CompletableFuture<Value> add(Object object, Function<? super Expr, ? extends Expr> query) {
+    return add(query.apply(Encoder.encodeLazily(object)));
+  }
+
+  /**
+   * Sends the batch being filled, without waiting for it to be full.
+   *
+   * @return a {@link CompletableFuture} that completes once all queries added so far complete, successfully or not
+   */
+  public CompletableFuture<Void> flush() {
+    List<CompletableFuture<Value>> pending = new ArrayList<>();
+    List<List<Item>> batches;
+
+    synchronized (this) {
+      if (!current.isEmpty())
+        seal();
+
+      for (List<Item> batch : queued)
+        for (Item item : batch)
+          pending.add(item.result);
+
+      for (List<Item> batch : inFlight)
+        for (Item item : batch)
+          pending.add(item.result);
+
+      batches = dispatch();
+    }
+
+    send(batches);
+
+    CompletableFuture<?>[] settled = new CompletableFuture<?>[pending.size()];
+
+    for (int i = 0; i < settled.length; i++)
+      settled[i] = pending.get(i).handle((result, ex) -> null);
+
+    return CompletableFuture.allOf(settled);
+  }
+
+  /**
+   * Returns how many queries were written.
+   *
+   * @return the number of queries written
+   */
+  public synchronized long getWrittenCount() {
+    return writtenCount;
+  }
+
+  /**
+   * Returns how many queries failed, whether on their own or with the batch they were sent in.
+   *
+   * @return the number of queries failed
+   */
+  public synchronized long getFailedCount() {
+    return failedCount;
+  }
+
+  /**
+   * Returns how many batches were split to isolate the queries that fail.
+   *
+   * @return the number of batches split
+   */
+  public synchronized long getSplitCount() {
+    return splitCount;
+  }
+
+  private void seal() {
+    queued.add(current);
+    current = new ArrayList<>();
+    currentBytes = 0;
+  }
+
+  // Takes the batches to send while fewer than the concurrency are in flight
+  private List<List<Item>> dispatch() {
+    List<List<Item>> batches = new ArrayList<>();
+
+    while (inFlight.size() < concurrency && !queued.isEmpty()) {
+      List<Item> batch = queued.poll();
+      inFlight.add(batch);
+      batches.add(batch);
+    }
+
+    if (!batches.isEmpty())
+      notifyAll();
+
+    return batches;
+  }
+
+  private synchronized void awaitQueue() {
+    boolean interrupted = false;
+
+    while (queued.size() >= concurrency) {
+      try {
+        wait();
+      } catch (InterruptedException ex) {
+        interrupted = true;
+        break;
+      }
+    }
+
+    if (interrupted)
+      Thread.currentThread().interrupt();
+  }
+
+  private void send(List<List<Item>> batches) {
+    for (List<Item> batch : batches)
+      write(batch);
+  }
+
+  private void write(List<Item> batch) {
+    List<Expr> exprs = new ArrayList<>(batch.size());
+
+    for (Item item : batch)
+      exprs.add(item.query);
+
+    Timer.Context time = batchTimer != null ? batchTimer.time() : null;
+    CompletableFuture<List<Value>> results;
+
+    try {
+      results = query.apply(exprs);
+    } catch (RuntimeException ex) {
+      results = new CompletableFuture<>();
+      results.completeExceptionally(ex);
+    }
+
+    results.whenComplete((values, ex) -> {
+      if (time != null)
+        time.stop();
+
+      Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+      List<List<Item>> next;
+
+      synchronized (this) {
+        inFlight.remove(batch);
+
+        if (cause == null) {
+          writtenCount += batch.size();
+        } else if (batch.size() > 1 && isCausedByQuery(cause)) {
+          int half = batch.size() / 2;
+          queued.addFirst(new ArrayList<>(batch.subList(half, batch.size())));
+          queued.addFirst(new ArrayList<>(batch.subList(0, half)));
+          splitCount++;
+        } else {
+          failedCount += batch.size();
+        }
+
+        next = dispatch();
+      }
+
+      if (cause == null) {
+        if (writtenMeter != null)
+          writtenMeter.mark(batch.size());
+
+        for (int i = 0; i < batch.size(); i++)
+          batch.get(i).result.complete(values.get(i));
+      } else if (batch.size() > 1 && isCausedByQuery(cause)) {
+        if (splitCounter != null)
+          splitCounter.inc();
+      } else {
+        if (failedMeter != null)
+          failedMeter.mark(batch.size());
+
+        for (Item item : batch)
+          item.result.completeExceptionally(cause);
+      }
+
+      send(next);
+    });
+  }
+
+  // Errors that make the whole transaction fail because of one of its queries, as opposed to errors of the
+  // request such as timeouts or unavailability
+  private static boolean isCausedByQuery(Throwable error) {
+    return error instanceof BadRequestException || error instanceof NotFoundException;
+  }
+
+}
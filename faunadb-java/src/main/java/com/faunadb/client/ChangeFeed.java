@@ -0,0 +1,387 @@
+package com.faunadb.client;
+
+import com.codahale.metrics.Meter;
+import com.faunadb.client.errors.UnavailableException;
+import com.faunadb.client.query.Expr;
+import com.faunadb.client.query.Pagination;
+import com.faunadb.client.types.Field;
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.LongV;
+import com.faunadb.client.types.Value.NullV;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static com.faunadb.client.query.Language.Paginate;
+import static com.faunadb.client.types.Codec.ARRAY;
+import static com.faunadb.client.types.Codec.LONG;
+
+/**
+ * A consumer of the events of a set, such as the documents of a collection or the entries of an index, that
+ * follows the set as it changes. See {@link FaunaClient#changeFeed(Expr, OffsetStore)}.
+ *
+ * <p>The feed polls the set with {@code Paginate(set).events(true)}, after the position committed last to its
+ * {@link OffsetStore}, or else after the timestamp set with {@link #startTs(long)}, or else from the first event
+ * of the set. Each poll reads the pages of events available at the snapshot of its first page, following their
+ * cursors, then the next poll starts after that snapshot.</p>
+ *
+ * <p>The events of each page are passed to the handler as a batch. Once the {@link CompletionStage} returned by
+ * the handler completes, the position after the page is committed to the store, and the next page is read.
+ * Events are delivered at least once: the events handled but not committed yet when the feed stops, or fails, are
+ * delivered again once it is restarted from the same store, so the handler must be idempotent.</p>
+ *
+ * <p>Polls follow the tail of the set adaptively. After a poll reading more than one page, the next one starts
+ * right away. After a poll with events, the next one starts after the minimum interval set with
+ * {@link #pollInterval(Duration, Duration)}. After each poll without events, or failing with an
+ * {@link UnavailableException}, the interval doubles, up to the maximum.</p>
+ *
+ * <p>The events handled are reported by {@link #getDeliveredCount()} and, if the client has a
+ * {@link com.codahale.metrics.MetricRegistry}, the {@code fauna-change-feed-events} meter.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>{@code
+ * ChangeFeed feed = client.changeFeed(Documents(Collection("spells")),
+ *     new FileOffsetStore(Paths.get("spells.offset")))
+ *   .size(100);
+ *
+ * CompletableFuture<Void> running = feed.start(events -> searchIndex.update(events));
+ * ...
+ * feed.stop();
+ * running.join();
+ * }</pre>
+ */
+public final class ChangeFeed {
+
+  private static final Field<List<Value>> DATA = Field.at("data").to(ARRAY);
+  private static final Field<Long> TS = Field.at("ts").to(LONG);
+
+  // The pages and events read by a poll
+  private static final class Poll {
+    final PageIterator pages;
+    int pageCount;
+    int eventCount;
+
+    Poll(PageIterator pages) {
+      this.pages = pages;
+    }
+  }
+
+  private final Expr set;
+  private final OffsetStore offsets;
+  private final Function<Pagination, PageIterator> paginate;
+  private final Meter eventMeter;
+
+  private Long startTs;
+  private int size;
+  private long minInterval = TimeUnit.MILLISECONDS.toNanos(100);
+  private long maxInterval = TimeUnit.SECONDS.toNanos(10);
+
+  // Feed state, guarded by this instance
+  private Function<? super List<Value>, ? extends CompletionStage<?>> handler;
+  private CompletableFuture<Void> done;
+  private ScheduledFuture<?> scheduled;
+  private Value position;
+  private long interval;
+  private boolean stopped;
+  private long deliveredCount;
+
+  ChangeFeed(Expr set, OffsetStore offsets, Function<Pagination, PageIterator> paginate, Meter eventMeter) {
+    this.set = set;
+    this.offsets = offsets;
+    this.paginate = paginate;
+    this.eventMeter = eventMeter;
+  }
+
+  /**
+   * Sets the timestamp to read the events after when the store has no position committed.
+   *
+   * @param ts the timestamp in UNIX microseconds
+   * @return this {@link ChangeFeed} instance
+   */
+  public synchronized ChangeFeed startTs(long ts) {
+    this.startTs = ts;
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of events per page, which is the maximum number of events passed to the handler at
+   * once.
+   *
+   * @param size the page size
+   * @return this {@link ChangeFeed} instance
+   */
+  public synchronized ChangeFeed size(int size) {
+    this.size = size;
+    return this;
+  }
+
+  /**
+   * Sets the minimum and maximum intervals between polls. Defaults to 100 milliseconds and 10 seconds.
+   *
+   * @param min the interval after a poll with events
+   * @param max the interval the feed backs off to while there are no events
+   * @return this {@link ChangeFeed} instance
+   */
+  public synchronized ChangeFeed pollInterval(Duration min, Duration max) {
+    if (min.isNegative() || max.compareTo(min) < 0)
+      throw new IllegalArgumentException("max must not be lower than min, and min must not be negative");
+
+    this.minInterval = min.toNanos();
+    this.maxInterval = max.toNanos();
+    return this;
+  }
+
+  /**
+   * Starts consuming the events of the set, passing them to the handler provided page by page.
+   *
+   * @param handler the handler of the events of each page
+   * @return a {@link CompletableFuture} that completes once the feed is stopped, or fails with the first error
+   * handling events or committing their position, or reading events with any error but an
+   * {@link UnavailableException}
+   * @throws IllegalStateException if the feed was already started
+   */
+  public CompletableFuture<Void> start(Function<? super List<Value>, ? extends CompletionStage<?>> handler) {
+    synchronized (this) {
+      if (done != null)
+        throw new IllegalStateException("The feed was already started");
+
+      this.handler = handler;
+      this.done = new CompletableFuture<>();
+      this.interval = minInterval;
+    }
+
+    offsets.load().whenComplete((loaded, ex) -> {
+      if (ex != null) {
+        fail(ex);
+        return;
+      }
+
+      synchronized (this) {
+        position = loaded.orElse(startTs != null ? new LongV(startTs) : null);
+      }
+
+      poll();
+    });
+
+    return done;
+  }
+
+  /**
+   * Stops the feed. The handler of the events being delivered, if any, completes, and its position is committed
+   * before the {@link CompletableFuture} returned by {@link #start(Function)} completes.
+   */
+  public void stop() {
+    synchronized (this) {
+      stopped = true;
+
+      if (scheduled == null || !scheduled.cancel(false))
+        return;
+
+      scheduled = null;
+    }
+
+    done.complete(null);
+  }
+
+  /**
+   * Returns the position after the events delivered last, which is committed once they are handled.
+   *
+   * @return the position after the events delivered last, or empty if the feed reads from the first event
+   */
+  public synchronized Optional<Value> position() {
+    return Optional.ofNullable(position);
+  }
+
+  /**
+   * Returns how many events were handled.
+   *
+   * @return the number of events handled
+   */
+  public synchronized long getDeliveredCount() {
+    return deliveredCount;
+  }
+
+  private void poll() {
+    Pagination pagination = null;
+
+    synchronized (this) {
+      scheduled = null;
+
+      if (!stopped) {
+        pagination = Paginate(set).events(true);
+
+        if (size > 0)
+          pagination.size(size);
+
+        if (position != null)
+          pagination.after(position);
+      }
+    }
+
+    if (pagination == null) {
+      done.complete(null);
+      return;
+    }
+
+    Poll poll;
+
+    try {
+      poll = new Poll(paginate.apply(pagination));
+    } catch (RuntimeException ex) {
+      fail(ex);
+      return;
+    }
+
+    read(poll);
+  }
+
+  // Reads the pages of the poll one at a time, committing the position after each page once its events are handled
+  private void read(Poll poll) {
+    boolean more;
+
+    synchronized (this) {
+      more = !stopped && poll.pages.hasNext();
+    }
+
+    if (!more) {
+      finish(poll);
+      return;
+    }
+
+    poll.pages.next().whenComplete((page, ex) -> {
+      if (ex != null) {
+        retry(ex);
+        return;
+      }
+
+      List<Value> events;
+      Value next;
+
+      try {
+        events = page.get(DATA);
+        next = next(poll, page, events);
+      } catch (RuntimeException e) {
+        fail(e);
+        return;
+      }
+
+      poll.pageCount++;
+      poll.eventCount += events.size();
+
+      if (events.isEmpty()) {
+        synchronized (this) {
+          position = next;
+        }
+
+        read(poll);
+        return;
+      }
+
+      CompletionStage<?> handled;
+
+      try {
+        handled = handler.apply(events);
+      } catch (RuntimeException e) {
+        fail(e);
+        return;
+      }
+
+      handled
+        .thenCompose(ignored -> offsets.commit(next))
+        .whenComplete((ignored, e) -> {
+          if (e != null) {
+            fail(e);
+            return;
+          }
+
+          synchronized (this) {
+            position = next;
+            deliveredCount += events.size();
+          }
+
+          if (eventMeter != null)
+            eventMeter.mark(events.size());
+
+          read(poll);
+        });
+    });
+  }
+
+  // The position after a page: its after cursor or, for the last page of the poll, the timestamp after the
+  // snapshot it was read at, since all events up to the snapshot were read
+  private Value next(Poll poll, Value page, List<Value> events) {
+    Value after = page.at("after");
+
+    if (!(after instanceof NullV))
+      return after;
+
+    Long snapshot = poll.pages.snapshot();
+
+    if (snapshot != null)
+      return new LongV(snapshot + 1);
+
+    if (!events.isEmpty())
+      return new LongV(events.get(events.size() - 1).get(TS) + 1);
+
+    synchronized (this) {
+      return position;
+    }
+  }
+
+  private void finish(Poll poll) {
+    synchronized (this) {
+      if (poll.pageCount > 1)
+        interval = 0;
+      else if (poll.eventCount > 0)
+        interval = minInterval;
+      else
+        interval = backoff();
+    }
+
+    schedule();
+  }
+
+  // Polls again after backing off if the error is transient, or fails the feed
+  private void retry(Throwable error) {
+    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+
+    if (!(cause instanceof UnavailableException)) {
+      fail(cause);
+      return;
+    }
+
+    synchronized (this) {
+      interval = backoff();
+    }
+
+    schedule();
+  }
+
+  private long backoff() {
+    return Math.min(maxInterval, Math.max(minInterval, interval * 2));
+  }
+
+  private void schedule() {
+    synchronized (this) {
+      if (!stopped) {
+        scheduled = Timers.TIMER.schedule(this::poll, interval, TimeUnit.NANOSECONDS);
+        return;
+      }
+    }
+
+    done.complete(null);
+  }
+
+  private void fail(Throwable error) {
+    done.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+  }
+
+}
@@ -0,0 +1,57 @@
+package com.faunadb.client;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Copies the bytes written into a buffer, written to the channel once full. Used to write exports in large blocks,
+ * whatever the size of the values serialized. Closing the stream does not close the channel.
+ */
+final class ChannelOutputStream extends OutputStream {
+
+  private final WritableByteChannel channel;
+  private final ByteBuffer buffer;
+
+  ChannelOutputStream(WritableByteChannel channel, int size) {
+    this.channel = channel;
+    this.buffer = ByteBuffer.allocateDirect(size);
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (!buffer.hasRemaining())
+      drain();
+
+    buffer.put((byte) b);
+  }
+
+  @Override
+  public void write(byte[] bytes, int offset, int length) throws IOException {
+    while (length > 0) {
+      if (!buffer.hasRemaining())
+        drain();
+
+      int chunk = Math.min(length, buffer.remaining());
+      buffer.put(bytes, offset, chunk);
+      offset += chunk;
+      length -= chunk;
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    drain();
+  }
+
+  private void drain() throws IOException {
+    buffer.flip();
+
+    while (buffer.hasRemaining())
+      channel.write(buffer);
+
+    buffer.clear();
+  }
+
+}
@@ -0,0 +1,352 @@
+package com.faunadb.client;
+
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.RefV;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of the documents read by {@code Get(ref)} queries, used to avoid querying FaunaDB for the same
+ * hot documents again and again.
+ *
+ * <p>Caching is opt-in: configure the client with {@link FaunaClient.Builder#withDocumentCache(DocumentCache)}.
+ * Only queries that are nothing but a {@code Get} of a literal ref, either a ref value returned by FaunaDB or a
+ * {@code Ref(Collection("name"), "id")} expression, are answered from the cache. Documents are cached with the
+ * {@code X-Txn-Time} of the response they were read from, and returned for at most their
+ * {@link #maxStaleness(Duration)}, counted from when they were requested.</p>
+ *
+ * <p>The client's own writes invalidate the documents they write to, that is the targets of {@code Update},
+ * {@code Replace}, {@code Delete}, {@code Insert} and {@code Remove} queries, before the writes complete. Writes to
+ * refs that are not literal, such as refs bound by {@code Let} or {@code Lambda}, and calls to user-defined
+ * functions, which may write to any document, invalidate all documents. A document read at a snapshot older than a
+ * write to it invalidated by the client is not cached. Writes made by other clients are only accounted for by the
+ * maximum staleness. Session clients do
+ * not read from the cache of their parent, since they may not be allowed to read the same documents, but their
+ * writes invalidate it like the writes of their parent.</p>
+ *
+ * <p>The cache is bounded either by its number of documents or by the size of the responses they were read from.
+ * Its admission policy follows W-TinyLFU: new documents enter a window holding 1% of the capacity, and documents
+ * leaving the window only replace the least recently used documents of the rest of the cache if they were read
+ * more often recently, as estimated by a {@link FrequencySketch}. Hits, misses and evictions are reported by
+ * {@link #getHitCount()}, {@link #getMissCount()} and {@link #getEvictionCount()} and, if the client has a
+ * {@link com.codahale.metrics.MetricRegistry}, the {@code fauna-document-cache-hits}, {@code -misses} and
+ * {@code -evictions} gauges.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>{@code
+ * FaunaClient client = FaunaClient.builder()
+ *   .withSecret(secret)
+ *   .withDocumentCache(DocumentCache.ofEntries(10000).maxStaleness(Duration.ofSeconds(5)))
+ *   .build();
+ * }</pre>
+ */
+public final class DocumentCache {
+
+  // Invalidated refs remembered to reject stale reads still in flight. Older ones raise the floor instead.
+  private static final int MAX_INVALIDATIONS = 1024;
+
+  private static final class Entry {
+    final RefV ref;
+    Value document;
+    long txnTime;
+    long readNanos;
+    long weight;
+    boolean inWindow;
+    Entry prev;
+    Entry next;
+
+    Entry(RefV ref) {
+      this.ref = ref;
+    }
+  }
+
+  // A doubly linked list of entries, from the least to the most recently used
+  private static final class Lru {
+    final Entry head = new Entry(null);
+    long weight;
+
+    Lru() {
+      head.prev = head;
+      head.next = head;
+    }
+
+    Entry eldest() {
+      return head.next == head ? null : head.next;
+    }
+
+    void add(Entry entry) {
+      entry.prev = head.prev;
+      entry.next = head;
+      head.prev.next = entry;
+      head.prev = entry;
+      weight += entry.weight;
+    }
+
+    void remove(Entry entry) {
+      entry.prev.next = entry.next;
+      entry.next.prev = entry.prev;
+      entry.prev = null;
+      entry.next = null;
+      weight -= entry.weight;
+    }
+  }
+
+  private final long capacity;
+  private final boolean weighBytes;
+  private long maxStalenessNanos = Duration.ofSeconds(1).toNanos();
+
+  // Cache state, guarded by this instance
+  private final Map<RefV, Entry> entries = new HashMap<>();
+  private final LinkedHashMap<RefV, Long> invalidations = new LinkedHashMap<>();
+  private final Lru window = new Lru();
+  private final Lru main = new Lru();
+  private final FrequencySketch sketch;
+  private long floor;
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+
+  private DocumentCache(long capacity, boolean weighBytes, long expectedEntries) {
+    this.capacity = capacity;
+    this.weighBytes = weighBytes;
+    this.sketch = new FrequencySketch(expectedEntries);
+  }
+
+  /**
+   * Creates a cache holding at most the number of documents provided.
+   *
+   * @param maxEntries the maximum number of documents
+   * @return a new {@link DocumentCache}
+   */
+  public static DocumentCache ofEntries(long maxEntries) {
+    if (maxEntries <= 0)
+      throw new IllegalArgumentException("maxEntries must be positive");
+
+    return new DocumentCache(maxEntries, false, maxEntries);
+  }
+
+  /**
+   * Creates a cache holding documents up to the total size provided, measured as the size of the responses they
+   * were read from.
+   *
+   * @param maxBytes the maximum size of the documents
+   * @return a new {@link DocumentCache}
+   */
+  public static DocumentCache ofBytes(long maxBytes) {
+    if (maxBytes <= 0)
+      throw new IllegalArgumentException("maxBytes must be positive");
+
+    return new DocumentCache(maxBytes, true, maxBytes / 1024);
+  }
+
+  /**
+   * Sets for how long a document is returned after it was requested from FaunaDB. Defaults to one second.
+   *
+   * @param staleness the maximum staleness of the documents returned. It has nanoseconds precision.
+   * @return this {@link DocumentCache} instance
+   */
+  public synchronized DocumentCache maxStaleness(Duration staleness) {
+    if (staleness.isNegative())
+      throw new IllegalArgumentException("staleness must not be negative");
+
+    this.maxStalenessNanos = staleness.toNanos();
+    return this;
+  }
+
+  /**
+   * Returns how many reads were answered from the cache.
+   *
+   * @return the number of hits
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Returns how many reads that could be cached were sent to FaunaDB.
+   *
+   * @return the number of misses
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Returns how many documents were removed to make room for others, or not admitted in the cache.
+   *
+   * @return the number of evictions
+   */
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * Returns the number of documents cached.
+   *
+   * @return the number of documents cached
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Removes all documents.
+   */
+  public synchronized void invalidateAll() {
+    entries.clear();
+    window.head.prev = window.head.next = window.head;
+    main.head.prev = main.head.next = main.head;
+    window.weight = 0;
+    main.weight = 0;
+  }
+
+  /**
+   * Returns the document cached for the ref, if any and fresh enough.
+   *
+   * @param ref the ref read
+   * @return the document, or null if it must be read from FaunaDB
+   */
+  synchronized Value get(RefV ref) {
+    sketch.increment(ref);
+    Entry entry = entries.get(ref);
+
+    if (entry == null) {
+      missCount++;
+      return null;
+    }
+
+    if (System.nanoTime() - entry.readNanos > maxStalenessNanos) {
+      remove(entry);
+      missCount++;
+      return null;
+    }
+
+    Lru lru = entry.inWindow ? window : main;
+    lru.remove(entry);
+    lru.add(entry);
+    hitCount++;
+    return entry.document;
+  }
+
+  /**
+   * Caches a document read from FaunaDB, unless a write to it was invalidated after the snapshot it was read at.
+   *
+   * @param ref the ref read
+   * @param document the document read
+   * @param txnTime the snapshot the document was read at
+   * @param readNanos the {@link System#nanoTime()} the document was requested at
+   * @param size the size of the response
+   */
+  synchronized void put(RefV ref, Value document, long txnTime, long readNanos, long size) {
+    Long invalidated = invalidations.get(ref);
+
+    if (txnTime < floor || invalidated != null && txnTime < invalidated)
+      return;
+
+    long weight = weighBytes ? size : 1;
+
+    if (weight > capacity)
+      return;
+
+    Entry entry = entries.get(ref);
+
+    if (entry != null) {
+      if (txnTime < entry.txnTime)
+        return;
+
+      remove(entry);
+    }
+
+    entry = new Entry(ref);
+    entry.document = document;
+    entry.txnTime = txnTime;
+    entry.readNanos = readNanos;
+    entry.weight = weight;
+    entry.inWindow = true;
+
+    entries.put(ref, entry);
+    window.add(entry);
+
+    long windowCapacity = Math.max(1, capacity / 100);
+
+    while (window.weight > windowCapacity && window.eldest() != null)
+      admit(window.eldest(), capacity - windowCapacity);
+  }
+
+  /**
+   * Removes the documents written by a query.
+   *
+   * @param refs the refs written, or null to remove all documents
+   * @param txnTime a time at or after the write
+   */
+  synchronized void invalidate(Collection<RefV> refs, long txnTime) {
+    if (refs == null) {
+      invalidateAll();
+      floor = Math.max(floor, txnTime);
+      return;
+    }
+
+    for (RefV ref : refs) {
+      Entry entry = entries.get(ref);
+
+      if (entry != null)
+        remove(entry);
+
+      Long previous = invalidations.remove(ref);
+      invalidations.put(ref, previous == null ? txnTime : Math.max(previous, txnTime));
+    }
+
+    Iterator<Map.Entry<RefV, Long>> oldest = invalidations.entrySet().iterator();
+
+    while (invalidations.size() > MAX_INVALIDATIONS) {
+      floor = Math.max(floor, oldest.next().getValue());
+      oldest.remove();
+    }
+  }
+
+  // Moves the candidate leaving the window to the main space, if there is room or if it was read more often than
+  // all the documents it would replace. Nothing is evicted for a candidate that is not admitted.
+  private void admit(Entry candidate, long mainCapacity) {
+    window.remove(candidate);
+    candidate.inWindow = false;
+
+    int frequency = sketch.frequency(candidate.ref);
+    long room = mainCapacity - main.weight;
+    Entry last = main.head;
+
+    while (room < candidate.weight) {
+      last = last.next;
+
+      if (last == main.head || sketch.frequency(last.ref) >= frequency) {
+        entries.remove(candidate.ref);
+        evictionCount++;
+        return;
+      }
+
+      room += last.weight;
+    }
+
+    while (last != main.head) {
+      Entry victim = main.eldest();
+      remove(victim);
+      evictionCount++;
+
+      if (victim == last)
+        break;
+    }
+
+    main.add(candidate);
+  }
+
+  private void remove(Entry entry) {
+    entries.remove(entry.ref);
+    (entry.inWindow ? window : main).remove(entry);
+  }
+
+}
@@ -1,31 +1,54 @@
 package com.faunadb.client;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.NullNode;
 import com.faunadb.client.errors.*;
 import com.faunadb.client.query.Expr;
+import com.faunadb.client.query.ExprCache;
+import com.faunadb.client.query.ExprModule;
+import com.faunadb.client.query.Pagination;
+import com.faunadb.client.query.PreparedQuery;
 import com.faunadb.client.types.Field;
+import com.faunadb.client.types.Projection;
 import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.RefV;
 import com.faunadb.common.Connection;
 import com.faunadb.common.Connection.JvmDriver;
 import com.faunadb.client.types.Value.NullV;
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.FullHttpResponse;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.ConnectException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 
 import static com.faunadb.client.types.Codec.VALUE;
@@ -80,6 +103,11 @@ public class FaunaClient implements AutoCloseable {
     private URL endpoint;
     private MetricRegistry registry;
     private Duration queryTimeout;
+    private ExprCache exprCache;
+    private Duration batchWindow;
+    private int batchSize;
+    private DocumentCache documentCache;
+    private QueryCache queryCache;
 
     private Builder() {
     }
@@ -130,6 +158,76 @@ public class FaunaClient implements AutoCloseable {
       return this;
     }
 
+    /**
+     * Sets an {@link ExprCache} to memoize the serialized form of the constant subexpressions reused
+     * across queries. Session clients share the cache of their parent client.
+     *
+     * @param cache the {@link ExprCache} instance.
+     * @return this {@link Builder} object
+     * @see ExprCache
+     */
+    public Builder withExprCache(ExprCache cache) {
+      this.exprCache = cache;
+      return this;
+    }
+
+    /**
+     * Coalesces the queries issued concurrently with {@link FaunaClient#query(Expr)} into array requests. The first
+     * query of a batch opens a window, and the queries issued within the window are sent in the same request once it
+     * closes, or as soon as the batch reaches its maximum size. Queries with their own timeout are not batched.
+     * <p>
+     * A batch runs as one transaction: its queries are applied in order and see the writes of the queries before
+     * them. When a batch fails because of one of its queries, such as with a {@link BadRequestException} or a
+     * {@link NotFoundException}, nothing is written, and each query is sent again on its own so only the queries
+     * that fail complete with an error. Other errors, such as timeouts, fail all queries of the batch. The sizes of
+     * the batches sent are reported by the {@code fauna-query-batch-size} histogram of the {@link MetricRegistry},
+     * if any.
+     *
+     * @param window how long a batch collects queries after its first one. The window has nanoseconds precision.
+     * @param maxSize the maximum number of queries per batch
+     * @return this {@link Builder} object
+     */
+    public Builder withQueryBatching(Duration window, int maxSize) {
+      if (window.isNegative())
+        throw new IllegalArgumentException("window must not be negative");
+
+      if (maxSize < 1)
+        throw new IllegalArgumentException("maxSize must be greater than zero");
+
+      this.batchWindow = window;
+      this.batchSize = maxSize;
+      return this;
+    }
+
+    /**
+     * Sets a {@link DocumentCache} to answer the queries issued with {@link FaunaClient#query(Expr)} that read a
+     * document by its ref, such as {@code Get(Ref(Collection("spells"), "123"))}. The writes issued by the client
+     * invalidate the documents they write to. Session clients do not read from the cache, but their writes invalidate
+     * it as well.
+     *
+     * @param cache the {@link DocumentCache} instance.
+     * @return this {@link Builder} object
+     * @see DocumentCache
+     */
+    public Builder withDocumentCache(DocumentCache cache) {
+      this.documentCache = cache;
+      return this;
+    }
+
+    /**
+     * Sets a {@link QueryCache} to memoize the results of the read-only queries issued with
+     * {@link FaunaClient#queryMemoized(Expr)}. Session clients share the cache of their parent client, keyed by
+     * their own secret.
+     *
+     * @param cache the {@link QueryCache} instance.
+     * @return this {@link Builder} object
+     * @see QueryCache
+     */
+    public Builder withQueryCache(QueryCache cache) {
+      this.queryCache = cache;
+      return this;
+    }
+
     /**
      * Returns a newly constructed {@link FaunaClient} with configuration based on the settings of this {@link Builder}.
      * @return {@link FaunaClient}
@@ -143,15 +241,59 @@ public class FaunaClient implements AutoCloseable {
 
       if (registry != null) builder.withMetrics(registry);
 
-      return new FaunaClient(builder.build());
+      return new FaunaClient(builder.build(), exprCache, registry, batchWindow, batchSize, documentCache, true,
+        queryCache, secret);
     }
   }
 
-  private final ObjectMapper json = new ObjectMapper().registerModule(new Jdk8Module());
+  private final ObjectMapper json = new ObjectMapper()
+    .registerModule(new Jdk8Module())
+    .registerModule(new ExprModule());
   private final Connection connection;
-
-  private FaunaClient(Connection connection) {
+  private final ObjectWriter writer;
+  private final ExprCache exprCache;
+  private final MetricRegistry registry;
+  private final Duration batchWindow;
+  private final int batchSize;
+  private final QueryBatcher batcher;
+  private final DocumentCache documentCache;
+  private final boolean cachesReads;
+  private final RefQueries refs;
+  private final QueryCache queryCache;
+  private final String secret;
+
+  private FaunaClient(Connection connection, ExprCache exprCache, MetricRegistry registry, Duration batchWindow,
+                      int batchSize, DocumentCache documentCache, boolean cachesReads, QueryCache queryCache,
+                      String secret) {
     this.connection = connection;
+    this.exprCache = exprCache;
+    this.registry = registry;
+    this.batchWindow = batchWindow;
+    this.batchSize = batchSize;
+    this.writer = exprCache == null ? json.writer() : json.writer().withAttribute(ExprCache.class, exprCache);
+    this.batcher = batchWindow == null ? null : new QueryBatcher(batchWindow, batchSize, writer,
+      exprs -> query(exprs, Optional.empty()), expr -> performRequest(expr, Optional.empty()),
+      registry != null ? registry.histogram("fauna-query-batch-size") : null);
+    this.documentCache = documentCache;
+    this.cachesReads = documentCache != null && cachesReads;
+    this.refs = documentCache == null ? null : new RefQueries(json);
+
+    if (this.cachesReads && registry != null) {
+      registry.gauge("fauna-document-cache-hits", () -> (Gauge<Long>) documentCache::getHitCount);
+      registry.gauge("fauna-document-cache-misses", () -> (Gauge<Long>) documentCache::getMissCount);
+      registry.gauge("fauna-document-cache-evictions", () -> (Gauge<Long>) documentCache::getEvictionCount);
+    }
+
+    this.queryCache = queryCache;
+    this.secret = secret;
+
+    if (queryCache != null && registry != null) {
+      registry.gauge("fauna-query-cache-hits", () -> (Gauge<Long>) queryCache::getHitCount);
+      registry.gauge("fauna-query-cache-stale-hits", () -> (Gauge<Long>) queryCache::getStaleHitCount);
+      registry.gauge("fauna-query-cache-misses", () -> (Gauge<Long>) queryCache::getMissCount);
+      registry.gauge("fauna-query-cache-refreshes", () -> (Gauge<Long>) queryCache::getRefreshCount);
+      registry.gauge("fauna-query-cache-evictions", () -> (Gauge<Long>) queryCache::getEvictionCount);
+    }
   }
 
   /**
@@ -159,11 +301,15 @@ public class FaunaClient implements AutoCloseable {
    * authenticated with the secret provided. A session client shares its parent's {@link Connection} instance
    * and must be closed after used.
    *
+   * <p>A session client does not read documents from the {@link DocumentCache} of its parent, since it may not be
+   * allowed to read the same documents, but its writes invalidate the documents it writes to.</p>
+   *
    * @param secret user secret for the session client
    * @return a new {@link FaunaClient}
    */
   public FaunaClient newSessionClient(String secret) {
-    return new FaunaClient(connection.newSessionConnection(secret));
+    return new FaunaClient(connection.newSessionConnection(secret), exprCache, registry, batchWindow, batchSize,
+      documentCache, false, queryCache, secret);
   }
 
   /**
@@ -228,7 +374,79 @@ public class FaunaClient implements AutoCloseable {
    * @see com.faunadb.client.query.Language
    */
   public CompletableFuture<Value> query(Expr expr, Optional<Duration> timeout) {
-    return performRequest(json.valueToTree(expr), timeout);
+    if (cachesReads)
+      return cachedQuery(expr, timeout);
+
+    if (batcher != null && !timeout.isPresent())
+      return batcher.query(expr);
+
+    return performRequest(expr, timeout);
+  }
+
+  /**
+   * Issues a prepared query to FaunaDB. Only the parameter values are serialized; the rest of the
+   * request body is copied from the fragments serialized when the query was prepared.
+   *
+   * @param query the prepared query to be executed.
+   * @param arguments the parameter values, keyed by parameter name.
+   * @return a {@link CompletableFuture} containing the root node of the response tree.
+   * @throws IllegalArgumentException if a parameter is missing or unknown
+   * @see PreparedQuery
+   */
+  public CompletableFuture<Value> query(PreparedQuery query, Map<String, ? extends Expr> arguments) {
+    return query(query, arguments, Optional.empty());
+  }
+
+  /**
+   * Issues a prepared query to FaunaDB. Only the parameter values are serialized; the rest of the
+   * request body is copied from the fragments serialized when the query was prepared.
+   *
+   * @param query the prepared query to be executed.
+   * @param arguments the parameter values, keyed by parameter name.
+   * @param timeout the timeout for the current query. It replaces the timeout value set for this
+   *                {@link FaunaClient} (if any), for the scope of this query. The timeout value
+   *                has milliseconds precision.
+   * @return a {@link CompletableFuture} containing the root node of the response tree.
+   * @throws IllegalArgumentException if a parameter is missing or unknown
+   * @see PreparedQuery
+   */
+  public CompletableFuture<Value> query(PreparedQuery query, Map<String, ? extends Expr> arguments, Optional<Duration> timeout) {
+    return performRequest(query.bind(arguments), timeout);
+  }
+
+  /**
+   * Issues a Query to FaunaDB, retaining only the fields provided in the response.
+   * <p>
+   * The response is parsed with the fields' paths pushed down into the parser: subtrees outside
+   * of the projected paths are skipped without being converted to {@link Value} instances.
+   * Extracting any of the projected fields from the returned value yields the same result as
+   * extracting it from the full response. See {@link Projection} for details on how the fields
+   * are applied to arrays.
+   *
+   * @param expr the query to be executed.
+   * @param fields the fields to be retained from the response.
+   * @return a {@link CompletableFuture} containing the root node of the projected response tree.
+   * @see Projection
+   * @see Field
+   */
+  public CompletableFuture<Value> query(Expr expr, Field<?>... fields) {
+    return query(expr, Optional.empty(), fields);
+  }
+
+  /**
+   * Issues a Query to FaunaDB, retaining only the fields provided in the response.
+   *
+   * @param expr the query to be executed.
+   * @param timeout the timeout for the current query. It replaces the timeout value set for this
+   *                {@link FaunaClient} (if any), for the scope of this query. The timeout value
+   *                has milliseconds precision.
+   * @param fields the fields to be retained from the response.
+   * @return a {@link CompletableFuture} containing the root node of the projected response tree.
+   * @see #query(Expr, Field[])
+   */
+  public CompletableFuture<Value> query(Expr expr, Optional<Duration> timeout, Field<?>... fields) {
+    Projection projection = Projection.of(fields);
+    return performRequest(expr, timeout, response -> handleResponse(response, projection));
   }
 
   /**
@@ -290,7 +508,158 @@ public class FaunaClient implements AutoCloseable {
    * @return a {@link CompletableFuture} containing an ordered list of the query's responses.
    */
   public CompletableFuture<List<Value>> query(List<? extends Expr> exprs, Optional<Duration> timeout) {
-    return performRequest(json.valueToTree(exprs), timeout).thenApply(result -> result.collect(Field.as(VALUE)));
+    return performRequest(exprs, timeout).thenApply(result -> result.collect(Field.as(VALUE)));
+  }
+
+  /**
+   * Issues a read-only Query to FaunaDB, memoizing its result in the {@link QueryCache} of this client, if any.
+   * <p>
+   * Results are returned for the time to live of the cache, then for its stale-while-revalidate time while they
+   * are refreshed in the background, without reflecting the writes made meanwhile. Queries that may write, or return
+   * new ids or tokens, are sent as usual, without being memoized.
+   *
+   * @param expr the query to be executed.
+   * @return a {@link CompletableFuture} containing the root node of the response tree.
+   * @see QueryCache
+   */
+  public CompletableFuture<Value> queryMemoized(Expr expr) {
+    if (queryCache == null)
+      return query(expr);
+
+    try {
+      ByteBuf body = serialize(expr);
+
+      if (!RefQueries.isRepeatable(body))
+        return send(body, Optional.empty(), this::handleResponse);
+
+      byte[] query = ByteBufUtil.getBytes(body);
+      body.release();
+
+      return queryCache.get(new QueryCache.Key(secret, query), () -> {
+        try {
+          return send(Unpooled.wrappedBuffer(query), Optional.empty(), this::handlePage);
+        } catch (IOException ex) {
+          CompletableFuture<PageIterator.Response> oops = new CompletableFuture<>();
+          oops.completeExceptionally(ex);
+          return oops;
+        }
+      });
+    } catch (IOException ex) {
+      CompletableFuture<Value> oops = new CompletableFuture<>();
+      oops.completeExceptionally(ex);
+      return oops;
+    }
+  }
+
+  /**
+   * Iterates over the pages of a set.
+   * <p>
+   * Pages are fetched on demand, one at a time, or ahead of the caller when prefetching is enabled with
+   * {@link PageIterator#prefetch(int, long)}. The cursors returned by FaunaDB are followed. Unless the
+   * pagination sets a timestamp, all pages are read as of the snapshot the first page was read at.
+   * The pagination provided is not modified. See {@link PageIterator} for details.
+   *
+   * @param pagination the pagination of the first page
+   * @return a {@link PageIterator} over the pages of the set
+   * @see PageIterator
+   */
+  public PageIterator paginate(Pagination pagination) {
+    return paginate(pagination, Optional.empty());
+  }
+
+  /**
+   * Iterates over the pages of a set.
+   *
+   * @param pagination the pagination of the first page
+   * @param timeout the timeout for the query of each page. It replaces the timeout value set for this
+   *                {@link FaunaClient} (if any). The timeout value has milliseconds precision.
+   * @return a {@link PageIterator} over the pages of the set
+   * @see #paginate(Pagination)
+   */
+  public PageIterator paginate(Pagination pagination, Optional<Duration> timeout) {
+    return new PageIterator(pagination, next -> performRequest(next, timeout, this::handlePage),
+      registry != null ? registry.timer("fauna-page-wait") : null);
+  }
+
+  /**
+   * Scans a set split into disjoint ranges of its index values, paginating the ranges concurrently.
+   * <p>
+   * The bounds split the set into the elements lower than the first bound, the elements between each bound and
+   * the next, and the elements greater than or equal to the last bound. See {@link SetScan} for details.
+   *
+   * @param set the set to scan. Type: Set of index values
+   * @param bounds the values splitting the set, in ascending order
+   * @return a {@link SetScan} over the set
+   * @see SetScan
+   */
+  public SetScan scan(Expr set, Expr... bounds) {
+    return scan(set, Arrays.asList(bounds));
+  }
+
+  /**
+   * Scans a set split into disjoint ranges of its index values, paginating the ranges concurrently.
+   *
+   * @param set the set to scan. Type: Set of index values
+   * @param bounds the values splitting the set, in ascending order
+   * @return a {@link SetScan} over the set
+   * @see #scan(Expr, Expr...)
+   */
+  public SetScan scan(Expr set, List<? extends Expr> bounds) {
+    return new SetScan(set, bounds, this::paginate);
+  }
+
+  /**
+   * Exports the elements of a set to a local file, one JSON value per line, saving checkpoints to resume from
+   * after a failure. See {@link SetExport} for details.
+   *
+   * @param pagination the pagination of the first page of the set
+   * @param output the file to write the elements to
+   * @param checkpoint the file to save checkpoints to
+   * @return a {@link SetExport} of the set
+   * @see SetExport
+   */
+  public SetExport export(Pagination pagination, Path output, Path checkpoint) {
+    return new SetExport(pagination, output, checkpoint, this::paginate);
+  }
+
+  /**
+   * Exports the elements of a set to a channel, one JSON value per line, copied from the responses of FaunaDB
+   * without decoding them. See {@link RawSetExport} for details.
+   *
+   * @param pagination the pagination of the first page of the set
+   * @param output the channel to write the elements to. It is not closed once the export completes.
+   * @return a {@link RawSetExport} of the set
+   * @see RawSetExport
+   */
+  public RawSetExport exportRaw(Pagination pagination, WritableByteChannel output) {
+    return new RawSetExport(pagination, output, next -> performRequest(next, Optional.empty(), this::handleRawPage));
+  }
+
+  /**
+   * Consumes the events of a set as it changes, polling them after the position committed last to the store
+   * provided. Events are passed to a handler page by page, and delivered at least once. See {@link ChangeFeed}
+   * for details.
+   *
+   * @param set the set to consume the events of
+   * @param offsets the store of the position up to which events were handled
+   * @return a {@link ChangeFeed} over the events of the set
+   * @see ChangeFeed
+   */
+  public ChangeFeed changeFeed(Expr set, OffsetStore offsets) {
+    return new ChangeFeed(set, offsets, this::paginate,
+      registry != null ? registry.meter("fauna-change-feed-events") : null);
+  }
+
+  /**
+   * Creates a writer of many independent queries, sent in batches of bounded size with a bounded number of
+   * batches in flight. Batches failing because of some of their queries are split until those queries are
+   * isolated, so the remaining ones are written. See {@link BulkWriter} for details.
+   *
+   * @return a new {@link BulkWriter}
+   * @see BulkWriter
+   */
+  public BulkWriter bulkWriter() {
+    return new BulkWriter(writer, exprs -> query(exprs), registry);
   }
 
   /**
@@ -335,16 +704,129 @@ public class FaunaClient implements AutoCloseable {
     }
   }
 
-  private CompletableFuture<Value> performRequest(JsonNode body, Optional<Duration> queryTimeout) {
+  private PageIterator.Response handlePage(FullHttpResponse response) {
+    String txnTime = response.headers().get("X-Txn-Time");
+    int size = response.content().readableBytes();
+    return new PageIterator.Response(handleResponse(response), txnTime != null ? Long.parseLong(txnTime) : 0L, size);
+  }
+
+  private RawSetExport.Page handleRawPage(FullHttpResponse response) {
+    try {
+      handleQueryErrors(response);
+      String txnTime = response.headers().get("X-Txn-Time");
+      return new RawSetExport.Page(response.content().retain(), txnTime != null ? Long.parseLong(txnTime) : 0L);
+    } finally {
+      response.release();
+    }
+  }
+
+  private Value handleResponse(FullHttpResponse response, Projection projection) {
+    try {
+      handleQueryErrors(response);
+
+      try (JsonParser parser = json.getFactory().createParser((InputStream) new ByteBufInputStream(response.content()))) {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+          throw new IOException("Invalid JSON.");
+        }
+
+        for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+          parser.nextToken();
+
+          if (field.equals("resource")) {
+            return projection.read(parser);
+          }
+
+          parser.skipChildren();
+        }
+
+        throw new IOException("Invalid JSON.");
+      }
+    } catch (IOException ex) {
+      throw new AssertionError(ex);
+    } finally {
+      response.release();
+    }
+  }
+
+  private CompletableFuture<Value> performRequest(Object body, Optional<Duration> queryTimeout) {
+    return performRequest(body, queryTimeout, this::handleResponse);
+  }
+
+  private <V> CompletableFuture<V> performRequest(Object body, Optional<Duration> queryTimeout,
+                                                  Function<FullHttpResponse, V> handler) {
     try {
-        return handleNetworkExceptions(connection.post("", body, queryTimeout).thenApply(this::handleResponse));
+        return send(serialize(body), queryTimeout, handler);
     } catch (IOException ex) {
-        CompletableFuture<Value> oops = new CompletableFuture<>();
+        CompletableFuture<V> oops = new CompletableFuture<>();
         oops.completeExceptionally(ex);
         return oops;
     }
   }
 
+  private <V> CompletableFuture<V> send(ByteBuf body, Optional<Duration> queryTimeout,
+                                        Function<FullHttpResponse, V> handler) throws IOException {
+    // The body is released once posted, so the documents written are read first
+    Set<RefV> written = documentCache != null ? refs.readWrites(body) : Collections.emptySet();
+    CompletableFuture<V> response = handleNetworkExceptions(connection.post("", body, queryTimeout).thenApply(handler));
+
+    if (written != null && written.isEmpty())
+      return response;
+
+    // Failed writes may still have been applied, so documents are invalidated either way
+    return response.whenComplete((value, ex) -> documentCache.invalidate(written, connection.getLastTxnTime()));
+  }
+
+  // Answers the reads of a document by ref from the document cache, sending other queries as usual
+  private CompletableFuture<Value> cachedQuery(Expr expr, Optional<Duration> timeout) {
+    try {
+      ByteBuf body = serialize(expr);
+      RefV ref = refs.readGet(body);
+
+      if (ref == null) {
+        // The batch writes the query as it was already serialized
+        if (batcher != null && !timeout.isPresent()) {
+          try {
+            return batcher.query(new Serialized(body.toString(StandardCharsets.UTF_8)));
+          } finally {
+            body.release();
+          }
+        }
+
+        return send(body, timeout, this::handleResponse);
+      }
+
+      Value cached = documentCache.get(ref);
+
+      if (cached != null) {
+        body.release();
+        return CompletableFuture.completedFuture(cached);
+      }
+
+      long readNanos = System.nanoTime();
+
+      return send(body, timeout, this::handlePage).thenApply(response -> {
+        documentCache.put(ref, response.page, response.txnTime, readNanos, response.size);
+        return response.page;
+      });
+    } catch (IOException ex) {
+      CompletableFuture<Value> oops = new CompletableFuture<>();
+      oops.completeExceptionally(ex);
+      return oops;
+    }
+  }
+
+  private ByteBuf serialize(Object body) throws IOException {
+    ByteBuf buf = Unpooled.buffer();
+
+    try {
+      writer.writeValue((OutputStream) new ByteBufOutputStream(buf), body);
+      return buf;
+    } catch (IOException ex) {
+      buf.release();
+      throw ex;
+    }
+  }
+
   private void handleQueryErrors(FullHttpResponse response) {
     int status = response.status().code();
     if (status >= 300) {
@@ -0,0 +1,86 @@
+package com.faunadb.client;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.faunadb.client.types.Value;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An {@link OffsetStore} saving the position to a local file. Each position is written to a temporary file, flushed
+ * to disk and moved over the previous one, so the file always holds a whole position.
+ *
+ * <p>Example:</p>
+ *
+ * <pre>{@code
+ * OffsetStore offsets = new FileOffsetStore(Paths.get("spells.offset"));
+ * }</pre>
+ */
+public final class FileOffsetStore implements OffsetStore {
+
+  private final ObjectMapper json = new ObjectMapper();
+  private final Path file;
+
+  /**
+   * Creates a store saving the position to the file provided.
+   *
+   * @param file the file to save the position to
+   */
+  public FileOffsetStore(Path file) {
+    this.file = file;
+  }
+
+  @Override
+  public synchronized CompletableFuture<Optional<Value>> load() {
+    CompletableFuture<Optional<Value>> result = new CompletableFuture<>();
+
+    try {
+      if (Files.exists(file))
+        result.complete(Optional.of(json.readValue(file.toFile(), Value.class)));
+      else
+        result.complete(Optional.empty());
+    } catch (IOException ex) {
+      result.completeExceptionally(ex);
+    }
+
+    return result;
+  }
+
+  @Override
+  public synchronized CompletableFuture<Void> commit(Value position) {
+    CompletableFuture<Void> result = new CompletableFuture<>();
+
+    try {
+      ByteArrayOutputStream saved = new ByteArrayOutputStream();
+
+      try (JsonGenerator gen = json.getFactory().createGenerator(saved)) {
+        ValueWriter.write(gen, position);
+      }
+
+      Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+        channel.write(ByteBuffer.wrap(saved.toByteArray()));
+        channel.force(false);
+      }
+
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      result.complete(null);
+    } catch (IOException ex) {
+      result.completeExceptionally(ex);
+    }
+
+    return result;
+  }
+
+}
@@ -0,0 +1,78 @@
+package com.faunadb.client;
+
+/**
+ * Estimates how often keys were seen recently, in a fixed amount of memory, for the admission policy of the
+ * {@link DocumentCache}. A count-min sketch of four rows of counters saturating at 15, whose counters are all
+ * halved once the number of increments reaches ten times the width of a row, so old accesses fade away.
+ *
+ * <p>Not thread safe.</p>
+ */
+final class FrequencySketch {
+
+  private static final int DEPTH = 4;
+  private static final int MAX_COUNT = 15;
+  private static final int[] SEEDS = { 0x97cb3127, 0x5cd6b349, 0xc2b2ae35, 0x27d4eb2f };
+
+  private final byte[] counters;
+  private final int mask;
+  private final int sampleSize;
+  private int additions;
+
+  /**
+   * Creates a sketch for about the number of keys provided.
+   *
+   * @param expectedKeys the number of keys expected to be tracked
+   */
+  FrequencySketch(long expectedKeys) {
+    int width = Integer.highestOneBit((int) Math.max(16, Math.min(expectedKeys, 1 << 22)) * 2 - 1);
+    this.counters = new byte[width * DEPTH];
+    this.mask = width - 1;
+    this.sampleSize = width * 10;
+  }
+
+  void increment(Object key) {
+    int hash = spread(key.hashCode());
+    boolean added = false;
+
+    for (int row = 0; row < DEPTH; row++) {
+      int index = index(hash, row);
+
+      if (counters[index] < MAX_COUNT) {
+        counters[index]++;
+        added = true;
+      }
+    }
+
+    if (added && ++additions == sampleSize)
+      reset();
+  }
+
+  int frequency(Object key) {
+    int hash = spread(key.hashCode());
+    int frequency = MAX_COUNT;
+
+    for (int row = 0; row < DEPTH; row++)
+      frequency = Math.min(frequency, counters[index(hash, row)]);
+
+    return frequency;
+  }
+
+  private int index(int hash, int row) {
+    int h = (hash ^ (hash >>> 16)) * SEEDS[row];
+    return row * (mask + 1) + ((h >>> 8) & mask);
+  }
+
+  // Halves all counters, keeping their relative order
+  private void reset() {
+    for (int i = 0; i < counters.length; i++)
+      counters[i] = (byte) (counters[i] >>> 1);
+
+    additions /= 2;
+  }
+
+  private static int spread(int hash) {
+    hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+    return (hash >>> 16) ^ hash;
+  }
+
+}
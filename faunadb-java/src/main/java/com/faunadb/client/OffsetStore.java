@@ -0,0 +1,33 @@
+package com.faunadb.client;
+
+import com.faunadb.client.types.Value;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Where a {@link ChangeFeed} saves the position up to which its events were handled, so that it resumes from
+ * there once restarted. Positions are cursors returned by FaunaDB or timestamps, and must be loaded back as the
+ * same values.
+ *
+ * @see FileOffsetStore
+ */
+public interface OffsetStore {
+
+  /**
+   * Loads the position committed last.
+   *
+   * @return a {@link CompletableFuture} containing the position committed last, or empty if none was committed
+   */
+  CompletableFuture<Optional<Value>> load();
+
+  /**
+   * Commits a position. Once the {@link CompletableFuture} returned completes, {@link #load()} must return the
+   * position, even after a restart.
+   *
+   * @param position the position to commit
+   * @return a {@link CompletableFuture} that completes once the position is committed
+   */
+  CompletableFuture<Void> commit(Value position);
+
+}
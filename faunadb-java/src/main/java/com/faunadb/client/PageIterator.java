@@ -0,0 +1,311 @@
+package com.faunadb.client;
+
+import com.codahale.metrics.Timer;
+import com.faunadb.client.query.Pagination;
+import com.faunadb.client.types.Field;
+import com.faunadb.client.types.Value;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static com.faunadb.client.types.Codec.ARRAY;
+
+/**
+ * An asynchronous iterator over the pages of a set. See {@link FaunaClient#paginate(Pagination)}.
+ *
+ * <p>Pages are fetched on demand. A page is requested only when {@link #next()} is called or, when visiting
+ * the set with {@link #forEachPage(Function)} or {@link #forEach(Consumer)}, once the previous page has been
+ * processed. At most one page is fetched at a time and pages are not retained by the iterator, so the set is
+ * never buffered as a whole. With {@link #prefetch(int, long)}, a bounded number of pages are fetched ahead
+ * of the caller instead.</p>
+ *
+ * <p>The iterator follows the {@code after} cursors of the pages, or their {@code before} cursors if the
+ * pagination's cursor was set with {@link Pagination#before(com.faunadb.client.query.Expr)}. Unless the
+ * pagination sets a timestamp, the pages after the first are read as of the transaction time of the first one,
+ * so all pages reflect the same snapshot of the set.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>{@code
+ * client.paginate(Paginate(Match(Index("all_spells"))).size(100))
+ *   .forEach(spell -> System.out.println(spell))
+ *   .join();
+ * }</pre>
+ *
+ * <p>Callbacks run on the thread that completed the fetch of the page, usually an I/O thread. Long running
+ * work should be handed over to an executor by returning its {@link CompletionStage} from
+ * {@link #forEachPage(Function)}.</p>
+ */
+public final class PageIterator {
+
+  private static final Field<List<Value>> DATA = Field.at("data").to(ARRAY);
+
+  static final class Response {
+    final Value page;
+    final long txnTime;
+    final long size;
+
+    Response(Value page, long txnTime, long size) {
+      this.page = page;
+      this.txnTime = txnTime;
+      this.size = size;
+    }
+  }
+
+  // A page requested from FaunaDB that may not have been returned by next() yet
+  private static final class Fetch {
+    final CompletableFuture<Value> result = new CompletableFuture<>();
+    boolean done;
+    boolean taken;
+    long size;
+  }
+
+  private final Function<Pagination, CompletableFuture<Response>> fetch;
+  private final Timer waits;
+  private final Deque<Fetch> fetched = new ArrayDeque<>();
+
+  private Pagination next;
+  private Long ts;
+  private boolean fetching;
+  private boolean failed;
+  private int prefetchPages;
+  private long prefetchBytes = Long.MAX_VALUE;
+  private long fetchedBytes;
+  private long waitCount;
+
+  PageIterator(Pagination pagination, Function<Pagination, CompletableFuture<Response>> fetch, Timer waits) {
+    this.next = pagination;
+    this.ts = pagination.getTs().orElse(null);
+    this.fetch = fetch;
+    this.waits = waits;
+  }
+
+  /**
+   * Fetches up to {@code pages} pages ahead of the page returned last by {@link #next()}, so the pages are
+   * fetched while the previous ones are processed.
+   *
+   * @param pages the maximum number of pages fetched but not returned by {@link #next()} yet
+   * @return this {@link PageIterator} instance
+   * @see #prefetch(int, long)
+   */
+  public PageIterator prefetch(int pages) {
+    return prefetch(pages, Long.MAX_VALUE);
+  }
+
+  /**
+   * Fetches up to {@code pages} pages ahead of the page returned last by {@link #next()}, so the pages are
+   * fetched while the previous ones are processed. Prefetching pauses once the size of the responses of the
+   * pages fetched but not returned by {@link #next()} yet reaches {@code bytes}.
+   * <p>
+   * Prefetching starts with the first call to {@link #next()}. Zero pages disables it. How often the pages
+   * returned were still being fetched is reported by {@link #getWaitCount()} and, if the client has a
+   * {@link com.codahale.metrics.MetricRegistry}, the {@code fauna-page-wait} timer.
+   *
+   * @param pages the maximum number of pages fetched but not returned by {@link #next()} yet
+   * @param bytes the maximum size of the responses of the pages fetched but not returned by {@link #next()} yet
+   * @return this {@link PageIterator} instance
+   */
+  public synchronized PageIterator prefetch(int pages, long bytes) {
+    if (pages < 0)
+      throw new IllegalArgumentException("pages must not be negative");
+
+    if (bytes < 1)
+      throw new IllegalArgumentException("bytes must be greater than zero");
+
+    this.prefetchPages = pages;
+    this.prefetchBytes = bytes;
+    return this;
+  }
+
+  /**
+   * Returns true if there are pages left to fetch. Until the first page is fetched, it is assumed the set has
+   * at least one page. While a page is being fetched, returns true.
+   *
+   * @return true if {@link #next()} can be called
+   */
+  public synchronized boolean hasNext() {
+    return !fetched.isEmpty() || next != null;
+  }
+
+  /**
+   * Returns how many of the pages returned by {@link #next()} were still being fetched.
+   *
+   * @return the number of pages the caller had to wait for
+   */
+  public synchronized long getWaitCount() {
+    return waitCount;
+  }
+
+  // The timestamp the pages are read at: the one set on the pagination, or else the transaction time of the first
+  // page, once known
+  synchronized Long snapshot() {
+    return ts;
+  }
+
+  /**
+   * Fetches the next page of the set, or returns it if it was prefetched.
+   *
+   * @return a {@link CompletableFuture} containing the next page
+   * @throws NoSuchElementException if there are no pages left
+   * @throws IllegalStateException if the previous page is still being fetched
+   */
+  public CompletableFuture<Value> next() {
+    Fetch head;
+
+    synchronized (this) {
+      if (fetched.isEmpty()) {
+        if (next == null)
+          throw new NoSuchElementException("No pages left");
+
+        if (fetching)
+          throw new IllegalStateException("The previous page is still being fetched");
+
+        failed = false;
+        startFetch();
+      }
+
+      head = fetched.poll();
+      head.taken = true;
+
+      if (head.done)
+        fetchedBytes -= head.size;
+      else
+        waitCount++;
+
+      prefetch();
+    }
+
+    if (waits != null && !head.result.isDone()) {
+      Timer.Context wait = waits.time();
+      head.result.whenComplete((page, ex) -> wait.stop());
+    }
+
+    return head.result;
+  }
+
+  /**
+   * Fetches the remaining pages of the set one by one, applying the action provided to each page in order.
+   * The next page is fetched once the {@link CompletionStage} returned by the action completes.
+   *
+   * @param action the action to apply to the pages
+   * @return a {@link CompletableFuture} that completes once all pages are processed, or fails with the first
+   * error fetching or processing a page
+   */
+  public CompletableFuture<Void> forEachPage(Function<? super Value, ? extends CompletionStage<?>> action) {
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    visit(action, done);
+    return done;
+  }
+
+  /**
+   * Fetches the remaining pages of the set one by one, applying the action provided to the elements of
+   * each page in order.
+   *
+   * @param action the action to apply to the elements
+   * @return a {@link CompletableFuture} that completes once all elements are processed, or fails with the first
+   * error fetching a page or processing an element
+   */
+  public CompletableFuture<Void> forEach(Consumer<? super Value> action) {
+    return forEachPage(page -> {
+      for (Value element : page.get(DATA))
+        action.accept(element);
+
+      return CompletableFuture.completedFuture(null);
+    });
+  }
+
+  // Loops while pages complete synchronously, so the stack does not grow with the number of pages
+  private void visit(Function<? super Value, ? extends CompletionStage<?>> action, CompletableFuture<Void> done) {
+    while (hasNext()) {
+      CompletableFuture<?> step;
+
+      try {
+        step = next().thenCompose(page -> action.apply(page).thenApply(result -> null));
+      } catch (RuntimeException ex) {
+        done.completeExceptionally(ex);
+        return;
+      }
+
+      if (!step.isDone() || step.isCompletedExceptionally()) {
+        step.whenComplete((ignored, ex) -> {
+          if (ex != null)
+            done.completeExceptionally(unwrap(ex));
+          else
+            visit(action, done);
+        });
+        return;
+      }
+    }
+
+    done.complete(null);
+  }
+
+  private void prefetch() {
+    if (!fetching && !failed && next != null && fetched.size() < prefetchPages && fetchedBytes < prefetchBytes)
+      startFetch();
+  }
+
+  private void startFetch() {
+    Pagination pagination = next;
+    Fetch page = new Fetch();
+
+    fetched.add(page);
+    fetching = true;
+
+    CompletableFuture<Response> response;
+    try {
+      response = fetch.apply(pagination);
+    } catch (RuntimeException ex) {
+      response = new CompletableFuture<>();
+      response.completeExceptionally(ex);
+    }
+
+    response.whenComplete((res, ex) -> complete(page, pagination, res, ex));
+  }
+
+  private void complete(Fetch page, Pagination pagination, Response response, Throwable error) {
+    synchronized (this) {
+      fetching = false;
+      page.done = true;
+
+      if (error == null) {
+        try {
+          if (ts == null && response.txnTime > 0)
+            ts = response.txnTime;
+
+          next = pagination.next(response.page, ts).orElse(null);
+        } catch (RuntimeException ex) {
+          error = ex;
+        }
+      }
+
+      if (error != null) {
+        failed = true;
+      } else {
+        if (!page.taken) {
+          page.size = response.size;
+          fetchedBytes += response.size;
+        }
+
+        prefetch();
+      }
+    }
+
+    if (error != null)
+      page.result.completeExceptionally(unwrap(error));
+    else
+      page.result.complete(response.page);
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+  }
+
+}
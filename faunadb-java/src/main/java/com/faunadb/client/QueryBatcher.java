@@ -0,0 +1,182 @@
+package com.faunadb.client;
+
+import com.codahale.metrics.Histogram;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.faunadb.client.errors.BadRequestException;
+import com.faunadb.client.errors.NotFoundException;
+import com.faunadb.client.query.Expr;
+import com.faunadb.client.types.Value;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces the queries issued concurrently through {@link FaunaClient#query(Expr)} into array requests, as
+ * enabled by {@link FaunaClient.Builder#withQueryBatching(Duration, int)}.
+ *
+ * <p>The first query of a batch opens a window of the duration configured. The queries issued within the window
+ * are sent together once it closes, or as soon as the batch reaches its maximum size. Each element of the
+ * response is routed back to the future of the query it belongs to. A batch of one query is sent as is. Queries are
+ * serialized when issued, so a query that can not be encoded fails on its own, without being added to a batch.</p>
+ *
+ * <p>A batch runs as one transaction: its queries are applied in order, see the writes of the queries before
+ * them, and all fail if any of them fails. When a batch fails with an error caused by one of its queries, that is
+ * a {@link BadRequestException} or a {@link NotFoundException}, nothing was written, and each query is sent again
+ * on its own so that only the queries that fail complete with an error. Other errors, such as timeouts, complete
+ * all queries of the batch with the error.</p>
+ */
+final class QueryBatcher {
+
+  private static final class Call {
+    final Serialized expr;
+    final CompletableFuture<Value> result = new CompletableFuture<>();
+
+    Call(Serialized expr) {
+      this.expr = expr;
+    }
+  }
+
+  private final long windowNanos;
+  private final int maxSize;
+  private final ObjectWriter writer;
+  private final Function<List<? extends Expr>, CompletableFuture<List<Value>>> batch;
+  private final Function<Expr, CompletableFuture<Value>> single;
+  private final Histogram sizes;
+
+  // Batch being collected, guarded by this instance
+  private List<Call> pending = new ArrayList<>();
+  private ScheduledFuture<?> window;
+
+  QueryBatcher(Duration window, int maxSize, ObjectWriter writer,
+               Function<List<? extends Expr>, CompletableFuture<List<Value>>> batch,
+               Function<Expr, CompletableFuture<Value>> single, Histogram sizes) {
+    if (window.isNegative())
+      throw new IllegalArgumentException("window must not be negative");
+
+    if (maxSize < 1)
+      throw new IllegalArgumentException("maxSize must be greater than zero");
+
+    this.windowNanos = window.toNanos();
+    this.maxSize = maxSize;
+    this.writer = writer;
+    this.batch = batch;
+    this.single = single;
+    this.sizes = sizes;
+  }
+
+  CompletableFuture<Value> query(Expr expr) {
+    Call call;
+
+    try {
+      call = new Call(expr instanceof Serialized ? (Serialized) expr : new Serialized(writer.writeValueAsString(expr)));
+    } catch (IOException | RuntimeException ex) {
+      CompletableFuture<Value> failed = new CompletableFuture<>();
+      failed.completeExceptionally(ex);
+      return failed;
+    }
+
+    List<Call> full = null;
+
+    synchronized (this) {
+      pending.add(call);
+
+      if (pending.size() >= maxSize) {
+        full = take();
+      } else if (pending.size() == 1) {
+        List<Call> opened = pending;
+        window = Timers.TIMER.schedule(() -> close(opened), windowNanos, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    if (full != null)
+      send(full);
+
+    return call.result;
+  }
+
+  // Sends the batch the window was opened for, unless it was already sent once full
+  private void close(List<Call> opened) {
+    List<Call> calls;
+
+    synchronized (this) {
+      if (pending != opened)
+        return;
+
+      calls = take();
+    }
+
+    send(calls);
+  }
+
+  private List<Call> take() {
+    List<Call> calls = pending;
+    pending = new ArrayList<>();
+
+    if (window != null) {
+      window.cancel(false);
+      window = null;
+    }
+
+    return calls;
+  }
+
+  private void send(List<Call> calls) {
+    if (sizes != null)
+      sizes.update(calls.size());
+
+    if (calls.size() == 1) {
+      sendAlone(calls.get(0));
+      return;
+    }
+
+    List<Expr> exprs = new ArrayList<>(calls.size());
+
+    for (Call call : calls)
+      exprs.add(call.expr);
+
+    apply(batch, exprs).whenComplete((results, ex) -> {
+      if (ex == null) {
+        for (int i = 0; i < calls.size(); i++)
+          calls.get(i).result.complete(results.get(i));
+
+        return;
+      }
+
+      Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+
+      for (Call call : calls) {
+        if (cause instanceof BadRequestException || cause instanceof NotFoundException)
+          sendAlone(call);
+        else
+          call.result.completeExceptionally(cause);
+      }
+    });
+  }
+
+  private void sendAlone(Call call) {
+    apply(single, call.expr).whenComplete((result, ex) -> {
+      if (ex == null)
+        call.result.complete(result);
+      else
+        call.result.completeExceptionally(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+    });
+  }
+
+  private static <T, R> CompletableFuture<R> apply(Function<T, CompletableFuture<R>> request, T argument) {
+    try {
+      return request.apply(argument);
+    } catch (RuntimeException ex) {
+      CompletableFuture<R> failed = new CompletableFuture<>();
+      failed.completeExceptionally(ex);
+      return failed;
+    }
+  }
+
+}
@@ -0,0 +1,349 @@
+package com.faunadb.client;
+
+import com.faunadb.client.types.Value;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of the results of read-only queries, such as the pages of reference data that are read far more
+ * often than they change.
+ *
+ * <p>Results are memoized by {@link FaunaClient#queryMemoized(com.faunadb.client.query.Expr)} for the clients
+ * configured with {@link FaunaClient.Builder#withQueryCache(QueryCache)}, keyed by the serialized query and the
+ * secret of the client, so session clients share the cache without seeing each other's results. A result is
+ * returned for its {@link #ttl(Duration)}, counted from when it was requested. For its
+ * {@link #staleWhileRevalidate(Duration)} after that, it is still returned while a single background query refreshes
+ * it. Concurrent queries missing the cache share the same request.</p>
+ *
+ * <p>Results are not invalidated by writes: queries whose results must reflect them right away should not be
+ * memoized. Queries that may write, including calls to user-defined functions and logins, or that return
+ * new ids, are never memoized.</p>
+ *
+ * <p>The cache is bounded either by its number of results or by the size of the queries and responses it holds,
+ * evicting the least recently used results first. Hits, stale hits, misses, refreshes and evictions are reported by
+ * their getters and, if the client has a {@link com.codahale.metrics.MetricRegistry}, the
+ * {@code fauna-query-cache-*} gauges.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>{@code
+ * FaunaClient client = FaunaClient.builder()
+ *   .withSecret(secret)
+ *   .withQueryCache(QueryCache.ofBytes(16 << 20).ttl(Duration.ofSeconds(10)).staleWhileRevalidate(Duration.ofMinutes(1)))
+ *   .build();
+ *
+ * client.queryMemoized(Paginate(Match(Index("countries"))));
+ * }</pre>
+ */
+public final class QueryCache {
+
+  static final class Key {
+    private final String secret;
+    private final byte[] query;
+    private final int hash;
+
+    Key(String secret, byte[] query) {
+      this.secret = secret;
+      this.query = query;
+      this.hash = 31 * (secret == null ? 0 : secret.hashCode()) + Arrays.hashCode(query);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key))
+        return false;
+
+      Key key = (Key) other;
+      return hash == key.hash && (secret == null ? key.secret == null : secret.equals(key.secret)) &&
+        Arrays.equals(query, key.query);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  // A result loaded, or being loaded when its value is null
+  private static final class Entry {
+    final CompletableFuture<Value> loading;
+    Value value;
+    long loadedNanos;
+    long weight;
+    boolean refreshing;
+
+    Entry(CompletableFuture<Value> loading) {
+      this.loading = loading;
+    }
+  }
+
+  private final long capacity;
+  private final boolean weighBytes;
+  private long ttlNanos = Duration.ofSeconds(1).toNanos();
+  private long staleNanos;
+
+  // Cache state, guarded by this instance. Entries are ordered from the least to the most recently used.
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long weight;
+  private long hitCount;
+  private long staleHitCount;
+  private long missCount;
+  private long refreshCount;
+  private long evictionCount;
+
+  private QueryCache(long capacity, boolean weighBytes) {
+    this.capacity = capacity;
+    this.weighBytes = weighBytes;
+  }
+
+  /**
+   * Creates a cache holding at most the number of results provided.
+   *
+   * @param maxEntries the maximum number of results
+   * @return a new {@link QueryCache}
+   */
+  public static QueryCache ofEntries(long maxEntries) {
+    if (maxEntries <= 0)
+      throw new IllegalArgumentException("maxEntries must be positive");
+
+    return new QueryCache(maxEntries, false);
+  }
+
+  /**
+   * Creates a cache holding results up to the total size provided, measured as the size of the serialized queries
+   * and of the responses they were read from.
+   *
+   * @param maxBytes the maximum size of the results
+   * @return a new {@link QueryCache}
+   */
+  public static QueryCache ofBytes(long maxBytes) {
+    if (maxBytes <= 0)
+      throw new IllegalArgumentException("maxBytes must be positive");
+
+    return new QueryCache(maxBytes, true);
+  }
+
+  /**
+   * Sets for how long a result is returned after it was requested from FaunaDB. Defaults to one second.
+   *
+   * @param ttl the time to live of the results. It has nanoseconds precision.
+   * @return this {@link QueryCache} instance
+   */
+  public synchronized QueryCache ttl(Duration ttl) {
+    if (ttl.isNegative())
+      throw new IllegalArgumentException("ttl must not be negative");
+
+    this.ttlNanos = ttl.toNanos();
+    return this;
+  }
+
+  /**
+   * Sets for how long after its time to live a result is still returned while it is refreshed in the background.
+   * Defaults to zero, so expired results are always queried again before being returned.
+   *
+   * @param staleness how long expired results are returned. It has nanoseconds precision.
+   * @return this {@link QueryCache} instance
+   */
+  public synchronized QueryCache staleWhileRevalidate(Duration staleness) {
+    if (staleness.isNegative())
+      throw new IllegalArgumentException("staleness must not be negative");
+
+    this.staleNanos = staleness.toNanos();
+    return this;
+  }
+
+  /**
+   * Returns how many queries were answered with fresh results.
+   *
+   * @return the number of hits
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Returns how many queries were answered with expired results being refreshed.
+   *
+   * @return the number of stale hits
+   */
+  public synchronized long getStaleHitCount() {
+    return staleHitCount;
+  }
+
+  /**
+   * Returns how many queries waited for a result from FaunaDB, including the ones sharing the request of another.
+   *
+   * @return the number of misses
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Returns how many results were refreshed in the background.
+   *
+   * @return the number of refreshes
+   */
+  public synchronized long getRefreshCount() {
+    return refreshCount;
+  }
+
+  /**
+   * Returns how many results were removed to make room for others.
+   *
+   * @return the number of evictions
+   */
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * Returns the number of results cached, including the ones being loaded.
+   *
+   * @return the number of results cached
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Removes all results. Queries in flight complete as usual, but their results are not cached.
+   */
+  public synchronized void invalidateAll() {
+    entries.clear();
+    weight = 0;
+  }
+
+  /**
+   * Returns the result memoized for the key, loading it if it is missing or expired, and refreshing it in the
+   * background if it is stale.
+   *
+   * @param key the query and secret
+   * @param load sends the query, returning its result and the size of its response
+   * @return the result
+   */
+  CompletableFuture<Value> get(Key key, Supplier<CompletableFuture<PageIterator.Response>> load) {
+    Entry entry;
+    Value stale = null;
+    boolean send = false;
+
+    synchronized (this) {
+      entry = entries.get(key);
+
+      if (entry != null && entry.value != null) {
+        long age = System.nanoTime() - entry.loadedNanos;
+
+        if (age <= ttlNanos) {
+          hitCount++;
+          return CompletableFuture.completedFuture(entry.value);
+        }
+
+        if (age <= ttlNanos + staleNanos) {
+          staleHitCount++;
+          stale = entry.value;
+        } else {
+          remove(key, entry);
+          entry = null;
+        }
+      }
+
+      if (stale != null) {
+        if (!entry.refreshing) {
+          entry.refreshing = true;
+          refreshCount++;
+          send = true;
+        }
+      } else {
+        missCount++;
+
+        if (entry == null) {
+          entry = new Entry(new CompletableFuture<>());
+          entries.put(key, entry);
+          send = true;
+        }
+      }
+    }
+
+    if (send)
+      startLoad(key, entry, load);
+
+    return stale != null ? CompletableFuture.completedFuture(stale) : entry.loading;
+  }
+
+  // Sends the query, storing its result if its entry is still cached
+  private void startLoad(Key key, Entry entry, Supplier<CompletableFuture<PageIterator.Response>> load) {
+    long loadNanos = System.nanoTime();
+    CompletableFuture<PageIterator.Response> response;
+
+    try {
+      response = load.get();
+    } catch (RuntimeException ex) {
+      response = new CompletableFuture<>();
+      response.completeExceptionally(ex);
+    }
+
+    response.whenComplete((result, ex) -> {
+      if (ex != null) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+
+        synchronized (this) {
+          entry.refreshing = false;
+
+          if (entry.value == null && entries.get(key) == entry)
+            entries.remove(key);
+        }
+
+        entry.loading.completeExceptionally(cause);
+      } else {
+        store(key, entry, result, loadNanos);
+        entry.loading.complete(result.page);
+      }
+    });
+  }
+
+  private synchronized void store(Key key, Entry entry, PageIterator.Response result, long loadNanos) {
+    entry.refreshing = false;
+
+    if (entries.get(key) != entry)
+      return;
+
+    long resultWeight = weighBytes ? key.query.length + result.size : 1;
+
+    if (resultWeight > capacity) {
+      remove(key, entry);
+      return;
+    }
+
+    weight += resultWeight - entry.weight;
+    entry.value = result.page;
+    entry.loadedNanos = loadNanos;
+    entry.weight = resultWeight;
+
+    Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+
+    while (weight > capacity && eldest.hasNext()) {
+      Map.Entry<Key, Entry> victim = eldest.next();
+
+      // Results being loaded do not weigh anything yet
+      if (victim.getValue() == entry || victim.getValue().value == null)
+        continue;
+
+      weight -= victim.getValue().weight;
+      eldest.remove();
+      evictionCount++;
+    }
+  }
+
+  private void remove(Key key, Entry entry) {
+    entries.remove(key);
+    weight -= entry.weight;
+  }
+
+}
@@ -0,0 +1,257 @@
+package com.faunadb.client;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.faunadb.client.query.Pagination;
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.ObjectV;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * An export of the elements of a set to a channel, one JSON value per line, copied from the responses of FaunaDB
+ * without decoding them into {@link Value}s. See {@link FaunaClient#exportRaw(Pagination, WritableByteChannel)}.
+ *
+ * <p>The {@code data} array of each page is read token by token from the body of the response and written to the
+ * channel as it is read, so elements are written as FaunaDB returns them, and each line can be read back as a
+ * {@link Value}. Only the cursors of the pages are decoded, to request the next page, which is sent before the
+ * elements of the current one are written. All pages are read at the timestamp of the first one.</p>
+ *
+ * <p>Unlike a {@link SetExport}, a raw export does not save checkpoints, and must be run again from the start
+ * after a failure. Lines are written to the channel in blocks of {@link #bufferSize(int)} bytes, by the tasks of
+ * {@link #executor(Executor)}. The channel is not closed once the export completes.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>{@code
+ * try (FileChannel output = FileChannel.open(Paths.get("spells.ndjson"), CREATE, WRITE, TRUNCATE_EXISTING)) {
+ *   long rows = client.exportRaw(Paginate(Match(Index("all_spells"))).size(1000), output)
+ *     .run()
+ *     .join();
+ * }
+ * }</pre>
+ */
+public final class RawSetExport {
+
+  /**
+   * The body of a response of FaunaDB, retained until its elements are written, and its transaction time.
+   */
+  static final class Page {
+    final ByteBuf content;
+    final long txnTime;
+
+    Page(ByteBuf content, long txnTime) {
+      this.content = content;
+      this.txnTime = txnTime;
+    }
+  }
+
+  private final ObjectMapper json = new ObjectMapper();
+
+  private final Pagination pagination;
+  private final WritableByteChannel output;
+  private final Function<Pagination, CompletableFuture<Page>> fetch;
+
+  private int bufferSize = 64 * 1024;
+  private Executor executor = ForkJoinPool.commonPool();
+
+  // Run state, confined to one task at a time
+  private final CompletableFuture<Long> done = new CompletableFuture<>();
+  private JsonGenerator generator;
+  private Long ts;
+  private long rows;
+  private boolean started;
+
+  RawSetExport(Pagination pagination, WritableByteChannel output, Function<Pagination, CompletableFuture<Page>> fetch) {
+    this.pagination = pagination;
+    this.output = output;
+    this.fetch = fetch;
+  }
+
+  /**
+   * Sets the size of the blocks written to the channel. Defaults to 64 KB.
+   *
+   * @param bytes the size of the write buffer
+   * @return this {@link RawSetExport} instance
+   */
+  public RawSetExport bufferSize(int bytes) {
+    if (bytes < 1)
+      throw new IllegalArgumentException("bytes must be greater than zero");
+
+    this.bufferSize = bytes;
+    return this;
+  }
+
+  /**
+   * Sets the executor the channel is written by. Defaults to the {@link ForkJoinPool#commonPool()}.
+   *
+   * @param executor the executor to write the channel by
+   * @return this {@link RawSetExport} instance
+   */
+  public RawSetExport executor(Executor executor) {
+    this.executor = executor;
+    return this;
+  }
+
+  /**
+   * Runs the export.
+   *
+   * @return a {@link CompletableFuture} containing the number of elements exported
+   * @throws IllegalStateException if the export was already run
+   */
+  public CompletableFuture<Long> run() {
+    synchronized (this) {
+      if (started)
+        throw new IllegalStateException("The export was already run");
+
+      started = true;
+    }
+
+    try {
+      generator = json.getFactory().createGenerator(new ChannelOutputStream(output, bufferSize));
+      generator.setRootValueSeparator(null);
+    } catch (IOException ex) {
+      done.completeExceptionally(ex);
+      return done;
+    }
+
+    export(pagination, fetch(pagination));
+    return done;
+  }
+
+  // Requests a page, failing the returned stage instead of throwing
+  private CompletableFuture<Page> fetch(Pagination page) {
+    try {
+      return fetch.apply(page);
+    } catch (RuntimeException ex) {
+      CompletableFuture<Page> failed = new CompletableFuture<>();
+      failed.completeExceptionally(ex);
+      return failed;
+    }
+  }
+
+  // Requests the next page, if any, then writes the elements of the page once returned. Each page is handled by
+  // its own task, so the stack does not grow with the number of pages.
+  private void export(Pagination current, CompletableFuture<Page> response) {
+    response.whenCompleteAsync((page, ex) -> {
+      if (ex != null) {
+        done.completeExceptionally(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+        return;
+      }
+
+      Optional<Pagination> following;
+      CompletableFuture<Page> next = null;
+
+      try {
+        if (ts == null && page.txnTime > 0)
+          ts = page.txnTime;
+
+        following = current.next(readCursor(page.content), ts);
+
+        if (following.isPresent())
+          next = fetch(following.get());
+
+        write(page.content);
+
+        if (next == null)
+          generator.flush();
+      } catch (IOException | RuntimeException failure) {
+        if (next != null)
+          next.thenAccept(unwritten -> unwritten.content.release());
+
+        done.completeExceptionally(failure);
+        return;
+      } finally {
+        page.content.release();
+      }
+
+      if (next == null)
+        done.complete(rows);
+      else
+        export(following.get(), next);
+    }, executor);
+  }
+
+  // Decodes the cursors of the page, skipping its elements
+  private Value readCursor(ByteBuf content) throws IOException {
+    Map<String, Value> cursor = new HashMap<>();
+
+    try (JsonParser parser = openResource(content)) {
+      for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+        parser.nextToken();
+
+        if (field.equals("before") || field.equals("after"))
+          cursor.put(field, json.readValue(parser, Value.class));
+        else
+          parser.skipChildren();
+      }
+    }
+
+    return new ObjectV(cursor);
+  }
+
+  // Copies the elements of the page to the channel, one per line
+  private void write(ByteBuf content) throws IOException {
+    try (JsonParser parser = openResource(content)) {
+      for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+        JsonToken token = parser.nextToken();
+
+        if (!field.equals("data")) {
+          parser.skipChildren();
+          continue;
+        }
+
+        if (token != JsonToken.START_ARRAY)
+          throw new IOException("Invalid JSON.");
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          generator.copyCurrentStructure(parser);
+          generator.writeRaw('\n');
+          rows++;
+        }
+
+        return;
+      }
+    }
+
+    throw new IOException("Invalid JSON.");
+  }
+
+  // Returns a parser positioned at the start of the resource of the response, without consuming the buffer
+  private JsonParser openResource(ByteBuf content) throws IOException {
+    JsonParser parser = json.getFactory().createParser((InputStream) new ByteBufInputStream(content.duplicate()));
+
+    try {
+      if (parser.nextToken() == JsonToken.START_OBJECT) {
+        for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+          JsonToken token = parser.nextToken();
+
+          if (field.equals("resource") && token == JsonToken.START_OBJECT)
+            return parser;
+
+          parser.skipChildren();
+        }
+      }
+
+      throw new IOException("Invalid JSON.");
+    } catch (IOException ex) {
+      parser.close();
+      throw ex;
+    }
+  }
+
+}
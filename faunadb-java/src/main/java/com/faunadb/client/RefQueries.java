@@ -0,0 +1,238 @@
+package com.faunadb.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.Native;
+import com.faunadb.client.types.Value.RefV;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the documents a serialized query reads or writes by ref, for the {@link DocumentCache}, and whether it can
+ * be memoized at all, for the {@link QueryCache}. Queries are inspected after being serialized, since that is the
+ * form all queries take, whichever way they were built.
+ *
+ * <p>Literal refs are either ref values, as returned by FaunaDB, or {@code Ref(Collection("name"), "id")}
+ * expressions. Refs of other forms, such as variables bound by {@code Let} or {@code Lambda}, are unknown.</p>
+ */
+final class RefQueries {
+
+  private static final byte[] GET = "{\"get\":".getBytes(StandardCharsets.UTF_8);
+
+  private static final String[] WRITES = { "update", "replace", "delete", "insert", "remove" };
+
+  // User-defined functions may write to any document
+  private static final String CALL = "call";
+
+  // Functions that write or return a new result on each call. User-defined functions are included since they may
+  // write, and logins and logouts since they create and delete tokens.
+  private static final String[] UNREPEATABLE = {
+    "create", "create_class", "create_collection", "create_database", "create_key", "create_index",
+    "create_function", "create_role", "update", "replace", "delete", "insert", "remove", "move_database", "call",
+    "login", "logout", "new_id", "next_id"
+  };
+
+  private static final byte[][] WRITE_KEYS = quoted(new String[] {
+    "update", "replace", "delete", "insert", "remove", CALL
+  });
+
+  private static final byte[][] UNREPEATABLE_KEYS = quoted(UNREPEATABLE);
+
+  private final ObjectMapper json;
+
+  RefQueries(ObjectMapper json) {
+    this.json = json;
+  }
+
+  /**
+   * Returns the ref read by the query, if the query is nothing but a {@code Get} of a literal ref.
+   *
+   * @param query the serialized query, left unread
+   * @return the ref read, or null if the query is not a {@code Get} of a literal ref
+   */
+  RefV readGet(ByteBuf query) {
+    if (!startsWith(query, GET))
+      return null;
+
+    JsonNode tree = parse(query);
+
+    if (tree == null || tree.size() != 1)
+      return null;
+
+    return literalRef(tree.get("get"));
+  }
+
+  /**
+   * Returns the refs the query may write to. Creations are left out, since they do not change documents that could
+   * have been read before.
+   *
+   * @param query the serialized query, left unread
+   * @return the refs written, empty if the query does not write to existing documents, or null if it writes to
+   * refs that are not literal or calls a user-defined function
+   */
+  Set<RefV> readWrites(ByteBuf query) {
+    if (!containsAny(query, WRITE_KEYS))
+      return Collections.emptySet();
+
+    JsonNode tree = parse(query);
+
+    if (tree == null)
+      return null;
+
+    Set<RefV> refs = new HashSet<>();
+    return collectWrites(tree, refs) ? refs : null;
+  }
+
+  /**
+   * Returns whether the query only reads, and returns the same result when repeated against the same data. Errs on
+   * the side of unrepeatable queries: strings and field names spelled like the functions that write or return new
+   * ids are taken for them.
+   *
+   * @param query the serialized query, left unread
+   * @return true if the query can be answered with the result of a previous run
+   */
+  static boolean isRepeatable(ByteBuf query) {
+    return !containsAny(query, UNREPEATABLE_KEYS);
+  }
+
+  // Collects the literal refs written by the tree, returning false if a ref written is not literal or if a function
+  // is called
+  private boolean collectWrites(JsonNode node, Set<RefV> refs) {
+    if (node.isArray()) {
+      for (JsonNode element : node) {
+        if (!collectWrites(element, refs))
+          return false;
+      }
+
+      return true;
+    }
+
+    if (!node.isObject())
+      return true;
+
+    // Values written as they are, such as the data of documents, are not queries
+    if (node.has("@ref") || node.has("@ts") || node.has("@date") || node.has("@bytes") || node.has("@query"))
+      return true;
+
+    // The keys of object literals are field names, not functions, but their values may be queries
+    if (node.size() == 1 && node.path("object").isObject()) {
+      for (JsonNode value : node.get("object")) {
+        if (!collectWrites(value, refs))
+          return false;
+      }
+
+      return true;
+    }
+
+    if (node.has(CALL))
+      return false;
+
+    for (String write : WRITES) {
+      JsonNode target = node.get(write);
+
+      if (target != null) {
+        RefV ref = literalRef(target);
+
+        if (ref == null)
+          return false;
+
+        refs.add(ref);
+      }
+    }
+
+    Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+
+    while (fields.hasNext()) {
+      if (!collectWrites(fields.next().getValue(), refs))
+        return false;
+    }
+
+    return true;
+  }
+
+  private RefV literalRef(JsonNode node) {
+    if (node == null || !node.isObject())
+      return null;
+
+    if (node.size() == 1 && node.path("@ref").isObject()) {
+      try {
+        Value ref = json.treeToValue(node, Value.class);
+        return ref instanceof RefV ? (RefV) ref : null;
+      } catch (IOException ex) {
+        return null;
+      }
+    }
+
+    JsonNode collection = node.path("ref");
+    JsonNode id = node.path("id");
+
+    if (node.size() == 2 && collection.size() == 1 && collection.path("collection").isTextual() && id.isTextual())
+      return new RefV(id.asText(), new RefV(collection.get("collection").asText(), Native.COLLECTIONS));
+
+    return null;
+  }
+
+  private JsonNode parse(ByteBuf query) {
+    try (InputStream in = new ByteBufInputStream(query.duplicate())) {
+      return json.readTree(in);
+    } catch (IOException ex) {
+      return null;
+    }
+  }
+
+  private static byte[][] quoted(String[] names) {
+    byte[][] keys = new byte[names.length][];
+
+    for (int i = 0; i < names.length; i++)
+      keys[i] = ("\"" + names[i] + "\"").getBytes(StandardCharsets.UTF_8);
+
+    return keys;
+  }
+
+  private static boolean startsWith(ByteBuf buf, byte[] prefix) {
+    if (buf.readableBytes() < prefix.length)
+      return false;
+
+    for (int i = 0; i < prefix.length; i++) {
+      if (buf.getByte(buf.readerIndex() + i) != prefix[i])
+        return false;
+    }
+
+    return true;
+  }
+
+  private static boolean containsAny(ByteBuf buf, byte[][] needles) {
+    int start = buf.readerIndex();
+    int end = buf.writerIndex();
+
+    for (int i = start; i < end; i++) {
+      if (buf.getByte(i) != '"')
+        continue;
+
+      for (byte[] needle : needles) {
+        if (i + needle.length > end)
+          continue;
+
+        int j = 1;
+        while (j < needle.length && buf.getByte(i + j) == needle[j])
+          j++;
+
+        if (j == needle.length)
+          return true;
+      }
+    }
+
+    return false;
+  }
+
+}
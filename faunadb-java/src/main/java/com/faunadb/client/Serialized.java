@@ -0,0 +1,57 @@
+package com.faunadb.client;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.faunadb.client.query.Expr;
+
+import java.io.IOException;
+
+/**
+ * A query serialized once, when it was issued, and written as is within the requests it is sent in. Queries are
+ * serialized up front so that objects changed afterwards do not change what is sent, and so that a query that can
+ * not be encoded only fails itself.
+ */
+final class Serialized extends Expr {
+
+  final String json;
+  final int size;
+
+  Serialized(String json) {
+    this.json = json;
+    this.size = utf8Length(json);
+  }
+
+  @Override
+  @JsonValue
+  protected Object toJson() {
+    return new RawValue(json);
+  }
+
+  @Override
+  protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+    gen.writeRawValue(json);
+  }
+
+  @Override
+  public String toString() {
+    return json;
+  }
+
+  private static int utf8Length(String json) {
+    int length = json.length();
+
+    for (int i = 0; i < json.length(); i++) {
+      char c = json.charAt(i);
+
+      if (c >= 0x800 && !Character.isSurrogate(c))
+        length += 2;
+      else if (c >= 0x80)
+        length += 1;
+    }
+
+    return length;
+  }
+
+}
@@ -0,0 +1,309 @@
+package com.faunadb.client;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.faunadb.client.query.Pagination;
+import com.faunadb.client.types.Field;
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.ObjectV;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import static com.faunadb.client.types.Codec.ARRAY;
+
+/**
+ * An export of the elements of a set to a local file, one JSON value per line, that resumes where it stopped
+ * after a failure. See {@link FaunaClient#export(Pagination, Path, Path)}.
+ *
+ * <p>Elements are written as FaunaDB returns them, so each line can be read back as a {@link Value}.</p>
+ *
+ * <p>Every {@link #checkpointEvery(int)} pages, the lines written are flushed to disk and a checkpoint is saved
+ * with the size of the file, the cursor of the next page and the timestamp the set is read at. The checkpoint is
+ * written to a temporary file moved over the previous checkpoint, so it is replaced atomically.</p>
+ *
+ * <p>When an export is run with an existing checkpoint, the file is truncated to the size saved, dropping the
+ * lines written after the checkpoint, and the set is paginated from the cursor saved, at the same timestamp.
+ * Each element of the set is written exactly once across the runs of the export. Once all pages are written, the
+ * checkpoint is marked as done, and further runs return without querying FaunaDB.</p>
+ *
+ * <p>Lines are serialized into a buffer reused across pages and written to the file's {@link FileChannel} in
+ * blocks of {@link #bufferSize(int)} bytes. Files are written by the tasks of {@link #executor(Executor)}, while
+ * {@link #prefetch(int)} pages are fetched ahead.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>{@code
+ * long rows = client.export(Paginate(Match(Index("all_spells"))).size(1000),
+ *     Paths.get("spells.ndjson"), Paths.get("spells.checkpoint"))
+ *   .checkpointEvery(10)
+ *   .run()
+ *   .join();
+ * }</pre>
+ */
+public final class SetExport {
+
+  private static final Field<List<Value>> DATA = Field.at("data").to(ARRAY);
+
+  private final ObjectMapper json = new ObjectMapper().disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+  private final Pagination pagination;
+  private final Path output;
+  private final Path checkpoint;
+  private final Function<Pagination, PageIterator> paginate;
+
+  private int checkpointEvery = 10;
+  private int prefetch;
+  private int bufferSize = 64 * 1024;
+  private Executor executor = ForkJoinPool.commonPool();
+
+  // Run state, confined to one task at a time
+  private FileChannel channel;
+  private JsonGenerator generator;
+  private long rows;
+  private Long restoredTs;
+  private int pagesSinceCheckpoint;
+  private boolean started;
+
+  SetExport(Pagination pagination, Path output, Path checkpoint, Function<Pagination, PageIterator> paginate) {
+    this.pagination = pagination;
+    this.output = output;
+    this.checkpoint = checkpoint;
+    this.paginate = paginate;
+  }
+
+  /**
+   * Sets how many pages are written between checkpoints. Defaults to 10.
+   *
+   * @param pages the number of pages between checkpoints
+   * @return this {@link SetExport} instance
+   */
+  public SetExport checkpointEvery(int pages) {
+    if (pages < 1)
+      throw new IllegalArgumentException("pages must be greater than zero");
+
+    this.checkpointEvery = pages;
+    return this;
+  }
+
+  /**
+   * Sets how many pages are fetched while the previous ones are written. Defaults to zero.
+   *
+   * @param pages the number of pages fetched ahead
+   * @return this {@link SetExport} instance
+   * @see PageIterator#prefetch(int)
+   */
+  public SetExport prefetch(int pages) {
+    if (pages < 0)
+      throw new IllegalArgumentException("pages must not be negative");
+
+    this.prefetch = pages;
+    return this;
+  }
+
+  /**
+   * Sets the size of the blocks written to the file. Defaults to 64 KB.
+   *
+   * @param bytes the size of the write buffer
+   * @return this {@link SetExport} instance
+   */
+  public SetExport bufferSize(int bytes) {
+    if (bytes < 1)
+      throw new IllegalArgumentException("bytes must be greater than zero");
+
+    this.bufferSize = bytes;
+    return this;
+  }
+
+  /**
+   * Sets the executor the file is written by. Defaults to the {@link ForkJoinPool#commonPool()}.
+   *
+   * @param executor the executor to write the file by
+   * @return this {@link SetExport} instance
+   */
+  public SetExport executor(Executor executor) {
+    this.executor = executor;
+    return this;
+  }
+
+  /**
+   * Runs the export, resuming from the checkpoint if there is one.
+   *
+   * @return a {@link CompletableFuture} containing the number of elements exported across all runs
+   * @throws IllegalStateException if the export was already run
+   */
+  public CompletableFuture<Long> run() {
+    synchronized (this) {
+      if (started)
+        throw new IllegalStateException("The export was already run");
+
+      started = true;
+    }
+
+    return CompletableFuture
+      .supplyAsync(this::open, executor)
+      .thenCompose(next -> {
+        // A run resumed after the last page was checkpointed only has to mark the export as done
+        if (!next.isPresent())
+          return CompletableFuture.completedFuture(channel != null ? finish(null) : rows);
+
+        PageIterator pages = paginate.apply(next.get()).prefetch(prefetch);
+
+        return pages
+          .forEachPage(page -> CompletableFuture.runAsync(() -> write(pages, page), executor))
+          .thenApplyAsync(ignored -> finish(pages), executor);
+      })
+      .whenCompleteAsync((result, ex) -> close(), executor)
+      .exceptionally(ex -> {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        throw new CompletionException(cause instanceof UncheckedIOException ? cause.getCause() : cause);
+      });
+  }
+
+  // Restores the checkpoint, if any, and opens the file. Returns the pagination to continue from, if any.
+  private Optional<Pagination> open() {
+    try {
+      Optional<Pagination> next = Optional.of(pagination);
+      long offset = 0;
+
+      if (Files.exists(checkpoint)) {
+        JsonNode saved = json.readTree(checkpoint.toFile());
+
+        if (!saved.path("query").asText().equals(json.writeValueAsString(pagination)))
+          throw new IllegalStateException("The checkpoint " + checkpoint + " belongs to another export");
+
+        rows = saved.get("rows").asLong();
+        offset = saved.get("offset").asLong();
+
+        if (saved.path("done").asBoolean())
+          return Optional.empty();
+
+        Value cursor = json.treeToValue(saved.get("cursor"), Value.class);
+        restoredTs = saved.hasNonNull("ts") ? saved.get("ts").asLong() : null;
+        next = pagination.next(cursor, restoredTs);
+      }
+
+      channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      channel.truncate(offset);
+      channel.position(offset);
+
+      generator = json.getFactory().createGenerator(new ChannelOutputStream(channel, bufferSize));
+      generator.setRootValueSeparator(null);
+
+      return next;
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private void write(PageIterator pages, Value page) {
+    try {
+      for (Value element : page.get(DATA)) {
+        ValueWriter.write(generator, element);
+        generator.writeRaw('\n');
+        rows++;
+      }
+
+      if (++pagesSinceCheckpoint == checkpointEvery) {
+        save(snapshot(pages), cursor(page), false);
+        pagesSinceCheckpoint = 0;
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private long finish(PageIterator pages) {
+    try {
+      save(pages != null ? snapshot(pages) : restoredTs, null, true);
+      return rows;
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // The snapshot restored from the checkpoint, if any, so all runs read the set at the same timestamp
+  private Long snapshot(PageIterator pages) {
+    return restoredTs != null ? restoredTs : pages.snapshot();
+  }
+
+  // Flushes the lines written to disk before replacing the checkpoint, so the checkpoint never refers to lines
+  // that could be lost
+  private void save(Long ts, Value cursor, boolean done) throws IOException {
+    generator.flush();
+    channel.force(false);
+
+    ByteArrayOutputStream saved = new ByteArrayOutputStream();
+
+    try (JsonGenerator gen = json.getFactory().createGenerator(saved)) {
+      gen.writeStartObject();
+      gen.writeStringField("query", json.writeValueAsString(pagination));
+      gen.writeNumberField("rows", rows);
+      gen.writeNumberField("offset", channel.position());
+
+      if (ts != null)
+        gen.writeNumberField("ts", ts);
+
+      if (cursor != null) {
+        gen.writeFieldName("cursor");
+        ValueWriter.write(gen, cursor);
+      }
+
+      if (done)
+        gen.writeBooleanField("done", true);
+
+      gen.writeEndObject();
+    }
+
+    Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+
+    try (FileChannel file = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+      StandardOpenOption.TRUNCATE_EXISTING)) {
+      file.write(ByteBuffer.wrap(saved.toByteArray()));
+      file.force(false);
+    }
+
+    Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  // Keeps the cursors of the page, from which the pagination of the next page is built when resuming
+  private static Value cursor(Value page) {
+    Map<String, Value> cursor = new HashMap<>();
+
+    for (String name : new String[] { "before", "after" }) {
+      Value value = page.at(name);
+
+      if (!(value instanceof Value.NullV))
+        cursor.put(name, value);
+    }
+
+    return new ObjectV(cursor);
+  }
+
+  private void close() {
+    try {
+      if (channel != null)
+        channel.close();
+    } catch (IOException ignored) {
+    }
+  }
+
+}
@@ -0,0 +1,421 @@
+package com.faunadb.client;
+
+import com.faunadb.client.query.Expr;
+import com.faunadb.client.query.Pagination;
+import com.faunadb.client.types.Field;
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.ArrayV;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static com.faunadb.client.query.Language.Arr;
+import static com.faunadb.client.query.Language.Paginate;
+import static com.faunadb.client.query.Language.Range;
+import static com.faunadb.client.types.Codec.ARRAY;
+
+/**
+ * A scan of a set split into disjoint ranges of its values, whose partitions are paginated concurrently.
+ * See {@link FaunaClient#scan(Expr, Expr...)}.
+ *
+ * <p>Given the bounds {@code b1 < b2 < ... < bn}, the set is split into the {@code n + 1} partitions of the
+ * elements lower than {@code b1}, between {@code b1} and {@code b2}, and so on, up to the elements greater than or
+ * equal to {@code bn}. Each partition is paginated with {@link com.faunadb.client.query.Language#Range(Expr, Expr, Expr)}.
+ * As {@code Range} is inclusive, the elements whose values start with the upper bound of a partition are
+ * dropped from it, as they belong to the next partition. Bounds must be values, such as the ones returned by
+ * {@link com.faunadb.client.query.Language#Value(long)}, comparable to the index values of the set.</p>
+ *
+ * <p>At most {@link #concurrency(int)} partitions are paginated at once, each with at most one page being fetched,
+ * and each holding at most {@link #buffer(int)} pages not yet processed. All partitions are read at the same
+ * snapshot: the timestamp set with {@link #ts(long)} or, if none, the snapshot of the first page of the first
+ * partition.</p>
+ *
+ * <p>Pages are processed one at a time, as they are fetched or, if {@link #ordered(boolean)}, in the order of the
+ * partitions.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>{@code
+ * client.scan(Match(Index("spells_by_cost")), Value(10), Value(100), Value(1000))
+ *   .size(1000)
+ *   .concurrency(4)
+ *   .forEach(spell -> System.out.println(spell))
+ *   .join();
+ * }</pre>
+ */
+public final class SetScan {
+
+  private static final Field<List<Value>> DATA = Field.at("data").to(ARRAY);
+
+  private static final class Partition {
+    final PageIterator iterator;
+    final Value upper;
+    final Deque<List<Value>> pages = new ArrayDeque<>();
+    boolean fetching;
+
+    Partition(PageIterator iterator, Value upper) {
+      this.iterator = iterator;
+      this.upper = upper;
+    }
+
+    boolean isFinished() {
+      return !fetching && !iterator.hasNext() && pages.isEmpty();
+    }
+  }
+
+  private final Expr set;
+  private final List<Value> bounds;
+  private final Function<Pagination, PageIterator> paginate;
+
+  private int size;
+  private int concurrency = 1;
+  private int buffer = 1;
+  private boolean ordered;
+  private Long ts;
+
+  // Scan state, guarded by this instance
+  private final List<Partition> active = new ArrayList<>();
+  private int started;
+  private boolean snapshotKnown;
+  private Long snapshot;
+  private boolean delivering;
+  private boolean pumping;
+  private boolean repump;
+  private Throwable failure;
+  private Function<? super List<Value>, ? extends CompletionStage<?>> action;
+  private CompletableFuture<Void> done;
+
+  SetScan(Expr set, List<? extends Expr> bounds, Function<Pagination, PageIterator> paginate) {
+    List<Value> values = new ArrayList<>(bounds.size());
+
+    for (Expr bound : bounds) {
+      if (!(bound instanceof Value))
+        throw new IllegalArgumentException("Scan bounds must be values, but found " + bound);
+
+      values.add((Value) bound);
+    }
+
+    this.set = set;
+    this.bounds = Collections.unmodifiableList(values);
+    this.paginate = paginate;
+  }
+
+  /**
+   * Sets the maximum number of elements per page.
+   *
+   * @param size the page size
+   * @return this {@link SetScan} instance
+   */
+  public SetScan size(int size) {
+    this.size = size;
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of partitions paginated at once, which is the maximum number of queries in flight.
+   * Defaults to one.
+   *
+   * @param concurrency the number of partitions paginated at once
+   * @return this {@link SetScan} instance
+   */
+  public SetScan concurrency(int concurrency) {
+    if (concurrency < 1)
+      throw new IllegalArgumentException("concurrency must be greater than zero");
+
+    this.concurrency = concurrency;
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of pages fetched but not processed yet per partition. Defaults to one.
+   *
+   * @param pages the number of pages buffered per partition
+   * @return this {@link SetScan} instance
+   */
+  public SetScan buffer(int pages) {
+    if (pages < 1)
+      throw new IllegalArgumentException("pages must be greater than zero");
+
+    this.buffer = pages;
+    return this;
+  }
+
+  /**
+   * Sets whether pages are processed in the order of the partitions, that is, in the order of the set.
+   * Defaults to false, processing pages as they are fetched.
+   *
+   * @param ordered true to process pages in the order of the set
+   * @return this {@link SetScan} instance
+   */
+  public SetScan ordered(boolean ordered) {
+    this.ordered = ordered;
+    return this;
+  }
+
+  /**
+   * Sets the timestamp to read the set at.
+   *
+   * @param ts the timestamp in UNIX microseconds
+   * @return this {@link SetScan} instance
+   */
+  public SetScan ts(long ts) {
+    this.ts = ts;
+    return this;
+  }
+
+  /**
+   * Returns the paginations of the partitions of the set.
+   *
+   * @return the pagination of each partition, in the order of the set
+   */
+  public List<Pagination> partitions() {
+    List<Pagination> partitions = new ArrayList<>(bounds.size() + 1);
+
+    for (int i = 0; i <= bounds.size(); i++)
+      partitions.add(partition(i, ts));
+
+    return partitions;
+  }
+
+  /**
+   * Scans the set, applying the action provided to the elements of each page. Actions are applied one at a
+   * time, and the partition of a page does not fetch more pages than its buffer until the
+   * {@link CompletionStage} returned by the action for the page completes.
+   *
+   * @param action the action to apply to the elements of the pages
+   * @return a {@link CompletableFuture} that completes once all pages are processed, or fails with the first
+   * error fetching or processing a page
+   * @throws IllegalStateException if the scan was already started
+   */
+  public CompletableFuture<Void> forEachPage(Function<? super List<Value>, ? extends CompletionStage<?>> action) {
+    synchronized (this) {
+      if (done != null)
+        throw new IllegalStateException("The scan was already started");
+
+      this.action = action;
+      this.done = new CompletableFuture<>();
+      this.snapshot = ts;
+      this.snapshotKnown = ts != null;
+    }
+
+    pump();
+    return done;
+  }
+
+  /**
+   * Scans the set, applying the action provided to its elements. Actions are applied one at a time.
+   *
+   * @param action the action to apply to the elements
+   * @return a {@link CompletableFuture} that completes once all elements are processed, or fails with the first
+   * error fetching a page or processing an element
+   * @throws IllegalStateException if the scan was already started
+   * @see #forEachPage(Function)
+   */
+  public CompletableFuture<Void> forEach(Consumer<? super Value> action) {
+    return forEachPage(page -> {
+      for (Value element : page)
+        action.accept(element);
+
+      return CompletableFuture.completedFuture(null);
+    });
+  }
+
+  private Pagination partition(int index, Long ts) {
+    Expr from = index == 0 ? Arr() : bounds.get(index - 1);
+    Expr to = index == bounds.size() ? Arr() : bounds.get(index);
+
+    Pagination pagination = Paginate(Range(set, from, to));
+
+    if (size > 0)
+      pagination.size(size);
+
+    if (ts != null)
+      pagination.ts(ts);
+
+    return pagination;
+  }
+
+  // Starts the fetches and the processing of pages the scan's state allows. Runs on one thread at a time, looping
+  // instead of recursing when fetches or actions complete synchronously.
+  private void pump() {
+    synchronized (this) {
+      if (pumping) {
+        repump = true;
+        return;
+      }
+
+      pumping = true;
+    }
+
+    while (true) {
+      List<Partition> fetches = new ArrayList<>();
+      List<Value> page = null;
+
+      synchronized (this) {
+        if (failure == null) {
+          admit();
+
+          for (Partition partition : active) {
+            if (!partition.fetching && partition.iterator.hasNext() && partition.pages.size() < buffer) {
+              partition.fetching = true;
+              fetches.add(partition);
+            }
+          }
+
+          if (!delivering)
+            page = nextPage();
+        }
+
+        if (fetches.isEmpty() && page == null && !repump) {
+          pumping = false;
+
+          if (failure == null && active.isEmpty() && started > bounds.size() && !delivering)
+            done.complete(null);
+
+          return;
+        }
+
+        repump = false;
+      }
+
+      for (Partition partition : fetches)
+        fetch(partition);
+
+      if (page != null)
+        deliver(page);
+    }
+  }
+
+  // Starts partitions while fewer than the concurrency are active. Until the snapshot is known, that is until the
+  // first page is fetched, only the first partition is started.
+  private void admit() {
+    active.removeIf(Partition::isFinished);
+
+    while (active.size() < concurrency && started <= bounds.size() && (started == 0 || snapshotKnown)) {
+      int index = started++;
+      PageIterator iterator = paginate.apply(partition(index, snapshot));
+      active.add(new Partition(iterator, index == bounds.size() ? null : bounds.get(index)));
+    }
+  }
+
+  private List<Value> nextPage() {
+    for (Partition partition : active) {
+      if (!partition.pages.isEmpty()) {
+        delivering = true;
+        return partition.pages.poll();
+      }
+
+      if (ordered)
+        return null;
+    }
+
+    return null;
+  }
+
+  private void fetch(Partition partition) {
+    CompletableFuture<Value> page;
+
+    try {
+      page = partition.iterator.next();
+    } catch (RuntimeException ex) {
+      fail(ex);
+      return;
+    }
+
+    page.whenComplete((value, ex) -> {
+      if (ex != null) {
+        fail(ex);
+        return;
+      }
+
+      List<Value> elements;
+      try {
+        elements = elements(partition, value);
+      } catch (RuntimeException e) {
+        fail(e);
+        return;
+      }
+
+      synchronized (this) {
+        partition.fetching = false;
+
+        if (!snapshotKnown) {
+          snapshot = partition.iterator.snapshot();
+          snapshotKnown = true;
+        }
+
+        if (!elements.isEmpty())
+          partition.pages.add(elements);
+      }
+
+      pump();
+    });
+  }
+
+  private void deliver(List<Value> page) {
+    CompletionStage<?> stage;
+
+    try {
+      stage = action.apply(page);
+    } catch (RuntimeException ex) {
+      fail(ex);
+      return;
+    }
+
+    stage.whenComplete((ignored, ex) -> {
+      if (ex != null) {
+        fail(ex);
+        return;
+      }
+
+      synchronized (this) {
+        delivering = false;
+      }
+
+      pump();
+    });
+  }
+
+  private void fail(Throwable error) {
+    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+
+    synchronized (this) {
+      if (failure != null)
+        return;
+
+      failure = cause;
+    }
+
+    done.completeExceptionally(cause);
+  }
+
+  // Drops the elements that belong to the next partition, since Range includes its upper bound
+  private static List<Value> elements(Partition partition, Value page) {
+    List<Value> elements = page.get(DATA);
+
+    if (partition.upper == null)
+      return elements;
+
+    int end = elements.size();
+    while (end > 0 && startsWith(elements.get(end - 1), partition.upper))
+      end--;
+
+    return end == elements.size() ? elements : elements.subList(0, end);
+  }
+
+  private static boolean startsWith(Value element, Value bound) {
+    List<Value> values = element instanceof ArrayV ? element.get(Field.as(ARRAY)) : Collections.singletonList(element);
+    List<Value> prefix = bound instanceof ArrayV ? bound.get(Field.as(ARRAY)) : Collections.singletonList(bound);
+
+    return values.size() >= prefix.size() && values.subList(0, prefix.size()).equals(prefix);
+  }
+
+}
@@ -0,0 +1,21 @@
+package com.faunadb.client;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * The scheduler of the delayed tasks of the client, such as closing the windows of batched queries or polling
+ * change feeds. Its single daemon thread only runs short tasks, which start requests or hand over work.
+ */
+final class Timers {
+
+  static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(task -> {
+    Thread thread = new Thread(task, "fauna-timer");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private Timers() {
+  }
+
+}
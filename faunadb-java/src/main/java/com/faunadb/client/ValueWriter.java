@@ -0,0 +1,62 @@
+package com.faunadb.client;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.faunadb.client.types.Field;
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.ArrayV;
+import com.faunadb.client.types.Value.ObjectV;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static com.faunadb.client.types.Codec.ARRAY;
+import static com.faunadb.client.types.Codec.OBJECT;
+
+/**
+ * Writes values as FaunaDB does in its responses, so they are read back as the same values. Used to save values
+ * to local files, such as exported elements or the cursors of checkpoints and offsets.
+ */
+final class ValueWriter {
+
+  private ValueWriter() {
+  }
+
+  // Objects are written as they are, escaped with @obj if a key is reserved, instead of as the object expressions
+  // Value writes.
+  static void write(JsonGenerator gen, Value value) throws IOException {
+    if (value instanceof ObjectV) {
+      Map<String, Value> fields = value.get(Field.as(OBJECT));
+      boolean escape = false;
+
+      for (String key : fields.keySet())
+        escape |= key.startsWith("@");
+
+      gen.writeStartObject();
+
+      if (escape) {
+        gen.writeFieldName("@obj");
+        gen.writeStartObject();
+      }
+
+      for (Map.Entry<String, Value> field : fields.entrySet()) {
+        gen.writeFieldName(field.getKey());
+        write(gen, field.getValue());
+      }
+
+      if (escape)
+        gen.writeEndObject();
+
+      gen.writeEndObject();
+    } else if (value instanceof ArrayV) {
+      gen.writeStartArray();
+
+      for (Value element : value.get(Field.as(ARRAY)))
+        write(gen, element);
+
+      gen.writeEndArray();
+    } else {
+      gen.writeObject(value);
+    }
+  }
+
+}
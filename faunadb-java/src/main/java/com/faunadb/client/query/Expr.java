@@ -1,5 +1,10 @@
 package com.faunadb.client.query;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
 /**
  * A query language expression. Constructors for this class are at the {@link Language} class.
  * Expressions are not evaluated until sent to a FaunaDB server.
@@ -11,6 +16,51 @@ public abstract class Expr {
   // To be used by Jackson
   protected abstract Object toJson();
 
+  /**
+   * Whether this expression and all its subexpressions are immutable, so that its serialized form
+   * can be cached by an {@link ExprCache}.
+   *
+   * @return true if the expression can never change
+   */
+  protected boolean isImmutable() {
+    return false;
+  }
+
+  /**
+   * Writes this expression straight to the {@link JsonGenerator} provided. Used by the serializers
+   * registered with {@link ExprModule}. The output must be identical to the one produced from {@link #toJson()}.
+   *
+   * @param gen the generator to write to
+   * @param provider the serializer provider in use
+   * @throws IOException if the expression can not be written
+   */
+  protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+    provider.defaultSerializeValue(toJson(), gen);
+  }
+
+  /**
+   * Writes the expression provided, or a JSON null if absent. Goes through the {@link ExprCache}
+   * set as an attribute of the provider, if any.
+   *
+   * @param expr the expression to write
+   * @param gen the generator to write to
+   * @param provider the serializer provider in use
+   * @throws IOException if the expression can not be written
+   */
+  protected static void serialize(Expr expr, JsonGenerator gen, SerializerProvider provider) throws IOException {
+    if (expr == null) {
+      gen.writeNull();
+      return;
+    }
+
+    ExprCache cache = (ExprCache) provider.getAttribute(ExprCache.class);
+
+    if (cache == null)
+      expr.serialize(gen, provider);
+    else
+      cache.write(expr, gen, provider);
+  }
+
   @Override
   public String toString() {
     return String.format("%s(%s)", getClass().getSimpleName(), toJson());
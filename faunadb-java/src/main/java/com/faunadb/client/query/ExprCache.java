@@ -0,0 +1,160 @@
+package com.faunadb.client.query;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.ArrayV;
+import com.faunadb.client.types.Value.ObjectV;
+import com.faunadb.client.types.Value.RefV;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bounded cache of serialized expressions, used to avoid serializing the same constant subexpressions,
+ * such as {@code Collection("users")} or a static {@code Obj} literal, on every request.
+ * <p>
+ * Expressions are cached by identity: an immutable expression written a second time is serialized
+ * to UTF-8 once, and written as raw bytes from then on. Expressions built for a single request are never
+ * cached, so the cache only pays off for expressions kept around and reused, for instance in static fields.
+ * Entries are weakly referenced and go away with their expressions. Once the cache is full, other
+ * expressions are serialized as usual.
+ * <p>
+ * Memoization is opt-in. Either configure the client with {@code FaunaClient.Builder#withExprCache}, or
+ * write expressions with an {@code ObjectWriter} carrying the cache as an attribute:
+ *
+ * <pre>{@code
+ *   ExprCache cache = new ExprCache(1024);
+ *   ObjectWriter writer = new ObjectMapper()
+ *     .registerModule(new ExprModule())
+ *     .writer()
+ *     .withAttribute(ExprCache.class, cache);
+ * }</pre>
+ *
+ * Memoization assumes {@link Value} instances, and the collections they are built from, are not mutated
+ * after being used in a query.
+ */
+public final class ExprCache {
+
+  private static final ObjectMapper json = new ObjectMapper().registerModule(new ExprModule());
+
+  private static final class Key extends WeakReference<Expr> {
+    private final int hash;
+
+    private Key(Expr expr, ReferenceQueue<Expr> queue) {
+      super(expr, queue);
+      this.hash = System.identityHashCode(expr);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other == this || (other instanceof Key && ((Key) other).get() == get() && get() != null);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private final ConcurrentHashMap<Key, SerializedString> entries = new ConcurrentHashMap<>();
+  // Expressions written once, only admitted in the cache when written again. Cleared when full.
+  private final ConcurrentHashMap<Key, Boolean> seen = new ConcurrentHashMap<>();
+  private final ReferenceQueue<Expr> collected = new ReferenceQueue<>();
+  private final int maxEntries;
+
+  /**
+   * Creates a new cache.
+   *
+   * @param maxEntries the maximum number of serialized expressions to keep
+   */
+  public ExprCache(int maxEntries) {
+    if (maxEntries <= 0)
+      throw new IllegalArgumentException("maxEntries must be positive");
+
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * The number of serialized expressions currently cached.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    expunge();
+    return entries.size();
+  }
+
+  void write(Expr expr, JsonGenerator gen, SerializerProvider provider) throws IOException {
+    if (!isMemoizable(expr)) {
+      expr.serialize(gen, provider);
+      return;
+    }
+
+    SerializedString serialized = entries.get(new Key(expr, null));
+
+    if (serialized == null) {
+      if (firstSeen(expr)) {
+        expr.serialize(gen, provider);
+        return;
+      }
+
+      serialized = admit(expr);
+    }
+
+    if (serialized == null)
+      expr.serialize(gen, provider);
+    else
+      gen.writeRawValue(serialized);
+  }
+
+  // Scalar values are cheaper to write than to look up
+  private static boolean isMemoizable(Expr expr) {
+    if (expr instanceof Value)
+      return expr instanceof ObjectV || expr instanceof ArrayV || expr instanceof RefV;
+
+    return expr.isImmutable();
+  }
+
+  // Records the expression as seen, returning whether it was not already
+  private boolean firstSeen(Expr expr) {
+    if (seen.size() >= maxEntries) {
+      expunge();
+
+      if (seen.size() >= maxEntries)
+        seen.clear();
+    }
+
+    return seen.putIfAbsent(new Key(expr, collected), Boolean.TRUE) == null;
+  }
+
+  private SerializedString admit(Expr expr) throws IOException {
+    if (entries.size() >= maxEntries) {
+      expunge();
+
+      if (entries.size() >= maxEntries)
+        return null;
+    }
+
+    SerializedString serialized = new SerializedString(json.writeValueAsString(expr));
+    serialized.asUnquotedUTF8(); // encode once, before sharing it
+
+    seen.remove(new Key(expr, null));
+    SerializedString existing = entries.putIfAbsent(new Key(expr, collected), serialized);
+    return existing != null ? existing : serialized;
+  }
+
+  private void expunge() {
+    Reference<? extends Expr> ref;
+    while ((ref = collected.poll()) != null) {
+      entries.remove(ref);
+      seen.remove(ref);
+    }
+  }
+
+}
@@ -0,0 +1,44 @@
+package com.faunadb.client.query;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * A Jackson module that serializes {@link Expr} trees, including {@link com.faunadb.client.types.Value} instances,
+ * by writing each node straight to the {@link JsonGenerator}. It produces the same output as the annotation
+ * based serialization without introspecting the expression classes or allocating intermediate wrappers.
+ *
+ * <p>Example:</p>
+ *
+ * <pre>{@code
+ *   ObjectMapper json = new ObjectMapper().registerModule(new ExprModule());
+ *   byte[] query = json.writeValueAsBytes(Get(Ref(Collection("spells"), "123")));
+ * }</pre>
+ */
+public final class ExprModule extends SimpleModule {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final class ExprSerializer extends StdSerializer<Expr> {
+    private static final long serialVersionUID = 1L;
+
+    private ExprSerializer() {
+      super(Expr.class);
+    }
+
+    @Override
+    public void serialize(Expr expr, JsonGenerator gen, SerializerProvider provider) throws IOException {
+      Expr.serialize(expr, gen, provider);
+    }
+  }
+
+  public ExprModule() {
+    super("FaunaDBExprModule");
+    addSerializer(Expr.class, new ExprSerializer());
+  }
+
+}
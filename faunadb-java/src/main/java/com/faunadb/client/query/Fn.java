@@ -1,76 +1,159 @@
 package com.faunadb.client.query;
 
 import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
 
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
+/**
+ * Builds the function call and literal nodes of the query language.
+ *
+ * <p>Nodes keep their keys and arguments in fixed size arrays instead of maps, so building a
+ * function call costs the node itself plus its slot arrays. The map and list views used by
+ * annotation based serialization are only built on demand.</p>
+ */
 final class Fn {
 
-  private static abstract class Unescaped<T> extends Expr {
-    final T body;
+  private static final Expr[] NO_EXPRS = new Expr[0];
 
-    private Unescaped(T body) {
-      this.body = body;
+  private static final class UnescapedObject extends Expr {
+    private final String[] keys;
+    private final Expr[] values;
+    private final boolean immutable;
+
+    private UnescapedObject(String[] keys, Expr[] values) {
+      this.keys = keys;
+      this.values = values;
+      this.immutable = allImmutable(values);
+    }
+
+    @Override
+    protected boolean isImmutable() {
+      return immutable;
     }
 
     @Override
     @JsonValue
-    protected T toJson() {
-      return body;
+    protected Map<String, Expr> toJson() {
+      Map<String, Expr> body = new LinkedHashMap<>(keys.length * 2);
+      for (int i = 0; i < keys.length; i++)
+        body.put(keys[i], values[i]);
+      return Collections.unmodifiableMap(body);
+    }
+
+    @Override
+    protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeStartObject();
+      for (int i = 0; i < keys.length; i++) {
+        gen.writeFieldName(keys[i]);
+        serialize(values[i], gen, provider);
+      }
+      gen.writeEndObject();
     }
   }
 
-  private static final class UnescapedObject extends Unescaped<Map<String, Expr>> {
-    private UnescapedObject(Map<String, ? extends Expr> body) {
-      super(Collections.unmodifiableMap(body));
+  private static final class UnescapedArray extends Expr {
+    private final Expr[] body;
+    private final boolean immutable;
+
+    private UnescapedArray(Expr[] body) {
+      this.body = body;
+      this.immutable = allImmutable(body);
+    }
+
+    @Override
+    protected boolean isImmutable() {
+      return immutable;
+    }
+
+    @Override
+    @JsonValue
+    protected List<Expr> toJson() {
+      return Collections.unmodifiableList(Arrays.asList(body));
+    }
+
+    @Override
+    protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeStartArray();
+      for (Expr expr : body)
+        serialize(expr, gen, provider);
+      gen.writeEndArray();
     }
   }
 
-  private static final class UnescapedArray extends Unescaped<List<Expr>> {
-    private UnescapedArray(List<? extends Expr> body) {
-      super(Collections.unmodifiableList(body));
+  private static boolean allImmutable(Expr[] exprs) {
+    for (Expr expr : exprs) {
+      if (expr != null && !expr.isImmutable())
+        return false;
     }
+    return true;
   }
 
   static Expr apply(List<? extends Expr> args) {
+    return new UnescapedArray(args.toArray(NO_EXPRS));
+  }
+
+  /**
+   * Wraps the array provided without copying it. Callers must not modify the array afterwards.
+   */
+  static Expr apply(Expr[] args) {
     return new UnescapedArray(args);
   }
 
   static Expr apply(Map<String, ? extends Expr> args) {
-    return new UnescapedObject(args);
+    String[] keys = new String[args.size()];
+    Expr[] values = new Expr[keys.length];
+
+    int i = 0;
+    for (Map.Entry<String, ? extends Expr> entry : args.entrySet()) {
+      keys[i] = entry.getKey();
+      values[i++] = entry.getValue();
+    }
+
+    return new UnescapedObject(keys, values);
   }
 
   static Expr apply(String k1, Expr p1) {
-    Map<String, Expr> kvs = new LinkedHashMap<>();
-    kvs.put(k1, p1);
-    return apply(kvs);
+    return new UnescapedObject(new String[] {k1}, new Expr[] {p1});
   }
 
   static Expr apply(String k1, Expr p1, String k2, Expr p2) {
-    Map<String, Expr> kvs = new LinkedHashMap<>();
-    kvs.put(k1, p1);
-    kvs.put(k2, p2);
-    return apply(kvs);
+    return new UnescapedObject(new String[] {k1, k2}, new Expr[] {p1, p2});
   }
 
   static Expr apply(String k1, Expr p1, String k2, Expr p2, String k3, Expr p3) {
-    Map<String, Expr> kvs = new LinkedHashMap<>();
-    kvs.put(k1, p1);
-    kvs.put(k2, p2);
-    kvs.put(k3, p3);
-    return apply(kvs);
+    return new UnescapedObject(new String[] {k1, k2, k3}, new Expr[] {p1, p2, p3});
   }
 
   static Expr apply(String k1, Expr p1, String k2, Expr p2, String k3, Expr p3, String k4, Expr p4) {
-    Map<String, Expr> kvs = new LinkedHashMap<>();
-    kvs.put(k1, p1);
-    kvs.put(k2, p2);
-    kvs.put(k3, p3);
-    kvs.put(k4, p4);
-    return apply(kvs);
+    return new UnescapedObject(new String[] {k1, k2, k3, k4}, new Expr[] {p1, p2, p3, p4});
+  }
+
+  /**
+   * Builds an object literal from user provided keys. Unlike the {@code apply} overloads, keys may repeat,
+   * in which case the last value wins and the key keeps the position of its first occurrence, as in a
+   * {@link LinkedHashMap}.
+   */
+  static Expr object(String[] keys, Expr[] values) {
+    for (int i = 1; i < keys.length; i++) {
+      for (int j = 0; j < i; j++) {
+        if (Objects.equals(keys[i], keys[j])) {
+          Map<String, Expr> body = new LinkedHashMap<>();
+          for (int k = 0; k < keys.length; k++)
+            body.put(keys[k], values[k]);
+          return apply(body);
+        }
+      }
+    }
+
+    return new UnescapedObject(keys, values);
   }
 
 }
@@ -8,7 +8,6 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.UnaryOperator;
@@ -495,12 +494,16 @@ public final class Language {
   /**
    * Encodes the given object using the reflection {@link Encoder}.
    *
+   * <p>User defined classes, collections and maps are written straight to JSON when the query is serialized,
+   * so they must not be modified until the query is sent. Encoding errors are reported when the query is sent.</p>
+   *
    * @param value the object to be encoded
    * @return a new {@link Expr} instance
    * @see Encoder
+   * @see Encoder#encodeLazily(Object)
    */
   public static Expr Value(Object value) {
-    return Encoder.encode(value).get();
+    return Encoder.encodeLazily(value);
   }
 
   /**
@@ -522,7 +525,7 @@ public final class Language {
    * @see <a href="https://app.fauna.com/documentation/reference/queryapi#simple-type">FaunaDB Values</a>
    */
   public static Expr Value(long value) {
-    return new LongV(value);
+    return LongV.valueOf(value);
   }
 
   /**
@@ -631,7 +634,7 @@ public final class Language {
    * @see <a href="https://app.fauna.com/documentation/reference/queryapi#simple-type">FaunaDB Values</a>
    */
   public static Expr Obj(String k1, Expr v1) {
-    return Obj(Collections.singletonMap(k1, v1));
+    return Fn.apply("object", Fn.apply(k1, v1));
   }
 
   /**
@@ -645,10 +648,7 @@ public final class Language {
    * @see <a href="https://app.fauna.com/documentation/reference/queryapi#simple-type">FaunaDB Values</a>
    */
   public static Expr Obj(String k1, Expr v1, String k2, Expr v2) {
-    Map<String, Expr> obj = new LinkedHashMap<>();
-    obj.put(k1, v1);
-    obj.put(k2, v2);
-    return Obj(Collections.unmodifiableMap(obj));
+    return Fn.apply("object", Fn.object(new String[] {k1, k2}, new Expr[] {v1, v2}));
   }
 
   /**
@@ -664,11 +664,7 @@ public final class Language {
    * @see <a href="https://app.fauna.com/documentation/reference/queryapi#simple-type">FaunaDB Values</a>
    */
   public static Expr Obj(String k1, Expr v1, String k2, Expr v2, String k3, Expr v3) {
-    Map<String, Expr> obj = new LinkedHashMap<>();
-    obj.put(k1, v1);
-    obj.put(k2, v2);
-    obj.put(k3, v3);
-    return Obj(Collections.unmodifiableMap(obj));
+    return Fn.apply("object", Fn.object(new String[] {k1, k2, k3}, new Expr[] {v1, v2, v3}));
   }
 
   /**
@@ -686,12 +682,7 @@ public final class Language {
    * @see <a href="https://app.fauna.com/documentation/reference/queryapi#simple-type">FaunaDB Values</a>
    */
   public static Expr Obj(String k1, Expr v1, String k2, Expr v2, String k3, Expr v3, String k4, Expr v4) {
-    Map<String, Expr> obj = new LinkedHashMap<>();
-    obj.put(k1, v1);
-    obj.put(k2, v2);
-    obj.put(k3, v3);
-    obj.put(k4, v4);
-    return Obj(Collections.unmodifiableMap(obj));
+    return Fn.apply("object", Fn.object(new String[] {k1, k2, k3, k4}, new Expr[] {v1, v2, v3, v4}));
   }
 
   /**
@@ -711,13 +702,7 @@ public final class Language {
    * @see <a href="https://app.fauna.com/documentation/reference/queryapi#simple-type">FaunaDB Values</a>
    */
   public static Expr Obj(String k1, Expr v1, String k2, Expr v2, String k3, Expr v3, String k4, Expr v4, String k5, Expr v5) {
-    Map<String, Expr> obj = new LinkedHashMap<>();
-    obj.put(k1, v1);
-    obj.put(k2, v2);
-    obj.put(k3, v3);
-    obj.put(k4, v4);
-    obj.put(k5, v5);
-    return Obj(Collections.unmodifiableMap(obj));
+    return Fn.apply("object", Fn.object(new String[] {k1, k2, k3, k4, k5}, new Expr[] {v1, v2, v3, v4, v5}));
   }
 
   /**
@@ -740,7 +725,7 @@ public final class Language {
    * @see <a href="https://app.fauna.com/documentation/reference/queryapi#simple-type">FaunaDB Values</a>
    */
   public static Expr Arr(Expr... values) {
-    return Arr(Collections.unmodifiableList(Arrays.asList(values)));
+    return Fn.apply(values);
   }
 
   /**
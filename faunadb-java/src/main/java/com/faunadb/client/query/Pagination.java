@@ -1,9 +1,13 @@
 package com.faunadb.client.query;
 
 import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.faunadb.client.types.Codec;
 import com.faunadb.client.types.Value;
 import com.faunadb.client.types.Value.LongV;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -61,6 +65,15 @@ public final class Pagination extends Expr {
     this.resource = resource;
   }
 
+  private Pagination(Pagination other) {
+    this.resource = other.resource;
+    this.cursor = other.cursor;
+    this.ts = other.ts;
+    this.size = other.size;
+    this.sources = other.sources;
+    this.events = other.events;
+  }
+
   @Override
   @JsonValue
   protected Map<String, Expr> toJson() {
@@ -76,6 +89,32 @@ public final class Pagination extends Expr {
     return Collections.unmodifiableMap(res);
   }
 
+  @Override
+  protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+    gen.writeStartObject();
+    gen.writeFieldName("paginate");
+    serialize(resource, gen, provider);
+
+    if (cursor.isPresent()) {
+      gen.writeFieldName(cursor.get().name);
+      serialize(cursor.get().ref, gen, provider);
+    }
+
+    writeIfPresent(events, gen, provider, "events");
+    writeIfPresent(sources, gen, provider, "sources");
+    writeIfPresent(ts, gen, provider, "ts");
+    writeIfPresent(size, gen, provider, "size");
+    gen.writeEndObject();
+  }
+
+  private static void writeIfPresent(Optional<Expr> optExpr, JsonGenerator gen, SerializerProvider provider,
+                                     String name) throws IOException {
+    if (optExpr.isPresent()) {
+      gen.writeFieldName(name);
+      serialize(optExpr.get(), gen, provider);
+    }
+  }
+
   private static void putIfPresent(Optional<Expr> optExpr, Map<String, Expr> res, String name) {
     optExpr.ifPresent(expr -> res.put(name, expr));
   }
@@ -136,6 +175,16 @@ public final class Pagination extends Expr {
     return ts(new LongV(ts));
   }
 
+  /**
+   * Returns the timestamp set for the pagination, if it was set as a number of UNIX microseconds.
+   *
+   * @return the timestamp the set is read at, if known
+   * @see #ts(Long)
+   */
+  public Optional<Long> getTs() {
+    return ts.filter(LongV.class::isInstance).map(value -> ((LongV) value).to(Codec.LONG).get());
+  }
+
   /**
    * Sets the maximum number of elements per page to return.
    *
@@ -205,4 +254,34 @@ public final class Pagination extends Expr {
     return events(Value.BooleanV.TRUE);
   }
 
+  /**
+   * Returns the pagination of the page that follows the page provided, or an empty {@link Optional}
+   * if the page provided is the last one.
+   * <p>
+   * The returned pagination resumes from the cursor of the page provided, in the same direction as this
+   * pagination: backwards if its cursor was set with {@link #before(Expr)}, forward otherwise. It keeps all
+   * other settings of this pagination, and reads the set as of the timestamp provided unless this pagination
+   * already sets one. This instance is not modified.
+   *
+   * @param page a page returned by this pagination
+   * @param ts the timestamp to read the set at in UNIX microseconds, or null to read it at the latest timestamp
+   * @return the pagination of the next page, if any
+   * @see com.faunadb.client.FaunaClient#paginate(Pagination)
+   */
+  public Optional<Pagination> next(Value page, Long ts) {
+    boolean backwards = cursor.isPresent() && cursor.get() instanceof Before;
+    Value next = page.at(backwards ? "before" : "after");
+
+    if (next instanceof Value.NullV)
+      return Optional.empty();
+
+    Pagination pagination = new Pagination(this);
+    pagination.cursor = Optional.of(backwards ? new Before(next) : new After(next));
+
+    if (!pagination.ts.isPresent() && ts != null)
+      pagination.ts = Optional.of(new LongV(ts));
+
+    return Optional.of(pagination);
+  }
+
 }
@@ -0,0 +1,240 @@
+package com.faunadb.client.query;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A query expression serialized ahead of time, with named parameters to be bound on every execution.
+ * <p>
+ * Queries sent over and over with different arguments can be prepared once. The static parts of the
+ * expression are serialized to JSON when the query is prepared, so sending a bound query only serializes
+ * the parameter values and splices them between the pre-serialized fragments. Prepared queries are
+ * immutable and can be shared across threads.
+ *
+ * <p>Example:</p>
+ *
+ * <pre>{@code
+ *   PreparedQuery getUser = PreparedQuery.prepare(
+ *     Get(Match(Index("users_by_email"), PreparedQuery.Param("email")))
+ *   );
+ *
+ *   client.query(getUser, Collections.singletonMap("email", Value("john@example.com")));
+ *   client.query(getUser.bind(Collections.singletonMap("email", Value("jane@example.com"))));
+ * }</pre>
+ *
+ * @see #Param(String)
+ * @see #prepare(Expr)
+ */
+public final class PreparedQuery {
+
+  private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_]+");
+
+  private static final ObjectMapper json = new ObjectMapper().registerModule(new ExprModule());
+
+  private static final class Placeholder extends Expr {
+    private final String name;
+
+    private Placeholder(String name) {
+      this.name = name;
+    }
+
+    @Override
+    @JsonValue
+    protected Object toJson() {
+      throw new IllegalStateException("Parameter \"" + name + "\" must be bound through a PreparedQuery");
+    }
+
+    @Override
+    protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      Recorder recorder = (Recorder) provider.getAttribute(Recorder.class);
+
+      if (recorder == null)
+        throw JsonMappingException.from(provider, "Parameter \"" + name + "\" must be bound through a PreparedQuery");
+
+      gen.writeRawValue("");
+      recorder.mark(gen, name);
+    }
+
+    @Override
+    public String toString() {
+      return "Param(" + name + ")";
+    }
+  }
+
+  private static final class Recorder {
+    private final StringWriter out = new StringWriter();
+    private final List<SerializableString> fragments = new ArrayList<>();
+    private final List<String> parameters = new ArrayList<>();
+    private int offset = 0;
+
+    private void mark(JsonGenerator gen, String name) throws IOException {
+      gen.flush();
+      fragments.add(fragment(offset, out.getBuffer().length()));
+      parameters.add(name);
+      offset = out.getBuffer().length();
+    }
+
+    private SerializableString fragment(int from, int to) {
+      SerializedString fragment = new SerializedString(out.getBuffer().substring(from, to));
+      fragment.asUnquotedUTF8(); // encode once, while preparing
+      return fragment;
+    }
+  }
+
+  private final SerializableString[] fragments;
+  private final String[] names;
+  private final int[] slots;
+  private final Set<String> parameters;
+
+  private PreparedQuery(List<SerializableString> fragments, List<String> occurrences) {
+    this.fragments = fragments.toArray(new SerializableString[0]);
+    this.parameters = Collections.unmodifiableSet(new LinkedHashSet<>(occurrences));
+    this.names = parameters.toArray(new String[0]);
+    this.slots = new int[occurrences.size()];
+
+    List<String> distinct = Arrays.asList(names);
+    for (int i = 0; i < slots.length; i++)
+      slots[i] = distinct.indexOf(occurrences.get(i));
+  }
+
+  /**
+   * Creates a named placeholder to be used inside an expression passed to {@link #prepare(Expr)}.
+   * The same parameter can be used more than once in an expression. Placeholders can only be serialized
+   * as part of a prepared query.
+   *
+   * @param name the parameter name. Must contain only letters, digits or underscores.
+   * @return a new {@link Expr} instance
+   */
+  public static Expr Param(String name) {
+    if (name == null || !NAME.matcher(name).matches())
+      throw new IllegalArgumentException("Invalid parameter name: " + name);
+
+    return new Placeholder(name);
+  }
+
+  /**
+   * Prepares the expression provided, serializing everything but its parameters.
+   *
+   * @param expr the expression to prepare, containing placeholders created with {@link #Param(String)}
+   * @return a new {@link PreparedQuery} instance
+   */
+  public static PreparedQuery prepare(Expr expr) {
+    Recorder recorder = new Recorder();
+
+    try (JsonGenerator gen = json.getFactory().createGenerator(recorder.out)) {
+      json.writer().withAttribute(Recorder.class, recorder).writeValue(gen, expr);
+    } catch (IOException ex) {
+      throw new IllegalArgumentException("Unable to prepare query: " + ex.getMessage(), ex);
+    }
+
+    recorder.fragments.add(recorder.fragment(recorder.offset, recorder.out.getBuffer().length()));
+    return new PreparedQuery(recorder.fragments, recorder.parameters);
+  }
+
+  /**
+   * The names of the parameters declared in this query, in order of first appearance.
+   *
+   * @return an immutable set of parameter names
+   */
+  public Set<String> parameters() {
+    return parameters;
+  }
+
+  /**
+   * Binds the parameters of this query. All declared parameters must be given a value, and no other.
+   * The returned expression can be passed to any of the {@code FaunaClient.query} methods, including
+   * batches. Parameter values are serialized once, when bound, and spliced between the pre-serialized
+   * fragments of the query whenever the returned expression is serialized.
+   *
+   * @param arguments the parameter values, keyed by parameter name
+   * @return a new {@link Expr} instance
+   * @throws IllegalArgumentException if a parameter is missing or unknown, or its value can not be serialized
+   */
+  public Expr bind(Map<String, ? extends Expr> arguments) {
+    Set<String> unknown = new HashSet<>(arguments.keySet());
+    unknown.removeAll(parameters);
+
+    if (!unknown.isEmpty())
+      throw new IllegalArgumentException("Unknown query parameters: " + unknown);
+
+    String[] values = new String[names.length];
+    StringWriter out = new StringWriter();
+
+    // A single generator for all the values, so that serializing them costs about as much as a single expression
+    try (JsonGenerator gen = json.getFactory().createGenerator(out)) {
+      gen.setRootValueSeparator(null);
+
+      for (int i = 0, start = 0; i < names.length; i++) {
+        if (!arguments.containsKey(names[i]))
+          throw new IllegalArgumentException("Missing value for query parameter: " + names[i]);
+
+        json.writeValue(gen, arguments.get(names[i]));
+        values[i] = out.getBuffer().substring(start);
+        start = out.getBuffer().length();
+      }
+    } catch (IOException ex) {
+      throw new IllegalArgumentException("Unable to serialize query parameters: " + ex.getMessage(), ex);
+    }
+
+    return new Bound(values);
+  }
+
+  private final class Bound extends Expr {
+    private final String[] values;
+
+    private Bound(String[] values) {
+      this.values = values;
+    }
+
+    @Override
+    @JsonValue
+    protected Object toJson() {
+      return new RawValue(render());
+    }
+
+    @Override
+    protected boolean isImmutable() {
+      return true;
+    }
+
+    @Override
+    protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeRawValue(fragments[0]);
+      for (int i = 0; i < slots.length; i++) {
+        gen.writeRaw(values[slots[i]]);
+        gen.writeRaw(fragments[i + 1]);
+      }
+    }
+
+    private String render() {
+      StringBuilder sb = new StringBuilder(fragments[0].getValue());
+      for (int i = 0; i < slots.length; i++)
+        sb.append(values[slots[i]]).append(fragments[i + 1].getValue());
+      return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+      return "PreparedQuery(" + render() + ")";
+    }
+  }
+
+}
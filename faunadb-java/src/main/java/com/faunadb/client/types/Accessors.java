@@ -0,0 +1,227 @@
+package com.faunadb.client.types;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Builds the accessors used to read and write properties of user defined classes, and to create their instances.
+ * <p>
+ * Accessors are built once per class and cached along with the codecs, so no access checks or argument
+ * boxing happen while encoding or decoding. Public methods and constructors of classes visible to this library are
+ * linked to generated lambdas, which the JIT compiles as direct calls. Fields, and members not accessible from here,
+ * are accessed through method handles.
+ */
+final class Accessors {
+  private Accessors() {}
+
+  interface Getter {
+    Object get(Object instance) throws Throwable;
+  }
+
+  interface Setter {
+    void set(Object instance, Object value) throws Throwable;
+  }
+
+  interface Creator {
+    Object create(Object[] arguments) throws Throwable;
+  }
+
+  static final Object[] NO_ARGUMENTS = new Object[0];
+
+  private static final MethodType GETTER = methodType(Object.class, Object.class);
+  private static final MethodType SETTER = methodType(void.class, Object.class, Object.class);
+  private static final MethodType CREATOR = methodType(Object.class, Object[].class);
+
+  private static final Lookup lookup = MethodHandles.lookup();
+
+  static Getter getter(Field field) throws IllegalAccessException {
+    field.setAccessible(true);
+    MethodHandle handle = lookup.unreflectGetter(field).asType(GETTER);
+    return instance -> (Object) handle.invokeExact(instance);
+  }
+
+  static Setter setter(Field field) throws IllegalAccessException {
+    field.setAccessible(true);
+    MethodHandle handle = lookup.unreflectSetter(field).asType(SETTER);
+    return (instance, value) -> { handle.invokeExact(instance, value); };
+  }
+
+  static Getter getter(Method method) throws IllegalAccessException {
+    MethodHandle direct = Modifier.isStatic(method.getModifiers()) ? null : linkable(method);
+
+    if (direct != null) {
+      Getter getter = link(Getter.class, "get", GETTER, direct,
+        methodType(boxed(method.getReturnType()), method.getDeclaringClass()));
+
+      if (getter != null)
+        return getter;
+    }
+
+    MethodHandle handle = unreflect(method).asType(GETTER);
+    return instance -> (Object) handle.invokeExact(instance);
+  }
+
+  static Setter setter(Method method) throws IllegalAccessException {
+    MethodHandle direct = Modifier.isStatic(method.getModifiers()) ? null : linkable(method);
+
+    if (direct != null) {
+      Setter setter = link(Setter.class, "set", SETTER, direct,
+        methodType(void.class, method.getDeclaringClass(), boxed(method.getParameterTypes()[0])));
+
+      if (setter != null)
+        return setter;
+    }
+
+    MethodHandle handle = unreflect(method).asType(SETTER);
+    return (instance, value) -> { handle.invokeExact(instance, value); };
+  }
+
+  static Creator creator(Constructor<?> constructor) throws IllegalAccessException {
+    if (constructor.getParameterTypes().length == 0) {
+      MethodHandle direct = linkable(constructor);
+
+      if (direct != null) {
+        Creator creator = creator(direct, constructor.getDeclaringClass());
+
+        if (creator != null)
+          return creator;
+      }
+    }
+
+    constructor.setAccessible(true);
+    return spread(lookup.unreflectConstructor(constructor));
+  }
+
+  static Creator creator(Method factory) throws IllegalAccessException {
+    if (factory.getParameterTypes().length == 0) {
+      MethodHandle direct = linkable(factory);
+
+      if (direct != null) {
+        Creator creator = creator(direct, boxed(factory.getReturnType()));
+
+        if (creator != null)
+          return creator;
+      }
+    }
+
+    factory.setAccessible(true);
+    return spread(lookup.unreflect(factory));
+  }
+
+  /**
+   * Creates instances of the class through its public no-args constructor, with the access rules
+   * of {@link Class#newInstance()}.
+   */
+  static Creator publicCreator(Class<?> clazz) throws ReflectiveOperationException {
+    MethodHandle handle = MethodHandles.publicLookup().findConstructor(clazz, methodType(void.class));
+
+    if (isVisible(clazz)) {
+      Creator creator = creator(handle, clazz);
+
+      if (creator != null)
+        return creator;
+    }
+
+    return spread(handle);
+  }
+
+  // Static getters and setters ignore the instance, as Method.invoke does
+  private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+    method.setAccessible(true);
+    MethodHandle handle = lookup.unreflect(method);
+
+    if (Modifier.isStatic(method.getModifiers()))
+      handle = MethodHandles.dropArguments(handle, 0, Object.class);
+
+    return handle;
+  }
+
+  private static Creator creator(MethodHandle direct, Class<?> type) {
+    @SuppressWarnings("unchecked")
+    Supplier<Object> supplier = link(Supplier.class, "get", methodType(Object.class), direct, methodType(type));
+    return supplier != null ? arguments -> supplier.get() : null;
+  }
+
+  private static Creator spread(MethodHandle handle) {
+    MethodHandle generic = handle.asSpreader(Object[].class, handle.type().parameterCount()).asType(CREATOR);
+    return arguments -> (Object) generic.invokeExact(arguments);
+  }
+
+  // Generated lambdas are defined next to this class and call their target directly, so the target
+  // must be accessible from here and every class in its signature must resolve to the same class from here.
+  private static MethodHandle linkable(Method method) {
+    if (!isVisible(method.getDeclaringClass()) || !isVisible(method.getReturnType()) || !isVisible(method.getParameterTypes()))
+      return null;
+
+    try {
+      return lookup.unreflect(method);
+    } catch (IllegalAccessException e) {
+      return null;
+    }
+  }
+
+  private static MethodHandle linkable(Constructor<?> constructor) {
+    if (!isVisible(constructor.getDeclaringClass()))
+      return null;
+
+    try {
+      return lookup.unreflectConstructor(constructor);
+    } catch (IllegalAccessException e) {
+      return null;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T link(Class<? super T> type, String name, MethodType erased, MethodHandle target, MethodType instantiated) {
+    try {
+      return (T) LambdaMetafactory.metafactory(lookup, name, methodType(type), erased, target, instantiated)
+        .getTarget()
+        .invoke();
+    } catch (Error ex) {
+      throw ex;
+    } catch (Throwable e) {
+      return null;
+    }
+  }
+
+  private static boolean isVisible(Class<?>[] classes) {
+    for (Class<?> clazz : classes) {
+      if (!isVisible(clazz))
+        return false;
+    }
+
+    return true;
+  }
+
+  private static boolean isVisible(Class<?> clazz) {
+    while (clazz.isArray())
+      clazz = clazz.getComponentType();
+
+    if (clazz.isPrimitive())
+      return true;
+
+    if (!Modifier.isPublic(clazz.getModifiers()))
+      return false;
+
+    try {
+      return Class.forName(clazz.getName(), false, Accessors.class.getClassLoader()) == clazz;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  private static Class<?> boxed(Class<?> type) {
+    return type.isPrimitive() ? methodType(type).wrap().returnType() : type;
+  }
+
+}
@@ -0,0 +1,428 @@
+package com.faunadb.client.types;
+
+import com.faunadb.client.types.PrimitiveLists.DoubleList;
+import com.faunadb.client.types.PrimitiveLists.LongList;
+import com.faunadb.client.types.Value.*;
+import com.faunadb.common.binary.BinaryReader;
+import com.faunadb.common.binary.BinaryWriter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.faunadb.common.binary.BinaryFormat.*;
+import static java.lang.String.format;
+
+/**
+ * Converts {@link Value} trees to and from a compact, versioned binary format.
+ *
+ * <p>The binary format is intended for caching query results and exchanging them between JVM processes.
+ * Compared to the FaunaDB wire JSON it avoids text encoding of numbers and timestamps, and base64
+ * encoding of {@link BytesV}, and writes each distinct object key only once per message.
+ * The same format is produced and consumed by the Scala driver.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>{@code
+ *   Value result = client.query(getUser).get();
+ *   byte[] cached = BinaryCodec.toBytes(result);
+ *
+ *   // later on, possibly in another process
+ *   Value user = BinaryCodec.fromBytes(cached);
+ * }</pre>
+ *
+ * @see com.faunadb.common.binary.BinaryFormat
+ */
+public final class BinaryCodec {
+
+  private BinaryCodec() {
+  }
+
+  /**
+   * Encodes a {@link Value} into a new byte array.
+   *
+   * @param value the value to encode
+   * @return the encoded bytes
+   */
+  public static byte[] toBytes(Value value) {
+    ByteBuf buf = Unpooled.buffer();
+
+    try {
+      write(value, buf);
+      byte[] bytes = new byte[buf.readableBytes()];
+      buf.readBytes(bytes);
+      return bytes;
+    } finally {
+      buf.release();
+    }
+  }
+
+  /**
+   * Decodes a {@link Value} from a byte array produced by {@link #toBytes(Value)}.
+   *
+   * @param bytes the encoded bytes
+   * @return the decoded value
+   * @throws IllegalArgumentException if the bytes are not a valid encoded value
+   */
+  public static Value fromBytes(byte[] bytes) {
+    return read(ByteBuffer.wrap(bytes));
+  }
+
+  /**
+   * Appends an encoded {@link Value} to the {@link ByteBuf} provided.
+   *
+   * @param value the value to encode
+   * @param out the destination buffer
+   */
+  public static void write(Value value, ByteBuf out) {
+    write(value, BinaryWriter.of(out));
+  }
+
+  /**
+   * Writes an encoded {@link Value} at the current position of the {@link ByteBuffer} provided.
+   *
+   * @param value the value to encode
+   * @param out the destination buffer
+   * @throws java.nio.BufferOverflowException if the buffer has not enough room left
+   */
+  public static void write(Value value, ByteBuffer out) {
+    write(value, BinaryWriter.of(out));
+  }
+
+  /**
+   * Reads the next encoded {@link Value} from the {@link ByteBuf} provided.
+   *
+   * @param in the source buffer
+   * @return the decoded value
+   * @throws IllegalArgumentException if the buffer does not contain a valid encoded value
+   */
+  public static Value read(ByteBuf in) {
+    return read(BinaryReader.of(in));
+  }
+
+  /**
+   * Reads the next encoded {@link Value} from the {@link ByteBuffer} provided.
+   *
+   * @param in the source buffer
+   * @return the decoded value
+   * @throws IllegalArgumentException if the buffer does not contain a valid encoded value
+   */
+  public static Value read(ByteBuffer in) {
+    return read(BinaryReader.of(in));
+  }
+
+  private static void write(Value value, BinaryWriter out) {
+    out.writeHeader();
+    writeValue(value, out);
+  }
+
+  private static Value read(BinaryReader in) {
+    in.readHeader();
+    return readValue(in.readByte(), in);
+  }
+
+  private static void writeValue(Value value, BinaryWriter out) {
+    if (value == null || value instanceof NullV) {
+      out.writeByte(NULL);
+    } else if (value instanceof ObjectV) {
+      writeObject(((ObjectV) value).values, out);
+    } else if (value instanceof ArrayV) {
+      List<Value> values = ((ArrayV) value).values;
+      out.writeByte(ARRAY);
+      out.writeVarLong(values.size());
+
+      if (values instanceof LongList) {
+        for (long elem : ((LongList) values).values) {
+          out.writeByte(LONG);
+          out.writeSignedVarLong(elem);
+        }
+      } else if (values instanceof DoubleList) {
+        for (double elem : ((DoubleList) values).values) {
+          out.writeByte(DOUBLE);
+          out.writeDouble(elem);
+        }
+      } else {
+        for (Value elem : values)
+          writeValue(elem, out);
+      }
+    } else if (value instanceof StringV) {
+      out.writeByte(STRING);
+      out.writeString(((StringV) value).value);
+    } else if (value instanceof LongV) {
+      out.writeByte(LONG);
+      out.writeSignedVarLong(((LongV) value).value);
+    } else if (value instanceof DoubleV) {
+      out.writeByte(DOUBLE);
+      out.writeDouble(((DoubleV) value).value);
+    } else if (value instanceof BooleanV) {
+      out.writeByte(((BooleanV) value).value ? TRUE : FALSE);
+    } else if (value instanceof RefV) {
+      writeRef((RefV) value, out);
+    } else if (value instanceof TimeV) {
+      Instant instant = ((TimeV) value).value;
+      out.writeByte(TIME);
+      out.writeSignedVarLong(instant.getEpochSecond());
+      out.writeVarLong(instant.getNano());
+    } else if (value instanceof DateV) {
+      out.writeByte(DATE);
+      out.writeSignedVarLong(((DateV) value).value.toEpochDay());
+    } else if (value instanceof BytesV) {
+      out.writeByte(BYTES);
+      out.writeBytes(((BytesV) value).value);
+    } else if (value instanceof SetRefV) {
+      out.writeByte(SET);
+      writeObject(((SetRefV) value).value, out);
+    } else if (value instanceof QueryV) {
+      out.writeByte(QUERY);
+      writeRaw(((QueryV) value).lambda, out);
+    } else {
+      throw new IllegalArgumentException(format("Unsupported value type: %s", value.getClass().getName()));
+    }
+  }
+
+  private static void writeObject(Map<String, Value> values, BinaryWriter out) {
+    out.writeByte(OBJECT);
+    out.writeVarLong(values.size());
+    for (Map.Entry<String, Value> entry : values.entrySet()) {
+      out.writeKey(entry.getKey());
+      writeValue(entry.getValue(), out);
+    }
+  }
+
+  private static void writeRef(RefV ref, BinaryWriter out) {
+    RefV collection = ref.getCollection().orElse(null);
+    RefV database = ref.getDatabase().orElse(null);
+
+    out.writeByte(REF);
+    out.writeString(ref.getId());
+    out.writeByte((collection != null ? REF_HAS_COLLECTION : 0) | (database != null ? REF_HAS_DATABASE : 0));
+
+    if (collection != null)
+      writeRef(collection, out);
+
+    if (database != null)
+      writeRef(database, out);
+  }
+
+  // Lambdas of @query values are kept as the plain maps and lists produced by Jackson.
+  private static void writeRaw(Object value, BinaryWriter out) {
+    if (value == null) {
+      out.writeByte(NULL);
+    } else if (value instanceof Map) {
+      Map<?, ?> values = (Map<?, ?>) value;
+      out.writeByte(OBJECT);
+      out.writeVarLong(values.size());
+      for (Map.Entry<?, ?> entry : values.entrySet()) {
+        out.writeKey(String.valueOf(entry.getKey()));
+        writeRaw(entry.getValue(), out);
+      }
+    } else if (value instanceof List) {
+      List<?> values = (List<?>) value;
+      out.writeByte(ARRAY);
+      out.writeVarLong(values.size());
+      for (Object elem : values)
+        writeRaw(elem, out);
+    } else if (value instanceof String) {
+      out.writeByte(STRING);
+      out.writeString((String) value);
+    } else if (value instanceof Double || value instanceof Float) {
+      out.writeByte(DOUBLE);
+      out.writeDouble(((Number) value).doubleValue());
+    } else if (value instanceof Number) {
+      out.writeByte(LONG);
+      out.writeSignedVarLong(((Number) value).longValue());
+    } else if (value instanceof Boolean) {
+      out.writeByte((Boolean) value ? TRUE : FALSE);
+    } else if (value instanceof Value) {
+      writeValue((Value) value, out);
+    } else {
+      throw new IllegalArgumentException(format("Unsupported query value type: %s", value.getClass().getName()));
+    }
+  }
+
+  private static Value readValue(int tag, BinaryReader in) {
+    switch (tag) {
+      case NULL:
+        return NullV.NULL;
+      case TRUE:
+        return BooleanV.TRUE;
+      case FALSE:
+        return BooleanV.FALSE;
+      case LONG:
+        return LongV.valueOf(in.readSignedVarLong());
+      case DOUBLE:
+        return new DoubleV(in.readDouble());
+      case STRING:
+        return new StringV(in.readString());
+      case BYTES:
+        return new BytesV(in.readBytes());
+      case TIME:
+        long seconds = in.readSignedVarLong();
+        return new TimeV(Instant.ofEpochSecond(seconds, in.readVarLong()));
+      case DATE:
+        return new DateV(LocalDate.ofEpochDay(in.readSignedVarLong()));
+      case REF:
+        return readRef(in, false);
+      case SET:
+        expect(OBJECT, in);
+        return new SetRefV(readObject(in));
+      case QUERY:
+        expect(OBJECT, in);
+        return new QueryV(readRawObject(in));
+      case ARRAY:
+        return readArray(in);
+      case OBJECT:
+        return new ObjectV(readObject(in));
+      default:
+        throw new IllegalArgumentException(format("Unknown value tag: %d", tag));
+    }
+  }
+
+  // Arrays are read as primitive arrays while their elements are all longs, or all doubles
+  private static ArrayV readArray(BinaryReader in) {
+    int size = in.readLength();
+
+    if (size == 0)
+      return new ArrayV(new ArrayList<>(0));
+
+    int tag = in.readByte();
+    int i = 0;
+
+    if (tag == LONG) {
+      long[] longs = new long[size];
+
+      while (tag == LONG) {
+        longs[i++] = in.readSignedVarLong();
+
+        if (i == size)
+          return ArrayV.ofLongs(longs);
+
+        tag = in.readByte();
+      }
+
+      List<Value> values = new ArrayList<>(size);
+      for (int j = 0; j < i; j++)
+        values.add(LongV.valueOf(longs[j]));
+      return readElements(values, tag, i, size, in);
+    }
+
+    if (tag == DOUBLE) {
+      double[] doubles = new double[size];
+
+      while (tag == DOUBLE) {
+        doubles[i++] = in.readDouble();
+
+        if (i == size)
+          return ArrayV.ofDoubles(doubles);
+
+        tag = in.readByte();
+      }
+
+      List<Value> values = new ArrayList<>(size);
+      for (int j = 0; j < i; j++)
+        values.add(new DoubleV(doubles[j]));
+      return readElements(values, tag, i, size, in);
+    }
+
+    return readElements(new ArrayList<>(size), tag, 0, size, in);
+  }
+
+  private static ArrayV readElements(List<Value> values, int tag, int from, int size, BinaryReader in) {
+    values.add(readValue(tag, in));
+
+    for (int i = from + 1; i < size; i++)
+      values.add(readValue(in.readByte(), in));
+
+    return new ArrayV(values);
+  }
+
+  private static ObjectMap readObject(BinaryReader in) {
+    int size = in.readLength();
+    ObjectMap.Builder values = new ObjectMap.Builder(size);
+
+    for (int i = 0; i < size; i++) {
+      String key = in.readKey();
+      values.put(key, readValue(in.readByte(), in));
+    }
+
+    return values.build();
+  }
+
+  private static RefV readRef(BinaryReader in, boolean nested) {
+    String id = in.readString();
+    int flags = in.readByte();
+
+    RefV collection = (flags & REF_HAS_COLLECTION) != 0 ? readNestedRef(in) : null;
+    RefV database = (flags & REF_HAS_DATABASE) != 0 ? readNestedRef(in) : null;
+
+    if (collection == null && database == null)
+      return Native.fromName(id);
+
+    if (nested)
+      return RefV.canonical(id, collection, database);
+
+    return new RefV(id, collection, database);
+  }
+
+  private static RefV readNestedRef(BinaryReader in) {
+    expect(REF, in);
+    return readRef(in, true);
+  }
+
+  private static Object readRaw(int tag, BinaryReader in) {
+    switch (tag) {
+      case NULL:
+        return null;
+      case TRUE:
+        return Boolean.TRUE;
+      case FALSE:
+        return Boolean.FALSE;
+      case LONG:
+        long value = in.readSignedVarLong();
+        return value == (int) value ? (Object) (int) value : (Object) value;
+      case DOUBLE:
+        return in.readDouble();
+      case STRING:
+        return in.readString();
+      case ARRAY:
+        int size = in.readLength();
+        List<Object> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+          values.add(readRaw(in.readByte(), in));
+        return values;
+      case OBJECT:
+        return readRawObject(in);
+      default:
+        return readValue(tag, in);
+    }
+  }
+
+  private static Map<String, Object> readRawObject(BinaryReader in) {
+    int size = in.readLength();
+    Map<String, Object> values = new LinkedHashMap<>(capacity(size));
+
+    for (int i = 0; i < size; i++) {
+      String key = in.readKey();
+      values.put(key, readRaw(in.readByte(), in));
+    }
+
+    return values;
+  }
+
+  private static void expect(int expected, BinaryReader in) {
+    int tag = in.readByte();
+    if (tag != expected)
+      throw new IllegalArgumentException(format("Expected value tag %d but found %d", expected, tag));
+  }
+
+  private static int capacity(int size) {
+    return size < 3 ? size + 1 : (int) (size / 0.75f) + 1;
+  }
+
+}
@@ -105,7 +105,7 @@ public interface Codec<T> {
   /**
    * Converts a {@link Value} to a {@link Long}
    */
-  Codec<Long> LONG = Transformations.mapTo(LongV.class, Transformations.scalarValue(), Transformations.LONG_TO_VALUE);
+  Codec<Long> LONG = Transformations.mapTo(LongV.class, Transformations.VALUE_TO_LONG, Transformations.LONG_TO_VALUE);
 
   /**
    * Converts a {@link Value} to a {@link Integer}
@@ -140,7 +140,7 @@ public interface Codec<T> {
   /**
    * Converts a {@link Value} to a {@link Double}
    */
-  Codec<Double> DOUBLE = Transformations.mapTo(DoubleV.class, Transformations.scalarValue(), Transformations.DOUBLE_TO_VALUE);
+  Codec<Double> DOUBLE = Transformations.mapTo(DoubleV.class, Transformations.VALUE_TO_DOUBLE, Transformations.DOUBLE_TO_VALUE);
 
   /**
    * Converts a {@link Value} to a {@link Float}
@@ -150,7 +150,7 @@ public interface Codec<T> {
   /**
    * Converts a {@link Value} to a {@link Boolean}
    */
-  Codec<Boolean> BOOLEAN = Transformations.mapTo(BooleanV.class, Transformations.scalarValue(), Transformations.BOOLEAN_TO_VALUE);
+  Codec<Boolean> BOOLEAN = Transformations.mapTo(BooleanV.class, Transformations.VALUE_TO_BOOLEAN, Transformations.BOOLEAN_TO_VALUE);
 
   /**
    * Converts a {@link Value} to a {@link LocalDate}
@@ -260,7 +260,7 @@ final class Transformations {
 
   /// Wrap functions
 
-  final static Function<Long, Value> LONG_TO_VALUE = LongV::new;
+  final static Function<Long, Value> LONG_TO_VALUE = LongV::valueOf;
 
   final static Function<Double, Value> DOUBLE_TO_VALUE = DoubleV::new;
 
@@ -280,6 +280,12 @@ final class Transformations {
 
   /// Unwrap functions
 
+  final static Function<LongV, Long> VALUE_TO_LONG = input -> input.value;
+
+  final static Function<DoubleV, Double> VALUE_TO_DOUBLE = input -> input.value;
+
+  final static Function<BooleanV, Boolean> VALUE_TO_BOOLEAN = input -> input.value;
+
   final static Function<TimeV, Instant> VALUE_TO_INSTANT = TimeV::truncated;
 
   final static Function<ArrayV, List<Value>> VALUE_TO_LIST = input -> input.values;
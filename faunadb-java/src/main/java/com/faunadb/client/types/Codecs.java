@@ -6,6 +6,7 @@ import com.faunadb.client.types.Value.ObjectV;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
@@ -55,7 +56,8 @@ final class Codecs {
     Function<Value, Object> decoder = DECODERS.get(type);
 
     if (decoder == null) {
-      decoder = createDecoder(type);
+      GeneratedCodec<?> generated = GeneratedCodec.find(type);
+      decoder = generated != null ? generated::decodeObject : createDecoder(type);
 
       DECODERS.put(type, decoder);
     }
@@ -69,25 +71,53 @@ final class Codecs {
     if (codec != null)
       return (Codec<Object>) codec;
 
-    return new ObjectEncoder(encoder, ENCODERS.computeIfAbsent(type, Codecs::createEncoder));
+    return new ObjectEncoder(encoder, getEncoderEntry(type));
   }
 
+  static EncoderEntryCache getEncoderEntry(Class<?> type) {
+    return ENCODERS.computeIfAbsent(type, Codecs::createEncoder);
+  }
+
+  static boolean hasCodec(Class<?> type) {
+    return CODECS.containsKey(type);
+  }
+
+  @SuppressWarnings("unchecked")
   private static EncoderEntryCache createEncoder(Class<?> type) {
-    final Properties.Property[] readProperties = Properties.getReadProperties(type);
+    GeneratedCodec<Object> generated = (GeneratedCodec<Object>) GeneratedCodec.find(type);
+
+    if (generated != null)
+      return generated::encode;
+
+    return new PropertiesEncoder(Properties.getReadProperties(type));
+  }
 
-    return (encoder, value) -> {
-      Map<String, Value> fields = new HashMap<>();
+  static final class PropertiesEncoder implements EncoderEntryCache {
+    final Properties.Property[] properties;
 
-      for (Properties.Property property : readProperties) {
+    PropertiesEncoder(Properties.Property[] properties) {
+      this.properties = properties;
+    }
+
+    @Override
+    public Value encode(Encoder encoder, Object value) {
+      Map<String, Value> fields = new LinkedHashMap<>();
+
+      for (Properties.Property property : properties) {
         try {
           fields.put(property.getName(), encoder.encodeImpl(property.get(value)));
         } catch (Exception ex) {
-          throw new FaunaException(format("Could not encode field \"%s\". Reason: %s", property.getName(), ex.getMessage()));
+          throw couldNotEncode(property, ex);
         }
       }
 
       return new ObjectV(fields);
-    };
+    }
+  }
+
+  static FaunaException couldNotEncode(Properties.Property property, Exception ex) {
+    return new FaunaException(format("Could not encode field \"%s\". Reason: %s", property.getName(), ex.getMessage()),
+      ex);
   }
 
   private static class ObjectDecoder implements Codec<Object> {
@@ -1,6 +1,7 @@
 package com.faunadb.client.types;
 
 import com.faunadb.client.errors.FaunaException;
+import com.faunadb.client.types.Accessors.Creator;
 import com.faunadb.client.types.Properties.Property;
 import com.faunadb.client.types.Types.SimpleType;
 import com.faunadb.client.types.Value.ObjectV;
@@ -15,6 +16,7 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.function.Function;
 
+import static com.faunadb.client.types.Accessors.NO_ARGUMENTS;
 import static com.faunadb.client.types.Decoder.decodeImpl;
 import static java.lang.String.format;
 
@@ -171,18 +173,26 @@ final class Constructors {
 
   static private class ConstructorDecoder extends AbstractConstructorDecoder {
     private final Constructor<?> constructor;
+    private final Creator creator;
 
     private ConstructorDecoder(Constructor<?> constructor) {
       super(constructor);
       this.constructor = constructor;
-      this.constructor.setAccessible(true);
+
+      try {
+        this.creator = Accessors.creator(constructor);
+      } catch (IllegalAccessException ex) {
+        throw new FaunaException(format("Could not access constructor %s", constructor), ex);
+      }
     }
 
     @Override
     protected Object newInstance(Object[] arguments) {
       try {
-        return constructor.newInstance(arguments);
-      } catch (Exception ex) {
+        return creator.create(arguments);
+      } catch (Error ex) {
+        throw ex;
+      } catch (Throwable ex) {
         throw new FaunaException(format("Error while invoking constructor %s", constructor), ex);
       }
     }
@@ -190,25 +200,31 @@ final class Constructors {
 
   static private class StaticFactoryMethodDecoder extends AbstractConstructorDecoder {
     private final Method method;
+    private final Creator creator;
 
     private StaticFactoryMethodDecoder(Method method) {
       super(method);
       this.method = method;
-      this.method.setAccessible(true);
+
+      try {
+        this.creator = Accessors.creator(method);
+      } catch (IllegalAccessException ex) {
+        throw new FaunaException(format("Could not access static method %s", method), ex);
+      }
     }
 
     @Override
     protected Object newInstance(Object[] arguments) {
       try {
-        return method.invoke(null, arguments);
-      } catch (Exception ex) {
+        return creator.create(arguments);
+      } catch (Error ex) {
+        throw ex;
+      } catch (Throwable ex) {
         throw new FaunaException(format("Error while invoking static method %s", method), ex);
       }
     }
   }
 
-  static private Object[] EMPTY_ARGUMENTS = new Object[0];
-
   static private class DefaultConstructorDecoder extends ConstructorDecoder {
     private DefaultConstructorDecoder(Constructor<?> constructor) {
       super(constructor);
@@ -216,7 +232,7 @@ final class Constructors {
 
     @Override
     protected Object[] buildArguments(ObjectV value) {
-      return EMPTY_ARGUMENTS;
+      return NO_ARGUMENTS;
     }
   }
 
@@ -227,7 +243,7 @@ final class Constructors {
 
     @Override
     protected Object[] buildArguments(ObjectV value) {
-      return EMPTY_ARGUMENTS;
+      return NO_ARGUMENTS;
     }
   }
 }
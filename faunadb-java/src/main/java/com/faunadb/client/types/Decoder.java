@@ -1,10 +1,15 @@
 package com.faunadb.client.types;
 
 import com.faunadb.client.errors.FaunaException;
+import com.faunadb.client.types.Accessors.Creator;
 import com.faunadb.client.types.Types.CollectionType;
 import com.faunadb.client.types.Types.MapType;
 import com.faunadb.client.types.Types.SimpleType;
+import com.faunadb.client.types.PrimitiveLists.DoubleList;
+import com.faunadb.client.types.PrimitiveLists.LongList;
 import com.faunadb.client.types.Value.BytesV;
+import com.faunadb.client.types.Value.DoubleV;
+import com.faunadb.client.types.Value.LongV;
 import com.faunadb.client.types.Value.NullV;
 
 import java.lang.reflect.Array;
@@ -34,6 +39,21 @@ public final class Decoder {
   private static final Double DOUBLE_DEFAULT = 0d;
   private static final Float FLOAT_DEFAULT = 0f;
 
+  private static final SimpleType LONG_TYPE = Types.of(long.class);
+  private static final SimpleType INT_TYPE = Types.of(int.class);
+  private static final SimpleType DOUBLE_TYPE = Types.of(double.class);
+
+  private static final ClassValue<Creator> CREATORS = new ClassValue<Creator>() {
+    @Override
+    protected Creator computeValue(Class<?> type) {
+      try {
+        return Accessors.publicCreator(type);
+      } catch (ReflectiveOperationException ex) {
+        return arguments -> { throw ex; };
+      }
+    }
+  };
+
   private Decoder() {
   }
 
@@ -94,6 +114,65 @@ public final class Decoder {
     return decode(value, (Type)dstType);
   }
 
+  /**
+   * Decode a FaunaDB {@link Value} to a specified type, decoding the elements of large collections in parallel.
+   *
+   * <pre>{@code
+   *     Result<List<User>> users = Decoder.decode(page, Types.arrayListOf(User.class), Parallelism.of(10000));
+   * }</pre>
+   *
+   * <p>Only the elements of the outermost collection or array are decoded in parallel.</p>
+   *
+   * @param <T>         The return type of the method.
+   * @param value       The FaunaDB {@link Value} to be decoded.
+   * @param dstType     The {@link Type} in which value should be decoded.
+   * @param parallelism Configures when and where to decode elements in parallel.
+   * @return A {@link Result} instance of type {@link T}
+   * @see Parallelism
+   */
+  public static <T> Result<T> decode(Value value, Type dstType, Parallelism parallelism) {
+    if (value == null || value == NullV.NULL)
+      return Result.fail("Value is null");
+
+    try {
+      SimpleType type = Types.of(dstType);
+      Class<?> rawType = type.getRawClass();
+
+      Object decoded;
+
+      if (type.getClass() == CollectionType.class)
+        decoded = toCollection(value, (CollectionType) type, parallelism);
+      else if (rawType.isArray() && !rawType.getComponentType().isPrimitive())
+        decoded = toArray(value, rawType, parallelism);
+      else
+        decoded = decodeImpl(value, type);
+
+      @SuppressWarnings("unchecked")
+      T result = (T) decoded;
+      return Result.success(result);
+    } catch (Exception ex) {
+      return Result.fail(ex.getMessage(), ex);
+    }
+  }
+
+  /**
+   * Decode a FaunaDB {@link Value} to a specified type, decoding the elements of large arrays in parallel.
+   *
+   * <pre>{@code
+   *     Result<User[]> users = Decoder.decode(page, User[].class, Parallelism.of(10000));
+   * }</pre>
+   *
+   * @param <T>         The return type of the method.
+   * @param value       The FaunaDB {@link Value} to be decoded.
+   * @param dstType     The {@link Class} in which value should be decoded.
+   * @param parallelism Configures when and where to decode elements in parallel.
+   * @return A {@link Result} instance of type {@link T}
+   * @see Parallelism
+   */
+  public static <T> Result<T> decode(Value value, Class<T> dstType, Parallelism parallelism) {
+    return decode(value, (Type)dstType, parallelism);
+  }
+
   static Object decodeImpl(Value value, SimpleType dstType) {
     Class<?> rawType = dstType.getRawClass();
 
@@ -110,10 +189,10 @@ public final class Decoder {
       return value.to(Codec.BYTES).get();
 
     if (rawType.isArray())
-      return toArray(value, rawType);
+      return toArray(value, rawType, null);
 
     if (dstType.getClass() == CollectionType.class)
-      return toCollection(value, (CollectionType) dstType);
+      return toCollection(value, (CollectionType) dstType, null);
 
     if (dstType.getClass() == MapType.class)
       return toMap(value, (MapType) dstType);
@@ -152,53 +231,72 @@ public final class Decoder {
   }
 
   private static Map<String, Object> toMap(Value value, MapType dstType) {
-    try {
-      Map<String, Value> values = value.to(Codec.OBJECT).get();
+    Map<String, Value> values = value.to(Codec.OBJECT).get();
 
-      Map<String, Object> map = (Map<String, Object>) getConcreteClass(dstType.getRawClass()).newInstance();
+    Map<String, Object> map;
 
-      SimpleType valueType = dstType.getValueType();
+    try {
+      map = (Map<String, Object>) newInstance(dstType.getRawClass());
+    } catch (Error ex) {
+      throw ex;
+    } catch (Throwable ex) {
+      return couldNotInstantiateMap(dstType, ex);
+    }
 
-      for (Map.Entry<String, Value> entry : values.entrySet()) {
-        Object result = decodeImpl(entry.getValue(), valueType);
+    SimpleType valueType = dstType.getValueType();
 
-        map.put(entry.getKey(), result);
-      }
+    for (Map.Entry<String, Value> entry : values.entrySet()) {
+      Object result = decodeImpl(entry.getValue(), valueType);
 
-      return map;
-    } catch (InstantiationException | IllegalAccessException ex) {
-      return couldNotInstantiateMap(dstType, ex);
+      map.put(entry.getKey(), result);
     }
+
+    return map;
   }
 
-  private static Map<String, Object> couldNotInstantiateMap(Type dstType, Exception ex) {
+  private static Map<String, Object> couldNotInstantiateMap(Type dstType, Throwable ex) {
     throw new FaunaException(format("Could not instantiate map of type %s", dstType), ex);
   }
 
-  private static Collection<Object> toCollection(Value value, CollectionType dstType) {
-    try {
-      List<Value> values = value.to(Codec.ARRAY).get();
+  private static Collection<Object> toCollection(Value value, CollectionType dstType, Parallelism parallelism) {
+    List<Value> values = value.to(Codec.ARRAY).get();
 
-      SimpleType elementType = dstType.getElementType();
+    SimpleType elementType = dstType.getElementType();
 
-      Collection<Object> collection = (Collection<Object>) getConcreteClass(dstType.getRawClass()).newInstance();
+    Collection<Object> collection;
 
-      for (Value v : values) {
-        Object result = decodeImpl(v, elementType);
+    try {
+      collection = (Collection<Object>) newInstance(dstType.getRawClass());
+    } catch (Error ex) {
+      throw ex;
+    } catch (Throwable ex) {
+      return couldNotInstantiateCollection(dstType, ex);
+    }
 
+    if (parallelism != null && parallelism.accepts(values.size())) {
+      for (Object result : parallelism.map(values, v -> decodeImpl(v, elementType)))
         collection.add(result);
-      }
 
       return collection;
-    } catch (InstantiationException | IllegalAccessException ex) {
-      return couldNotInstantiateCollection(dstType, ex);
     }
+
+    for (Value v : values) {
+      Object result = decodeImpl(v, elementType);
+
+      collection.add(result);
+    }
+
+    return collection;
   }
 
-  private static <T> T couldNotInstantiateCollection(Type dstType, Exception ex) {
+  private static <T> T couldNotInstantiateCollection(Type dstType, Throwable ex) {
     throw new FaunaException(format("Could not instantiate collection of type %s", dstType), ex);
   }
 
+  private static Object newInstance(Class<?> rawClass) throws Throwable {
+    return CREATORS.get(getConcreteClass(rawClass)).create(Accessors.NO_ARGUMENTS);
+  }
+
   private static Class<?> getConcreteClass(Class<?> rawClass) {
     if (!isAbstract(rawClass.getModifiers()) && !rawClass.isInterface())
       return rawClass;
@@ -215,15 +313,30 @@ public final class Decoder {
     throw new FaunaException(format("Abstract class not supported: $%s", rawClass));
   }
 
-  private static Object toArray(Value value, Class<?> dstType) {
+  private static Object toArray(Value value, Class<?> dstType, Parallelism parallelism) {
     List<Value> values = value.to(Codec.ARRAY).get();
 
+    if (dstType == long[].class)
+      return toLongArray(values);
+
+    if (dstType == int[].class)
+      return toIntArray(values);
+
+    if (dstType == double[].class)
+      return toDoubleArray(values);
+
     SimpleType componentType = Types.of(dstType.getComponentType());
 
     int length = values.size();
 
     Object array = Array.newInstance(dstType.getComponentType(), length);
 
+    if (parallelism != null && parallelism.accepts(length)) {
+      Object[] results = parallelism.map(values, v -> decodeImpl(v, componentType));
+      System.arraycopy(results, 0, array, 0, length);
+      return array;
+    }
+
     for (int i = 0; i < length; i++) {
       Object result = decodeImpl(values.get(i), componentType);
 
@@ -233,6 +346,56 @@ public final class Decoder {
     return array;
   }
 
+  // Arrays of numbers are copied without boxing. Other elements go through the regular decoding,
+  // which defaults nulls to zero and reports type mismatches.
+  private static long[] toLongArray(List<Value> values) {
+    if (values instanceof LongList)
+      return ((LongList) values).values.clone();
+
+    long[] array = new long[values.size()];
+
+    for (int i = 0; i < array.length; i++) {
+      Value element = values.get(i);
+      array[i] = element instanceof LongV ? ((LongV) element).value : (Long) decodeImpl(element, LONG_TYPE);
+    }
+
+    return array;
+  }
+
+  private static int[] toIntArray(List<Value> values) {
+    int[] array = new int[values.size()];
+
+    if (values instanceof LongList) {
+      long[] longs = ((LongList) values).values;
+
+      for (int i = 0; i < array.length; i++)
+        array[i] = (int) longs[i];
+
+      return array;
+    }
+
+    for (int i = 0; i < array.length; i++) {
+      Value element = values.get(i);
+      array[i] = element instanceof LongV ? (int) ((LongV) element).value : (Integer) decodeImpl(element, INT_TYPE);
+    }
+
+    return array;
+  }
+
+  private static double[] toDoubleArray(List<Value> values) {
+    if (values instanceof DoubleList)
+      return ((DoubleList) values).values.clone();
+
+    double[] array = new double[values.size()];
+
+    for (int i = 0; i < array.length; i++) {
+      Value element = values.get(i);
+      array[i] = element instanceof DoubleV ? ((DoubleV) element).value : (Double) decodeImpl(element, DOUBLE_TYPE);
+    }
+
+    return array;
+  }
+
   private static Value toValue(Value value, Class<?> dstType) {
     if (dstType.isAssignableFrom(value.getClass()))
       return value;
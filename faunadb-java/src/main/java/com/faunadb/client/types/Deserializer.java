@@ -7,11 +7,12 @@ import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.faunadb.common.time.Iso8601;
 
 import java.io.IOException;
+import java.time.DateTimeException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -48,11 +49,15 @@ class Deserializer {
         case STRING:
           return json.convertValue(tree, StringV.class);
         case BOOLEAN:
-          return json.convertValue(tree, BooleanV.class);
+          return BooleanV.valueOf(tree.booleanValue());
         case NUMBER:
-          return tree.isDouble() ?
-            json.convertValue(tree, DoubleV.class) :
-            json.convertValue(tree, LongV.class);
+          if (tree.isDouble())
+            return new DoubleV(tree.doubleValue());
+
+          if (tree.isIntegralNumber() && tree.canConvertToLong())
+            return LongV.valueOf(tree.longValue());
+
+          return json.convertValue(tree, LongV.class);
         case NULL:
           return NullV.NULL;
         default:
@@ -68,13 +73,13 @@ class Deserializer {
 
       switch (firstField) {
         case "@ref":
-          return deserializeRefs(tree);
+          return deserializeRefs(tree, false);
         case "@set":
           return json.convertValue(tree, SetRefV.class);
         case "@ts":
-          return json.convertValue(tree, TimeV.class);
+          return deserializeTime(tree, json);
         case "@date":
-          return json.convertValue(tree, DateV.class);
+          return deserializeDate(tree, json);
         case "@bytes":
           return json.convertValue(tree, BytesV.class);
         case "@query":
@@ -86,28 +91,59 @@ class Deserializer {
       }
     }
 
-    private RefV deserializeRefs(JsonNode node) {
+    // Well formed timestamps and dates are parsed directly. Anything else goes through the regular
+    // conversion, which reports the error.
+    private Value deserializeTime(JsonNode tree, ObjectMapper json) {
+      JsonNode ts = tree.get("@ts");
+
+      if (tree.size() == 1 && ts.isTextual()) {
+        try {
+          return new TimeV(Iso8601.parseInstant(ts.textValue()));
+        } catch (DateTimeException ignored) {
+        }
+      }
+
+      return json.convertValue(tree, TimeV.class);
+    }
+
+    private Value deserializeDate(JsonNode tree, ObjectMapper json) {
+      JsonNode date = tree.get("@date");
+
+      if (tree.size() == 1 && date.isTextual()) {
+        try {
+          return new DateV(Iso8601.parseDate(date.textValue()));
+        } catch (DateTimeException ignored) {
+        }
+      }
+
+      return json.convertValue(tree, DateV.class);
+    }
+
+    private RefV deserializeRefs(JsonNode node, boolean nested) {
       if (node == null)
         return null;
 
       JsonNode ref = node.get("@ref");
 
       if (ref != null)
-        return makeRef(ref);
+        return makeRef(ref, nested);
 
       throw new IllegalArgumentException(format("Malformed @ref: %s", node));
     }
 
-    private RefV makeRef(JsonNode node) {
+    private RefV makeRef(JsonNode node, boolean nested) {
       JsonNode id = node.get("id");
-      RefV collection = deserializeRefs(node.get("collection"));
-      RefV database = deserializeRefs(node.get("database"));
+      RefV collection = deserializeRefs(node.get("collection"), true);
+      RefV database = deserializeRefs(node.get("database"), true);
 
       String idE = id.textValue();
 
       if (collection == null && database == null)
         return Native.fromName(idE);
 
+      if (nested)
+        return RefV.canonical(idE, collection, database);
+
       return new RefV(idE, collection, database);
     }
   }
@@ -115,6 +151,10 @@ class Deserializer {
   static class ArrayDeserializer extends TreeDeserializer<ArrayV> {
     @Override
     ArrayV deserializeTree(JsonParser jsonParser, JsonNode tree, final ObjectMapper json, JsonLocation loc) {
+      ArrayV numbers = toNumbers(tree);
+
+      if (numbers != null)
+        return numbers;
 
       List<Value> values = new ArrayList<>();
 
@@ -125,20 +165,61 @@ class Deserializer {
       return new ArrayV(values);
     }
 
+    // Arrays of longs only, or doubles only, are kept as primitive arrays
+    private static ArrayV toNumbers(JsonNode tree) {
+      int size = tree.size();
+
+      if (size == 0)
+        return null;
+
+      JsonNode first = tree.get(0);
+
+      if (first.canConvertToLong() && first.isIntegralNumber()) {
+        long[] longs = new long[size];
+
+        for (int i = 0; i < size; i++) {
+          JsonNode element = tree.get(i);
+
+          if (!element.isIntegralNumber() || !element.canConvertToLong())
+            return null;
+
+          longs[i] = element.longValue();
+        }
+
+        return ArrayV.ofLongs(longs);
+      }
+
+      if (first.isDouble()) {
+        double[] doubles = new double[size];
+
+        for (int i = 0; i < size; i++) {
+          JsonNode element = tree.get(i);
+
+          if (!element.isDouble())
+            return null;
+
+          doubles[i] = element.doubleValue();
+        }
+
+        return ArrayV.ofDoubles(doubles);
+      }
+
+      return null;
+    }
   }
 
   static class ObjectDeserializer extends TreeDeserializer<ObjectV> {
     @Override
     ObjectV deserializeTree(JsonParser jsonParser, final JsonNode tree, final ObjectMapper json, JsonLocation loc) {
 
-      Map<String, Value> values = new LinkedHashMap<>();
+      ObjectMap.Builder values = new ObjectMap.Builder(tree.size());
 
       for (Iterator<Map.Entry<String, JsonNode>> entries = tree.fields(); entries.hasNext(); ) {
         Map.Entry<String, JsonNode> entry = entries.next();
         values.put(entry.getKey(), toValueOrNullV(entry.getValue(), json));
       }
 
-      return new ObjectV(values);
+      return new ObjectV(values.build());
     }
   }
 
@@ -1,17 +1,24 @@
 package com.faunadb.client.types;
 
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
 import com.faunadb.client.errors.FaunaException;
+import com.faunadb.client.query.Expr;
 import com.faunadb.client.types.Value.ArrayV;
 import com.faunadb.client.types.Value.ObjectV;
 
+import java.io.IOException;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Stack;
+import java.util.Set;
 
 import static java.lang.String.format;
 
@@ -21,7 +28,11 @@ import static java.lang.String.format;
  * The {@link Encoder} is capable of encoding user defined classes as long
  * as properly annotated with: {@link FaunaField}, {@link FaunaConstructor}, {@link FaunaIgnore}, and {@link FaunaEnum}.
  *
+ * <p>Objects can also be written straight to JSON while a query is serialized, without building a {@link Value}
+ * tree first. See {@link Encoder#encodeLazily(Object)}.</p>
+ *
  * @see Encoder#encode(Object)
+ * @see Encoder#encodeLazily(Object)
  * @see FaunaField
  * @see FaunaConstructor
  * @see FaunaEnum
@@ -34,7 +45,9 @@ public final class Encoder {
   private Encoder() {
   }
 
-  private final Stack<Object> stack = new Stack<>();
+  // Objects being encoded, from the root down to the current one. Only containers are tracked,
+  // as scalar values can not hold references back to their parents.
+  private Set<Object> path;
 
   /**
    * Encode the specified object into a {@link Value} instance.
@@ -52,6 +65,26 @@ public final class Encoder {
     }
   }
 
+  /**
+   * Encode the specified object into an {@link Expr} that writes it straight to JSON when the query is serialized,
+   * instead of building an intermediate {@link Value} tree. Scalar values and {@link Value} instances are encoded
+   * right away.
+   *
+   * <p>The object is read when the query is serialized, so it must not be modified until the query is sent.
+   * Encoding errors, such as self reference loops, are reported when the query is serialized.</p>
+   *
+   * @param obj Any instance of user defined classes, primitive values or any
+   *            generic collection like {@link java.util.List}, {@link java.util.Set} or {@link java.util.Map}
+   * @return an {@link Expr} corresponding to the given argument
+   * @see com.faunadb.client.query.Language#Value(Object)
+   */
+  public static Expr encodeLazily(Object obj) {
+    if (obj == null || obj instanceof Value || isScalar(obj.getClass()))
+      return encode(obj).get();
+
+    return new LazyValue(obj);
+  }
+
   Value encodeImpl(Object obj) {
     if (obj == null)
       return Value.NullV.NULL;
@@ -59,25 +92,131 @@ public final class Encoder {
     if (obj instanceof Value)
       return (Value) obj;
 
-    if (contains(obj))
-      throw new FaunaException(format("Self reference loop detected for object \"%s\"", obj));
+    if (isScalar(obj.getClass()))
+      return encodeIntern(obj);
 
-    try {
-      stack.push(obj);
+    enter(obj);
 
+    try {
       return encodeIntern(obj);
     } finally {
-      stack.pop();
+      path.remove(obj);
+    }
+  }
+
+  /**
+   * Writes the object provided as JSON, in the same format {@link Value} instances are serialized, without building
+   * the {@link Value} tree for user defined classes, collections and maps.
+   */
+  void write(Object obj, JsonGenerator gen, SerializerProvider provider) throws IOException {
+    if (obj == null) {
+      gen.writeNull();
+      return;
+    }
+
+    if (obj instanceof Value) {
+      Value.write((Value) obj, gen, provider);
+      return;
+    }
+
+    Class<?> clazz = obj.getClass();
+
+    if (clazz == String.class) {
+      gen.writeString((String) obj);
+    } else if (clazz == Long.class || clazz == Integer.class || clazz == Short.class || clazz == Byte.class) {
+      gen.writeNumber(((Number) obj).longValue());
+    } else if (clazz == Double.class || clazz == Float.class) {
+      gen.writeNumber(((Number) obj).doubleValue());
+    } else if (clazz == Boolean.class) {
+      gen.writeBoolean((Boolean) obj);
+    } else if (clazz == Character.class) {
+      gen.writeNumber((long) (Character) obj);
+    } else if (isScalar(clazz)) {
+      Value.write(encodeIntern(obj), gen, provider);
+    } else {
+      enter(obj);
+
+      try {
+        writeContainer(obj, clazz, gen, provider);
+      } finally {
+        path.remove(obj);
+      }
+    }
+  }
+
+  private void writeContainer(Object obj, Class<?> clazz, JsonGenerator gen, SerializerProvider provider) throws IOException {
+    if (clazz == long[].class) {
+      long[] array = (long[]) obj;
+      gen.writeArray(array, 0, array.length);
+    } else if (clazz == int[].class) {
+      int[] array = (int[]) obj;
+      gen.writeArray(array, 0, array.length);
+    } else if (clazz == double[].class) {
+      double[] array = (double[]) obj;
+      gen.writeArray(array, 0, array.length);
+    } else if (clazz.isArray()) {
+      int length = Array.getLength(obj);
+
+      gen.writeStartArray();
+      for (int i = 0; i < length; i++) {
+        write(Array.get(obj, i), gen, provider);
+      }
+      gen.writeEndArray();
+    } else if (obj instanceof Iterable) {
+      gen.writeStartArray();
+      for (Object element : (Iterable<?>) obj) {
+        write(element, gen, provider);
+      }
+      gen.writeEndArray();
+    } else if (obj instanceof Map) {
+      gen.writeStartObject();
+      gen.writeFieldName("object");
+      gen.writeStartObject();
+      for (Entry<?, ?> entry : ((Map<?, ?>) obj).entrySet()) {
+        gen.writeFieldName(entry.getKey().toString());
+        write(entry.getValue(), gen, provider);
+      }
+      gen.writeEndObject();
+      gen.writeEndObject();
+    } else {
+      Codecs.EncoderEntryCache entry = Codecs.getEncoderEntry(clazz);
+
+      if (entry instanceof Codecs.PropertiesEncoder)
+        writeProperties(obj, ((Codecs.PropertiesEncoder) entry).properties, gen, provider);
+      else
+        Value.write(entry.encode(this, obj), gen, provider);
     }
   }
 
-  private boolean contains(Object value) {
-    for (Object obj : stack) {
-      if (obj == value)
-        return true;
+  private void writeProperties(Object obj, Properties.Property[] properties, JsonGenerator gen, SerializerProvider provider)
+    throws IOException {
+
+    gen.writeStartObject();
+    gen.writeFieldName("object");
+    gen.writeStartObject();
+    for (Properties.Property property : properties) {
+      gen.writeFieldName(property.getName());
+
+      try {
+        write(property.get(obj), gen, provider);
+      } catch (RuntimeException ex) {
+        throw Codecs.couldNotEncode(property, ex);
+      }
     }
+    gen.writeEndObject();
+    gen.writeEndObject();
+  }
+
+  private void enter(Object obj) {
+    if (path == null)
+      path = Collections.newSetFromMap(new IdentityHashMap<>());
 
-    return false;
+    if (!path.add(obj))
+      throw new FaunaException(format("Self reference loop detected for object \"%s\"", obj));
+  }
+
+  private static boolean isScalar(Class<?> clazz) {
+    return clazz.isEnum() || clazz == byte[].class || Codecs.hasCodec(clazz);
   }
 
   private Value encodeIntern(Object obj) {
@@ -102,7 +241,7 @@ public final class Encoder {
   }
 
   private Value wrapMap(Map<?, ?> obj) {
-    Map<String, Value> values = new HashMap<>();
+    Map<String, Value> values = new LinkedHashMap<>();
 
     for (Entry<?, ?> entry : obj.entrySet()) {
       values.put(entry.getKey().toString(), encodeImpl(entry.getValue()));
@@ -123,6 +262,24 @@ public final class Encoder {
   }
 
   private Value wrapArray(Object obj) {
+    Class<?> clazz = obj.getClass();
+
+    if (clazz == long[].class)
+      return ArrayV.ofLongs(((long[]) obj).clone());
+
+    if (clazz == int[].class) {
+      int[] ints = (int[]) obj;
+      long[] longs = new long[ints.length];
+
+      for (int i = 0; i < ints.length; i++)
+        longs[i] = ints[i];
+
+      return ArrayV.ofLongs(longs);
+    }
+
+    if (clazz == double[].class)
+      return ArrayV.ofDoubles(((double[]) obj).clone());
+
     int length = Array.getLength(obj);
     List<Value> values = new ArrayList<>(length);
 
@@ -133,4 +290,47 @@ public final class Encoder {
     return new ArrayV(values);
   }
 
+  private static final class LazyValue extends Expr {
+    private final Object value;
+
+    // Encoded and hashed the first time they are needed, assuming the value is not mutated once used in a query
+    private volatile Value encoded;
+    private int hash;
+
+    LazyValue(Object value) {
+      this.value = value;
+    }
+
+    @Override
+    @JsonValue
+    protected Value toJson() {
+      Value result = encoded;
+
+      if (result == null)
+        encoded = result = encode(value).get();
+
+      return result;
+    }
+
+    @Override
+    protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      new Encoder().write(value, gen, provider);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other == this || other instanceof LazyValue && toJson().equals(((LazyValue) other).toJson());
+    }
+
+    @Override
+    public int hashCode() {
+      int result = hash;
+
+      if (result == 0)
+        hash = result = toJson().hashCode();
+
+      return result;
+    }
+  }
+
 }
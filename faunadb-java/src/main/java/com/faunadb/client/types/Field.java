@@ -29,10 +29,12 @@ public final class Field<T> {
   private static final class CollectionCodec<A> implements Codec<List<A>> {
     private final Path path;
     private final Field<A> field;
+    private final Parallelism parallelism;
 
-    public CollectionCodec(Path path, Field<A> field) {
+    public CollectionCodec(Path path, Field<A> field, Parallelism parallelism) {
       this.path = path;
       this.field = field;
+      this.parallelism = parallelism;
     }
 
     @Override
@@ -52,8 +54,13 @@ public final class Field<T> {
           List<A> success = new ArrayList<>();
           List<String> failures = new ArrayList<>();
 
+          Object[] results = null;
+          if (parallelism != null && parallelism.accepts(values.size()))
+            results = parallelism.map(values, field::get);
+
           for (int i = 0; i < values.size(); i++) {
-            Result<A> res = field.get(values.get(i));
+            @SuppressWarnings("unchecked")
+            Result<A> res = results != null ? (Result<A>) results[i] : field.get(values.get(i));
 
             if (res.isSuccess()) {
               success.add(res.get());
@@ -174,7 +181,22 @@ public final class Field<T> {
    * @return a new {@link Field} instance
    */
   public static <A> Field<List<A>> asListOf(Field<A> field) {
-    return new Field<>(Path.empty(), new CollectionCodec<>(Path.empty(), field));
+    return new Field<>(Path.empty(), new CollectionCodec<>(Path.empty(), field, null));
+  }
+
+  /**
+   * Assuming the {@link Value} instance is a collection, creates a field extractor that collects
+   * the {@link Field} provided for each element in the underlying collection, extracting the elements of
+   * large collections in parallel.
+   *
+   * @param <A> the desired final type for each collection element
+   * @param field the {@link Field} to be extracted from each collection element
+   * @param parallelism configures when and where to extract elements in parallel
+   * @return a new {@link Field} instance
+   * @see Parallelism
+   */
+  public static <A> Field<List<A>> asListOf(Field<A> field, Parallelism parallelism) {
+    return new Field<>(Path.empty(), new CollectionCodec<>(Path.empty(), field, parallelism));
   }
 
   public static <A> Field<Map<String, A>> asMapOf(Field<A> field) {
@@ -187,12 +209,6 @@ public final class Field<T> {
 
   private final Path path;
   private final Codec<T> codec;
-  private final Function<Value, Result<T>> codecFn = new Function<Value, Result<T>>() {
-    @Override
-    public Result<T> apply(Value input) {
-      return codec.decode(input);
-    }
-  };
 
   private Field(Path path, Codec<T> codec) {
     this.path = path;
@@ -251,11 +267,104 @@ public final class Field<T> {
    * @return a new {@link Field} instance
    */
   public <A> Field<List<A>> collect(Field<A> field) {
-    return new Field<>(path, new CollectionCodec<>(path, field));
+    return new Field<>(path, new CollectionCodec<>(path, field, null));
+  }
+
+  /**
+   * Assuming the {@link Value} instance is a collection, creates a field extractor that collects
+   * the {@link Field} provided for each element in the underlying collection, extracting the elements of
+   * large collections in parallel.
+   *
+   * <p>Elements keep their order, and failures are reported for all elements, as with {@link #collect(Field)}.</p>
+   *
+   * @param <A> the desired final type for each collection element
+   * @param field the {@link Field} to be extracted from each collection element
+   * @param parallelism configures when and where to extract elements in parallel
+   * @return a new {@link Field} instance
+   * @see Parallelism
+   */
+  public <A> Field<List<A>> collect(Field<A> field, Parallelism parallelism) {
+    return new Field<>(path, new CollectionCodec<>(path, field, parallelism));
+  }
+
+  Path path() {
+    return path;
+  }
+
+  /**
+   * Compiles this field into an accessor bound to its path and codec.
+   *
+   * <p>The accessor walks the {@link Value} tree directly and reports missing paths with error messages
+   * built only when read, so it is suited to hot loops extracting the same field from many values.</p>
+   *
+   * <pre>{@code
+   * Field.Compiled<String> name = Field.at("data", "name").to(String.class).compile();
+   *
+   * for (Value user : users)
+   *   names.add(name.getOrNull(user));
+   * }</pre>
+   *
+   * @return a compiled accessor for this field
+   */
+  public Compiled<T> compile() {
+    return new Compiled<>(this);
+  }
+
+  /**
+   * A {@link Field} compiled into an accessor. {@link #getOrNull(Value)} does not allocate when it finds a field
+   * converted by {@link Codec#VALUE}. Other codecs still allocate the {@link Result} of their conversion.
+   *
+   * @see Field#compile()
+   */
+  public static final class Compiled<T> {
+    private final Field<T> field;
+
+    private Compiled(Field<T> field) {
+      this.field = field;
+    }
+
+    /**
+     * Extracts this field from the value provided.
+     *
+     * @param root the value to extract this field from
+     * @return the field's value, or a failure if it can not be found or converted
+     */
+    public Result<T> get(Value root) {
+      return field.get(root);
+    }
+
+    /**
+     * Extracts this field from the value provided, if it can be found and converted.
+     *
+     * @param root the value to extract this field from
+     * @return the field's value, or null if it can not be found or converted
+     */
+    @SuppressWarnings("unchecked")
+    public T getOrNull(Value root) {
+      Value value = field.path.find(root);
+
+      if (value == null)
+        return null;
+
+      if (field.codec == Codec.VALUE)
+        return (T) value;
+
+      return field.codec.decode(value).orNull();
+    }
+
+    @Override
+    public String toString() {
+      return field.toString();
+    }
   }
 
   Result<T> get(Value root) {
-    return path.get(root).flatMap(codecFn);
+    Value value = path.find(root);
+
+    if (value == null)
+      return path.notFound(root);
+
+    return codec.decode(value);
   }
 
   @Override
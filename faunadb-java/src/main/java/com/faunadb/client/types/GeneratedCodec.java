@@ -0,0 +1,118 @@
+package com.faunadb.client.types;
+
+import com.faunadb.client.errors.FaunaException;
+import com.faunadb.client.types.Value.ObjectV;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Base class of the codecs generated at compile time by the {@code faunadb-java-codegen} annotation processor.
+ *
+ * <p>The {@link Encoder} and the {@link Decoder} look for a generated codec before introspecting a class annotated with
+ * {@link FaunaField} or {@link FaunaConstructor}, and fall back to reflection when there is none. A codec generated for
+ * {@code com.example.User} is named {@code com.example.User_FaunaCodec}, and one generated for a nested class
+ * {@code com.example.Outer.User} is named {@code com.example.Outer_User_FaunaCodec}.</p>
+ *
+ * <p><b>WARNING:</b> Internal API. Must only be extended by generated code.</p>
+ *
+ * @param <T> the type encoded and decoded by this codec
+ */
+public abstract class GeneratedCodec<T> implements Codec<T> {
+
+  static final String SUFFIX = "_FaunaCodec";
+
+  private final Class<T> type;
+
+  protected GeneratedCodec(Class<T> type) {
+    this.type = type;
+  }
+
+  /**
+   * Encodes the properties of the instance provided, using the encoder provided for nested values.
+   *
+   * @param encoder the encoder in use
+   * @param value the instance to encode
+   * @return the encoded object
+   */
+  protected abstract Value encode(Encoder encoder, T value);
+
+  /**
+   * Creates an instance from the object provided.
+   *
+   * @param object the object to decode
+   * @return the decoded instance
+   */
+  protected abstract T decode(ObjectV object);
+
+  @Override
+  public final Result<T> decode(Value value) {
+    return Result.success(type.cast(decodeObject(value)));
+  }
+
+  @Override
+  public final Result<Value> encode(T value) {
+    return Encoder.encode(value);
+  }
+
+  final Object decodeObject(Value value) {
+    if (!(value instanceof ObjectV))
+      throw new FaunaException(format("Could not instantiate object of class %s", type.getName()),
+        new IllegalArgumentException(format("Expected an object but found %s", value)));
+
+    try {
+      return decode((ObjectV) value);
+    } catch (Exception ex) {
+      throw new FaunaException(format("Could not instantiate object of class %s", type.getName()), ex);
+    }
+  }
+
+  /**
+   * Encodes a property value and adds it to the fields provided.
+   */
+  protected static void encodeField(Map<String, Value> fields, Encoder encoder, String name, Object value) {
+    try {
+      fields.put(name, encoder.encodeImpl(value));
+    } catch (Exception ex) {
+      throw new FaunaException(format("Could not encode field \"%s\". Reason: %s", name, ex.getMessage()), ex);
+    }
+  }
+
+  /**
+   * Decodes the field of the object provided into the type provided, or its default value if the field is missing.
+   */
+  @SuppressWarnings("unchecked")
+  protected static <F> F decodeField(ObjectV object, String name, Type type) {
+    return (F) Decoder.decodeImpl(object.values.get(name), Types.of(type));
+  }
+
+  /**
+   * Finds the codec generated for the class provided.
+   *
+   * @return the generated codec, or null if there is none
+   */
+  static GeneratedCodec<?> find(Class<?> type) {
+    if (type.isPrimitive() || type.isArray() || type.getClassLoader() == null)
+      return null;
+
+    String name = type.getName();
+    int simpleName = name.lastIndexOf('.') + 1;
+    String codecName = name.substring(0, simpleName) + name.substring(simpleName).replace('$', '_') + SUFFIX;
+
+    try {
+      Class<?> codecClass = Class.forName(codecName, true, type.getClassLoader());
+
+      if (!GeneratedCodec.class.isAssignableFrom(codecClass))
+        return null;
+
+      GeneratedCodec<?> codec = (GeneratedCodec<?>) codecClass.getConstructor().newInstance();
+      return codec.type == type ? codec : null;
+    } catch (ClassNotFoundException ex) {
+      return null;
+    } catch (ReflectiveOperationException | LinkageError ex) {
+      throw new FaunaException(format("Could not load the generated codec %s", codecName), ex);
+    }
+  }
+}
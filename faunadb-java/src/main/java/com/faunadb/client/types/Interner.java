@@ -0,0 +1,59 @@
+package com.faunadb.client.types;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock free canonicalization table for immutable values.
+ * <p>
+ * The table is direct mapped: each value hashes to a single slot, holding the last value interned there. Values
+ * that collide replace each other, so the table never grows beyond its capacity nor pins values forever, and a miss
+ * only costs keeping the value provided instead of a canonical copy.
+ *
+ * @param <T> the type of the values interned, which must be immutable and implement equals and hashCode
+ */
+final class Interner<T> {
+  private final AtomicReferenceArray<T> table;
+  private final int mask;
+
+  /**
+   * @param capacity the number of slots in the table, rounded up to a power of two
+   */
+  Interner(int capacity) {
+    int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+    this.table = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+  }
+
+  /**
+   * Returns the canonical instance equal to the value provided, making the value provided canonical if there is none.
+   */
+  T intern(T value) {
+    int slot = slot(value.hashCode());
+    T canonical = table.get(slot);
+
+    if (canonical == value)
+      return canonical;
+
+    if (canonical != null && canonical.equals(value))
+      return canonical;
+
+    table.lazySet(slot, value);
+    return value;
+  }
+
+  /**
+   * Returns the value held in the slot of the hash code provided, if any, so callers can look up a canonical instance
+   * from its components before building a new one. The value returned may not be equal to the one looked for.
+   */
+  T probe(int hash) {
+    return table.get(slot(hash));
+  }
+
+  private int slot(int hash) {
+    return spread(hash) & mask;
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+}
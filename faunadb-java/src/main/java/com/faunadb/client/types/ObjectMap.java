@@ -0,0 +1,213 @@
+package com.faunadb.client.types;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable, insertion ordered map holding the fields of the {@link Value.ObjectV} instances read from
+ * FaunaDB responses.
+ * <p>
+ * Keys and values are held in parallel arrays. Small maps, the vast majority of FaunaDB objects, are searched
+ * linearly. Larger ones also keep an open addressing table of positions, probed linearly. Keys are canonicalized
+ * through a bounded table, so the field names repeated across the documents of a page are held once.
+ */
+final class ObjectMap extends AbstractMap<String, Value> {
+
+  private static final int LINEAR_MAX = 8;
+  private static final int MAX_INTERNED_LENGTH = 64;
+
+  private static final Interner<String> KEYS = new Interner<>(4096);
+
+  private String[] keys;
+  private Value[] values;
+  private int[] table;
+  private int size;
+
+  private ObjectMap(int capacity) {
+    this.keys = new String[capacity];
+    this.values = new Value[capacity];
+  }
+
+  /**
+   * Builds an {@link ObjectMap}. Repeated keys keep the position of their first occurrence and the value
+   * of their last one, as with {@link java.util.LinkedHashMap}.
+   */
+  static final class Builder {
+    private ObjectMap map;
+
+    /**
+     * @param expectedSize the expected number of keys
+     */
+    Builder(int expectedSize) {
+      this.map = new ObjectMap(Math.max(expectedSize, 1));
+    }
+
+    Builder() {
+      this(LINEAR_MAX);
+    }
+
+    Builder put(String key, Value value) {
+      map.add(key, value);
+      return this;
+    }
+
+    ObjectMap build() {
+      ObjectMap result = map;
+      map = null;
+
+      if (result.size < result.keys.length) {
+        result.keys = Arrays.copyOf(result.keys, result.size);
+        result.values = Arrays.copyOf(result.values, result.size);
+      }
+
+      return result;
+    }
+  }
+
+  static String intern(String key) {
+    return key.length() <= MAX_INTERNED_LENGTH ? KEYS.intern(key) : key;
+  }
+
+  private void add(String key, Value value) {
+    int position = indexOf(key);
+
+    if (position >= 0) {
+      values[position] = value;
+      return;
+    }
+
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+      values = Arrays.copyOf(values, size * 2);
+    }
+
+    keys[size] = intern(key);
+    values[size] = value;
+    size++;
+
+    if (table != null && size * 2 > table.length)
+      table = null;
+
+    if (table == null && size > LINEAR_MAX)
+      rehash();
+    else if (table != null)
+      insert(table, size - 1);
+  }
+
+  private void rehash() {
+    int[] newTable = new int[Integer.highestOneBit(size * 4 - 1)];
+
+    for (int i = 0; i < size; i++)
+      insert(newTable, i);
+
+    table = newTable;
+  }
+
+  // Slots hold positions plus one, so zero marks an empty slot
+  private void insert(int[] table, int position) {
+    int mask = table.length - 1;
+    int slot = keys[position].hashCode() & mask;
+
+    while (table[slot] != 0)
+      slot = (slot + 1) & mask;
+
+    table[slot] = position + 1;
+  }
+
+  private int indexOf(Object key) {
+    if (table == null) {
+      for (int i = 0; i < size; i++) {
+        if (keys[i] == key)
+          return i;
+      }
+
+      for (int i = 0; i < size; i++) {
+        if (keys[i].equals(key))
+          return i;
+      }
+
+      return -1;
+    }
+
+    int mask = table.length - 1;
+
+    for (int slot = key.hashCode() & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+      int position = table[slot] - 1;
+
+      if (keys[position] == key || keys[position].equals(key))
+        return position;
+    }
+
+    return -1;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key != null && indexOf(key) >= 0;
+  }
+
+  @Override
+  public Value get(Object key) {
+    if (key == null)
+      return null;
+
+    int position = indexOf(key);
+    return position >= 0 ? values[position] : null;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super String, ? super Value> action) {
+    for (int i = 0; i < size; i++)
+      action.accept(keys[i], values[i]);
+  }
+
+  @Override
+  public Set<Entry<String, Value>> entrySet() {
+    return new AbstractSet<Entry<String, Value>>() {
+      @Override
+      public Iterator<Entry<String, Value>> iterator() {
+        return new Iterator<Entry<String, Value>>() {
+          private int next = 0;
+
+          @Override
+          public boolean hasNext() {
+            return next < size;
+          }
+
+          @Override
+          public Entry<String, Value> next() {
+            if (next >= size)
+              throw new NoSuchElementException();
+
+            int position = next++;
+            return new SimpleImmutableEntry<>(keys[position], values[position]);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 0;
+    for (int i = 0; i < size; i++)
+      hash += keys[i].hashCode() ^ Objects.hashCode(values[i]);
+    return hash;
+  }
+}
@@ -0,0 +1,166 @@
+package com.faunadb.client.types;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Configures the decoding of large collections in parallel.
+ *
+ * <p>Parallel decoding is off unless a {@link Parallelism} is passed. Collections with at least {@code threshold}
+ * elements then have their elements decoded by the tasks of a {@link ForkJoinPool}, in chunks of at least 32
+ * elements. Smaller collections, collections of less than two chunks and pools of a single thread are decoded on the
+ * calling thread, since handing them over to the pool costs more than it saves. The elements keep their order, and
+ * errors are reported as if the elements were decoded one by one.</p>
+ *
+ * <p>Decoding in parallel only pays off for pages of thousands of elements expensive to decode, such as user
+ * defined classes: {@code ParallelDecodeBenchmark} in {@code faunadb-bench} compares both ways for the sizes and
+ * pools of interest.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>{@code
+ * Parallelism parallelism = Parallelism.of(10000);
+ * List<Spell> spells = page.at("data").collect(Field.as(Spell.class), parallelism);
+ * }</pre>
+ *
+ * @see Value#collect(Field, Parallelism)
+ * @see Field#collect(Field, Parallelism)
+ * @see Decoder#decode(Value, java.lang.reflect.Type, Parallelism)
+ */
+public final class Parallelism {
+
+  private static final int MIN_CHUNK_SIZE = 32;
+  private static final int CHUNKS_PER_THREAD = 4;
+
+  private final ForkJoinPool pool;
+  private final int threshold;
+
+  private Parallelism(ForkJoinPool pool, int threshold) {
+    if (threshold < 1)
+      throw new IllegalArgumentException("threshold must be greater than zero");
+
+    this.pool = Objects.requireNonNull(pool, "pool");
+    this.threshold = threshold;
+  }
+
+  /**
+   * Decodes collections of at least {@code threshold} elements in the pool provided.
+   *
+   * @param pool the pool to decode elements in
+   * @param threshold the minimum number of elements to decode in parallel
+   * @return a new {@link Parallelism} instance
+   */
+  public static Parallelism of(ForkJoinPool pool, int threshold) {
+    return new Parallelism(pool, threshold);
+  }
+
+  /**
+   * Decodes collections of at least {@code threshold} elements in the {@link ForkJoinPool#commonPool()}.
+   *
+   * @param threshold the minimum number of elements to decode in parallel
+   * @return a new {@link Parallelism} instance
+   */
+  public static Parallelism of(int threshold) {
+    return new Parallelism(ForkJoinPool.commonPool(), threshold);
+  }
+
+  public ForkJoinPool getPool() {
+    return pool;
+  }
+
+  public int getThreshold() {
+    return threshold;
+  }
+
+  boolean accepts(int size) {
+    return size >= threshold && size >= 2 * MIN_CHUNK_SIZE && pool.getParallelism() > 1;
+  }
+
+  /**
+   * Applies the function provided to all values in parallel, returning the results in the values' order.
+   * If the function throws, rethrows the exception of the first value it failed on.
+   */
+  Object[] map(List<Value> values, Function<Value, ?> fn) {
+    Object[] results = new Object[values.size()];
+    int chunkSize = Math.max(MIN_CHUNK_SIZE, results.length / (pool.getParallelism() * CHUNKS_PER_THREAD));
+
+    MapTask task = new MapTask(values, fn, results, new Failure(), 0, results.length, chunkSize);
+    pool.invoke(task);
+
+    if (task.failure.error != null)
+      throw task.failure.error;
+
+    return results;
+  }
+
+  // Exceptions are kept here, instead of thrown from the tasks, so the exception of the first value
+  // that failed is rethrown as is
+  private static final class Failure {
+    private volatile int index = Integer.MAX_VALUE;
+    private RuntimeException error;
+
+    synchronized void record(int index, RuntimeException error) {
+      if (index < this.index) {
+        this.index = index;
+        this.error = error;
+      }
+    }
+  }
+
+  private static final class MapTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final List<Value> values;
+    private final Function<Value, ?> fn;
+    private final Object[] results;
+    private final Failure failure;
+    private final int from;
+    private final int to;
+    private final int chunkSize;
+
+    MapTask(List<Value> values, Function<Value, ?> fn, Object[] results, Failure failure, int from, int to, int chunkSize) {
+      this.values = values;
+      this.fn = fn;
+      this.results = results;
+      this.failure = failure;
+      this.from = from;
+      this.to = to;
+      this.chunkSize = chunkSize;
+    }
+
+    @Override
+    protected void compute() {
+      // Values after one that already failed do not change the outcome
+      if (failure.index < from)
+        return;
+
+      if (to - from > chunkSize) {
+        int middle = (from + to) >>> 1;
+
+        invokeAll(
+          new MapTask(values, fn, results, failure, from, middle, chunkSize),
+          new MapTask(values, fn, results, failure, middle, to, chunkSize)
+        );
+
+        return;
+      }
+
+      for (int i = from; i < to; i++) {
+        try {
+          results[i] = fn.apply(values.get(i));
+        } catch (RuntimeException ex) {
+          failure.record(i, ex);
+          return;
+        }
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "Parallelism(pool = " + pool + ", threshold = " + threshold + ")";
+  }
+}
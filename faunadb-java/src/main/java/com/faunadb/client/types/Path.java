@@ -1,5 +1,8 @@
 package com.faunadb.client.types;
 
+import com.faunadb.client.types.Value.ArrayV;
+import com.faunadb.client.types.Value.ObjectV;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -22,6 +25,11 @@ final class Path {
 
     abstract Result<Value> get(Value root);
 
+    abstract Value find(Value root);
+
+    // The message of get when find returns null for a value of the type provided
+    abstract String notFound(Class<? extends Value> type);
+
     @Override
     public boolean equals(Object other) {
       return other instanceof Segment &&
@@ -55,6 +63,23 @@ final class Path {
       });
     }
 
+    @Override
+    Value find(Value root) {
+      return find(root, segment);
+    }
+
+    static Value find(Value root, String key) {
+      return root instanceof ObjectV ? ((ObjectV) root).values.get(key) : null;
+    }
+
+    @Override
+    String notFound(Class<? extends Value> type) {
+      if (!ObjectV.class.isAssignableFrom(type))
+        return format("Can not convert %s to %s", type.getSimpleName(), ObjectV.class.getSimpleName());
+
+      return format("Object key \"%s\" not found", segment);
+    }
+
   }
 
   private static final class ArrayIndex extends Segment<Integer> {
@@ -73,6 +98,27 @@ final class Path {
       });
     }
 
+    @Override
+    Value find(Value root) {
+      return find(root, segment);
+    }
+
+    static Value find(Value root, int index) {
+      if (!(root instanceof ArrayV))
+        return null;
+
+      List<Value> values = ((ArrayV) root).values;
+      return index >= 0 && index < values.size() ? values.get(index) : null;
+    }
+
+    @Override
+    String notFound(Class<? extends Value> type) {
+      if (!ArrayV.class.isAssignableFrom(type))
+        return format("Can not convert %s to %s", type.getSimpleName(), ArrayV.class.getSimpleName());
+
+      return format("Array index \"%s\" not found", segment);
+    }
+
   }
 
   static Path empty() {
@@ -98,9 +144,11 @@ final class Path {
   }
 
   private final List<Segment> segments;
+  private final Segment<?>[] chain;
 
   private Path(List<Segment> segments) {
     this.segments = segments;
+    this.chain = segments.toArray(new Segment<?>[0]);
   }
 
   Path subPath(Path other) {
@@ -111,6 +159,14 @@ final class Path {
     return new Path(Collections.unmodifiableList(newSegments));
   }
 
+  int size() {
+    return segments.size();
+  }
+
+  Object segment(int index) {
+    return segments.get(index).segment;
+  }
+
   Result<Value> get(Value root) {
     Result<Value> result = Result.success(root);
 
@@ -124,6 +180,70 @@ final class Path {
     return result;
   }
 
+  /**
+   * Returns the value under this path, or null if it can not be found. Unlike {@link #get(Value)}, walks the
+   * {@link ObjectV} and {@link ArrayV} instances directly, without allocating.
+   */
+  Value find(Value root) {
+    Value value = root;
+
+    for (Segment<?> segment : chain) {
+      value = segment.find(value);
+      if (value == null)
+        return null;
+    }
+
+    return value;
+  }
+
+  /**
+   * Returns the failure of {@link #get(Value)} for a value under which {@link #find(Value)} returns null. The
+   * failure keeps only the missing segment and the type of the value it was looked up in, not the value itself,
+   * and formats its message when read.
+   */
+  <T> Result<T> notFound(Value root) {
+    Value value = root;
+    int index = 0;
+
+    while (index < chain.length - 1) {
+      Value next = chain[index].find(value);
+      if (next == null)
+        break;
+
+      value = next;
+      index++;
+    }
+
+    Segment<?> segment = chain[index];
+    Class<? extends Value> type = value.getClass();
+
+    return Result.fail(() -> format("Can not find path \"%s\". %s", this, segment.notFound(type)));
+  }
+
+  static Value find(Value root, String[] keys) {
+    Value value = root;
+
+    for (String key : keys) {
+      value = ObjectKey.find(value, key);
+      if (value == null)
+        return null;
+    }
+
+    return value;
+  }
+
+  static Value find(Value root, int[] indexes) {
+    Value value = root;
+
+    for (int index : indexes) {
+      value = ArrayIndex.find(value, index);
+      if (value == null)
+        return null;
+    }
+
+    return value;
+  }
+
   @Override
   public boolean equals(Object other) {
     return other instanceof Path &&
@@ -0,0 +1,88 @@
+package com.faunadb.client.types;
+
+import com.faunadb.client.types.Value.DoubleV;
+import com.faunadb.client.types.Value.LongV;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Immutable lists of values backed by primitive arrays, used by {@link Value.ArrayV} to hold arrays of numbers
+ * without a boxed {@link Value} per element.
+ * <p>
+ * Elements are boxed on access only, so the lists are equal to, and have the same hash code as, any other list
+ * holding the same {@link LongV} or {@link DoubleV} values.
+ */
+final class PrimitiveLists {
+  private PrimitiveLists() {}
+
+  static final class LongList extends AbstractList<Value> implements RandomAccess {
+    final long[] values;
+
+    LongList(long[] values) {
+      this.values = values;
+    }
+
+    @Override
+    public Value get(int index) {
+      return LongV.valueOf(values[index]);
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (other instanceof LongList)
+        return Arrays.equals(values, ((LongList) other).values);
+
+      return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+      int hash = 1;
+      for (long value : values)
+        hash = 31 * hash + Long.hashCode(value);
+      return hash;
+    }
+  }
+
+  static final class DoubleList extends AbstractList<Value> implements RandomAccess {
+    final double[] values;
+
+    DoubleList(double[] values) {
+      this.values = values;
+    }
+
+    @Override
+    public Value get(int index) {
+      return new DoubleV(values[index]);
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (other instanceof DoubleList)
+        return Arrays.equals(values, ((DoubleList) other).values);
+
+      return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+      int hash = 1;
+      for (double value : values)
+        hash = 31 * hash + Double.hashCode(value);
+      return hash;
+    }
+  }
+
+}
@@ -0,0 +1,199 @@
+package com.faunadb.client.types;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.faunadb.client.types.Value.ArrayV;
+import com.faunadb.client.types.Value.NullV;
+import com.faunadb.client.types.Value.ObjectV;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A set of {@link Field} selectors applied while a query response is being parsed.
+ *
+ * <p>Only the subtrees reachable through one of the selectors are materialized as {@link Value} instances.
+ * Every other subtree is skipped at the token level, so its contents are never allocated.
+ * Extracting one of the selected fields from the projected value yields the same result as
+ * extracting it from the full response.</p>
+ *
+ * <p>When an object key selector reaches an array, it is applied to every element of that array.
+ * This allows a single selector to pick a column out of each document in a page:</p>
+ *
+ * <pre>{@code
+ *   Value page = client.query(
+ *     Map(Paginate(Documents(Collection("users"))), Lambda("x", Get(Var("x")))),
+ *     Field.at("data", "data", "email")
+ *   ).get();
+ *
+ *   List<String> emails = page.at("data").collect(Field.at("data", "email").to(String.class));
+ * }</pre>
+ *
+ * <p>Array elements not selected by an index selector are replaced by {@link NullV} so that
+ * the remaining elements keep their original positions.</p>
+ *
+ * <p><b>WARNING:</b> Internal API. Must not be used in production code.</p>
+ *
+ * @see com.faunadb.client.FaunaClient#query(com.faunadb.client.query.Expr, Field[])
+ */
+public final class Projection {
+
+  private static final class Node {
+    private boolean terminal;
+    private final Map<String, Node> keys = new HashMap<>();
+    private final Map<Integer, Node> indexes = new HashMap<>();
+
+    private Node child(Object segment) {
+      if (segment instanceof String)
+        return keys.computeIfAbsent((String) segment, k -> new Node());
+
+      return indexes.computeIfAbsent((Integer) segment, i -> new Node());
+    }
+  }
+
+  /**
+   * Creates a projection that retains the paths of the fields provided.
+   *
+   * @param fields the fields to be retained
+   * @return a new {@link Projection} instance
+   */
+  public static Projection of(Field<?>... fields) {
+    Node root = new Node();
+
+    for (Field<?> field : fields) {
+      Path path = field.path();
+      Node node = root;
+
+      for (int i = 0; i < path.size(); i++)
+        node = node.child(path.segment(i));
+
+      node.terminal = true;
+    }
+
+    return new Projection(root);
+  }
+
+  private final Node root;
+
+  private Projection(Node root) {
+    this.root = root;
+  }
+
+  /**
+   * Reads the value at the current token of the parser provided, retaining only the projected paths.
+   * The parser's codec must be an {@link ObjectMapper}. Once this method returns, the parser's current
+   * token is the last token of the value read.
+   *
+   * @param parser the parser, positioned at the first token of the value
+   * @return the projected {@link Value}
+   * @throws IOException if the underlying content is not a valid {@link Value}
+   */
+  public Value read(JsonParser parser) throws IOException {
+    return read(parser, (ObjectMapper) parser.getCodec(), root);
+  }
+
+  private static Value read(JsonParser parser, ObjectMapper json, Node node) throws IOException {
+    if (node.terminal)
+      return readFully(parser, json);
+
+    switch (parser.currentToken()) {
+      case START_OBJECT:
+        return readObject(parser, json, node);
+      case START_ARRAY:
+        return readArray(parser, json, node);
+      default:
+        return readFully(parser, json);
+    }
+  }
+
+  private static Value readObject(JsonParser parser, ObjectMapper json, Node node) throws IOException {
+    String firstField = parser.nextFieldName();
+
+    if (firstField == null)
+      return new ObjectV(Collections.emptyMap());
+
+    if (firstField.equals("@obj")) {
+      expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+      ObjectV rv = readFields(parser, json, node, parser.nextFieldName());
+      expect(parser, parser.nextToken(), JsonToken.END_OBJECT);
+      return rv;
+    }
+
+    if (firstField.startsWith("@"))
+      return readSpecial(parser, json, firstField);
+
+    return readFields(parser, json, node, firstField);
+  }
+
+  private static ObjectV readFields(JsonParser parser, ObjectMapper json, Node node, String firstField)
+    throws IOException {
+
+    ObjectMap.Builder values = new ObjectMap.Builder();
+
+    for (String name = firstField; name != null; name = parser.nextFieldName()) {
+      parser.nextToken();
+      Node child = node.keys.get(name);
+
+      if (child == null)
+        parser.skipChildren();
+      else
+        values.put(name, read(parser, json, child));
+    }
+
+    return new ObjectV(values.build());
+  }
+
+  private static Value readArray(JsonParser parser, ObjectMapper json, Node node) throws IOException {
+    List<Value> values = new ArrayList<>();
+    boolean elementWise = !node.keys.isEmpty();
+
+    for (int i = 0; parser.nextToken() != JsonToken.END_ARRAY; i++) {
+      Node child = node.indexes.get(i);
+
+      if (child == null && elementWise)
+        child = node;
+
+      if (child == null) {
+        parser.skipChildren();
+        values.add(NullV.NULL);
+      } else {
+        values.add(read(parser, json, child));
+      }
+    }
+
+    return new ArrayV(values);
+  }
+
+  // Special objects, such as @ref or @ts, are always read as a whole once their first key is known.
+  private static Value readSpecial(JsonParser parser, ObjectMapper json, String firstField) throws IOException {
+    ObjectNode tree = json.createObjectNode();
+
+    for (String name = firstField; name != null; name = parser.nextFieldName()) {
+      parser.nextToken();
+      tree.set(name, json.readTree(parser));
+    }
+
+    return toValueOrNullV(json.treeToValue(tree, Value.class));
+  }
+
+  private static Value readFully(JsonParser parser, ObjectMapper json) throws IOException {
+    return toValueOrNullV(json.readValue(parser, Value.class));
+  }
+
+  private static Value toValueOrNullV(Value value) {
+    return value != null ? value : NullV.NULL;
+  }
+
+  private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws JsonParseException {
+    if (actual != expected)
+      throw new JsonParseException(parser, String.format("Expected %s but found %s", expected, actual));
+  }
+
+}
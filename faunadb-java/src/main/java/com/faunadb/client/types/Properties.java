@@ -1,6 +1,8 @@
 package com.faunadb.client.types;
 
 import com.faunadb.client.errors.FaunaException;
+import com.faunadb.client.types.Accessors.Getter;
+import com.faunadb.client.types.Accessors.Setter;
 import com.faunadb.client.types.Types.SimpleType;
 
 import java.lang.reflect.Field;
@@ -8,9 +10,10 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import static java.lang.String.format;
 
@@ -33,8 +36,10 @@ class Properties {
     return getProperties(clazz, true);
   }
 
+  // Properties are listed in a stable order: fields as declared, then methods by property name, since the order of
+  // Class.getMethods() is unspecified
   private static Property[] getProperties(Class<?> clazz, boolean isWrite) {
-    Map<String, Field> fields = new HashMap<>();
+    Map<String, Field> fields = new LinkedHashMap<>();
 
     for (Field field : clazz.getDeclaredFields()) {
       if ((field.getModifiers() & Modifier.STATIC) != 0)
@@ -57,7 +62,7 @@ class Properties {
       }
     }
 
-    Map<String, Method> props = new HashMap<>();
+    Map<String, Method> props = new TreeMap<>();
 
     for (Method method : clazz.getMethods()) {
       if ((method.getModifiers() & (Modifier.PUBLIC & ~Modifier.STATIC)) == 0)
@@ -88,13 +93,13 @@ class Properties {
     List<Property> allProps = new ArrayList<>();
 
     for (Map.Entry<String, Field> entry : fields.entrySet())
-      allProps.add(new FieldProperty(entry.getKey(), entry.getValue()));
+      allProps.add(new FieldProperty(entry.getKey(), entry.getValue(), isWrite));
 
     for (Map.Entry<String, Method> entry : props.entrySet()) {
       Method method = entry.getValue();
 
       Type propertyType = isWrite ? method.getGenericParameterTypes()[0] : method.getGenericReturnType();
-      allProps.add(new MethodProperty(entry.getKey(), method, propertyType));
+      allProps.add(new MethodProperty(entry.getKey(), method, propertyType, isWrite));
     }
 
     return allProps.toArray(new Property[allProps.size()]);
@@ -134,12 +139,20 @@ class Properties {
     private final String name;
     private final Field field;
     private final SimpleType type;
+    private final Getter getter;
+    private final Setter setter;
 
-    FieldProperty(String name, Field field) {
+    FieldProperty(String name, Field field, boolean isWrite) {
       this.name = name;
       this.field = field;
       this.type = Types.of(field.getGenericType());
-      this.field.setAccessible(true);
+
+      try {
+        this.getter = Accessors.getter(field);
+        this.setter = isWrite ? Accessors.setter(field) : null;
+      } catch (IllegalAccessException e) {
+        throw new FaunaException(format("Could not access field %s", field), e);
+      }
     }
 
     @Override
@@ -155,8 +168,10 @@ class Properties {
     @Override
     public void set(Object instance, Object value) {
       try {
-        field.set(instance, value);
-      } catch (IllegalAccessException e) {
+        setter.set(instance, value);
+      } catch (Error ex) {
+        throw ex;
+      } catch (Throwable e) {
         throw new FaunaException(format("Error while setting field %s on object %s", field, instance), e);
       }
     }
@@ -164,8 +179,10 @@ class Properties {
     @Override
     public Object get(Object instance) {
       try {
-        return field.get(instance);
-      } catch (IllegalAccessException e) {
+        return getter.get(instance);
+      } catch (Error ex) {
+        throw ex;
+      } catch (Throwable e) {
         throw new FaunaException(format("Error while getting field %s from object %s", field, instance), e);
       }
     }
@@ -175,12 +192,20 @@ class Properties {
     private final String name;
     private final Method method;
     private final SimpleType type;
+    private final Getter getter;
+    private final Setter setter;
 
-    MethodProperty(String name, Method method, Type type) {
+    MethodProperty(String name, Method method, Type type, boolean isWrite) {
       this.name = name;
       this.method = method;
       this.type = Types.of(type);
-      this.method.setAccessible(true);
+
+      try {
+        this.getter = isWrite ? null : Accessors.getter(method);
+        this.setter = isWrite ? Accessors.setter(method) : null;
+      } catch (IllegalAccessException e) {
+        throw new FaunaException(format("Could not access method %s", method), e);
+      }
     }
 
     @Override
@@ -196,8 +221,10 @@ class Properties {
     @Override
     public void set(Object instance, Object value) {
       try {
-        method.invoke(instance, value);
-      } catch (Exception e) {
+        setter.set(instance, value);
+      } catch (Error ex) {
+        throw ex;
+      } catch (Throwable e) {
         throw new FaunaException(format("Error while invoking method %s on object %s", method, instance), e);
       }
     }
@@ -205,8 +232,10 @@ class Properties {
     @Override
     public Object get(Object instance) {
       try {
-        return method.invoke(instance);
-      } catch (Exception e) {
+        return getter.get(instance);
+      } catch (Error ex) {
+        throw ex;
+      } catch (Throwable e) {
         throw new FaunaException(format("Error while invoking method %s on object %s", method, instance), e);
       }
     }
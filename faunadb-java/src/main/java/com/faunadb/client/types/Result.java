@@ -73,12 +73,33 @@ public abstract class Result<T> {
 
   private static final class Failure<A> extends Result<A> {
 
-    private final String error;
+    private final Supplier<String> message;
     private final Throwable cause;
+    private String error;
 
     private Failure(String error, Throwable cause) {
-      this.error = error;
+      this.message = null;
       this.cause = cause;
+      this.error = error;
+    }
+
+    private Failure(Supplier<String> message) {
+      this.message = message;
+      this.cause = null;
+    }
+
+    private Failure(Failure<?> other) {
+      this.message = other.message;
+      this.cause = other.cause;
+      this.error = other.error;
+    }
+
+    // Messages given as a supplier are built the first time they are needed
+    private String error() {
+      if (error == null && message != null)
+        error = message.get();
+
+      return error;
     }
 
     @Override
@@ -93,7 +114,7 @@ public abstract class Result<T> {
 
     @Override
     public A get() {
-      throw new IllegalStateException(error, cause);
+      throw new IllegalStateException(error(), cause);
     }
 
     @Override
@@ -108,28 +129,28 @@ public abstract class Result<T> {
 
     @Override
     public <U> Result<U> map(Function<A, U> fn) {
-      return new Failure<>(error, cause);
+      return new Failure<>(this);
     }
 
     @Override
     public <U> Result<U> flatMap(Function<A, Result<U>> fn) {
-      return new Failure<>(error, cause);
+      return new Failure<>(this);
     }
 
     @Override
     public boolean equals(Object other) {
       return other instanceof Failure &&
-        this.error.equals(((Failure) other).error);
+        this.error().equals(((Failure) other).error());
     }
 
     @Override
     public int hashCode() {
-      return error.hashCode();
+      return error().hashCode();
     }
 
     @Override
     public String toString() {
-      return error;
+      return error();
     }
   }
 
@@ -167,6 +188,17 @@ public abstract class Result<T> {
     return new Failure<>(error, cause);
   }
 
+  /**
+   * Creates a failure result whose error message is only built when needed
+   *
+   * @param <T> the type of the result
+   * @param error supplies the error message
+   * @return a failure result
+   */
+  static <T> Result<T> fail(Supplier<String> error) {
+    return new Failure<>(error);
+  }
+
   private Result() {
   }
 
@@ -1,15 +1,21 @@
 package com.faunadb.client.types;
 
 import com.fasterxml.jackson.annotation.*;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.node.NullNode;
 import com.faunadb.client.query.Expr;
 import com.faunadb.client.query.Language;
+import com.faunadb.client.types.PrimitiveLists.DoubleList;
+import com.faunadb.client.types.PrimitiveLists.LongList;
+import com.faunadb.common.time.Iso8601;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.AbstractList;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collection;
@@ -18,7 +24,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -35,6 +40,7 @@ import static java.lang.String.format;
  *   <li>{@link Value#get(Field)}</li>
  *   <li>{@link Value#getOptional(Field)}</li>
  *   <li>{@link Value#collect(Field)}</li>
+ *   <li>{@link Value#collect(Field, Parallelism)}</li>
  *   <li>{@link Value#asCollectionOf(Class)}</li>
  *   <li>{@link Value#asMapOf(Class)}</li>
  * </ul>
@@ -70,11 +76,31 @@ import static java.lang.String.format;
  */
 @JsonDeserialize(using = Deserializer.ValueDeserializer.class)
 public abstract class Value extends Expr {
-  private static Supplier<Value> NULL_SUPPLIER = () -> NullV.NULL;
 
   private Value() {
   }
 
+  @Override
+  protected boolean isImmutable() {
+    return true;
+  }
+
+  // Lets the encoder write values it comes across while streaming an object
+  static void write(Value value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+    serialize(value, gen, provider);
+  }
+
+  static void serializeFields(Map<String, Value> values, JsonGenerator gen, SerializerProvider provider)
+    throws IOException {
+
+    gen.writeStartObject();
+    for (Map.Entry<String, Value> entry : values.entrySet()) {
+      gen.writeFieldName(entry.getKey());
+      serialize(entry.getValue(), gen, provider);
+    }
+    gen.writeEndObject();
+  }
+
   /**
    * Attempts to convert the value using the {@link Codec} passed.
    *
@@ -240,6 +266,29 @@ public abstract class Value extends Expr {
     return Field.root().collect(field).get(this).get();
   }
 
+  /**
+   * Assuming the underlying value is a collection, it collects the {@link Field} provided
+   * for all elements in the collection, extracting the elements of large collections in parallel.
+   *
+   * <p>For example:</p>
+   *
+   * <pre>{@code
+   *   Field<User> user = Field.at("data").to(User.class);
+   *   Value result = client.query(getAllUsersQuery).get();
+   *   List<User> users = result.at("data").collect(user, Parallelism.of(10000));
+   * }</pre>
+   *
+   * @param <T> the type of the elements in the resulting {@link List}
+   * @param field the {@link Field} to extract from each element in the underlying collection
+   * @param parallelism configures when and where to extract elements in parallel
+   * @return a {@link List} with the collected fields
+   * @see Field
+   * @see Parallelism
+   */
+  public final <T> List<T> collect(Field<T> field, Parallelism parallelism) {
+    return Field.root().collect(field, parallelism).get(this).get();
+  }
+
   /**
    * Assuming the underlying value is a key/value map, it traverses to a desired path.
    *
@@ -254,7 +303,8 @@ public abstract class Value extends Expr {
    * @return the {@link Value} under the path provided
    */
   public final Value at(String... keys) {
-    return Field.at(keys).get(this).getOrElse(NULL_SUPPLIER);
+    Value value = Path.find(this, keys);
+    return value != null ? value : NullV.NULL;
   }
 
   /**
@@ -271,7 +321,8 @@ public abstract class Value extends Expr {
    * @return the {@link Value} under the path provided
    */
   public final Value at(int... indexes) {
-    return Field.at(indexes).get(this).getOrElse(NULL_SUPPLIER);
+    Value value = Path.find(this, indexes);
+    return value != null ? value : NullV.NULL;
   }
 
   /**
@@ -327,12 +378,24 @@ public abstract class Value extends Expr {
       this.values = Collections.unmodifiableMap(values);
     }
 
+    ObjectV(ObjectMap values) {
+      this.values = values;
+    }
+
     @Override
     @JsonValue
     protected Map<String, Map<String, Value>> toJson() {
         return Collections.singletonMap("object", values);
     }
 
+    @Override
+    protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeStartObject();
+      gen.writeFieldName("object");
+      serializeFields(values, gen, provider);
+      gen.writeEndObject();
+    }
+
     @Override
     public boolean equals(Object other) {
       return other instanceof ObjectV &&
@@ -371,12 +434,46 @@ public abstract class Value extends Expr {
       this.values = Collections.unmodifiableList(values);
     }
 
+    private ArrayV(AbstractList<Value> values) {
+      this.values = values;
+    }
+
+    /**
+     * Creates an array of longs backed by the primitive array provided, which must not be modified afterwards.
+     */
+    static ArrayV ofLongs(long[] values) {
+      return new ArrayV(new LongList(values));
+    }
+
+    /**
+     * Creates an array of doubles backed by the primitive array provided, which must not be modified afterwards.
+     */
+    static ArrayV ofDoubles(double[] values) {
+      return new ArrayV(new DoubleList(values));
+    }
+
     @Override
     @JsonValue
     protected List<Value> toJson() {
       return values;
     }
 
+    @Override
+    protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      if (values instanceof LongList) {
+        long[] longs = ((LongList) values).values;
+        gen.writeArray(longs, 0, longs.length);
+      } else if (values instanceof DoubleList) {
+        double[] doubles = ((DoubleList) values).values;
+        gen.writeArray(doubles, 0, doubles.length);
+      } else {
+        gen.writeStartArray();
+        for (Value value : values)
+          serialize(value, gen, provider);
+        gen.writeEndArray();
+      }
+    }
+
     @Override
     public boolean equals(Object other) {
       return other instanceof ArrayV &&
@@ -406,7 +503,8 @@ public abstract class Value extends Expr {
    * @see Language#Value(boolean)
    * @see Value
    */
-  public static final class BooleanV extends ScalarValue<Boolean> {
+  @JsonDeserialize(using = JsonDeserializer.None.class) // Disables generic value deserializer for scalar values
+  public static final class BooleanV extends Value {
 
     public final static BooleanV TRUE = new BooleanV(true);
     public final static BooleanV FALSE = new BooleanV(false);
@@ -415,8 +513,11 @@ public abstract class Value extends Expr {
       return value ? TRUE : FALSE;
     }
 
-    private BooleanV(Boolean value) {
-      super(value);
+    @JsonIgnore
+    final boolean value;
+
+    private BooleanV(boolean value) {
+      this.value = value;
     }
 
     @Override
@@ -425,6 +526,26 @@ public abstract class Value extends Expr {
       return value;
     }
 
+    @Override
+    protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeBoolean(value);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof BooleanV && this.value == ((BooleanV) other).value;
+    }
+
+    @Override
+    public int hashCode() {
+      return Boolean.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+      return Boolean.toString(value);
+    }
+
   }
 
   /**
@@ -435,9 +556,14 @@ public abstract class Value extends Expr {
    * @see Language#Value(double)
    * @see Value
    */
-  public static final class DoubleV extends ScalarValue<Double> {
+  @JsonDeserialize(using = JsonDeserializer.None.class) // Disables generic value deserializer for scalar values
+  public static final class DoubleV extends Value {
+
+    @JsonIgnore
+    final double value;
+
     public DoubleV(double value) {
-      super(value);
+      this.value = value;
     }
 
     @Override
@@ -445,6 +571,28 @@ public abstract class Value extends Expr {
     protected Double toJson() {
       return value;
     }
+
+    @Override
+    protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeNumber(value);
+    }
+
+    // Same semantics as Double.equals
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof DoubleV &&
+        Double.doubleToLongBits(this.value) == Double.doubleToLongBits(((DoubleV) other).value);
+    }
+
+    @Override
+    public int hashCode() {
+      return Double.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+      return Double.toString(value);
+    }
   }
 
   /**
@@ -455,9 +603,38 @@ public abstract class Value extends Expr {
    * @see Language#Value(long)
    * @see Value
    */
-  public static final class LongV extends ScalarValue<Long> {
+  @JsonDeserialize(using = JsonDeserializer.None.class) // Disables generic value deserializer for scalar values
+  public static final class LongV extends Value {
+
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1023;
+
+    private static final LongV[] CACHE = new LongV[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+      for (int i = 0; i < CACHE.length; i++)
+        CACHE[i] = new LongV(i + CACHE_LOW);
+    }
+
+    /**
+     * Returns a {@link LongV} for the value provided. Small values, such as counters and sizes,
+     * are served from a cache instead of allocating a new instance.
+     *
+     * @param value the long value
+     * @return a {@link LongV} holding the value
+     */
+    public static LongV valueOf(long value) {
+      if (value >= CACHE_LOW && value <= CACHE_HIGH)
+        return CACHE[(int) value - CACHE_LOW];
+
+      return new LongV(value);
+    }
+
+    @JsonIgnore
+    final long value;
+
     public LongV(long value) {
-      super(value);
+      this.value = value;
     }
 
     @Override
@@ -465,6 +642,26 @@ public abstract class Value extends Expr {
     protected Long toJson() {
       return value;
     }
+
+    @Override
+    protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeNumber(value);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof LongV && this.value == ((LongV) other).value;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+      return Long.toString(value);
+    }
   }
 
   /**
@@ -486,6 +683,11 @@ public abstract class Value extends Expr {
       return value;
     }
 
+    @Override
+    protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeString(value);
+    }
+
     @Override
     public String toString() {
         return format("\"%s\"", value);
@@ -519,6 +721,11 @@ public abstract class Value extends Expr {
       return NullNode.getInstance();
     }
 
+    @Override
+    protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeNull();
+    }
+
     @Override
     public boolean equals(Object other) {
       return other instanceof NullV;
@@ -552,7 +759,7 @@ public abstract class Value extends Expr {
 
     @JsonCreator
     private TimeV(@JsonProperty("@ts") String value) {
-      this(Instant.from(DateTimeFormatter.ISO_OFFSET_DATE_TIME.parse(value)));
+      this(Iso8601.parseInstant(value));
     }
 
     Instant truncated() {
@@ -562,7 +769,14 @@ public abstract class Value extends Expr {
     @Override
     @JsonProperty("@ts")
     protected String toJson() {
-      return value.toString();
+      return Iso8601.format(value);
+    }
+
+    @Override
+    protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeStartObject();
+      gen.writeStringField("@ts", Iso8601.format(value));
+      gen.writeEndObject();
     }
 
   }
@@ -583,13 +797,20 @@ public abstract class Value extends Expr {
 
     @JsonCreator
     private DateV(@JsonProperty("@date") String value) {
-      super(LocalDate.parse(value));
+      super(Iso8601.parseDate(value));
     }
 
     @Override
     @JsonProperty("@date")
     protected String toJson() {
-      return value.toString();
+      return Iso8601.format(value);
+    }
+
+    @Override
+    protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeStartObject();
+      gen.writeStringField("@date", Iso8601.format(value));
+      gen.writeEndObject();
     }
   }
 
@@ -624,6 +845,14 @@ public abstract class Value extends Expr {
       return value;
     }
 
+    @Override
+    protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeStartObject();
+      gen.writeFieldName("@set");
+      serializeFields(value, gen, provider);
+      gen.writeEndObject();
+    }
+
     @Override
     public String toString() {
         String set = value.entrySet()
@@ -668,7 +897,20 @@ public abstract class Value extends Expr {
 
     @Override
     public int hashCode() {
-      return Objects.hash(id, collection, database);
+      return hash(id, collection, database);
+    }
+
+    // Same as Objects.hash(id, collection, database), without allocating an array
+    private static int hash(String id, RefV collection, RefV database) {
+      int hash = 31 + Objects.hashCode(id);
+      hash = 31 * hash + Objects.hashCode(collection);
+      return 31 * hash + Objects.hashCode(database);
+    }
+
+    private boolean matches(String id, RefV collection, RefV database) {
+      return Objects.equals(this.id, id) &&
+        Objects.equals(this.collection, collection) &&
+        Objects.equals(this.database, database);
     }
   }
 
@@ -685,6 +927,12 @@ public abstract class Value extends Expr {
    */
   public static final class RefV extends Value.ScalarValue<RefID> {
 
+    /**
+     * Canonical instances of the references other refs point to, such as collection and database refs, so the
+     * documents read from a collection share a single instance of it.
+     */
+    private static final Interner<RefV> PARENTS = new Interner<>(1024);
+
     public RefV(String id, RefV collection, RefV database) {
       super(new RefID(id, collection, database));
     }
@@ -720,8 +968,47 @@ public abstract class Value extends Expr {
       return value;
     }
 
+    @Override
+    protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeStartObject();
+      gen.writeFieldName("@ref");
+      gen.writeStartObject();
+
+      if (value.id != null)
+        gen.writeStringField("id", value.id);
+
+      if (value.collection != null) {
+        gen.writeFieldName("collection");
+        value.collection.serialize(gen, provider);
+      }
+
+      if (value.database != null) {
+        gen.writeFieldName("database");
+        value.database.serialize(gen, provider);
+      }
+
+      gen.writeEndObject();
+      gen.writeEndObject();
+    }
+
+    /**
+     * Returns the canonical instance of the reference given, to be used for references other refs point to.
+     * The canonical instance is looked up before building a new one, so hits do not allocate.
+     */
+    static RefV canonical(String id, RefV collection, RefV database) {
+      RefV candidate = PARENTS.probe(RefID.hash(id, collection, database));
+
+      if (candidate != null && candidate.value.matches(id, collection, database))
+        return candidate;
+
+      return PARENTS.intern(new RefV(id, collection, database));
+    }
+
     @Override
     public boolean equals(Object obj) {
+      if (this == obj)
+        return true;
+
       if (!(obj instanceof RefV))
         return false;
 
@@ -770,7 +1057,7 @@ public abstract class Value extends Expr {
         case "roles": return ROLES;
       }
 
-      return new RefV(name, null, null);
+      return RefV.canonical(name, null, null);
     }
   }
 
@@ -800,6 +1087,13 @@ public abstract class Value extends Expr {
       return Base64.getUrlEncoder().encodeToString(value);
     }
 
+    @Override
+    protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeStartObject();
+      gen.writeStringField("@bytes", Base64.getUrlEncoder().encodeToString(value));
+      gen.writeEndObject();
+    }
+
     @Override
     public boolean equals(Object other) {
       return other instanceof BytesV &&
@@ -830,9 +1124,9 @@ public abstract class Value extends Expr {
   @JsonDeserialize(using = JsonDeserializer.None.class) // Disables generic value deserializer for query values
   public static final class QueryV extends Value {
 
-    private Map<String, Object> lambda;
+    final Map<String, Object> lambda;
 
-    private QueryV(@JsonProperty("@query") Map<String, Object> lambda) {
+    QueryV(@JsonProperty("@query") Map<String, Object> lambda) {
       this.lambda = lambda;
     }
 
@@ -842,6 +1136,14 @@ public abstract class Value extends Expr {
       return lambda;
     }
 
+    @Override
+    protected void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeStartObject();
+      gen.writeFieldName("@query");
+      provider.defaultSerializeValue(lambda, gen);
+      gen.writeEndObject();
+    }
+
     @Override
     public boolean equals(Object obj) {
       return obj instanceof QueryV && lambda.equals(((QueryV)obj).lambda);
@@ -0,0 +1,229 @@
+package com.faunadb.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.faunadb.client.types.BinaryCodec;
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.*;
+import com.faunadb.common.binary.BinaryFormat;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.faunadb.client.types.Codec.*;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class BinaryCodecSpec {
+
+  private ObjectMapper json;
+
+  @Before
+  public void setUp() {
+    json = new ObjectMapper();
+  }
+
+  @Test
+  public void shouldRoundTripScalars() {
+    assertRoundTrip(new StringV("a string"));
+    assertRoundTrip(new LongV(Long.MAX_VALUE));
+    assertRoundTrip(new LongV(Long.MIN_VALUE));
+    assertRoundTrip(new LongV(-1));
+    assertRoundTrip(new DoubleV(3.14));
+    assertRoundTrip(BooleanV.TRUE);
+    assertRoundTrip(BooleanV.FALSE);
+    assertRoundTrip(NullV.NULL);
+    assertRoundTrip(new TimeV(Instant.parse("2019-11-29T10:15:30.123456789Z")));
+    assertRoundTrip(new TimeV(Instant.parse("1900-01-01T00:00:00Z")));
+    assertRoundTrip(new DateV(LocalDate.of(1969, 12, 31)));
+    assertRoundTrip(new BytesV(new byte[] {0x1, 0x2, (byte) 0xff}));
+  }
+
+  @Test
+  public void shouldRoundTripRefs() {
+    RefV ref = new RefV("123", new RefV("spells", Native.COLLECTIONS), new RefV("db", Native.DATABASES));
+
+    assertRoundTrip(ref);
+    assertThat(BinaryCodec.fromBytes(BinaryCodec.toBytes(Native.INDEXES)), sameInstance((Value) Native.INDEXES));
+  }
+
+  @Test
+  public void shouldRoundTripContainers() throws Exception {
+    Value value = json.readValue("{" +
+      "\"data\": [" +
+      "  {\"name\": \"fireball\", \"elements\": [\"fire\", \"air\"], \"cost\": 10}," +
+      "  {\"name\": \"frostbolt\", \"elements\": [\"water\"], \"cost\": 12.5}" +
+      "]," +
+      "\"set\": {\"@set\": {\"match\": {\"@ref\": {\"id\": \"spells_by_element\", \"collection\": {\"@ref\": {\"id\": \"indexes\"}}}}, \"terms\": \"fire\"}}," +
+      "\"lambda\": {\"@query\": {\"lambda\": \"x\", \"expr\": {\"add\": [1, {\"var\": \"x\"}, 2.5, null, true]}}}," +
+      "\"empty\": {}" +
+      "}", Value.class);
+
+    assertRoundTrip(value);
+  }
+
+  @Test
+  public void shouldRoundTripArraysOfNumbers() throws Exception {
+    assertRoundTrip(json.readValue("[1, -2, 3000000000000]", Value.class));
+    assertRoundTrip(json.readValue("[1.5, -2.0]", Value.class));
+    assertRoundTrip(new ArrayV(Arrays.asList(new LongV(1), new LongV(2), new DoubleV(2.5), NullV.NULL)));
+    assertRoundTrip(new ArrayV(Arrays.asList(new DoubleV(1), new DoubleV(2), new LongV(3))));
+    assertRoundTrip(new ArrayV(Arrays.asList(new StringV("a"), new LongV(2), new LongV(3))));
+    assertRoundTrip(new ArrayV(Collections.<Value>emptyList()));
+
+    Value longs = BinaryCodec.fromBytes(BinaryCodec.toBytes(new ArrayV(Arrays.asList(new LongV(1), new LongV(2)))));
+    assertThat(longs.to(long[].class).get(), equalTo(new long[] {1, 2}));
+  }
+
+  @Test
+  public void shouldInternRepeatedKeys() {
+    Map<String, Value> doc = new LinkedHashMap<>();
+    doc.put("a_long_field_name", new LongV(1));
+
+    Value one = new ArrayV(Arrays.asList(new ObjectV(doc)));
+    Value many = new ArrayV(Arrays.asList(new ObjectV(doc), new ObjectV(doc), new ObjectV(doc)));
+
+    int perDocument = BinaryCodec.toBytes(many).length - BinaryCodec.toBytes(one).length;
+    assertThat(perDocument / 2, equalTo(5)); // object tag, size, key reference, long tag and value
+
+    Value decoded = BinaryCodec.fromBytes(BinaryCodec.toBytes(many));
+    String first = decoded.at(0).to(OBJECT).get().keySet().iterator().next();
+    String last = decoded.at(2).to(OBJECT).get().keySet().iterator().next();
+    assertThat(first, sameInstance(last));
+  }
+
+  @Test
+  public void shouldShareKeysAcrossMessages() {
+    Map<String, Value> doc = new LinkedHashMap<>();
+    doc.put(new String("shared_field_name"), new LongV(1));
+    byte[] bytes = BinaryCodec.toBytes(new ObjectV(doc));
+
+    String first = BinaryCodec.fromBytes(bytes).to(OBJECT).get().keySet().iterator().next();
+    String second = BinaryCodec.fromBytes(bytes).to(OBJECT).get().keySet().iterator().next();
+
+    assertThat(second, sameInstance(first));
+  }
+
+  @Test
+  public void shouldShareParentRefs() {
+    RefV collection = new RefV("spells", Native.COLLECTIONS, new RefV("db", Native.DATABASES));
+
+    RefV first = BinaryCodec.fromBytes(BinaryCodec.toBytes(new RefV("1", collection))).to(REF).get();
+    RefV second = BinaryCodec.fromBytes(BinaryCodec.toBytes(new RefV("2", collection))).to(REF).get();
+
+    assertThat(first.getCollection().get(), equalTo(collection));
+    assertThat(second.getCollection().get(), sameInstance(first.getCollection().get()));
+    assertThat(second.getCollection().get().getDatabase().get(), sameInstance(first.getCollection().get().getDatabase().get()));
+  }
+
+  @Test
+  public void shouldStreamConsecutiveValues() {
+    ByteBuf buf = Unpooled.buffer();
+
+    try {
+      BinaryCodec.write(new StringV("first"), buf);
+      BinaryCodec.write(new LongV(2), buf);
+
+      assertThat(BinaryCodec.read(buf), equalTo((Value) new StringV("first")));
+      assertThat(BinaryCodec.read(buf), equalTo((Value) new LongV(2)));
+      assertThat(buf.readableBytes(), equalTo(0));
+    } finally {
+      buf.release();
+    }
+
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    BinaryCodec.write(new StringV("first"), buffer);
+    BinaryCodec.write(new DateV(LocalDate.of(2019, 1, 1)), buffer);
+    buffer.flip();
+
+    assertThat(BinaryCodec.read(buffer), equalTo((Value) new StringV("first")));
+    assertThat(BinaryCodec.read(buffer), equalTo((Value) new DateV(LocalDate.of(2019, 1, 1))));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectUnknownVersions() {
+    byte[] bytes = BinaryCodec.toBytes(NullV.NULL);
+    bytes[1] = 42;
+    BinaryCodec.fromBytes(bytes);
+  }
+
+  @Test
+  public void shouldRejectTruncatedValues() throws Exception {
+    byte[] bytes = BinaryCodec.toBytes(json.readValue("{\"name\": \"spell\", \"cost\": [1.5, 2.5], \"ts\": 10}", Value.class));
+
+    for (int length = 0; length < bytes.length; length++) {
+      assertInvalid(Arrays.copyOf(bytes, length));
+      assertInvalid(Unpooled.wrappedBuffer(bytes, 0, length));
+    }
+  }
+
+  @Test
+  public void shouldRejectLengthsLongerThanTheValue() {
+    byte[] maxInt = {(byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07};
+    byte[] overflow = {(byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x0f};
+    byte[] negative = {(byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff,
+      (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x01};
+
+    for (byte[] length : Arrays.asList(maxInt, overflow, negative, new byte[] {0x02})) {
+      for (int tag : new int[] {BinaryFormat.ARRAY, BinaryFormat.OBJECT, BinaryFormat.STRING}) {
+        assertInvalid(message(tag, length));
+        assertInvalid(Unpooled.wrappedBuffer(message(tag, length)));
+      }
+    }
+  }
+
+  @Test
+  public void shouldRejectUnknownKeyReferences() {
+    byte[] unknown = {0x01, 0x01};
+    byte[] negative = {0x01, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff,
+      (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x01};
+
+    for (byte[] key : Arrays.asList(unknown, negative)) {
+      assertInvalid(message(BinaryFormat.OBJECT, key));
+      assertInvalid(Unpooled.wrappedBuffer(message(BinaryFormat.OBJECT, key)));
+    }
+  }
+
+  private static byte[] message(int tag, byte[] length) {
+    byte[] bytes = new byte[3 + length.length + 1];
+    bytes[0] = (byte) BinaryFormat.MAGIC;
+    bytes[1] = (byte) BinaryFormat.VERSION;
+    bytes[2] = (byte) tag;
+    System.arraycopy(length, 0, bytes, 3, length.length);
+    bytes[bytes.length - 1] = (byte) BinaryFormat.NULL;
+    return bytes;
+  }
+
+  private static void assertInvalid(byte[] bytes) {
+    try {
+      BinaryCodec.fromBytes(bytes);
+      throw new AssertionError("decoded an invalid value");
+    } catch (RuntimeException ex) {
+      assertThat(ex, instanceOf(IllegalArgumentException.class));
+    }
+  }
+
+  private static void assertInvalid(ByteBuf buf) {
+    try {
+      BinaryCodec.read(buf);
+      throw new AssertionError("decoded an invalid value");
+    } catch (RuntimeException ex) {
+      assertThat(ex, instanceOf(IllegalArgumentException.class));
+    }
+  }
+
+  private void assertRoundTrip(Value value) {
+    assertThat(BinaryCodec.fromBytes(BinaryCodec.toBytes(value)), equalTo(value));
+  }
+
+}
@@ -0,0 +1,246 @@
+package com.faunadb.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.faunadb.client.errors.BadRequestException;
+import com.faunadb.client.errors.UnavailableException;
+import com.faunadb.client.query.Expr;
+import com.faunadb.client.query.ExprModule;
+import com.faunadb.client.types.FaunaConstructor;
+import com.faunadb.client.types.FaunaField;
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.LongV;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.faunadb.client.query.Language.*;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class BulkWriterSpec {
+
+  static class Spell {
+    @FaunaField private final String name;
+    @FaunaField private final long cost;
+
+    @FaunaConstructor
+    Spell(@FaunaField("name") String name, @FaunaField("cost") long cost) {
+      this.name = name;
+      this.cost = cost;
+    }
+  }
+
+  private final ObjectMapper json = new ObjectMapper().registerModule(new ExprModule());
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+  private final ConcurrentLinkedQueue<List<JsonNode>> requests = new ConcurrentLinkedQueue<>();
+  private final ConcurrentLinkedQueue<Long> written = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private volatile boolean unavailable;
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldWriteInBatchesOfBoundedSize() {
+    BulkWriter writer = writer().batchSize(10);
+    List<CompletableFuture<Value>> results = new ArrayList<>();
+
+    for (long i = 0; i < 25; i++)
+      results.add(writer.add(create(i)));
+
+    writer.flush().join();
+
+    for (int i = 0; i < 25; i++)
+      assertThat(results.get(i).join(), equalTo(new LongV(i)));
+
+    assertThat(batchSizes(), equalTo(list(10, 10, 5)));
+    assertThat(writer.getWrittenCount(), is(25L));
+  }
+
+  @Test
+  public void shouldWriteInBatchesOfBoundedBytes() throws Exception {
+    int size = json.writeValueAsBytes(create(0)).length + 1;
+    BulkWriter writer = writer().batchBytes(size * 3);
+
+    for (long i = 0; i < 7; i++)
+      writer.add(create(i));
+
+    writer.flush().join();
+
+    assertThat(batchSizes(), equalTo(list(3, 3, 1)));
+  }
+
+  @Test
+  public void shouldKeepBoundedBatchesInFlight() {
+    BulkWriter writer = writer().batchSize(5).concurrency(3);
+
+    for (long i = 0; i < 200; i++)
+      writer.add(create(i));
+
+    writer.flush().join();
+
+    assertThat(written.size(), is(200));
+    assertThat(maxInFlight.get(), lessThanOrEqualTo(3));
+  }
+
+  @Test
+  public void shouldIsolateQueriesFailingValidation() {
+    BulkWriter writer = writer().batchSize(20).concurrency(2);
+    List<CompletableFuture<Value>> results = new ArrayList<>();
+
+    for (long i = 0; i < 40; i++)
+      results.add(writer.add(i == 3 || i == 17 || i == 30 ? invalid(i) : create(i)));
+
+    writer.flush().join();
+
+    for (int i = 0; i < 40; i++) {
+      if (i == 3 || i == 17 || i == 30) {
+        try {
+          results.get(i).join();
+          throw new AssertionError("wrote an invalid query");
+        } catch (CompletionException ex) {
+          assertThat(ex.getCause(), instanceOf(BadRequestException.class));
+        }
+      } else {
+        assertThat(results.get(i).join(), equalTo(new LongV(i)));
+      }
+    }
+
+    List<Long> writtenIds = new ArrayList<>(written);
+    Collections.sort(writtenIds);
+
+    assertThat(writtenIds.size(), is(37));
+    assertThat(writtenIds.stream().distinct().count(), is(37L));
+    assertThat(writer.getWrittenCount(), is(37L));
+    assertThat(writer.getFailedCount(), is(3L));
+  }
+
+  @Test
+  public void shouldNotSplitBatchesFailingForOtherReasons() {
+    BulkWriter writer = writer().batchSize(10);
+    unavailable = true;
+
+    CompletableFuture<Value> result = writer.add(create(1));
+
+    for (long i = 2; i <= 10; i++)
+      writer.add(create(i));
+
+    writer.flush().join();
+
+    try {
+      result.join();
+      throw new AssertionError("completed without the error");
+    } catch (CompletionException ex) {
+      assertThat(ex.getCause(), instanceOf(UnavailableException.class));
+    }
+
+    assertThat(requests.size(), is(1));
+    assertThat(writer.getFailedCount(), is(10L));
+    assertThat(writer.getSplitCount(), is(0L));
+  }
+
+  @Test
+  public void shouldWriteObjects() {
+    BulkWriter writer = writer();
+
+    writer.add(new Spell("Fire", 10), data -> Create(Collection("spells"), Obj("data", data)));
+    writer.flush().join();
+
+    JsonNode data = requests.peek().get(0).get("params").get("object").get("data").get("object");
+    assertThat(data.get("name").asText(), equalTo("Fire"));
+    assertThat(data.get("cost").asLong(), is(10L));
+  }
+
+  private BulkWriter writer() {
+    return new BulkWriter(json.writer(), this::query, null);
+  }
+
+  private static Expr create(long id) {
+    return Create(Ref(Collection("spells"), Value(id)), Obj("data", Obj("id", Value(id))));
+  }
+
+  private static Expr invalid(long id) {
+    return Create(Ref(Collection("spells"), Value(id)), Obj("data", Obj("id", Value(id), "invalid", Value(true))));
+  }
+
+  // Writes the batch as one transaction, failing the whole batch if any of its queries is invalid
+  private CompletableFuture<List<Value>> query(List<? extends Expr> exprs) {
+    List<JsonNode> queries = new ArrayList<>();
+
+    try {
+      json.readTree(json.writeValueAsString(exprs)).forEach(queries::add);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+
+    requests.add(queries);
+
+    return CompletableFuture.supplyAsync(() -> {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+      try {
+        Thread.sleep(1);
+
+        if (unavailable)
+          throw new UnavailableException("Service Unavailable: Unparseable response.", null);
+
+        List<Value> results = new ArrayList<>();
+
+        for (JsonNode query : queries) {
+          JsonNode data = query.get("params").get("object").get("data").get("object");
+
+          if (data.has("invalid"))
+            throw new BadRequestException(HttpResponses.QueryErrorResponse.create(400, Collections.singletonList(
+              new HttpResponses.QueryError(list("create"), "validation failed", "document data is not valid",
+                Collections.emptyList()))));
+
+          results.add(new LongV(data.get("id").asLong()));
+        }
+
+        for (Value result : results)
+          written.add(result.to(Long.class).get());
+
+        return results;
+      } catch (InterruptedException ex) {
+        throw new CompletionException(ex);
+      } finally {
+        inFlight.decrementAndGet();
+      }
+    }, executor);
+  }
+
+  private List<Integer> batchSizes() {
+    List<Integer> sizes = new ArrayList<>();
+
+    for (List<JsonNode> batch : requests)
+      sizes.add(batch.size());
+
+    return sizes;
+  }
+
+  @SafeVarargs
+  private static <T> List<T> list(T... elements) {
+    List<T> list = new ArrayList<>();
+    Collections.addAll(list, elements);
+    return list;
+  }
+
+}
@@ -0,0 +1,246 @@
+package com.faunadb.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.faunadb.client.errors.UnavailableException;
+import com.faunadb.client.query.Pagination;
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.ArrayV;
+import com.faunadb.client.types.Value.LongV;
+import com.faunadb.client.types.Value.Native;
+import com.faunadb.client.types.Value.ObjectV;
+import com.faunadb.client.types.Value.RefV;
+import com.faunadb.client.types.Value.StringV;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static com.faunadb.client.query.Language.*;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+public class ChangeFeedSpec {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final ObjectMapper json = new ObjectMapper();
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+  private final List<Value> events = Collections.synchronizedList(new ArrayList<>());
+  private final List<JsonNode> requests = Collections.synchronizedList(new ArrayList<>());
+  private final AtomicInteger failures = new AtomicInteger();
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldDeliverEventsAndFollowTheTail() throws Exception {
+    append(25);
+
+    List<Value> delivered = Collections.synchronizedList(new ArrayList<>());
+    List<Integer> batches = Collections.synchronizedList(new ArrayList<>());
+    ChangeFeed feed = feed(new FileOffsetStore(folder.getRoot().toPath().resolve("offset")));
+
+    CompletableFuture<Void> running = feed.start(page -> {
+      batches.add(page.size());
+      delivered.addAll(page);
+      return CompletableFuture.completedFuture(null);
+    });
+
+    await(() -> delivered.size() == 25);
+    append(7);
+    await(() -> delivered.size() == 32);
+
+    feed.stop();
+    running.join();
+
+    assertThat(delivered, equalTo(new ArrayList<>(events)));
+    assertThat(batches.subList(0, 3), equalTo(Arrays.asList(10, 10, 5)));
+    assertThat(feed.getDeliveredCount(), is(32L));
+  }
+
+  @Test
+  public void shouldResumeFromTheCommittedPosition() throws Exception {
+    append(30);
+
+    Path offset = folder.getRoot().toPath().resolve("offset");
+    List<Value> delivered = Collections.synchronizedList(new ArrayList<>());
+
+    // Fails handling the third page, so its events are not committed
+    CompletableFuture<Void> failed = feed(new FileOffsetStore(offset)).start(page -> {
+      CompletableFuture<Void> handled = new CompletableFuture<>();
+
+      if (delivered.size() == 20) {
+        handled.completeExceptionally(new IllegalStateException("boom"));
+      } else {
+        delivered.addAll(page);
+        handled.complete(null);
+      }
+
+      return handled;
+    });
+
+    try {
+      failed.join();
+      throw new AssertionError("completed without the error");
+    } catch (CompletionException ex) {
+      assertThat(ex.getCause().getMessage(), equalTo("boom"));
+    }
+
+    ChangeFeed feed = feed(new FileOffsetStore(offset));
+    CompletableFuture<Void> running = feed.start(page -> {
+      delivered.addAll(page);
+      return CompletableFuture.completedFuture(null);
+    });
+
+    await(() -> delivered.size() == 30);
+    feed.stop();
+    running.join();
+
+    assertThat(delivered, equalTo(new ArrayList<>(events)));
+  }
+
+  @Test
+  public void shouldStartAfterTheTimestampProvided() throws Exception {
+    append(20);
+
+    List<Value> delivered = Collections.synchronizedList(new ArrayList<>());
+    ChangeFeed feed = feed(new FileOffsetStore(folder.getRoot().toPath().resolve("offset"))).startTs(15);
+
+    CompletableFuture<Void> running = feed.start(page -> {
+      delivered.addAll(page);
+      return CompletableFuture.completedFuture(null);
+    });
+
+    await(() -> delivered.size() == 5);
+    feed.stop();
+    running.join();
+
+    assertThat(delivered, equalTo(new ArrayList<>(events.subList(15, 20))));
+  }
+
+  @Test
+  public void shouldBackOffWhileIdleAndRetryWhenUnavailable() throws Exception {
+    failures.set(2);
+
+    ChangeFeed feed = feed(new FileOffsetStore(folder.getRoot().toPath().resolve("offset")))
+      .pollInterval(Duration.ofMillis(1), Duration.ofMillis(40));
+
+    CompletableFuture<Void> running = feed.start(page -> CompletableFuture.completedFuture(null));
+
+    Thread.sleep(300);
+    feed.stop();
+    running.join();
+
+    // Without backing off, it would poll about 300 times
+    assertThat(requests.size(), lessThan(20));
+  }
+
+  @Test
+  public void shouldStoreCursorsAsTheyAreRead() throws Exception {
+    FileOffsetStore store = new FileOffsetStore(folder.getRoot().toPath().resolve("offset"));
+
+    assertThat(store.load().join(), equalTo(Optional.empty()));
+
+    Map<String, Value> cursor = new HashMap<>();
+    cursor.put("ts", new LongV(42));
+    cursor.put("@document", new RefV("1", Native.COLLECTIONS));
+    cursor.put("action", new StringV("create"));
+
+    store.commit(new ObjectV(cursor)).join();
+    assertThat(store.load().join(), equalTo(Optional.of(new ObjectV(cursor))));
+
+    store.commit(new LongV(43)).join();
+    assertThat(new FileOffsetStore(folder.getRoot().toPath().resolve("offset")).load().join(),
+      equalTo(Optional.<Value>of(new LongV(43))));
+  }
+
+  private ChangeFeed feed(OffsetStore store) {
+    return new ChangeFeed(Documents(Collection("spells")), store,
+      pagination -> new PageIterator(pagination, this::fetch, null), null)
+      .size(10)
+      .pollInterval(Duration.ofMillis(1), Duration.ofMillis(5));
+  }
+
+  // Appends events whose timestamps are their positions
+  private void append(int count) {
+    synchronized (events) {
+      for (int i = 0; i < count; i++) {
+        long ts = events.size();
+        Map<String, Value> event = new HashMap<>();
+        event.put("ts", new LongV(ts));
+        event.put("action", new StringV("create"));
+        event.put("document", new RefV(String.valueOf(ts), Native.COLLECTIONS));
+        events.add(new ObjectV(event));
+      }
+    }
+  }
+
+  // Pages the events as of the snapshot requested, or the latest event, with [ts, index] after cursors
+  private CompletableFuture<PageIterator.Response> fetch(Pagination pagination) {
+    JsonNode request = json.valueToTree(pagination);
+    requests.add(request);
+
+    return CompletableFuture.supplyAsync(() -> {
+      if (failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0)
+        throw new UnavailableException("Service Unavailable: Unparseable response.", null);
+
+      List<Value> snapshot;
+
+      synchronized (events) {
+        snapshot = new ArrayList<>(events);
+      }
+
+      int visible = request.has("ts") ? (int) request.get("ts").asLong() + 1 : snapshot.size();
+      int from = 0;
+
+      if (request.has("after")) {
+        JsonNode after = request.get("after");
+        from = (int) (after.isArray() ? after.get(1).asLong() : after.asLong());
+      }
+
+      int size = request.get("size").asInt();
+      int to = Math.min(visible, from + size);
+      Map<String, Value> page = new HashMap<>();
+      page.put("data", new ArrayV(from < to ? snapshot.subList(from, to) : Collections.emptyList()));
+
+      if (to < visible)
+        page.put("after", new ArrayV(Arrays.<Value>asList(new LongV(to), new LongV(to))));
+
+      return new PageIterator.Response(new ObjectV(page), Math.max(visible - 1, 0), 100);
+    }, executor);
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+
+    while (!condition.getAsBoolean()) {
+      if (System.currentTimeMillis() > deadline)
+        throw new AssertionError("timed out");
+
+      Thread.sleep(1);
+    }
+  }
+
+}
@@ -611,6 +611,25 @@ public class ClientSpec {
     assertThat(first.get(DATA), is(third.get(DATA)));
   }
 
+  @Test
+  public void shouldIterateOverAllPages() throws Exception {
+    List<RefV> all = query(
+      Paginate(Match(Index("all_spells")))
+    ).get().get(REF_LIST);
+
+    List<Value> elements = new ArrayList<>();
+    serverClient.paginate(Paginate(Match(Index("all_spells"))).size(2))
+      .forEach(elements::add)
+      .get();
+
+    assertThat(elements, equalTo((List<? extends Value>) all));
+
+    PageIterator pages = serverClient.paginate(Paginate(Match(Index("all_spells"))).size(all.size() - 1));
+    assertThat(pages.next().get().get(REF_LIST), hasSize(all.size() - 1));
+    assertThat(pages.next().get().get(REF_LIST), hasSize(1));
+    assertThat(pages.hasNext(), is(false));
+  }
+
   @Test
   public void shouldDealWithSetRef() throws Exception {
     Value res = query(
@@ -9,8 +9,10 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.faunadb.client.types.Decoder.decode;
+import static com.faunadb.client.types.Encoder.encode;
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
 import static org.junit.Assert.*;
@@ -95,6 +97,29 @@ public class DecoderSpec {
 
         assertArrayEquals(new float[] {1, 2, 3}, decode(new ArrayV(asList(new DoubleV(1), new DoubleV(2), new DoubleV(3))), float[].class).get(), 0);
         assertArrayEquals(new double[] {1, 2, 3}, decode(new ArrayV(asList(new DoubleV(1), new DoubleV(2), new DoubleV(3))), double[].class).get(), 0);
+
+        assertArrayEquals(new long[] {1, 0, 3}, decode(new ArrayV(asList(new LongV(1), NullV.NULL, new LongV(3))), long[].class).get());
+        assertArrayEquals(new int[] {1, 0, 3}, decode(new ArrayV(asList(new LongV(1), NullV.NULL, new LongV(3))), int[].class).get());
+        assertArrayEquals(new double[] {1, 0, 3}, decode(new ArrayV(asList(new DoubleV(1), NullV.NULL, new DoubleV(3))), double[].class).get(), 0);
+        assertEquals(
+                Result.fail("Can not convert StringV to LongV"),
+                decode(new ArrayV(asList(new LongV(1), new StringV("2"))), long[].class)
+        );
+    }
+
+    @Test
+    public void shouldDecodeArraysOfNumbers() {
+        long[] longs = {1, 2, Long.MAX_VALUE};
+        Value encoded = encode(longs).get();
+        long[] decoded = decode(encoded, long[].class).get();
+
+        assertArrayEquals(longs, decoded);
+        decoded[0] = 42;
+        assertArrayEquals(longs, decode(encoded, long[].class).get());
+
+        assertArrayEquals(new int[] {1, 2, -1}, decode(encoded, int[].class).get());
+        assertArrayEquals(new double[] {0.5, 2}, decode(encode(new double[] {0.5, 2}).get(), double[].class).get(), 0);
+        assertEquals(asList(1L, 2L, Long.MAX_VALUE), decode(encoded, Types.arrayListOf(long.class)).get());
     }
 
     @Test
@@ -309,6 +334,89 @@ public class DecoderSpec {
         assertEquals(obj, decode(objectV, ObjectWithConstructor.class).get());
     }
 
+    @Test
+    public void shouldDecodeLargeCollectionsInParallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            Parallelism parallelism = Parallelism.of(pool, 100);
+            ArrayV array = objectsWithConstructor(1000);
+
+            List<ObjectWithConstructor> expected = new ArrayList<>();
+            for (int i = 0; i < 1000; i++)
+                expected.add(new ObjectWithConstructor("value " + i));
+
+            assertEquals(expected, decode(array, Types.arrayListOf(ObjectWithConstructor.class), parallelism).get());
+            assertArrayEquals(expected.toArray(), decode(array, ObjectWithConstructor[].class, parallelism).get());
+            assertEquals(expected, array.collect(Field.as(ObjectWithConstructor.class), parallelism));
+            assertEquals(expected.subList(0, 10),
+                decode(objectsWithConstructor(10), Types.arrayListOf(ObjectWithConstructor.class), parallelism).get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldDecodeSmallCollectionsOnTheCallingThread() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        pool.shutdown();
+
+        // A pool that was shut down rejects any task, so the elements can only be decoded on the calling thread
+        Parallelism parallelism = Parallelism.of(pool, 1);
+        List<ObjectWithConstructor> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            expected.add(new ObjectWithConstructor("value " + i));
+
+        assertEquals(expected,
+            decode(objectsWithConstructor(10), Types.arrayListOf(ObjectWithConstructor.class), parallelism).get());
+    }
+
+    @Test
+    public void shouldReportFailuresInOrderWhenDecodingInParallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            Parallelism parallelism = Parallelism.of(pool, 100);
+            List<Value> values = new ArrayList<>(objectsWithConstructor(1000).to(Codec.ARRAY).get());
+            values.set(700, new LongV(700));
+            values.set(300, new LongV(300));
+            ArrayV array = new ArrayV(values);
+
+            Result<List<ObjectWithConstructor>> sequential = decode(array, Types.arrayListOf(ObjectWithConstructor.class));
+            Result<List<ObjectWithConstructor>> parallel = decode(array, Types.arrayListOf(ObjectWithConstructor.class), parallelism);
+
+            assertTrue(parallel.isFailure());
+            assertEquals(sequential.toString(), parallel.toString());
+
+            Field<ObjectWithConstructor> element = Field.as(ObjectWithConstructor.class);
+            String sequentialErrors = collectFailure(array, Field.asListOf(element));
+            String parallelErrors = collectFailure(array, Field.asListOf(element, parallelism));
+
+            assertTrue(parallelErrors.contains("\"300\"") && parallelErrors.contains("\"700\""));
+            assertEquals(sequentialErrors, parallelErrors);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private ArrayV objectsWithConstructor(int size) {
+        List<Value> values = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++)
+            values.add(new ObjectV(Collections.<String, Value>singletonMap("strField", new StringV("value " + i))));
+
+        return new ArrayV(values);
+    }
+
+    private String collectFailure(Value value, Field<?> field) {
+        try {
+            value.get(field);
+            throw new AssertionError("expected a failure");
+        } catch (IllegalStateException ex) {
+            return ex.getMessage();
+        }
+    }
+
     static class ObjectWithStaticCreator {
         private final String strField;
         private final long longField;
@@ -553,4 +661,39 @@ public class DecoderSpec {
         assertNull(classWithDefaults.nullableField);
         assertEquals(0, classWithDefaults.nonNullableField);
    }
+
+    public static class PublicBean {
+        private String name;
+        private long id;
+        private int age;
+        private boolean active;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public long getId() { return id; }
+        public void setId(long id) { this.id = id; }
+        public int getAge() { return age; }
+        public void setAge(int age) { this.age = age; }
+        public boolean isActive() { return active; }
+        public void setActive(boolean active) { this.active = active; }
+    }
+
+    @Test
+    public void shouldDecodePublicBeansWithPrimitiveProperties() {
+        Map<String, Value> obj = new LinkedHashMap<>();
+
+        obj.put("name", new StringV("John"));
+        obj.put("id", new LongV(250000000000000000L));
+        obj.put("age", new LongV(33));
+        obj.put("active", BooleanV.TRUE);
+
+        PublicBean bean = decode(new ObjectV(obj), PublicBean.class).get();
+
+        assertEquals("John", bean.getName());
+        assertEquals(250000000000000000L, bean.getId());
+        assertEquals(33, bean.getAge());
+        assertTrue(bean.isActive());
+
+        assertEquals(new ObjectV(obj), Encoder.encode(bean).get());
+    }
 }
@@ -1,11 +1,19 @@
 package com.faunadb.client;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.faunadb.client.types.Field;
+import com.faunadb.client.types.Projection;
 import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.ArrayV;
+import com.faunadb.client.types.Value.DoubleV;
+import com.faunadb.client.types.Value.LongV;
 import com.faunadb.client.types.Value.Native;
+import com.faunadb.client.types.Value.NullV;
 import com.faunadb.client.types.Value.ObjectV;
 import com.faunadb.client.types.Value.RefV;
+import com.faunadb.client.types.Value.StringV;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -14,7 +22,10 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -22,6 +33,9 @@ import static com.faunadb.client.types.Codec.*;
 import static com.faunadb.client.types.Value.RefV;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static java.time.ZoneOffset.UTC;
 import static org.junit.Assert.assertThat;
 
@@ -64,6 +78,20 @@ public class DeserializationSpec {
       equalTo(new RefV("1", new RefV("people", Native.COLLECTIONS))));
   }
 
+  @Test
+  public void shouldShareParentRefs() throws Exception {
+    String first = "{ \"@ref\": {\"id\": \"1\", \"collection\": {\"@ref\": {\"id\": \"people\", \"collection\": { \"@ref\": {\"id\": \"collections\"} } } } } }";
+    String second = "{ \"@ref\": {\"id\": \"2\", \"collection\": {\"@ref\": {\"id\": \"people\", \"collection\": { \"@ref\": {\"id\": \"collections\"} } } } } }";
+
+    RefV firstRef = parsed(first).to(REF).get();
+    RefV secondRef = parsed(second).to(REF).get();
+
+    assertThat(secondRef.getCollection().get(), sameInstance(firstRef.getCollection().get()));
+    assertThat(secondRef.getCollection().get().getCollection().get(), sameInstance(Native.COLLECTIONS));
+    assertThat(parsed(first).to(REF).get(), not(sameInstance(firstRef)));
+    assertThat(parsed(first).to(REF).get(), equalTo(firstRef));
+  }
+
   @Test
   public void shouldDeserializeArray() throws Exception {
     Value parsed = parsed("[1, \"string\", [true, false], {\"@ref\": {\"id\": \"databases\"}}]");
@@ -74,6 +102,24 @@ public class DeserializationSpec {
     assertThat(parsed.at(3).to(REF).get(), equalTo(Native.DATABASES));
   }
 
+  @Test
+  public void shouldDeserializeArraysOfNumbers() throws Exception {
+    Value longs = parsed("[1, -2, 3000000000000]");
+    Value doubles = parsed("[1.5, -2.0, 3e10]");
+    Value mixed = parsed("[1, 2.5, null]");
+
+    assertThat(longs, equalTo((Value) new ArrayV(Arrays.asList(new LongV(1), new LongV(-2), new LongV(3000000000000L)))));
+    assertThat(doubles, equalTo((Value) new ArrayV(Arrays.asList(new DoubleV(1.5), new DoubleV(-2), new DoubleV(3e10)))));
+    assertThat(mixed, equalTo((Value) new ArrayV(Arrays.asList(new LongV(1), new DoubleV(2.5), NullV.NULL))));
+
+    assertThat(longs.hashCode(), equalTo(new ArrayV(Arrays.asList(new LongV(1), new LongV(-2), new LongV(3000000000000L))).hashCode()));
+    assertThat(longs.at(2).to(LONG).get(), equalTo(3000000000000L));
+    assertThat(doubles.at(0).to(DOUBLE).get(), equalTo(1.5));
+    assertThat(json.writeValueAsString(longs), equalTo("[1,-2,3000000000000]"));
+    assertThat(longs.to(long[].class).get(), equalTo(new long[] {1, -2, 3000000000000L}));
+    assertThat(doubles.to(double[].class).get(), equalTo(new double[] {1.5, -2.0, 3e10}));
+  }
+
   @Test
   public void shouldDeserializeDate() throws IOException {
     assertThat(parsed("{ \"@date\": \"1970-01-03\" }").to(DATE).get(),
@@ -121,6 +167,49 @@ public class DeserializationSpec {
     assertThat(parsed.at("data", "elements").at(1).to(STRING).get(), equalTo("air"));
   }
 
+  @Test
+  public void shouldExtractCompiledFields() throws Exception {
+    Value parsed = parsed("{ \"data\": { \"name\": \"fireball\", \"cost\": 10, \"elements\": [\"fire\", \"air\"] } }");
+
+    Field.Compiled<Value> data = Field.at("data").compile();
+    Field.Compiled<String> name = Field.at("data", "name").to(STRING).compile();
+    Field.Compiled<String> element = Field.at("data").at(Field.at("elements")).at(Field.at(1)).to(STRING).compile();
+    Field.Compiled<String> missing = Field.at("data", "missing").to(STRING).compile();
+    Field.Compiled<String> wrongType = Field.at("data", "cost").to(STRING).compile();
+
+    assertThat(data.getOrNull(parsed), sameInstance(parsed.at("data")));
+    assertThat(name.getOrNull(parsed), equalTo("fireball"));
+    assertThat(name.get(parsed).get(), equalTo("fireball"));
+    assertThat(element.getOrNull(parsed), equalTo("air"));
+    assertThat(missing.getOrNull(parsed), nullValue());
+    assertThat(wrongType.getOrNull(parsed), nullValue());
+    assertThat(name.getOrNull(new StringV("fireball")), nullValue());
+
+    assertThat(missing.get(parsed).isFailure(), is(true));
+    assertThat(missing.get(parsed).toString(),
+      equalTo("Can not find path \"data/missing\". Object key \"missing\" not found"));
+    assertThat(wrongType.get(parsed).toString(), equalTo("Can not convert LongV to StringV"));
+
+    assertThat(Field.at("data", "name", "first").compile().get(parsed).toString(),
+      equalTo("Can not find path \"data/name/first\". Can not convert StringV to ObjectV"));
+    assertThat(Field.at("data").at(Field.at("elements")).at(Field.at(2)).compile().get(parsed).toString(),
+      equalTo("Can not find path \"data/elements/2\". Array index \"2\" not found"));
+    assertThat(Field.at("data").at(Field.at(0)).compile().get(parsed).toString(),
+      equalTo("Can not find path \"data/0\". Can not convert ObjectV to ArrayV"));
+  }
+
+  @Test
+  public void shouldReturnNullForMissingPaths() throws Exception {
+    Value parsed = parsed("{ \"data\": { \"elements\": [\"fire\", \"air\"] } }");
+
+    assertThat(parsed.at("data", "missing"), equalTo((Value) NullV.NULL));
+    assertThat(parsed.at("data", "elements", "name"), equalTo((Value) NullV.NULL));
+    assertThat(parsed.at("data").at("elements").at(2), equalTo((Value) NullV.NULL));
+    assertThat(parsed.at("data").at("elements").at(-1), equalTo((Value) NullV.NULL));
+    assertThat(parsed.at(0), equalTo((Value) NullV.NULL));
+    assertThat(parsed.getOptional(Field.at("data").at(Field.at("elements")).at(Field.at(5))).isPresent(), is(false));
+  }
+
   @Test
   public void shouldDeserializeEmptyObject() throws Exception {
     Value parsed = parsed("{}");
@@ -137,6 +226,39 @@ public class DeserializationSpec {
       is(Optional.<String>empty()));
   }
 
+  @Test
+  public void shouldKeepMapSemanticsOfObjects() throws Exception {
+    StringBuilder doc = new StringBuilder("{");
+    Map<String, Value> expected = new LinkedHashMap<>();
+
+    for (int i = 0; i < 20; i++) {
+      doc.append("\"field").append(i).append("\": ").append(i).append(", ");
+      expected.put("field" + i, new LongV(i));
+    }
+
+    doc.append("\"field3\": \"last\"}");
+    expected.put("field3", new StringV("last"));
+
+    Map<String, Value> fields = parsed(doc.toString()).to(OBJECT).get();
+
+    assertThat(fields, equalTo(expected));
+    assertThat(fields.hashCode(), equalTo(expected.hashCode()));
+    assertThat(new ArrayList<>(fields.keySet()), equalTo(new ArrayList<>(expected.keySet())));
+    assertThat(fields.get("field19"), equalTo((Value) new LongV(19)));
+    assertThat(fields.get(new String("field3")), equalTo((Value) new StringV("last")));
+    assertThat(fields.containsKey("field20"), is(false));
+    assertThat(fields.get(null), nullValue());
+
+    Map<String, Value> small = parsed("{\"a\": 1, \"b\": 2, \"a\": 3}").to(OBJECT).get();
+    assertThat(small.toString(), equalTo("{a=3, b=2}"));
+    assertThat(small.get("c"), nullValue());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void shouldNotModifyParsedObjects() throws Exception {
+    parsed("{\"a\": 1}").to(OBJECT).get().put("b", new LongV(2));
+  }
+
   @Test
   public void shouldDeserializeObjectLiteral() throws Exception {
     Value parsed = parsed("{ \"@obj\": {\"@name\": \"Test\"}}");
@@ -177,8 +299,61 @@ public class DeserializationSpec {
     assertThat(parsed("{\"@bytes\":\"_w==\"}").to(BYTES).get(), equalTo(new byte[] {(byte)0xff}));
   }
 
+  @Test
+  public void shouldProjectFieldsWhileDeserializing() throws Exception {
+    Value projected = projected("{" +
+      "  \"ref\": { \"@ref\": { \"id\": \"1\", \"collection\": { \"@ref\": { \"id\": \"spells\", \"collection\": { \"@ref\": { \"id\": \"collections\" } } } } } }," +
+      "  \"ts\": 1424992618413105," +
+      "  \"data\": { \"name\": \"fireball\", \"email\": \"a@b.com\", \"elements\": [\"fire\", \"air\"] }" +
+      "}", Field.at("data", "email"), Field.at("ref"));
+
+    assertThat(projected.at("ref").to(REF).get(), equalTo(new RefV("1", new RefV("spells", Native.COLLECTIONS))));
+    assertThat(projected.at("data", "email").to(STRING).get(), equalTo("a@b.com"));
+    assertThat(projected.at("ts"), equalTo((Value) NullV.NULL));
+    assertThat(projected.at("data", "name"), equalTo((Value) NullV.NULL));
+    assertThat(projected.at("data", "elements"), equalTo((Value) NullV.NULL));
+  }
+
+  @Test
+  public void shouldProjectFieldsOfEachArrayElement() throws Exception {
+    Value projected = projected("{ \"data\": [" +
+      "  { \"ts\": 1, \"data\": { \"email\": \"a@b.com\", \"name\": \"a\" } }," +
+      "  { \"ts\": 2, \"data\": { \"@obj\": { \"email\": \"c@d.com\", \"name\": \"c\" } } }" +
+      "] }", Field.at("data", "data", "email"));
+
+    assertThat(projected.at("data").collect(Field.at("data", "email").to(STRING)),
+      equalTo(Arrays.asList("a@b.com", "c@d.com")));
+    assertThat(projected.at("data").at(0).at("ts"), equalTo((Value) NullV.NULL));
+    assertThat(projected.at("data").at(1).at("data", "name"), equalTo((Value) NullV.NULL));
+  }
+
+  @Test
+  public void shouldProjectArrayIndexes() throws Exception {
+    Value projected = projected("[1, [true, false], {\"@ts\": \"1970-01-01T00:05:00Z\"}]",
+      Field.at(1, 0), Field.at(2));
+
+    assertThat(projected.at(0), equalTo((Value) NullV.NULL));
+    assertThat(projected.at(1, 0).to(BOOLEAN).get(), is(true));
+    assertThat(projected.at(1, 1), equalTo((Value) NullV.NULL));
+    assertThat(projected.at(2).to(TIME).get(), equalTo(Instant.ofEpochMilli(0).plus(5, ChronoUnit.MINUTES)));
+  }
+
+  @Test
+  public void shouldProjectScalarsAndNulls() throws Exception {
+    assertThat(projected("null", Field.at("data")), equalTo((Value) NullV.NULL));
+    assertThat(projected("{ \"data\": 10 }", Field.at("data", "name")).at("data").to(LONG).get(), equalTo(10L));
+    assertThat(projected("{}", Field.at("data")), equalTo((Value) new ObjectV(new HashMap<>())));
+  }
+
   private Value parsed(String str) throws java.io.IOException {
     return json.readValue(str, Value.class);
   }
 
+  private Value projected(String str, Field<?>... fields) throws java.io.IOException {
+    try (JsonParser parser = json.getFactory().createParser(str)) {
+      parser.nextToken();
+      return Projection.of(fields).read(parser);
+    }
+  }
+
 }
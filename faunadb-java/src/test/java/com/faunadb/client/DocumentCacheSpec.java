@@ -0,0 +1,196 @@
+package com.faunadb.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.faunadb.client.query.Expr;
+import com.faunadb.client.query.ExprModule;
+import com.faunadb.client.types.Value.Native;
+import com.faunadb.client.types.Value.RefV;
+import com.faunadb.client.types.Value.StringV;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static com.faunadb.client.query.Language.*;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class DocumentCacheSpec {
+
+  private static final RefV SPELLS = new RefV("spells", Native.COLLECTIONS);
+
+  private final ObjectMapper json = new ObjectMapper()
+    .registerModule(new Jdk8Module())
+    .registerModule(new ExprModule());
+  private final RefQueries refs = new RefQueries(json);
+
+  @Test
+  public void shouldCountHitsAndMisses() {
+    DocumentCache cache = DocumentCache.ofEntries(100).maxStaleness(Duration.ofMinutes(1));
+
+    assertThat(cache.get(spell("1")), nullValue());
+    cache.put(spell("1"), new StringV("fireball"), 10, System.nanoTime(), 100);
+
+    assertThat(cache.get(spell("1")), equalTo(new StringV("fireball")));
+    assertThat(cache.get(spell("2")), nullValue());
+    assertThat(cache.getHitCount(), is(1L));
+    assertThat(cache.getMissCount(), is(2L));
+    assertThat(cache.size(), is(1));
+  }
+
+  @Test
+  public void shouldNotReturnStaleDocuments() {
+    DocumentCache cache = DocumentCache.ofEntries(100).maxStaleness(Duration.ofSeconds(1));
+
+    cache.put(spell("1"), new StringV("fireball"), 10, System.nanoTime() - Duration.ofSeconds(2).toNanos(), 100);
+
+    assertThat(cache.get(spell("1")), nullValue());
+    assertThat(cache.size(), is(0));
+  }
+
+  @Test
+  public void shouldNotCacheDocumentsReadBeforeTheirInvalidation() {
+    DocumentCache cache = DocumentCache.ofEntries(100).maxStaleness(Duration.ofMinutes(1));
+
+    cache.put(spell("1"), new StringV("fireball"), 10, System.nanoTime(), 100);
+    cache.invalidate(Collections.singleton(spell("1")), 20);
+    assertThat(cache.get(spell("1")), nullValue());
+
+    // A read issued before the write completes after it
+    cache.put(spell("1"), new StringV("fireball"), 15, System.nanoTime(), 100);
+    assertThat(cache.get(spell("1")), nullValue());
+
+    cache.put(spell("1"), new StringV("flamestrike"), 20, System.nanoTime(), 100);
+    assertThat(cache.get(spell("1")), equalTo(new StringV("flamestrike")));
+
+    cache.invalidate(null, 30);
+    cache.put(spell("2"), new StringV("blizzard"), 25, System.nanoTime(), 100);
+    assertThat(cache.size(), is(0));
+  }
+
+  @Test
+  public void shouldKeepFrequentlyReadDocuments() {
+    DocumentCache cache = DocumentCache.ofEntries(100).maxStaleness(Duration.ofMinutes(1));
+
+    for (int i = 0; i < 100; i++) {
+      for (int reads = 0; reads < 3; reads++)
+        cache.get(spell("hot" + i));
+
+      cache.put(spell("hot" + i), new StringV("hot"), 10, System.nanoTime(), 100);
+    }
+
+    // A scan of documents read once does not flush the documents read often
+    for (int i = 0; i < 1000; i++) {
+      cache.get(spell("cold" + i));
+      cache.put(spell("cold" + i), new StringV("cold"), 10, System.nanoTime(), 100);
+    }
+
+    int hot = 0;
+
+    for (int i = 0; i < 100; i++) {
+      if (cache.get(spell("hot" + i)) != null)
+        hot++;
+    }
+
+    // A least recently used policy would keep none of them
+    assertThat(hot >= 50, is(true));
+    assertThat(cache.size() <= 100, is(true));
+    assertThat(cache.getEvictionCount() >= 1000L, is(true));
+  }
+
+  @Test
+  public void shouldNotEvictDocumentsForRejectedOnes() {
+    DocumentCache cache = DocumentCache.ofBytes(1000).maxStaleness(Duration.ofMinutes(1));
+
+    cache.get(spell("warm"));
+    cache.put(spell("warm"), new StringV("warm"), 10, System.nanoTime(), 100);
+
+    for (int reads = 0; reads < 5; reads++)
+      cache.get(spell("hot"));
+
+    cache.put(spell("hot"), new StringV("hot"), 10, System.nanoTime(), 800);
+
+    // Replacing the warm document is not enough to make room, and the hot one is read more often
+    cache.get(spell("new"));
+    cache.get(spell("new"));
+    cache.put(spell("new"), new StringV("new"), 10, System.nanoTime(), 300);
+
+    assertThat(cache.get(spell("warm")), equalTo(new StringV("warm")));
+    assertThat(cache.get(spell("hot")), equalTo(new StringV("hot")));
+    assertThat(cache.get(spell("new")), nullValue());
+    assertThat(cache.getEvictionCount(), is(1L));
+  }
+
+  @Test
+  public void shouldBoundTheSizeOfTheDocuments() {
+    DocumentCache cache = DocumentCache.ofBytes(10000).maxStaleness(Duration.ofMinutes(1));
+
+    for (int i = 0; i < 50; i++)
+      cache.put(spell(String.valueOf(i)), new StringV("spell"), 10, System.nanoTime(), 1000);
+
+    assertThat(cache.size() <= 10, is(true));
+
+    cache.put(spell("big"), new StringV("spell"), 10, System.nanoTime(), 20000);
+    assertThat(cache.get(spell("big")), nullValue());
+  }
+
+  @Test
+  public void shouldReadTheRefsOfGets() {
+    assertThat(refs.readGet(serialize(Get(Ref(Collection("spells"), "1")))), equalTo(spell("1")));
+    assertThat(refs.readGet(serialize(Get(spell("1")))), equalTo(spell("1")));
+
+    assertThat(refs.readGet(serialize(Get(Var("ref")))), nullValue());
+    assertThat(refs.readGet(serialize(Get(Ref(Collection("spells"), "1"), Value(10L)))), nullValue());
+    assertThat(refs.readGet(serialize(Select(Value("data"), Get(spell("1"))))), nullValue());
+  }
+
+  @Test
+  public void shouldReadTheRefsWritten() {
+    assertThat(refs.readWrites(serialize(Get(spell("1")))), equalTo(Collections.emptySet()));
+    assertThat(refs.readWrites(serialize(Create(Collection("spells"), Obj("data", Obj("update", Value("x")))))),
+      equalTo(Collections.emptySet()));
+
+    assertThat(refs.readWrites(serialize(Arr(
+      Update(Ref(Collection("spells"), "1"), Obj("data", Obj("name", Value("fireball")))),
+      Delete(spell("2")),
+      Replace(spell("3"), Obj("data", Obj("delete", Value(true))))
+    ))), equalTo(new HashSet<>(Arrays.asList(spell("1"), spell("2"), spell("3")))));
+
+    assertThat(refs.readWrites(serialize(Let("ref", spell("1")).in(Delete(Var("ref"))))), nullValue());
+  }
+
+  @Test
+  public void shouldInvalidateAllDocumentsOnCalls() {
+    assertThat(refs.readWrites(serialize(Call(Function("level_up"), spell("1")))), nullValue());
+    assertThat(refs.readWrites(serialize(Obj("data", Call(Function("level_up"))))), nullValue());
+
+    DocumentCache cache = DocumentCache.ofEntries(100).maxStaleness(Duration.ofMinutes(1));
+    cache.put(spell("1"), new StringV("fireball"), 10, System.nanoTime(), 100);
+
+    cache.invalidate(refs.readWrites(serialize(Call(Function("level_up"), spell("1")))), 20);
+    assertThat(cache.get(spell("1")), nullValue());
+
+    cache.put(spell("1"), new StringV("fireball"), 15, System.nanoTime(), 100);
+    assertThat(cache.get(spell("1")), nullValue());
+  }
+
+  private static RefV spell(String id) {
+    return new RefV(id, SPELLS);
+  }
+
+  private ByteBuf serialize(Expr expr) {
+    try {
+      return Unpooled.wrappedBuffer(json.writeValueAsBytes(expr));
+    } catch (Exception ex) {
+      throw new AssertionError(ex);
+    }
+  }
+
+}
@@ -17,6 +17,7 @@ import static com.faunadb.client.types.Encoder.encode;
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class EncoderSpec {
 
@@ -66,6 +67,27 @@ public class EncoderSpec {
         assertEquals(new ArrayV(asList(new LongV(1))), encode(new long[] { 1 }).get());
 
         assertEquals(new ArrayV(Arrays.<Value>asList(new LongV(1), new StringV("a string"))), encode(new Object[] { 1, "a string" }).get());
+
+        assertEquals(new ArrayV(asList(new LongV(1), new LongV(Long.MIN_VALUE))), encode(new long[] { 1, Long.MIN_VALUE }).get());
+        assertEquals(new ArrayV(asList(new DoubleV(1), new DoubleV(2.5))), encode(new double[] { 1, 2.5 }).get());
+        assertEquals(new ArrayV(asList(new DoubleV(1))), encode(new float[] { 1 }).get());
+    }
+
+    @Test
+    public void shouldCopyPrimitiveArrays() {
+        long[] longs = { 1, 2 };
+        Value encoded = encode(longs).get();
+        longs[0] = 42;
+
+        assertEquals(new ArrayV(asList(new LongV(1), new LongV(2))), encoded);
+    }
+
+    @Test
+    public void shouldCacheSmallLongs() {
+        assertSame(LongV.valueOf(0), LongV.valueOf(0));
+        assertSame(LongV.valueOf(-128), encode(-128).get());
+        assertSame(LongV.valueOf(1023), encode(1023L).get());
+        assertEquals(new LongV(1024), LongV.valueOf(1024));
     }
 
     @Test
@@ -186,6 +208,15 @@ public class EncoderSpec {
         assertEquals(new ObjectV(obj), encode(enc).get());
     }
 
+    @Test
+    public void shouldKeepTheKeyOrderOfEncodedMaps() {
+        Map<String, Integer> enc = new LinkedHashMap<>();
+        for (int i = 20; i > 0; i--)
+            enc.put("key" + i, i);
+
+        assertEquals(asList(enc.keySet().toArray()), asList(encode(enc).get().to(Codec.OBJECT).get().keySet().toArray()));
+    }
+
     static class Node {
         @FaunaField
         private long data;
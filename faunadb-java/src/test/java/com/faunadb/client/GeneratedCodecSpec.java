@@ -0,0 +1,59 @@
+package com.faunadb.client;
+
+import com.faunadb.client.types.*;
+import com.faunadb.client.types.Value.*;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static com.faunadb.client.types.Decoder.decode;
+import static com.faunadb.client.types.Encoder.encode;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+public class GeneratedCodecSpec {
+
+    // Encoded as {"xy": [x, y]} by GeneratedCodecSpec_Point_FaunaCodec instead of {"x": x, "y": y}
+    static class Point {
+        @FaunaField long x;
+        @FaunaField long y;
+
+        Point(long x, long y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    static class Shape {
+        @FaunaField String name;
+        @FaunaField Point origin;
+    }
+
+    private static final ObjectV ORIGIN =
+        new ObjectV(Collections.singletonMap("xy", new ArrayV(asList(new LongV(1), new LongV(2)))));
+
+    @Test
+    public void shouldEncodeWithTheGeneratedCodec() {
+        assertEquals(ORIGIN, encode(new Point(1, 2)).get());
+    }
+
+    @Test
+    public void shouldDecodeWithTheGeneratedCodec() {
+        Point point = decode(ORIGIN, Point.class).get();
+
+        assertEquals(1, point.x);
+        assertEquals(2, point.y);
+    }
+
+    @Test
+    public void shouldUseTheGeneratedCodecForNestedObjects() {
+        Shape shape = new Shape();
+        shape.name = "square";
+        shape.origin = new Point(1, 2);
+
+        Value encoded = encode(shape).get();
+
+        assertEquals(ORIGIN, encoded.at("origin"));
+        assertEquals(2, decode(encoded, Shape.class).get().origin.y);
+    }
+}
@@ -0,0 +1,32 @@
+package com.faunadb.client;
+
+import com.faunadb.client.types.Codec;
+import com.faunadb.client.types.Encoder;
+import com.faunadb.client.types.GeneratedCodec;
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.ArrayV;
+import com.faunadb.client.types.Value.LongV;
+import com.faunadb.client.types.Value.ObjectV;
+
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+
+public final class GeneratedCodecSpec_Point_FaunaCodec extends GeneratedCodec<GeneratedCodecSpec.Point> {
+
+    public GeneratedCodecSpec_Point_FaunaCodec() {
+        super(GeneratedCodecSpec.Point.class);
+    }
+
+    @Override
+    protected Value encode(Encoder encoder, GeneratedCodecSpec.Point value) {
+        return new ObjectV(Collections.singletonMap("xy", new ArrayV(asList(new LongV(value.x), new LongV(value.y)))));
+    }
+
+    @Override
+    protected GeneratedCodecSpec.Point decode(ObjectV object) {
+        List<Value> xy = object.at("xy").to(Codec.ARRAY).get();
+        return new GeneratedCodecSpec.Point(xy.get(0).to(long.class).get(), xy.get(1).to(long.class).get());
+    }
+}
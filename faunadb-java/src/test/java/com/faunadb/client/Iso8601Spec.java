@@ -0,0 +1,115 @@
+package com.faunadb.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.DateV;
+import com.faunadb.client.types.Value.TimeV;
+import com.faunadb.common.time.Iso8601;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class Iso8601Spec {
+
+  // From 0000-01-01 to 9999-12-31, plus a day on each side to cover the fallback to the JDK
+  private static final long MIN_SECOND = -62167219200L - 86400;
+  private static final long MAX_SECOND = 253402300799L + 86400;
+
+  private final ObjectMapper json = new ObjectMapper();
+
+  @Test
+  public void shouldFormatAndParseAsTheJdk() {
+    Random random = new Random(42);
+
+    for (int i = 0; i < 100000; i++) {
+      long seconds = MIN_SECOND + (long) (random.nextDouble() * (MAX_SECOND - MIN_SECOND));
+      Instant instant = Instant.ofEpochSecond(seconds, randomNanos(random, i));
+      String text = instant.toString();
+
+      assertThat(Iso8601.format(instant), equalTo(text));
+      assertThat(Iso8601.parseInstant(text), equalTo(jdkInstant(text)));
+
+      LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(seconds, 86400));
+
+      assertThat(Iso8601.format(date), equalTo(date.toString()));
+      assertThat(Iso8601.parseDate(date.toString()), equalTo(date));
+    }
+  }
+
+  @Test
+  public void shouldParseFractionsOfAnyLength() {
+    for (int digits = 1; digits <= 9; digits++) {
+      String text = "2019-11-27T16:00:00." + "123456789".substring(0, digits) + "Z";
+      assertThat(Iso8601.parseInstant(text), equalTo(jdkInstant(text)));
+    }
+  }
+
+  @Test
+  public void shouldParseOtherFormatsAsTheJdk() {
+    String[] texts = {
+      "2019-11-27T16:00Z", "2019-11-27T16:00:00+01:00", "2019-11-27t16:00:00z", "+12019-11-27T16:00:00Z",
+      "2000-02-29T23:59:59.999999999Z", "1600-02-29T00:00:00Z", "0000-01-01T00:00:00Z"
+    };
+
+    for (String text : texts)
+      assertThat(Iso8601.parseInstant(text), equalTo(jdkInstant(text)));
+
+    assertThat(Iso8601.parseDate("+12019-11-27"), equalTo(LocalDate.parse("+12019-11-27")));
+  }
+
+  @Test
+  public void shouldRejectInvalidTextsAsTheJdk() {
+    String[] texts = {
+      "2019-02-29T00:00:00Z", "1900-02-29T00:00:00Z", "2019-13-01T00:00:00Z", "2019-00-10T00:00:00Z",
+      "2019-01-00T00:00:00Z", "2019-01-01T24:00:00Z", "2019-01-01T00:60:00Z", "2019-01-01T00:00:60Z",
+      "2019-01-01T00:00:00.Z", "2019-01-01T00:00:00.1234567890Z", "2019-01-01 00:00:00Z", "20x9-01-01T00:00:00Z",
+      "2019-1-01T00:00:00Z"
+    };
+
+    for (String text : texts)
+      assertThat(text, error(() -> Iso8601.parseInstant(text)), equalTo(error(() -> jdkInstant(text))));
+
+    for (String text : new String[] { "2019-02-29", "2019-13-01", "2019-1-01", "2019/01/01" })
+      assertThat(text, error(() -> Iso8601.parseDate(text)), equalTo(error(() -> LocalDate.parse(text))));
+  }
+
+  @Test
+  public void shouldReadAndWriteValues() throws Exception {
+    String ts = "{\"@ts\":\"2019-11-27T16:00:00.123456Z\"}";
+    String date = "{\"@date\":\"2019-11-27\"}";
+
+    assertThat(json.readValue(ts, Value.class), equalTo((Value) new TimeV(jdkInstant("2019-11-27T16:00:00.123456Z"))));
+    assertThat(json.readValue(date, Value.class), equalTo((Value) new DateV(LocalDate.of(2019, 11, 27))));
+    assertThat(json.writeValueAsString(json.readValue(ts, Value.class)), equalTo(ts));
+    assertThat(json.writeValueAsString(json.readValue(date, Value.class)), equalTo(date));
+  }
+
+  private static int randomNanos(Random random, int i) {
+    switch (i % 4) {
+      case 0: return 0;
+      case 1: return random.nextInt(1000) * 1000000;
+      case 2: return random.nextInt(1000000) * 1000;
+      default: return random.nextInt(1000000000);
+    }
+  }
+
+  private static Instant jdkInstant(String text) {
+    return Instant.from(DateTimeFormatter.ISO_OFFSET_DATE_TIME.parse(text));
+  }
+
+  private static String error(Runnable parse) {
+    try {
+      parse.run();
+      return "no error";
+    } catch (RuntimeException ex) {
+      return ex.getClass().getName() + ": " + ex.getMessage();
+    }
+  }
+
+}
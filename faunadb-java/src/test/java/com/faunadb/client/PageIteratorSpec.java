@@ -0,0 +1,251 @@
+package com.faunadb.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.faunadb.client.query.Pagination;
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.ArrayV;
+import com.faunadb.client.types.Value.LongV;
+import com.faunadb.client.types.Value.ObjectV;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.faunadb.client.query.Language.*;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+public class PageIteratorSpec {
+
+  private static final long TXN_TIME = 1574870400000000L;
+
+  private final ObjectMapper json = new ObjectMapper();
+  private final List<String> requests = new ArrayList<>();
+  private final List<CompletableFuture<PageIterator.Response>> responses = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    requests.clear();
+    responses.clear();
+  }
+
+  @Test
+  public void shouldFollowAfterCursorsAtTheFirstSnapshot() throws Exception {
+    PageIterator pages = iterator(Paginate(Match(Index("all_spells"))).size(2));
+
+    assertThat(pages.hasNext(), is(true));
+    assertThat(requests, empty());
+
+    Value first = respond(pages.next(), page(Arrays.asList(1L, 2L), null, 3L));
+    Value second = respond(pages.next(), page(Arrays.asList(3L, 4L), 3L, 5L));
+    Value third = respond(pages.next(), page(Arrays.asList(5L), 5L, null));
+
+    assertThat(pages.hasNext(), is(false));
+    assertThat(pages.snapshot(), is(TXN_TIME));
+    assertThat(first.at("data").at(0), equalTo((Value) new LongV(1)));
+    assertThat(second.at("data").at(0), equalTo((Value) new LongV(3)));
+    assertThat(third.at("data").at(0), equalTo((Value) new LongV(5)));
+
+    assertThat(requests, contains(
+      "{\"paginate\":{\"match\":{\"index\":\"all_spells\"}},\"size\":2}",
+      "{\"paginate\":{\"match\":{\"index\":\"all_spells\"}},\"after\":[3],\"ts\":" + TXN_TIME + ",\"size\":2}",
+      "{\"paginate\":{\"match\":{\"index\":\"all_spells\"}},\"after\":[5],\"ts\":" + TXN_TIME + ",\"size\":2}"
+    ));
+  }
+
+  @Test
+  public void shouldFollowBeforeCursorsAtTheTimestampProvided() throws Exception {
+    PageIterator pages = iterator(Paginate(Match(Index("all_spells"))).before(Value(5)).ts(42L));
+    assertThat(pages.snapshot(), is(42L));
+
+    respond(pages.next(), page(Arrays.asList(3L, 4L), 3L, 5L));
+    respond(pages.next(), page(Arrays.asList(1L, 2L), null, 3L));
+
+    assertThat(pages.hasNext(), is(false));
+    assertThat(pages.snapshot(), is(42L));
+    assertThat(requests, contains(
+      "{\"paginate\":{\"match\":{\"index\":\"all_spells\"}},\"before\":5,\"ts\":42}",
+      "{\"paginate\":{\"match\":{\"index\":\"all_spells\"}},\"before\":[3],\"ts\":42}"
+    ));
+  }
+
+  @Test
+  public void shouldFetchOnePageAtATime() {
+    PageIterator pages = iterator(Paginate(Match(Index("all_spells"))));
+    CompletableFuture<Value> first = pages.next();
+
+    try {
+      pages.next();
+      throw new AssertionError("fetched two pages at once");
+    } catch (IllegalStateException ignored) {
+    }
+
+    assertThat(requests.size(), is(1));
+    respond(first, page(Arrays.asList(1L), null, null));
+
+    try {
+      pages.next();
+      throw new AssertionError("fetched past the last page");
+    } catch (NoSuchElementException ignored) {
+    }
+  }
+
+  @Test
+  public void shouldVisitElementsOnDemand() {
+    PageIterator pages = iterator(Paginate(Match(Index("all_spells"))));
+    List<Value> elements = new ArrayList<>();
+    CompletableFuture<Void> done = pages.forEach(elements::add);
+
+    assertThat(requests.size(), is(1));
+    responses.get(0).complete(new PageIterator.Response(page(Arrays.asList(1L, 2L), null, 3L), TXN_TIME, 100));
+
+    assertThat(requests.size(), is(2));
+    assertThat(done.isDone(), is(false));
+    responses.get(1).complete(new PageIterator.Response(page(Arrays.asList(3L), 3L, null), TXN_TIME, 100));
+
+    assertThat(done.isDone(), is(true));
+    assertThat(elements, contains((Value) new LongV(1), new LongV(2), new LongV(3)));
+  }
+
+  @Test
+  public void shouldWaitForPagesToBeProcessed() {
+    PageIterator pages = iterator(Paginate(Match(Index("all_spells"))));
+    CompletableFuture<Void> processed = new CompletableFuture<>();
+    CompletableFuture<Void> done = pages.forEachPage(page -> processed);
+
+    responses.get(0).complete(new PageIterator.Response(page(Arrays.asList(1L), null, 2L), TXN_TIME, 100));
+    assertThat(requests.size(), is(1));
+
+    processed.complete(null);
+    assertThat(requests.size(), is(2));
+
+    responses.get(1).completeExceptionally(new IllegalStateException("boom"));
+    assertThat(done.isCompletedExceptionally(), is(true));
+
+    try {
+      done.join();
+      throw new AssertionError("completed without the error");
+    } catch (CompletionException ex) {
+      assertThat(ex.getCause(), instanceOf(IllegalStateException.class));
+      assertThat(ex.getCause().getMessage(), equalTo("boom"));
+    }
+  }
+
+  @Test
+  public void shouldNotModifyThePaginationProvided() throws Exception {
+    Pagination pagination = Paginate(Match(Index("all_spells")));
+    PageIterator pages = iterator(pagination);
+
+    respond(pages.next(), page(Arrays.asList(1L), null, 2L));
+
+    assertThat(json.writeValueAsString(pagination), equalTo("{\"paginate\":{\"match\":{\"index\":\"all_spells\"}}}"));
+  }
+
+  @Test
+  public void shouldPrefetchPagesAhead() {
+    PageIterator pages = iterator(Paginate(Match(Index("all_spells")))).prefetch(2);
+    assertThat(requests, empty());
+
+    CompletableFuture<Value> first = pages.next();
+    responses.get(0).complete(new PageIterator.Response(page(Arrays.asList(1L), null, 2L), TXN_TIME, 100));
+    responses.get(1).complete(new PageIterator.Response(page(Arrays.asList(2L), 2L, 3L), TXN_TIME, 100));
+    assertThat(requests.size(), is(3));
+
+    // Pages 2 and 3 are fetched while page 1 is processed, but not page 4
+    responses.get(2).complete(new PageIterator.Response(page(Arrays.asList(3L), 3L, 4L), TXN_TIME, 100));
+    assertThat(requests.size(), is(3));
+
+    assertThat(first.join().at("data").at(0), equalTo((Value) new LongV(1)));
+    assertThat(pages.next().join().at("data").at(0), equalTo((Value) new LongV(2)));
+    assertThat(requests.size(), is(4));
+    assertThat(requests.get(3), equalTo("{\"paginate\":{\"match\":{\"index\":\"all_spells\"}},\"after\":[4],\"ts\":" + TXN_TIME + "}"));
+
+    assertThat(pages.next().join().at("data").at(0), equalTo((Value) new LongV(3)));
+    CompletableFuture<Value> fourth = pages.next();
+    assertThat(fourth.isDone(), is(false));
+    responses.get(3).complete(new PageIterator.Response(page(Arrays.asList(4L), 4L, null), TXN_TIME, 100));
+
+    assertThat(fourth.join().at("data").at(0), equalTo((Value) new LongV(4)));
+    assertThat(pages.hasNext(), is(false));
+    assertThat(pages.getWaitCount(), is(2L));
+  }
+
+  @Test
+  public void shouldBoundPrefetchedBytes() {
+    PageIterator pages = iterator(Paginate(Match(Index("all_spells")))).prefetch(10, 250);
+
+    pages.next();
+    for (int i = 0; i < 4; i++)
+      responses.get(i).complete(new PageIterator.Response(page(Arrays.asList((long) i), null, i + 1L), TXN_TIME, 100));
+
+    // The first page was taken, so pages 2, 3 and 4 are fetched until their 300 bytes exceed the limit
+    assertThat(requests.size(), is(4));
+
+    pages.next();
+    assertThat(requests.size(), is(5));
+  }
+
+  @Test
+  public void shouldStopPrefetchingOnErrors() {
+    PageIterator pages = iterator(Paginate(Match(Index("all_spells")))).prefetch(2);
+
+    CompletableFuture<Value> first = pages.next();
+    responses.get(0).completeExceptionally(new IllegalStateException("boom"));
+
+    assertThat(first.isCompletedExceptionally(), is(true));
+    assertThat(requests.size(), is(1));
+
+    pages.next();
+    assertThat(requests.size(), is(2));
+    assertThat(requests.get(1), equalTo(requests.get(0)));
+  }
+
+  private PageIterator iterator(Pagination pagination) {
+    return new PageIterator(pagination, next -> {
+      try {
+        requests.add(json.writeValueAsString(next));
+      } catch (Exception ex) {
+        throw new AssertionError(ex);
+      }
+
+      CompletableFuture<PageIterator.Response> response = new CompletableFuture<>();
+      responses.add(response);
+      return response;
+    }, null);
+  }
+
+  private Value respond(CompletableFuture<Value> page, Value value) {
+    responses.get(responses.size() - 1).complete(new PageIterator.Response(value, TXN_TIME, 100));
+    return page.join();
+  }
+
+  private static Value page(List<Long> data, Long before, Long after) {
+    Map<String, Value> page = new HashMap<>();
+    List<Value> elements = new ArrayList<>();
+
+    for (Long element : data)
+      elements.add(new LongV(element));
+
+    page.put("data", new ArrayV(elements));
+
+    if (before != null)
+      page.put("before", new ArrayV(Arrays.<Value>asList(new LongV(before))));
+
+    if (after != null)
+      page.put("after", new ArrayV(Arrays.<Value>asList(new LongV(after))));
+
+    return new ObjectV(page);
+  }
+
+}
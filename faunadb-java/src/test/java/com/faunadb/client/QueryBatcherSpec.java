@@ -0,0 +1,234 @@
+package com.faunadb.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.faunadb.client.errors.BadRequestException;
+import com.faunadb.client.errors.UnavailableException;
+import com.faunadb.client.query.Expr;
+import com.faunadb.client.query.ExprModule;
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.ArrayV;
+import com.faunadb.client.types.Value.LongV;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.faunadb.client.query.Language.*;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class QueryBatcherSpec {
+
+  private static final ObjectMapper JSON = new ObjectMapper().registerModule(new ExprModule());
+  private static final ObjectWriter WRITER = JSON.writer();
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+  private final ConcurrentLinkedQueue<Integer> batches = new ConcurrentLinkedQueue<>();
+  private final ConcurrentLinkedQueue<Expr> singles = new ConcurrentLinkedQueue<>();
+  private volatile boolean unavailable;
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldCoalesceQueriesIssuedWithinTheWindow() throws Exception {
+    QueryBatcher batcher = batcher(Duration.ofMillis(200), 100);
+    List<CompletableFuture<Value>> results = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch issued = new CountDownLatch(10);
+
+    for (long i = 0; i < 10; i++) {
+      long n = i;
+      executor.execute(() -> {
+        results.add(batcher.query(Value(n)).thenApply(value -> new LongV(value.to(Long.class).get() - n)));
+        issued.countDown();
+      });
+    }
+
+    issued.await();
+
+    for (CompletableFuture<Value> result : new ArrayList<>(results))
+      assertThat(result.join(), equalTo(new LongV(1)));
+
+    assertThat(new ArrayList<>(batches), equalTo(Collections.singletonList(10)));
+    assertThat(singles.size(), is(0));
+  }
+
+  @Test
+  public void shouldSendFullBatchesWithoutWaitingForTheWindow() {
+    QueryBatcher batcher = batcher(Duration.ofHours(1), 4);
+    List<CompletableFuture<Value>> results = new ArrayList<>();
+
+    for (long i = 0; i < 8; i++)
+      results.add(batcher.query(Value(i)));
+
+    for (int i = 0; i < 8; i++)
+      assertThat(results.get(i).join(), equalTo(new LongV(i + 1)));
+
+    assertThat(new ArrayList<>(batches), equalTo(list(4, 4)));
+  }
+
+  @Test
+  public void shouldSendQueriesAloneOutsideOfTheWindow() throws Exception {
+    QueryBatcher batcher = batcher(Duration.ofMillis(1), 100);
+
+    assertThat(batcher.query(Value(1)).join(), equalTo(new LongV(2)));
+    assertThat(batcher.query(Value(2)).join(), equalTo(new LongV(3)));
+
+    assertThat(batches.size(), is(0));
+    assertThat(singles.size(), is(2));
+  }
+
+  @Test
+  public void shouldSendQueriesAgainAloneWhenTheBatchFailsBecauseOfOne() {
+    QueryBatcher batcher = batcher(Duration.ofHours(1), 4);
+
+    CompletableFuture<Value> one = batcher.query(Value(1));
+    CompletableFuture<Value> bad = batcher.query(Value(-1));
+    CompletableFuture<Value> two = batcher.query(Value(2));
+    CompletableFuture<Value> three = batcher.query(Value(3));
+
+    assertThat(one.join(), equalTo(new LongV(2)));
+    assertThat(two.join(), equalTo(new LongV(3)));
+    assertThat(three.join(), equalTo(new LongV(4)));
+
+    try {
+      bad.join();
+      throw new AssertionError("completed without the error");
+    } catch (CompletionException ex) {
+      assertThat(ex.getCause(), instanceOf(BadRequestException.class));
+    }
+
+    assertThat(singles.size(), is(4));
+  }
+
+  @Test
+  public void shouldFailOnlyTheQueriesThatCanNotBeEncoded() {
+    QueryBatcher batcher = batcher(Duration.ofHours(1), 2);
+
+    CompletableFuture<Value> one = batcher.query(Value(1));
+    CompletableFuture<Value> broken = batcher.query(Value(new Broken()));
+    CompletableFuture<Value> two = batcher.query(Value(2));
+
+    try {
+      broken.join();
+      throw new AssertionError("completed without the error");
+    } catch (CompletionException ex) {
+      assertThat(ex.getCause().getMessage(), containsString("Could not encode field \"name\""));
+    }
+
+    assertThat(one.join(), equalTo(new LongV(2)));
+    assertThat(two.join(), equalTo(new LongV(3)));
+    assertThat(new ArrayList<>(batches), equalTo(list(2)));
+    assertThat(singles.size(), is(0));
+  }
+
+  @Test
+  public void shouldSendQueriesAsTheyWereWhenIssued() {
+    QueryBatcher batcher = batcher(Duration.ofHours(1), 2);
+    List<Long> numbers = new ArrayList<>(Collections.singletonList(1L));
+
+    CompletableFuture<Value> one = batcher.query(Value(numbers));
+    numbers.set(0, 5L);
+    CompletableFuture<Value> two = batcher.query(Value(2));
+
+    assertThat(one.join(), equalTo(new LongV(2)));
+    assertThat(two.join(), equalTo(new LongV(3)));
+  }
+
+  @Test
+  public void shouldFailAllQueriesWhenTheBatchFailsForOtherReasons() {
+    QueryBatcher batcher = batcher(Duration.ofHours(1), 2);
+    unavailable = true;
+
+    CompletableFuture<Value> one = batcher.query(Value(1));
+    CompletableFuture<Value> two = batcher.query(Value(2));
+
+    for (CompletableFuture<Value> result : list(one, two)) {
+      try {
+        result.join();
+        throw new AssertionError("completed without the error");
+      } catch (CompletionException ex) {
+        assertThat(ex.getCause(), instanceOf(UnavailableException.class));
+      }
+    }
+
+    assertThat(singles.size(), is(0));
+  }
+
+  private QueryBatcher batcher(Duration window, int maxSize) {
+    return new QueryBatcher(window, maxSize, WRITER, this::batch, this::single, null);
+  }
+
+  // Adds one to each number, failing the whole transaction if any is negative
+  private CompletableFuture<List<Value>> batch(List<? extends Expr> exprs) {
+    batches.add(exprs.size());
+
+    return CompletableFuture.supplyAsync(() -> {
+      if (unavailable)
+        throw new UnavailableException("Service Unavailable: Unparseable response.", null);
+
+      List<Value> results = new ArrayList<>();
+
+      for (Expr expr : exprs)
+        results.add(increment(expr));
+
+      return results;
+    }, executor);
+  }
+
+  private CompletableFuture<Value> single(Expr expr) {
+    singles.add(expr);
+    return CompletableFuture.supplyAsync(() -> increment(expr), executor);
+  }
+
+  // Queries are either numbers, or arrays of which the first number is incremented
+  private static Value increment(Expr expr) {
+    Value query;
+
+    try {
+      query = JSON.readValue(expr.toString(), Value.class);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+
+    long n = (query instanceof ArrayV ? query.at(0) : query).to(Long.class).get();
+
+    if (n < 0)
+      throw new BadRequestException(HttpResponses.QueryErrorResponse.create(400, Collections.singletonList(
+        new HttpResponses.QueryError(Collections.emptyList(), "invalid argument", "negative number",
+          Collections.emptyList()))));
+
+    return new LongV(n + 1);
+  }
+
+  public static class Broken {
+    public String getName() {
+      throw new IllegalStateException("broken");
+    }
+  }
+
+  @SafeVarargs
+  private static <T> List<T> list(T... elements) {
+    List<T> list = new ArrayList<>();
+    Collections.addAll(list, elements);
+    return list;
+  }
+
+}
@@ -0,0 +1,193 @@
+package com.faunadb.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.faunadb.client.query.Expr;
+import com.faunadb.client.query.ExprModule;
+import com.faunadb.client.types.Value.StringV;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import static com.faunadb.client.query.Language.*;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class QueryCacheSpec {
+
+  private final ObjectMapper json = new ObjectMapper()
+    .registerModule(new Jdk8Module())
+    .registerModule(new ExprModule());
+  private final List<CompletableFuture<PageIterator.Response>> requests = new ArrayList<>();
+
+  @Test
+  public void shouldShareTheRequestsOfConcurrentMisses() {
+    QueryCache cache = QueryCache.ofEntries(10).ttl(Duration.ofMinutes(1));
+
+    CompletableFuture<?> first = cache.get(key("secret", "countries"), load());
+    CompletableFuture<?> second = cache.get(key("secret", "countries"), load());
+    assertThat(requests.size(), is(1));
+
+    respond(0, "fr");
+    assertThat(first.join(), equalTo(new StringV("fr")));
+    assertThat(second.join(), equalTo(new StringV("fr")));
+
+    assertThat(cache.get(key("secret", "countries"), load()).join(), equalTo(new StringV("fr")));
+    assertThat(requests.size(), is(1));
+    assertThat(cache.getHitCount(), is(1L));
+    assertThat(cache.getMissCount(), is(2L));
+  }
+
+  @Test
+  public void shouldKeyResultsBySecret() {
+    QueryCache cache = QueryCache.ofEntries(10).ttl(Duration.ofMinutes(1));
+
+    cache.get(key("alice", "countries"), load());
+    cache.get(key("bob", "countries"), load());
+
+    assertThat(requests.size(), is(2));
+    assertThat(cache.size(), is(2));
+  }
+
+  @Test
+  public void shouldServeStaleResultsWhileRefreshingOnce() {
+    QueryCache cache = QueryCache.ofEntries(10).ttl(Duration.ZERO).staleWhileRevalidate(Duration.ofMinutes(1));
+
+    CompletableFuture<?> loaded = cache.get(key("secret", "countries"), load());
+    respond(0, "fr");
+    loaded.join();
+
+    assertThat(cache.get(key("secret", "countries"), load()).join(), equalTo(new StringV("fr")));
+    assertThat(cache.get(key("secret", "countries"), load()).join(), equalTo(new StringV("fr")));
+    assertThat(requests.size(), is(2));
+
+    respond(1, "de");
+    assertThat(cache.get(key("secret", "countries"), load()).join(), equalTo(new StringV("de")));
+    assertThat(cache.getStaleHitCount(), is(3L));
+    assertThat(cache.getRefreshCount(), is(2L));
+  }
+
+  @Test
+  public void shouldWaitForExpiredResults() {
+    QueryCache cache = QueryCache.ofEntries(10).ttl(Duration.ZERO);
+
+    CompletableFuture<?> loaded = cache.get(key("secret", "countries"), load());
+    respond(0, "fr");
+    loaded.join();
+
+    CompletableFuture<?> reloaded = cache.get(key("secret", "countries"), load());
+    assertThat(reloaded.isDone(), is(false));
+
+    respond(1, "de");
+    assertThat(reloaded.join(), equalTo(new StringV("de")));
+  }
+
+  @Test
+  public void shouldNotCacheFailures() {
+    QueryCache cache = QueryCache.ofEntries(10).ttl(Duration.ofMinutes(1));
+
+    CompletableFuture<?> failed = cache.get(key("secret", "countries"), load());
+    requests.get(0).completeExceptionally(new IllegalStateException("boom"));
+
+    try {
+      failed.join();
+      throw new AssertionError("completed without the error");
+    } catch (CompletionException ex) {
+      assertThat(ex.getCause().getMessage(), equalTo("boom"));
+    }
+
+    assertThat(cache.size(), is(0));
+    cache.get(key("secret", "countries"), load());
+    assertThat(requests.size(), is(2));
+  }
+
+  @Test
+  public void shouldEvictTheLeastRecentlyUsedResults() {
+    QueryCache cache = QueryCache.ofEntries(2).ttl(Duration.ofMinutes(1));
+
+    for (int i = 0; i < 2; i++) {
+      cache.get(key("secret", "q" + i), load());
+      respond(i, "r" + i);
+    }
+
+    cache.get(key("secret", "q0"), load());
+    cache.get(key("secret", "q2"), load());
+    respond(2, "r2");
+
+    assertThat(cache.size(), is(2));
+    assertThat(cache.getEvictionCount(), is(1L));
+
+    cache.get(key("secret", "q0"), load());
+    cache.get(key("secret", "q1"), load());
+    assertThat(requests.size(), is(4));
+  }
+
+  @Test
+  public void shouldBoundTheSizeOfTheResults() {
+    QueryCache cache = QueryCache.ofBytes(1000).ttl(Duration.ofMinutes(1));
+
+    for (int i = 0; i < 10; i++) {
+      cache.get(key("secret", "q" + i), load());
+      respond(i, "r" + i);
+    }
+
+    assertThat(cache.size(), is(3));
+    assertThat(cache.getEvictionCount(), is(7L));
+  }
+
+  @Test
+  public void shouldTellRepeatableQueries() {
+    assertThat(isRepeatable(Paginate(Match(Index("countries")))), is(true));
+    assertThat(isRepeatable(Get(Ref(Collection("countries"), "1"))), is(true));
+
+    assertThat(isRepeatable(Create(Collection("countries"), Obj())), is(false));
+    assertThat(isRepeatable(CreateIndex(Obj("name", Value("countries")))), is(false));
+    assertThat(isRepeatable(Call(Function("refresh"))), is(false));
+    assertThat(isRepeatable(Map(Paginate(Match(Index("countries"))), Lambda("ref", Delete(Var("ref"))))), is(false));
+  }
+
+  @Test
+  public void shouldNotRepeatLoginsAndLogouts() {
+    assertThat(isRepeatable(Login(Ref(Collection("users"), "1"), Obj("password", Value("secret")))), is(false));
+    assertThat(isRepeatable(Logout(true)), is(false));
+  }
+
+  @Test
+  public void shouldNotRepeatNewIds() {
+    assertThat(isRepeatable(NewId()), is(false));
+    assertThat(isRepeatable(NextId()), is(false));
+  }
+
+  private Supplier<CompletableFuture<PageIterator.Response>> load() {
+    return () -> {
+      CompletableFuture<PageIterator.Response> request = new CompletableFuture<>();
+      requests.add(request);
+      return request;
+    };
+  }
+
+  private void respond(int request, String result) {
+    requests.get(request).complete(new PageIterator.Response(new StringV(result), 1, 300));
+  }
+
+  private static QueryCache.Key key(String secret, String query) {
+    return new QueryCache.Key(secret, query.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private boolean isRepeatable(Expr expr) {
+    try {
+      return RefQueries.isRepeatable(Unpooled.wrappedBuffer(json.writeValueAsBytes(expr)));
+    } catch (Exception ex) {
+      throw new AssertionError(ex);
+    }
+  }
+
+}
@@ -0,0 +1,195 @@
+package com.faunadb.client;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.faunadb.client.query.Pagination;
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.ArrayV;
+import com.faunadb.client.types.Value.LongV;
+import com.faunadb.client.types.Value.ObjectV;
+import com.faunadb.client.types.Value.StringV;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.faunadb.client.query.Language.*;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RawSetExportSpec {
+
+  private static final long TXN_TIME = 1574870400000000L;
+
+  private final ObjectMapper json = new ObjectMapper();
+  private final List<JsonNode> requests = new ArrayList<>();
+  private final List<ByteBuf> responses = new ArrayList<>();
+  private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+  private int failAtRequest = -1;
+
+  @Test
+  public void shouldCopyAllElements() throws Exception {
+    long rows = export().bufferSize(100).run().join();
+
+    assertThat(rows, is(95L));
+    assertThat(lines(), equalTo(SetExportSpec.expectedLines(95)));
+    assertThat(requests.size(), is(10));
+
+    // The pages after the first one are read at its timestamp
+    assertThat(requests.get(0).has("ts"), is(false));
+
+    for (JsonNode request : requests.subList(1, requests.size()))
+      assertThat(request.get("ts").asLong(), is(TXN_TIME));
+
+    assertReleased();
+  }
+
+  @Test
+  public void shouldFailWithTheErrorOfAPage() throws Exception {
+    failAtRequest = 4;
+
+    try {
+      export().run().join();
+      throw new AssertionError("completed without the error");
+    } catch (CompletionException ex) {
+      assertThat(ex.getCause().getMessage(), equalTo("boom"));
+    }
+
+    assertReleased();
+  }
+
+  @Test
+  public void shouldFailWhenTheResourceIsNotAPage() throws Exception {
+    RawSetExport export = new RawSetExport(Paginate(Match(Index("all_spells"))), Channels.newChannel(output),
+      pagination -> CompletableFuture.completedFuture(new RawSetExport.Page(body(new StringV("spell")), 0)));
+
+    try {
+      export.run().join();
+      throw new AssertionError("completed without the error");
+    } catch (CompletionException ex) {
+      assertThat(ex.getCause(), instanceOf(IOException.class));
+    }
+  }
+
+  @Test
+  public void shouldFailWhenAPageCanNotBeRequested() throws Exception {
+    for (int failAt = 0; failAt < 2; failAt++) {
+      int failing = failAt;
+      requests.clear();
+
+      RawSetExport export = new RawSetExport(Paginate(Match(Index("all_spells"))).size(10), Channels.newChannel(output),
+        pagination -> {
+          if (requests.size() == failing)
+            throw new IllegalStateException("boom");
+
+          return fetch(pagination);
+        });
+
+      try {
+        export.run().join();
+        throw new AssertionError("completed without the error");
+      } catch (CompletionException ex) {
+        assertThat(ex.getCause().getMessage(), equalTo("boom"));
+      }
+    }
+
+    assertReleased();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldRunOnlyOnce() {
+    RawSetExport export = export();
+    export.run().join();
+    export.run();
+  }
+
+  private RawSetExport export() {
+    return new RawSetExport(Paginate(Match(Index("all_spells"))).size(10), Channels.newChannel(output),
+      this::fetch);
+  }
+
+  // Pages over 95 elements, whose cursors are their positions, writing the cursors after the elements
+  private CompletableFuture<RawSetExport.Page> fetch(Pagination pagination) {
+    JsonNode request = json.valueToTree(pagination);
+    CompletableFuture<RawSetExport.Page> response = new CompletableFuture<>();
+    requests.add(request);
+
+    if (requests.size() - 1 == failAtRequest) {
+      response.completeExceptionally(new IllegalStateException("boom"));
+      return response;
+    }
+
+    int size = request.get("size").asInt();
+    int from = request.has("after") ? request.get("after").get(0).asInt() : 0;
+    int to = Math.min(95, from + size);
+    List<Value> data = new ArrayList<>();
+
+    for (int i = from; i < to; i++)
+      data.add(SetExportSpec.element(i));
+
+    Map<String, Value> page = new HashMap<>();
+    page.put("data", new ArrayV(data));
+
+    if (from > 0)
+      page.put("before", new ArrayV(Collections.singletonList(new LongV(from))));
+
+    if (to < 95)
+      page.put("after", new ArrayV(Collections.singletonList(new LongV(to))));
+
+    response.complete(new RawSetExport.Page(body(new ObjectV(page)), TXN_TIME));
+    return response;
+  }
+
+  private ByteBuf body(Value resource) {
+    ByteBuf buf = Unpooled.buffer();
+
+    try (JsonGenerator gen = json.getFactory().createGenerator((OutputStream) new ByteBufOutputStream(buf))) {
+      gen.writeStartObject();
+      gen.writeFieldName("resource");
+      ValueWriter.write(gen, resource);
+      gen.writeEndObject();
+    } catch (IOException ex) {
+      throw new AssertionError(ex);
+    }
+
+    responses.add(buf);
+    return buf;
+  }
+
+  private void assertReleased() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+
+    for (ByteBuf response : responses) {
+      while (response.refCnt() > 0 && System.currentTimeMillis() < deadline)
+        Thread.sleep(1);
+
+      assertThat(response.refCnt(), is(0));
+    }
+  }
+
+  private List<Value> lines() throws IOException {
+    List<Value> lines = new ArrayList<>();
+
+    for (String line : new String(output.toByteArray(), StandardCharsets.UTF_8).split("\n"))
+      lines.add(json.readValue(line, Value.class));
+
+    return lines;
+  }
+
+}
@@ -2,7 +2,14 @@ package com.faunadb.client;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.faunadb.client.query.Expr;
+import com.faunadb.client.query.ExprCache;
+import com.faunadb.client.query.ExprModule;
+import com.faunadb.client.query.Pagination;
+import com.faunadb.client.query.PreparedQuery;
+import com.faunadb.client.types.FaunaEnum;
+import com.faunadb.client.types.FaunaField;
 import com.faunadb.client.types.Value;
 import com.faunadb.client.types.Value.*;
 import org.junit.Before;
@@ -12,22 +19,29 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 
 import static com.faunadb.client.query.Language.*;
 import static com.faunadb.client.query.Language.Collection;
 import static com.faunadb.client.query.Language.TimeUnit.*;
+import static com.faunadb.client.query.PreparedQuery.Param;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 public class SerializationSpec {
 
   private ObjectMapper json;
+  private ObjectMapper exprJson;
 
   @Before
   public void setUp() {
     json = new ObjectMapper();
+    exprJson = new ObjectMapper().registerModule(new ExprModule());
   }
 
   @Test
@@ -126,6 +140,17 @@ public class SerializationSpec {
       "{\"object\":{\"k1\":\"v1\",\"k2\":\"v2\"}}");
   }
 
+  @Test
+  public void shouldKeepTheLastValueOfARepeatedObjectKey() throws Exception {
+    assertJson(
+      Obj(
+        "k1", Value("v1"),
+        "k2", Value("v2"),
+        "k1", Value("v3")
+      ),
+      "{\"object\":{\"k1\":\"v3\",\"k2\":\"v2\"}}");
+  }
+
   @Test
   public void shouldSerializeRef() throws Exception {
     assertJson(Native.COLLECTIONS, "{\"@ref\":{\"id\":\"collections\"}}");
@@ -1480,8 +1505,225 @@ public class SerializationSpec {
     assertJson(Documents(Collection("foo")), "{\"documents\":{\"collection\":\"foo\"}}");
   }
 
+  @Test
+  public void shouldSerializeABoundPreparedQuery() throws Exception {
+    PreparedQuery query = PreparedQuery.prepare(
+      If(
+        Exists(Match(Index("users_by_email"), Param("email"))),
+        Get(Match(Index("users_by_email"), Param("email"))),
+        Create(Collection("users"), Obj("data", Obj("email", Param("email"), "tags", Arr(Param("tag"), Value(1)))))
+      )
+    );
+
+    assertThat(query.parameters(), equalTo(new LinkedHashSet<>(Arrays.asList("email", "tag"))));
+
+    Map<String, Expr> arguments = new LinkedHashMap<>();
+    arguments.put("email", Value("john@example.com"));
+    arguments.put("tag", Obj("kind", Value("new")));
+
+    assertJson(
+      query.bind(arguments),
+      "{\"if\":{\"exists\":{\"match\":{\"index\":\"users_by_email\"},\"terms\":\"john@example.com\"}}," +
+        "\"then\":{\"get\":{\"match\":{\"index\":\"users_by_email\"},\"terms\":\"john@example.com\"}}," +
+        "\"else\":{\"create\":{\"collection\":\"users\"},\"params\":{\"object\":{\"data\":{\"object\":" +
+        "{\"email\":\"john@example.com\",\"tags\":[{\"object\":{\"kind\":\"new\"}},1]}}}}}}");
+
+    assertJson(
+      Arr(query.bind(arguments), Value(2)),
+      "[" + json.writeValueAsString(query.bind(arguments)) + ",2]");
+  }
+
+  @Test
+  public void shouldBindAPreparedQueryWithoutParameters() throws Exception {
+    assertJson(
+      PreparedQuery.prepare(Get(Ref(Collection("users"), "1"))).bind(Collections.emptyMap()),
+      "{\"get\":{\"ref\":{\"collection\":\"users\"},\"id\":\"1\"}}");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectMissingQueryParameters() {
+    PreparedQuery.prepare(Get(Param("ref"))).bind(Collections.emptyMap());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectUnknownQueryParameters() {
+    PreparedQuery.prepare(Get(Param("ref"))).bind(Collections.singletonMap("other", Null()));
+  }
+
+  @Test(expected = JsonProcessingException.class)
+  public void shouldNotSerializeUnboundParameters() throws Exception {
+    exprJson.writeValueAsString(Get(Param("ref")));
+  }
+
+  @Test
+  public void shouldMemoizeImmutableSubexpressions() throws Exception {
+    ExprCache cache = new ExprCache(16);
+    ObjectWriter cached = exprJson.writer().withAttribute(ExprCache.class, cache);
+
+    Expr users = Collection("users");
+    Expr data = Obj("data", Obj("name", Value("John"), "tags", Arr(Value("a"), Value("b"))));
+
+    for (int i = 0; i < 3; i++) {
+      Expr query = Create(users, data);
+      assertThat(cached.writeValueAsString(query), equalTo(json.writeValueAsString(query)));
+    }
+
+    // The per iteration Create nodes are written once each, only the reused subexpressions are cached
+    assertThat(cache.size(), equalTo(2));
+  }
+
+  @Test
+  public void shouldNotMemoizeMutableExpressions() throws Exception {
+    ExprCache cache = new ExprCache(16);
+    ObjectWriter cached = exprJson.writer().withAttribute(ExprCache.class, cache);
+
+    Pagination page = Paginate(Collection("users"));
+    Expr query = Arr(page);
+
+    assertThat(cached.writeValueAsString(query), equalTo("[{\"paginate\":{\"collection\":\"users\"}}]"));
+    assertThat(cached.writeValueAsString(query), equalTo("[{\"paginate\":{\"collection\":\"users\"}}]"));
+
+    page.size(10);
+    assertThat(cached.writeValueAsString(query), equalTo("[{\"paginate\":{\"collection\":\"users\"},\"size\":10}]"));
+
+    // Only the immutable Collection("users") under the pagination is cached
+    assertThat(cache.size(), equalTo(1));
+  }
+
+  enum Status {
+    @FaunaEnum("on") ACTIVE,
+    INACTIVE
+  }
+
+  static class Item {
+    @FaunaField private final String name;
+    @FaunaField private final char grade;
+    @FaunaField private final float weight;
+    @FaunaField private final Status status;
+    @FaunaField private final byte[] checksum;
+    @FaunaField private final Instant createdAt;
+    @FaunaField private final LocalDate shipped;
+    @FaunaField private final Value ref;
+    @FaunaField private final Item parent;
+    @FaunaField private final List<Item> children;
+    @FaunaField private final Map<String, long[]> counters;
+
+    Item(String name, Item parent, List<Item> children) {
+      this.name = name;
+      this.grade = 'A';
+      this.weight = 1.5f;
+      this.status = Status.ACTIVE;
+      this.checksum = new byte[] {0x1, 0x2};
+      this.createdAt = Instant.ofEpochMilli(0);
+      this.shipped = LocalDate.ofEpochDay(0);
+      this.ref = new RefV("1", Native.COLLECTIONS);
+      this.parent = parent;
+      this.children = children;
+      this.counters = Collections.singletonMap("views", new long[] {1, 2});
+    }
+  }
+
+  static class Counted {
+    int reads;
+
+    @FaunaField
+    public String getName() {
+      reads++;
+      return "counted";
+    }
+  }
+
+  static class Node {
+    @FaunaField private final String name;
+    @FaunaField private Object next;
+
+    Node(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  @Test
+  public void shouldSerializeEncodedObjects() throws Exception {
+    Item leaf = new Item("leaf", null, Collections.emptyList());
+    Item root = new Item("root", null, Arrays.asList(leaf, null, leaf));
+
+    String item = "\"grade\":65,\"weight\":1.5,\"status\":\"on\",\"checksum\":{\"@bytes\":\"AQI=\"}," +
+      "\"createdAt\":{\"@ts\":\"1970-01-01T00:00:00Z\"},\"shipped\":{\"@date\":\"1970-01-01\"}," +
+      "\"ref\":{\"@ref\":{\"id\":\"1\",\"collection\":{\"@ref\":{\"id\":\"collections\"}}}},\"parent\":null,";
+    String counters = "\"counters\":{\"object\":{\"views\":[1,2]}}";
+    String leafJson = "{\"object\":{\"name\":\"leaf\"," + item + "\"children\":[]," + counters + "}}";
+
+    assertEncodedJson(Value(root),
+      "{\"object\":{\"name\":\"root\"," + item + "\"children\":[" + leafJson + ",null," + leafJson + "]," + counters + "}}");
+    assertEncodedJson(Create(Collection("items"), Obj("data", Value(Collections.singletonMap("item", leaf)))),
+      "{\"create\":{\"collection\":\"items\"},\"params\":{\"object\":{\"data\":" +
+        "{\"object\":{\"item\":" + leafJson + "}}}}}");
+  }
+
+  @Test
+  public void shouldEncodeObjectsWhenSerialized() throws Exception {
+    List<String> tags = new java.util.ArrayList<>(Arrays.asList("a", "b"));
+    Expr expr = Value(tags);
+
+    tags.add("c");
+
+    assertThat(exprJson.writeValueAsString(expr), equalTo("[\"a\",\"b\",\"c\"]"));
+    assertThat(expr, equalTo(Value(Arrays.asList("a", "b", "c"))));
+    assertThat(expr.toString(), equalTo("LazyValue([\"a\", \"b\", \"c\"])"));
+  }
+
+  @Test
+  public void shouldEncodeObjectsOnceWhenComparedOrHashed() {
+    Counted counted = new Counted();
+    Expr expr = Value(counted);
+
+    assertThat(expr.hashCode(), equalTo(expr.hashCode()));
+    assertThat(expr, equalTo(Value(new Counted())));
+    assertThat(expr.hashCode(), equalTo(Value(new Counted()).hashCode()));
+    assertThat(counted.reads, equalTo(1));
+  }
+
+  @Test
+  public void shouldDetectReferenceLoopsWhenSerializing() throws Exception {
+    Node head = new Node("head");
+    Node tail = new Node("tail");
+    head.next = Arrays.asList(tail);
+    tail.next = Collections.singletonMap("head", head);
+
+    try {
+      exprJson.writeValueAsString(Obj("data", Value(head)));
+      throw new AssertionError("Expected a reference loop to be detected");
+    } catch (JsonProcessingException ex) {
+      assertThat(ex.getMessage(), containsString(
+        "Could not encode field \"next\". Reason: Could not encode field \"next\". " +
+          "Reason: Self reference loop detected for object \"head\""));
+    }
+
+    // Shared objects are not loops
+    tail.next = null;
+    assertEncodedJson(Value(Arrays.asList(tail, tail)),
+      "[{\"object\":{\"name\":\"tail\",\"next\":null}},{\"object\":{\"name\":\"tail\",\"next\":null}}]");
+  }
+
+  // Properties of user defined classes are written in no particular order
+  private void assertEncodedJson(Expr expr, String jsonString) throws JsonProcessingException {
+    assertThat(json.readTree(json.writeValueAsString(expr)),
+      equalTo(json.readTree(jsonString)));
+
+    assertThat(exprJson.writeValueAsBytes(expr),
+      equalTo(json.writeValueAsBytes(expr)));
+  }
+
   private void assertJson(Expr expr, String jsonString) throws JsonProcessingException {
     assertThat(json.writeValueAsString(expr),
       equalTo(jsonString));
+
+    assertThat(exprJson.writeValueAsBytes(expr),
+      equalTo(json.writeValueAsBytes(expr)));
   }
 }
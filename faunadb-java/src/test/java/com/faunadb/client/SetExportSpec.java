@@ -0,0 +1,248 @@
+package com.faunadb.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.faunadb.client.query.Pagination;
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.ArrayV;
+import com.faunadb.client.types.Value.LongV;
+import com.faunadb.client.types.Value.Native;
+import com.faunadb.client.types.Value.ObjectV;
+import com.faunadb.client.types.Value.RefV;
+import com.faunadb.client.types.Value.StringV;
+import com.faunadb.client.types.Value.TimeV;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.faunadb.client.query.Language.*;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SetExportSpec {
+
+  private static final long TXN_TIME = 1574870400000000L;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final ObjectMapper json = new ObjectMapper();
+  private final List<JsonNode> requests = new ArrayList<>();
+  private int failAtRequest = -1;
+  private boolean advanceTxnTime;
+
+  @Test
+  public void shouldExportAllElements() throws Exception {
+    Path output = folder.getRoot().toPath().resolve("spells.ndjson");
+    Path checkpoint = folder.getRoot().toPath().resolve("spells.checkpoint");
+
+    long rows = export(output, checkpoint).checkpointEvery(3).bufferSize(100).run().join();
+
+    assertThat(rows, is(95L));
+    assertThat(lines(output), equalTo(expectedLines(95)));
+    assertThat(json.readTree(checkpoint.toFile()).get("done").asBoolean(), is(true));
+
+    requests.clear();
+    assertThat(export(output, checkpoint).run().join(), is(95L));
+    assertThat(requests.size(), is(0));
+    assertThat(lines(output), equalTo(expectedLines(95)));
+  }
+
+  @Test
+  public void shouldResumeFromTheLastCheckpoint() throws Exception {
+    Path output = folder.getRoot().toPath().resolve("spells.ndjson");
+    Path checkpoint = folder.getRoot().toPath().resolve("spells.checkpoint");
+
+    // Pages 1 to 4 are written and the checkpoint is saved after page 3, then fetching page 5 fails
+    failAtRequest = 4;
+
+    try {
+      export(output, checkpoint).checkpointEvery(3).run().join();
+      throw new AssertionError("completed without the error");
+    } catch (CompletionException ex) {
+      assertThat(ex.getCause(), instanceOf(IllegalStateException.class));
+    }
+
+    // Lines written after the checkpoint, as if the process stopped in the middle of a page
+    Files.write(output, "{\"ref\":{\"@ref\":{\"id\":\"30".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+    JsonNode saved = json.readTree(checkpoint.toFile());
+    assertThat(saved.get("rows").asLong(), is(30L));
+    assertThat(saved.get("ts").asLong(), is(TXN_TIME));
+
+    failAtRequest = -1;
+    requests.clear();
+
+    long rows = export(output, checkpoint).checkpointEvery(3).prefetch(2).run().join();
+
+    assertThat(rows, is(95L));
+    assertThat(lines(output), equalTo(expectedLines(95)));
+    assertThat(requests.get(0).get("after").get(0).asLong(), is(30L));
+    assertThat(requests.get(0).get("ts").asLong(), is(TXN_TIME));
+  }
+
+  @Test
+  public void shouldKeepTheFirstSnapshotAcrossResumes() throws Exception {
+    Path output = folder.getRoot().toPath().resolve("spells.ndjson");
+    Path checkpoint = folder.getRoot().toPath().resolve("spells.checkpoint");
+
+    // Each response has a later transaction time than the previous one
+    advanceTxnTime = true;
+
+    for (int run = 0; run < 2; run++) {
+      failAtRequest = 4;
+      requests.clear();
+
+      try {
+        export(output, checkpoint).checkpointEvery(3).run().join();
+        throw new AssertionError("completed without the error");
+      } catch (CompletionException ex) {
+        assertThat(ex.getCause(), instanceOf(IllegalStateException.class));
+      }
+
+      assertThat(json.readTree(checkpoint.toFile()).get("ts").asLong(), is(TXN_TIME + 1));
+    }
+
+    failAtRequest = -1;
+    requests.clear();
+
+    assertThat(export(output, checkpoint).checkpointEvery(3).run().join(), is(95L));
+    assertThat(lines(output), equalTo(expectedLines(95)));
+
+    for (JsonNode request : requests)
+      assertThat(request.get("ts").asLong(), is(TXN_TIME + 1));
+
+    JsonNode saved = json.readTree(checkpoint.toFile());
+    assertThat(saved.get("ts").asLong(), is(TXN_TIME + 1));
+    assertThat(saved.get("done").asBoolean(), is(true));
+  }
+
+  @Test
+  public void shouldMarkTheExportDoneWhenResumedAfterTheLastPage() throws Exception {
+    Path output = folder.getRoot().toPath().resolve("spells.ndjson");
+    Path checkpoint = folder.getRoot().toPath().resolve("spells.checkpoint");
+
+    export(output, checkpoint).run().join();
+
+    // As if the process stopped after checkpointing the last page, before marking the export as done
+    ObjectNode saved = (ObjectNode) json.readTree(checkpoint.toFile());
+    saved.remove("done");
+    saved.set("cursor", json.readTree("{\"before\":[90]}"));
+    json.writeValue(checkpoint.toFile(), saved);
+
+    requests.clear();
+
+    assertThat(export(output, checkpoint).run().join(), is(95L));
+    assertThat(requests.size(), is(0));
+    assertThat(lines(output), equalTo(expectedLines(95)));
+    assertThat(json.readTree(checkpoint.toFile()).get("done").asBoolean(), is(true));
+  }
+
+  @Test
+  public void shouldRejectCheckpointsOfOtherExports() throws Exception {
+    Path output = folder.getRoot().toPath().resolve("spells.ndjson");
+    Path checkpoint = folder.getRoot().toPath().resolve("spells.checkpoint");
+
+    export(output, checkpoint).run().join();
+
+    try {
+      new SetExport(Paginate(Match(Index("all_spells"))).size(5), output, checkpoint,
+        pagination -> new PageIterator(pagination, this::fetch, null)).run().join();
+
+      throw new AssertionError("resumed from the checkpoint of another export");
+    } catch (CompletionException ex) {
+      assertThat(ex.getCause(), instanceOf(IllegalStateException.class));
+    }
+  }
+
+  private SetExport export(Path output, Path checkpoint) {
+    return new SetExport(Paginate(Match(Index("all_spells"))).size(10), output, checkpoint,
+      pagination -> new PageIterator(pagination, this::fetch, null));
+  }
+
+  // Pages over 95 elements, whose cursors are their positions
+  private CompletableFuture<PageIterator.Response> fetch(Pagination pagination) {
+    JsonNode request = json.valueToTree(pagination);
+    CompletableFuture<PageIterator.Response> response = new CompletableFuture<>();
+
+    if (requests.size() == failAtRequest) {
+      requests.add(request);
+      response.completeExceptionally(new IllegalStateException("boom"));
+      return response;
+    }
+
+    requests.add(request);
+
+    int size = request.get("size").asInt();
+    int from = request.has("after") ? request.get("after").get(0).asInt() : 0;
+    int to = Math.min(95, from + size);
+    List<Value> data = new ArrayList<>();
+
+    for (int i = from; i < to; i++)
+      data.add(element(i));
+
+    Map<String, Value> page = new HashMap<>();
+    page.put("data", new ArrayV(data));
+
+    if (from > 0)
+      page.put("before", new ArrayV(Collections.singletonList(new LongV(from))));
+
+    if (to < 95)
+      page.put("after", new ArrayV(Collections.singletonList(new LongV(to))));
+
+    long txnTime = advanceTxnTime ? TXN_TIME + requests.size() : TXN_TIME;
+    response.complete(new PageIterator.Response(new ObjectV(page), txnTime, 100));
+    return response;
+  }
+
+  // Shared with RawSetExportSpec, which exports the same pages
+  static Value element(int i) {
+    Map<String, Value> data = new HashMap<>();
+    data.put("name", new StringV("spell " + i));
+    data.put("@cost", new LongV(i));
+
+    Map<String, Value> element = new HashMap<>();
+    element.put("ref", new RefV(String.valueOf(i), Native.COLLECTIONS));
+    element.put("ts", new TimeV(Instant.ofEpochSecond(i)));
+    element.put("data", new ObjectV(data));
+    element.put("tags", new ArrayV(Arrays.<Value>asList(new StringV("fire"), new ObjectV(data))));
+    return new ObjectV(element);
+  }
+
+  static List<Value> expectedLines(int count) {
+    List<Value> lines = new ArrayList<>();
+
+    for (int i = 0; i < count; i++)
+      lines.add(element(i));
+
+    return lines;
+  }
+
+  private List<Value> lines(Path file) throws IOException {
+    List<Value> lines = new ArrayList<>();
+
+    for (String line : Files.readAllLines(file, StandardCharsets.UTF_8))
+      lines.add(json.readValue(line, Value.class));
+
+    return lines;
+  }
+
+}
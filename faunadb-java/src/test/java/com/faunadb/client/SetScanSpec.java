@@ -0,0 +1,202 @@
+package com.faunadb.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.faunadb.client.query.Expr;
+import com.faunadb.client.query.Pagination;
+import com.faunadb.client.types.Value;
+import com.faunadb.client.types.Value.ArrayV;
+import com.faunadb.client.types.Value.LongV;
+import com.faunadb.client.types.Value.ObjectV;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.faunadb.client.query.Language.*;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.containsString;
+
+public class SetScanSpec {
+
+  private static final long TXN_TIME = 1574870400000000L;
+
+  private final ObjectMapper json = new ObjectMapper();
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+  private final ConcurrentLinkedQueue<JsonNode> requests = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  // The entries of an index with two values, [cost, id], with ten ids per cost
+  private final List<Value> entries = new ArrayList<>();
+
+  {
+    for (long cost = 0; cost < 50; cost++)
+      for (long id = 0; id < 10; id++)
+        entries.add(new ArrayV(Arrays.<Value>asList(new LongV(cost), new LongV(id))));
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldScanAllElementsOnceWithBoundedConcurrency() {
+    List<Value> scanned = Collections.synchronizedList(new ArrayList<>());
+
+    scan(Value(10), Value(20), Value(25), Value(40))
+      .size(7)
+      .concurrency(3)
+      .forEach(scanned::add)
+      .join();
+
+    assertThat(scanned.size(), is(entries.size()));
+    assertThat(new HashSet<>(scanned), equalTo(new HashSet<>(entries)));
+    assertThat(maxInFlight.get(), lessThanOrEqualTo(3));
+  }
+
+  @Test
+  public void shouldScanInOrder() {
+    List<Value> scanned = new ArrayList<>();
+
+    scan(Value(10), Value(20), Value(25), Value(40))
+      .size(7)
+      .concurrency(4)
+      .buffer(2)
+      .ordered(true)
+      .forEach(scanned::add)
+      .join();
+
+    assertThat(scanned, equalTo(entries));
+  }
+
+  @Test
+  public void shouldReadAllPartitionsAtTheFirstSnapshot() {
+    scan(Value(10), Value(20)).size(7).concurrency(3).forEach(element -> {}).join();
+
+    List<JsonNode> all = new ArrayList<>(requests);
+    assertThat(all.get(0).has("ts"), is(false));
+
+    for (JsonNode request : all.subList(1, all.size()))
+      assertThat(request.get("ts").asLong(), is(TXN_TIME));
+  }
+
+  @Test
+  public void shouldPaginateRangesOfTheSet() throws Exception {
+    List<Pagination> partitions = scan(Value(10), Value(20)).size(100).ts(42L).partitions();
+    List<String> serialized = new ArrayList<>();
+
+    for (Pagination partition : partitions)
+      serialized.add(json.writeValueAsString(partition));
+
+    assertThat(serialized, equalTo(Arrays.asList(
+      "{\"paginate\":{\"range\":{\"match\":{\"index\":\"spells_by_cost\"}},\"from\":[],\"to\":10},\"ts\":42,\"size\":100}",
+      "{\"paginate\":{\"range\":{\"match\":{\"index\":\"spells_by_cost\"}},\"from\":10,\"to\":20},\"ts\":42,\"size\":100}",
+      "{\"paginate\":{\"range\":{\"match\":{\"index\":\"spells_by_cost\"}},\"from\":20,\"to\":[]},\"ts\":42,\"size\":100}"
+    )));
+  }
+
+  @Test
+  public void shouldFailWithTheFirstError() {
+    SetScan scan = scan(Value(10), Value(20)).size(7).concurrency(2);
+
+    try {
+      scan.forEach(element -> {
+        if (element.equals(entries.get(30)))
+          throw new IllegalStateException("boom");
+      }).join();
+
+      throw new AssertionError("completed without the error");
+    } catch (CompletionException ex) {
+      assertThat(ex.getCause().getMessage(), equalTo("boom"));
+    }
+  }
+
+  @Test
+  public void shouldRejectBoundsThatAreNotValues() {
+    try {
+      scan(Add(Value(1), Value(2)));
+      throw new AssertionError("accepted an expression as bound");
+    } catch (IllegalArgumentException ex) {
+      assertThat(ex.getMessage(), containsString("Scan bounds must be values"));
+    }
+  }
+
+  private SetScan scan(Expr... bounds) {
+    return new SetScan(Match(Index("spells_by_cost")), Arrays.asList(bounds),
+      pagination -> new PageIterator(pagination, this::fetch, null));
+  }
+
+  // Paginates the entries as FaunaDB would, with inclusive Range bounds and after cursors
+  private CompletableFuture<PageIterator.Response> fetch(Pagination pagination) {
+    JsonNode request = json.valueToTree(pagination);
+    requests.add(request);
+
+    return CompletableFuture.supplyAsync(() -> {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+      try {
+        Thread.sleep(1);
+      } catch (InterruptedException ex) {
+        throw new CompletionException(ex);
+      }
+
+      JsonNode range = request.get("paginate");
+      int size = request.get("size").asInt();
+      List<Value> data = new ArrayList<>();
+      Value after = null;
+
+      for (Value entry : entries) {
+        long cost = entry.at(0).to(Long.class).get();
+        long id = entry.at(1).to(Long.class).get();
+
+        if (!range.get("from").isArray() && cost < range.get("from").asLong())
+          continue;
+
+        if (!range.get("to").isArray() && cost > range.get("to").asLong())
+          continue;
+
+        if (request.has("after")) {
+          JsonNode cursor = request.get("after");
+          long afterCost = cursor.get(0).asLong();
+
+          if (cost < afterCost || cost == afterCost && id < cursor.get(1).asLong())
+            continue;
+        }
+
+        if (data.size() == size) {
+          after = entry;
+          break;
+        }
+
+        data.add(entry);
+      }
+
+      Map<String, Value> page = new HashMap<>();
+      page.put("data", new ArrayV(data));
+
+      if (after != null)
+        page.put("after", after);
+
+      inFlight.decrementAndGet();
+      return new PageIterator.Response(new ObjectV(page), TXN_TIME, 100);
+    }, executor);
+  }
+
+}
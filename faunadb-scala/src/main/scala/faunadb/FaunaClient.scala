@@ -7,13 +7,13 @@ import com.fasterxml.jackson.module.scala.DefaultScalaModule
 import com.faunadb.common.Connection
 import com.faunadb.common.Connection.JvmDriver
 import faunadb.errors._
-import faunadb.query.Expr
+import faunadb.query.{ Expr, PreparedQuery }
 import faunadb.values.{ ArrayV, NullV, Value }
 import java.io.IOException
 import java.net.ConnectException
-import java.util.concurrent.TimeoutException
+import java.util.concurrent.{ CompletableFuture, TimeoutException }
 
-import io.netty.buffer.ByteBufInputStream
+import io.netty.buffer.{ ByteBufInputStream, ByteBufOutputStream, Unpooled }
 import io.netty.handler.codec.http.FullHttpResponse
 
 import scala.collection.JavaConverters._
@@ -137,6 +137,45 @@ class FaunaClient private (connection: Connection) {
   def query(expr: Expr, timeout: Option[FiniteDuration])(implicit ec: ExecutionContext): Future[Value] =
     performRequest(json.valueToTree(expr), timeout)
 
+  /**
+    * Issues a prepared query. Only the parameter values are serialized; the rest of the request body
+    * is copied from the fragments serialized when the query was prepared.
+    *
+    * @param query the prepared query to run.
+    * @param arguments the parameter values, keyed by parameter name.
+    * @param ec the `ExecutionContext` used to run the query asynchronously.
+    * @return A [[scala.concurrent.Future]] containing the query result.
+    * @throws IllegalArgumentException if a parameter is missing or unknown
+    */
+  def query(query: PreparedQuery, arguments: Map[String, Expr])(implicit ec: ExecutionContext): Future[Value] =
+    this.query(query, arguments, None)
+
+  /**
+    * Issues a prepared query. Only the parameter values are serialized; the rest of the request body
+    * is copied from the fragments serialized when the query was prepared.
+    *
+    * @param query the prepared query to run.
+    * @param arguments the parameter values, keyed by parameter name.
+    * @param timeout the timeout for the current query. It replaces the timeout value set for this
+    *                [[faunadb.FaunaClient]] if any for the scope of this query. The timeout value has
+    *                milliseconds precision.
+    * @param ec the `ExecutionContext` used to run the query asynchronously.
+    * @return A [[scala.concurrent.Future]] containing the query result.
+    * @throws IllegalArgumentException if a parameter is missing or unknown
+    */
+  def query(query: PreparedQuery, arguments: Map[String, Expr], timeout: Option[FiniteDuration])(implicit ec: ExecutionContext): Future[Value] = {
+    val body = Unpooled.buffer()
+
+    try query.writeTo(new ByteBufOutputStream(body), arguments, json)
+    catch {
+      case NonFatal(e) =>
+        body.release()
+        throw e
+    }
+
+    performRequest(connection.post("", body, timeout.map(_.toJava).asJava))
+  }
+
   /**
     * Issues multiple queries as a single transaction.
     *
@@ -187,9 +226,11 @@ class FaunaClient private (connection: Connection) {
       result.asInstanceOf[ArrayV].elems
     }
 
-  private def performRequest(body: JsonNode, timeout: Option[FiniteDuration])(implicit ec: ExecutionContext): Future[Value] = {
-    val javaTimeout = timeout.map(_.toJava).asJava
-    val response: Future[FullHttpResponse] = connection.post("", body, javaTimeout).toScala
+  private def performRequest(body: JsonNode, timeout: Option[FiniteDuration])(implicit ec: ExecutionContext): Future[Value] =
+    performRequest(connection.post("", body, timeout.map(_.toJava).asJava))
+
+  private def performRequest(request: CompletableFuture[FullHttpResponse])(implicit ec: ExecutionContext): Future[Value] = {
+    val response: Future[FullHttpResponse] = request.toScala
 
     response
       .flatMap {
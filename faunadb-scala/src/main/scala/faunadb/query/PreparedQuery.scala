@@ -0,0 +1,108 @@
+package faunadb.query
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.module.scala.DefaultScalaModule
+import faunadb.values.StringV
+import java.io.OutputStream
+import java.nio.charset.StandardCharsets.UTF_8
+import java.util.UUID
+import scala.collection.mutable.ArrayBuffer
+
+/**
+  * A query expression serialized ahead of time, with named parameters to be bound on every execution.
+  *
+  * Queries sent over and over with different arguments can be prepared once. The static parts of the
+  * expression are serialized to JSON when the query is prepared, so sending it with
+  * [[faunadb.FaunaClient!.query(query:faunadb\.query\.PreparedQuery,arguments:Map[String,faunadb\.query\.Expr])*]]
+  * only serializes the parameter values and splices them between the pre-serialized fragments.
+  * Prepared queries are immutable and can be shared across threads.
+  *
+  * ===Example===
+  *
+  * {{{
+  * val getUser = PreparedQuery(Get(Match(Index("users_by_email"), PreparedQuery.Param("email"))))
+  *
+  * client.query(getUser, Map("email" -> ("john@example.com": Expr)))
+  * }}}
+  */
+final class PreparedQuery private (fragments: Array[Array[Byte]], names: Array[String]) {
+
+  /** The names of the parameters declared in this query, in order of first appearance. */
+  val parameters: Seq[String] = names.distinct.toVector
+
+  // The index in parameters of the parameter of each placeholder
+  private[this] val slots: Array[Int] = names.map(parameters.indexOf(_))
+
+  /**
+    * Writes the request body of this query with the arguments provided.
+    *
+    * @throws IllegalArgumentException if a parameter is missing or unknown
+    */
+  private[faunadb] def writeTo(out: OutputStream, arguments: Map[String, Expr], json: ObjectMapper): Unit = {
+    val unknown = arguments.keySet -- parameters
+    require(unknown.isEmpty, s"Unknown query parameters: ${unknown.mkString(", ")}")
+
+    val missing = parameters.filterNot(arguments.contains)
+    require(missing.isEmpty, s"Missing values for query parameters: ${missing.mkString(", ")}")
+
+    // Each argument is serialized once, however many times its parameter is used
+    val values = parameters.map(name => json.writeValueAsBytes(arguments(name))).toArray
+
+    out.write(fragments(0))
+
+    var i = 0
+    while (i < slots.length) {
+      out.write(values(slots(i)))
+      out.write(fragments(i + 1))
+      i += 1
+    }
+  }
+}
+
+object PreparedQuery {
+
+  private[this] val json = new ObjectMapper
+  json.registerModule(new DefaultScalaModule)
+
+  private[this] val NamePattern = "[A-Za-z0-9_]+".r
+
+  // Placeholders are string values tagged with a per process marker, which user data can not guess.
+  private[this] val Marker = s"\u0000faunadb-param-${UUID.randomUUID}:"
+  private[this] val EncodedMarker = json.writeValueAsString(Marker).dropRight(1)
+
+  /**
+    * Creates a named placeholder to be used inside an expression passed to [[PreparedQuery.apply]].
+    * The same parameter can be used more than once in an expression.
+    *
+    * @param name the parameter name. Must contain only letters, digits or underscores.
+    */
+  def Param(name: String): Expr = name match {
+    case NamePattern() => Expr(StringV(Marker + name))
+    case _             => throw new IllegalArgumentException(s"Invalid parameter name: $name")
+  }
+
+  /**
+    * Prepares the expression provided, serializing everything but its parameters.
+    *
+    * @param expr the expression to prepare, containing placeholders created with [[PreparedQuery.Param]]
+    */
+  def apply(expr: Expr): PreparedQuery = {
+    val body = json.writeValueAsString(expr)
+    val fragments = ArrayBuffer.empty[Array[Byte]]
+    val names = ArrayBuffer.empty[String]
+
+    var offset = 0
+    var start = body.indexOf(EncodedMarker)
+
+    while (start >= 0) {
+      val end = body.indexOf('"', start + EncodedMarker.length)
+      fragments += body.substring(offset, start).getBytes(UTF_8)
+      names += body.substring(start + EncodedMarker.length, end)
+      offset = end + 1
+      start = body.indexOf(EncodedMarker, offset)
+    }
+
+    fragments += body.substring(offset).getBytes(UTF_8)
+    new PreparedQuery(fragments.toArray, names.toArray)
+  }
+}
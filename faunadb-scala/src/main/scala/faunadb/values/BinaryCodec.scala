@@ -0,0 +1,179 @@
+package faunadb.values
+
+import com.faunadb.common.binary.{ BinaryReader, BinaryWriter }
+import com.faunadb.common.binary.BinaryFormat._
+import io.netty.buffer.{ ByteBuf, Unpooled }
+import java.nio.ByteBuffer
+import java.time.{ Instant, LocalDate }
+
+/**
+  * Converts [[faunadb.values.Value]] trees to and from a compact, versioned binary format.
+  *
+  * The binary format is intended for caching query results and exchanging them between JVM
+  * processes. It avoids the text encoding of the FaunaDB wire JSON, writes [[BytesV]] as raw
+  * bytes and writes each distinct object key only once per message. The same format is
+  * produced and consumed by the Java driver.
+  *
+  * {{{
+  * val cached: Array[Byte] = BinaryCodec.toBytes(result)
+  *
+  * // later on, possibly in another process
+  * val value: Value = BinaryCodec.fromBytes(cached)
+  * }}}
+  */
+object BinaryCodec {
+
+  /** Encodes a value into a new byte array. */
+  def toBytes(value: Value): Array[Byte] = {
+    val buf = Unpooled.buffer()
+    try {
+      write(value, buf)
+      val bytes = new Array[Byte](buf.readableBytes())
+      buf.readBytes(bytes)
+      bytes
+    } finally {
+      buf.release()
+    }
+  }
+
+  /** Decodes a value from a byte array produced by [[toBytes]]. */
+  def fromBytes(bytes: Array[Byte]): Value = read(ByteBuffer.wrap(bytes))
+
+  /** Appends an encoded value to the buffer provided. */
+  def write(value: Value, out: ByteBuf): Unit = write(value, BinaryWriter.of(out))
+
+  /** Writes an encoded value at the current position of the buffer provided. */
+  def write(value: Value, out: ByteBuffer): Unit = write(value, BinaryWriter.of(out))
+
+  /** Reads the next encoded value from the buffer provided. */
+  def read(in: ByteBuf): Value = read(BinaryReader.of(in))
+
+  /** Reads the next encoded value from the buffer provided. */
+  def read(in: ByteBuffer): Value = read(BinaryReader.of(in))
+
+  private def write(value: Value, out: BinaryWriter): Unit = {
+    out.writeHeader()
+    writeValue(value, out)
+  }
+
+  private def read(in: BinaryReader): Value = {
+    in.readHeader()
+    readValue(in.readByte(), in)
+  }
+
+  private def writeValue(value: Value, out: BinaryWriter): Unit =
+    value match {
+      case NullV =>
+        out.writeByte(NULL)
+      case ObjectV(fields) =>
+        out.writeByte(OBJECT)
+        out.writeVarLong(fields.size)
+        fields foreach { case (k, v) =>
+          out.writeKey(k)
+          writeValue(v, out)
+        }
+      case ArrayV(elems) =>
+        out.writeByte(ARRAY)
+        out.writeVarLong(elems.size)
+        elems foreach { writeValue(_, out) }
+      case StringV(s) =>
+        out.writeByte(STRING)
+        out.writeString(s)
+      case LongV(l) =>
+        out.writeByte(LONG)
+        out.writeSignedVarLong(l)
+      case DoubleV(d) =>
+        out.writeByte(DOUBLE)
+        out.writeDouble(d)
+      case BooleanV(b) =>
+        out.writeByte(if (b) TRUE else FALSE)
+      case ref: RefV =>
+        writeRef(ref, out)
+      case TimeV(instant) =>
+        out.writeByte(TIME)
+        out.writeSignedVarLong(instant.getEpochSecond)
+        out.writeVarLong(instant.getNano)
+      case DateV(date) =>
+        out.writeByte(DATE)
+        out.writeSignedVarLong(date.toEpochDay)
+      case BytesV(bytes) =>
+        out.writeByte(BYTES)
+        out.writeBytes(bytes)
+      case SetRefV(parameters) =>
+        out.writeByte(SET)
+        writeValue(parameters, out)
+      case QueryV(lambda) =>
+        out.writeByte(QUERY)
+        writeValue(lambda, out)
+    }
+
+  private def writeRef(ref: RefV, out: BinaryWriter): Unit = {
+    out.writeByte(REF)
+    out.writeString(ref.id)
+    out.writeByte(
+      (if (ref.collection.isDefined) REF_HAS_COLLECTION else 0) |
+      (if (ref.database.isDefined) REF_HAS_DATABASE else 0))
+
+    ref.collection foreach { writeRef(_, out) }
+    ref.database foreach { writeRef(_, out) }
+  }
+
+  private def readValue(tag: Int, in: BinaryReader): Value =
+    tag match {
+      case NULL   => NullV
+      case TRUE   => TrueV
+      case FALSE  => FalseV
+      case LONG   => LongV(in.readSignedVarLong())
+      case DOUBLE => DoubleV(in.readDouble())
+      case STRING => StringV(in.readString())
+      case BYTES  => BytesV(in.readBytes())
+      case TIME   =>
+        val seconds = in.readSignedVarLong()
+        TimeV(Instant.ofEpochSecond(seconds, in.readVarLong()))
+      case DATE   => DateV(LocalDate.ofEpochDay(in.readSignedVarLong()))
+      case REF    => readRef(in)
+      case SET    => SetRefV(readValue(in.readByte(), in))
+      case QUERY  =>
+        expect(OBJECT, in)
+        QueryV(readObject(in))
+      case ARRAY  =>
+        val size = in.readLength()
+        val b = Vector.newBuilder[Value]
+        b.sizeHint(size)
+        for (_ <- 0 until size) b += readValue(in.readByte(), in)
+        ArrayV(b.result)
+      case OBJECT => readObject(in)
+      case _      => throw new IllegalArgumentException(s"Unknown value tag: $tag")
+    }
+
+  private def readObject(in: BinaryReader): ObjectV = {
+    val size = in.readLength()
+    val b = Map.newBuilder[String, Value]
+    for (_ <- 0 until size) {
+      val key = in.readKey()
+      b += (key -> readValue(in.readByte(), in))
+    }
+    ObjectV(b.result)
+  }
+
+  private def readRef(in: BinaryReader): RefV = {
+    val id = in.readString()
+    val flags = in.readByte()
+
+    val collection = if ((flags & REF_HAS_COLLECTION) != 0) Some(readNestedRef(in)) else None
+    val database = if ((flags & REF_HAS_DATABASE) != 0) Some(readNestedRef(in)) else None
+
+    if (collection.isEmpty && database.isEmpty) Native.fromName(id) else RefV(id, collection, database)
+  }
+
+  private def readNestedRef(in: BinaryReader): RefV = {
+    expect(REF, in)
+    readRef(in)
+  }
+
+  private def expect(expected: Int, in: BinaryReader): Unit = {
+    val tag = in.readByte()
+    if (tag != expected)
+      throw new IllegalArgumentException(s"Expected value tag $expected but found $tag")
+  }
+}
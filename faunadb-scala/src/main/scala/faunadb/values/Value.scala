@@ -2,12 +2,12 @@ package faunadb.values
 
 import java.nio.ByteBuffer
 import java.time.{ Instant, LocalDate }
-import java.time.format.DateTimeFormatter.ISO_OFFSET_DATE_TIME
 import java.util.Base64;
 
 import com.fasterxml.jackson.annotation._
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize
 import com.fasterxml.jackson.databind.node.NullNode
+import com.faunadb.common.time.Iso8601
 import faunadb.jackson._
 import scala.annotation.meta.{ field, getter, param }
 
@@ -191,21 +191,21 @@ case class SetRefV(@JsonProperty("@set") parameters: Value) extends ScalarValue(
 /** A Timestamp value. */
 case class TimeV(@(JsonIgnore @param @field @getter) toInstant: Instant) extends ScalarValue("Time") {
   @JsonProperty("@ts")
-  val strValue = toInstant.toString
+  lazy val strValue = Iso8601.format(toInstant)
   override def toString = strValue
 }
 object TimeV {
-  def apply(value: String): TimeV = TimeV(Instant.from(ISO_OFFSET_DATE_TIME.parse(value)))
+  def apply(value: String): TimeV = TimeV(Iso8601.parseInstant(value))
 }
 
 /** A Date value. */
 case class DateV(@(JsonIgnore @param @field @getter) localDate: LocalDate) extends ScalarValue("Date") {
   @JsonProperty("@date")
-  val strValue = localDate.toString
+  lazy val strValue = Iso8601.format(localDate)
   override def toString = strValue
 }
 object DateV {
-  def apply(value: String): DateV = DateV(LocalDate.parse(value))
+  def apply(value: String): DateV = DateV(Iso8601.parseDate(value))
 }
 
 case class BytesV(@(JsonIgnore @param @field @getter) bytes: Array[Byte]) extends ScalarValue("Bytes") {
@@ -0,0 +1,67 @@
+package faunadb
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import faunadb.values._
+import io.netty.buffer.Unpooled
+import java.nio.ByteBuffer
+import java.time.{ Instant, LocalDate }
+import org.scalatest.{ FlatSpec, Matchers }
+
+class BinaryCodecSpec extends FlatSpec with Matchers {
+  val json = new ObjectMapper()
+
+  def roundTrip(value: Value): Value = BinaryCodec.fromBytes(BinaryCodec.toBytes(value))
+
+  "Binary codec" should "round trip scalar values" in {
+    val values = Seq(
+      StringV("a string"), LongV(Long.MaxValue), LongV(Long.MinValue), LongV(-1), DoubleV(3.14),
+      TrueV, FalseV, NullV,
+      TimeV(Instant.parse("2019-11-29T10:15:30.123456789Z")),
+      DateV(LocalDate.of(1969, 12, 31)),
+      BytesV(0x1, 0x2, 0xff))
+
+    values foreach { v => roundTrip(v) shouldBe v }
+  }
+
+  it should "round trip refs" in {
+    val ref = RefV("123", RefV("spells", Native.Collections), RefV("db", Native.Databases))
+    roundTrip(ref) shouldBe ref
+    roundTrip(Native.Indexes) should be theSameInstanceAs Native.Indexes
+  }
+
+  it should "round trip containers and special values" in {
+    val value = json.readValue("""{
+      "data": [{"name": "fireball", "elements": ["fire", "air"], "cost": 10}, {"name": "frostbolt", "cost": 12.5}],
+      "set": {"@set": {"match": {"@ref": {"id": "spells_by_element", "collection": {"@ref": {"id": "indexes"}}}}, "terms": "fire"}},
+      "lambda": {"@query": {"lambda": "x", "expr": {"add": [1, {"var": "x"}]}}},
+      "empty": {}
+    }""", classOf[Value])
+
+    roundTrip(value) shouldBe value
+  }
+
+  it should "stream consecutive values" in {
+    val buf = Unpooled.buffer()
+    try {
+      BinaryCodec.write(StringV("first"), buf)
+      BinaryCodec.write(LongV(2), buf)
+
+      BinaryCodec.read(buf) shouldBe StringV("first")
+      BinaryCodec.read(buf) shouldBe LongV(2)
+      buf.readableBytes() shouldBe 0
+    } finally {
+      buf.release()
+    }
+
+    val buffer = ByteBuffer.allocate(64)
+    BinaryCodec.write(ObjectV("a" -> TrueV), buffer)
+    buffer.flip()
+    BinaryCodec.read(buffer) shouldBe ObjectV("a" -> TrueV)
+  }
+
+  it should "reject unknown versions" in {
+    val bytes = BinaryCodec.toBytes(NullV)
+    bytes(1) = 42
+    an[IllegalArgumentException] should be thrownBy BinaryCodec.fromBytes(bytes)
+  }
+}
@@ -107,6 +107,23 @@ class DeserializationSpec extends FlatSpec with Matchers {
     withNanos.to[Instant].get should equal (fiveMinutes.plus(1, ChronoUnit.MILLIS).plus(442, ChronoUnit.MICROS).plus(42, ChronoUnit.NANOS))
   }
 
+  it should "parse and format ts and dates as the JDK" in {
+    val random = new scala.util.Random(42)
+
+    for (_ <- 1 to 10000) {
+      val instant = Instant.ofEpochSecond(random.nextInt(Int.MaxValue) * 100L, random.nextInt(1000000000))
+      val date = LocalDate.ofEpochDay(instant.getEpochSecond / 86400)
+
+      TimeV(instant.toString) should equal (TimeV(instant))
+      TimeV(instant).strValue should equal (instant.toString)
+      DateV(date.toString) should equal (DateV(date))
+      DateV(date).strValue should equal (date.toString)
+    }
+
+    TimeV("2019-11-27T16:00:00+01:00") should equal (TimeV(Instant.parse("2019-11-27T15:00:00Z")))
+    an [java.time.format.DateTimeParseException] should be thrownBy TimeV("2019-02-29T00:00:00Z")
+  }
+
   it should "deserialize date" in {
     val toDeserialize = """{"@date":"1970-01-03"}"""
     val parsed = json.readValue(toDeserialize, classOf[Value])
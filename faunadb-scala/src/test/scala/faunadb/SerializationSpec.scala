@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.module.scala.DefaultScalaModule
 import faunadb.query._
 import faunadb.values._
+import java.io.ByteArrayOutputStream
 import java.time.{ Instant, LocalDate }
 import java.time.temporal.ChronoUnit
 import org.scalatest.{ FlatSpec, Matchers }
@@ -369,4 +370,30 @@ class SerializationSpec extends FlatSpec with Matchers {
     val docs = Documents(Collection("foo"))
     json.writeValueAsString(docs) shouldBe "{\"documents\":{\"collection\":\"foo\"}}"
   }
+
+  it should "serialize a prepared query" in {
+    def bound(query: PreparedQuery, arguments: Map[String, Expr]): String = {
+      val out = new ByteArrayOutputStream
+      query.writeTo(out, arguments, json)
+      out.toString("UTF-8")
+    }
+
+    val query = PreparedQuery(
+      If(
+        Exists(Match(Index("users_by_email"), PreparedQuery.Param("email"))),
+        Get(Match(Index("users_by_email"), PreparedQuery.Param("email"))),
+        Create(Collection("users"), Obj("data" -> Obj("email" -> PreparedQuery.Param("email"), "tags" -> Arr(PreparedQuery.Param("tag"), 1))))))
+
+    query.parameters shouldBe Seq("email", "tag")
+
+    bound(query, Predef.Map("email" -> ("john@example.com": Expr), "tag" -> Obj("kind" -> "new"))) shouldBe json.writeValueAsString(
+      If(
+        Exists(Match(Index("users_by_email"), "john@example.com")),
+        Get(Match(Index("users_by_email"), "john@example.com")),
+        Create(Collection("users"), Obj("data" -> Obj("email" -> "john@example.com", "tags" -> Arr(Obj("kind" -> "new"), 1))))))
+
+    an[IllegalArgumentException] should be thrownBy bound(query, Predef.Map("email" -> ("john@example.com": Expr)))
+    an[IllegalArgumentException] should be thrownBy bound(query, Predef.Map("email" -> ("john@example.com": Expr), "tag" -> (1: Expr), "other" -> (2: Expr)))
+    an[IllegalArgumentException] should be thrownBy PreparedQuery.Param("not a name")
+  }
 }